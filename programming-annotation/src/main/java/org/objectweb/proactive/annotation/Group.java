@@ -0,0 +1,61 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+/**
+ * this annotation declares a group of methods in {@link DefineGroups}. Methods join it
+ * with {@link MemberOf}. Compatibility between groups is symmetric.
+ *
+ * @since ProActive 8.4.0
+ */
+@PublicAPI
+public @interface Group {
+    /**
+     *
+     * @return the name of the group
+     */
+    String name();
+
+    /**
+     *
+     * @return true if two requests of methods of this group can be served in parallel
+     */
+    boolean selfCompatible() default false;
+
+    /**
+     *
+     * @return the names of the other groups whose requests can be served in parallel with
+     * requests of this group
+     */
+    String[] compatibleWith() default {};
+}
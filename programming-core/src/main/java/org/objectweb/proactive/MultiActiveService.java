@@ -0,0 +1,231 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.proactive.annotation.DefineGroups;
+import org.objectweb.proactive.annotation.PublicAPI;
+import org.objectweb.proactive.core.body.request.BlockingRequestQueueImpl;
+import org.objectweb.proactive.core.body.request.Request;
+import org.objectweb.proactive.core.body.request.RequestCompatibility;
+import org.objectweb.proactive.core.body.request.RequestFilter;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+
+
+/**
+ * <P>
+ * A Service serving compatible requests in parallel. The groups of compatible methods are
+ * declared on the class of the active object with {@link DefineGroups}. For instance :
+ * </P><P>
+ * <pre>
+ * &#64;DefineGroups({ &#64;Group(name = "read", selfCompatible = true), &#64;Group(name = "write") })
+ * public class Store {
+ *   &#64;MemberOf("read")
+ *   public Value get(Key key) { ... }
+ *
+ *   &#64;MemberOf("write")
+ *   public void put(Key key, Value value) { ... }
+ * }
+ * </pre>
+ * </P><P>
+ * A request is served as soon as it is compatible with the requests being served and with
+ * the older requests still in the queue, on at most a given number of threads. Incompatible
+ * requests are thus still served in FIFO order, the <code>put</code> requests above being
+ * served alone. Active objects whose class declares groups and which do not define their own
+ * activity use {@link #multiActiveServing()} instead of the FIFO policy.
+ * </P>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ * @see RunActive
+ */
+@PublicAPI
+public class MultiActiveService extends Service {
+    private final RequestCompatibility compatibility;
+
+    /** The groups of the requests being served, guarded by the request queue */
+    private final List<String> servedGroups = new ArrayList<String>();
+
+    /**
+     * Creates a new instance of MultiActiveService based on the given body.
+     * @param body the body that helper service is for.
+     * @throws IllegalArgumentException if the class of the active object does not declare groups
+     */
+    public MultiActiveService(Body body) {
+        super(body);
+        this.compatibility = RequestCompatibility.forClass(body.getReifiedObject().getClass());
+        if (this.compatibility == null) {
+            throw new IllegalArgumentException(body.getReifiedObject().getClass().getName() +
+                                               " does not declare groups of methods");
+        }
+    }
+
+    /**
+     * Serves the compatible requests in parallel, on the number of threads given by
+     * {@link DefineGroups#maxThreads()}. This does not return until the body terminates.
+     */
+    public void multiActiveServing() {
+        multiActiveServing(this.compatibility.getMaxThreads());
+    }
+
+    /**
+     * Serves the compatible requests in parallel, on at most maxThreads threads.
+     * This does not return until the body terminates and the requests being served end.
+     * @param maxThreads the maximum number of requests served in parallel
+     */
+    public void multiActiveServing(int maxThreads) {
+        if (!(this.requestQueue instanceof BlockingRequestQueueImpl)) {
+            throw new IllegalStateException("Multi-active serving is not supported by " +
+                                            this.requestQueue.getClass().getName());
+        }
+        BlockingRequestQueueImpl queue = (BlockingRequestQueueImpl) this.requestQueue;
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads,
+                                                             maxThreads,
+                                                             60,
+                                                             TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<Runnable>(),
+                                                             new NamedThreadFactory("Multi-active service of " +
+                                                                                    body.getID(), true));
+        executor.allowCoreThreadTimeOut(true);
+        try {
+            while (body.isActive()) {
+                List<Request> requests;
+                synchronized (queue) {
+                    requests = removeServableRequests(queue, maxThreads);
+                    if (requests.isEmpty()) {
+                        try {
+                            queue.waitForChange(0);
+                        } catch (InterruptedException e) {
+                            if (body.isActive()) {
+                                logger.warn("Interruption message received in " + body.getUrl(), e);
+                            }
+                        }
+                        continue;
+                    }
+                }
+
+                for (Request request : requests) {
+                    executor.execute(new Serve(queue, request));
+                }
+            }
+        } finally {
+            executor.shutdown();
+            awaitServedRequests(executor);
+        }
+    }
+
+    /**
+     * Removes from the queue the requests which can be served now. Must be called with the
+     * monitor of the queue held.
+     */
+    private List<Request> removeServableRequests(BlockingRequestQueueImpl queue, int maxThreads) {
+        final List<Request> requests = new ArrayList<Request>();
+        if (queue.isSuspended() || (this.servedGroups.size() >= maxThreads)) {
+            return requests;
+        }
+
+        // the groups of the requests left in the queue, a younger request cannot overtake them
+        // unless it is compatible with all of them
+        List<String> waitingGroups = new ArrayList<String>();
+        for (Request request : queue.getInternalQueue()) {
+            String group = this.compatibility.getGroup(request);
+            if (isCompatible(group, this.servedGroups) && isCompatible(group, waitingGroups)) {
+                requests.add(request);
+                this.servedGroups.add(group);
+                if (this.servedGroups.size() >= maxThreads) {
+                    break;
+                }
+            } else if (group == null) {
+                // compatible with nothing, no younger request can be served
+                break;
+            } else {
+                waitingGroups.add(group);
+            }
+        }
+
+        for (final Request request : requests) {
+            queue.removeOldest(new RequestFilter() {
+                public boolean acceptRequest(Request r) {
+                    return r == request;
+                }
+            });
+        }
+        return requests;
+    }
+
+    private boolean isCompatible(String group, List<String> groups) {
+        for (String other : groups) {
+            if (!this.compatibility.areCompatible(group, other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void awaitServedRequests(ThreadPoolExecutor executor) {
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class Serve implements Runnable {
+        private final BlockingRequestQueueImpl queue;
+
+        private final Request request;
+
+        Serve(BlockingRequestQueueImpl queue, Request request) {
+            this.queue = queue;
+            this.request = request;
+        }
+
+        public void run() {
+            try {
+                if (body.isActive()) {
+                    body.serve(this.request);
+                }
+            } finally {
+                synchronized (this.queue) {
+                    servedGroups.remove(compatibility.getGroup(this.request));
+                    this.queue.notifyAll();
+                }
+            }
+        }
+    }
+}
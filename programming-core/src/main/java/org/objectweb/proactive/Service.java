@@ -25,9 +25,12 @@
  */
 package org.objectweb.proactive;
 
+import java.util.List;
+
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.objectweb.proactive.core.body.request.BlockingRequestQueue;
+import org.objectweb.proactive.core.body.request.MethodNameRequestFilter;
 import org.objectweb.proactive.core.body.request.Request;
 import org.objectweb.proactive.core.body.request.RequestFilter;
 import org.objectweb.proactive.core.body.request.RequestProcessor;
@@ -586,7 +589,9 @@ public class Service {
             throw new NoSuchMethodError(methodName + " is not defined in " +
                                         this.body.getReifiedObject().getClass().getName());
         }
-        serveAll(new RequestFilterOnMethodName(methodName));
+        for (Request request : requestQueue.removeAll(methodName)) {
+            body.serve(request);
+        }
     }
 
     /**
@@ -625,7 +630,9 @@ public class Service {
             throw new NoSuchMethodError(methodName + " is not defined in " +
                                         this.body.getReifiedObject().getClass().getName());
         }
-        serveAllWithException(new RequestFilterOnMethodName(methodName), ex);
+        for (Request request : requestQueue.removeAll(methodName)) {
+            body.serveWithException(request, ex);
+        }
     }
 
     /**
@@ -667,7 +674,10 @@ public class Service {
             throw new NoSuchMethodError(methodName + " is not defined in " +
                                         this.body.getReifiedObject().getClass().getName());
         }
-        flushingServeYoungest(new RequestFilterOnMethodName(methodName));
+        List<Request> flushed = requestQueue.removeAll(methodName);
+        if (!flushed.isEmpty()) {
+            body.serve(flushed.get(flushed.size() - 1));
+        }
     }
 
     /**
@@ -712,7 +722,10 @@ public class Service {
             throw new NoSuchMethodError(methodName + " is not defined in " +
                                         this.body.getReifiedObject().getClass().getName());
         }
-        flushingServeYoungestWithException(new RequestFilterOnMethodName(methodName), ex);
+        List<Request> flushed = requestQueue.removeAll(methodName);
+        if (!flushed.isEmpty()) {
+            body.serveWithException(flushed.get(flushed.size() - 1), ex);
+        }
     }
 
     /**
@@ -757,7 +770,10 @@ public class Service {
             throw new NoSuchMethodError(methodName + " is not defined in " +
                                         this.body.getReifiedObject().getClass().getName());
         }
-        flushingServeOldest(new RequestFilterOnMethodName(methodName));
+        List<Request> flushed = requestQueue.removeAll(methodName);
+        if (!flushed.isEmpty()) {
+            body.serve(flushed.get(0));
+        }
     }
 
     /**
@@ -802,7 +818,10 @@ public class Service {
             throw new NoSuchMethodError(methodName + " is not defined in " +
                                         this.body.getReifiedObject().getClass().getName());
         }
-        flushingServeOldestWithException(new RequestFilterOnMethodName(methodName), ex);
+        List<Request> flushed = requestQueue.removeAll(methodName);
+        if (!flushed.isEmpty()) {
+            body.serveWithException(flushed.get(0), ex);
+        }
     }
 
     /**
@@ -1294,7 +1313,7 @@ public class Service {
      * @see RequestFilter
      *
      */
-    protected class RequestFilterOnMethodName implements RequestFilter, java.io.Serializable {
+    protected class RequestFilterOnMethodName implements MethodNameRequestFilter, java.io.Serializable {
         private String methodName;
 
         public RequestFilterOnMethodName(String methodName) {
@@ -1304,6 +1323,10 @@ public class Service {
         public boolean acceptRequest(Request request) {
             return methodName.equals(request.getMethodName());
         }
+
+        public String getMethodName() {
+            return methodName;
+        }
     }
 
     /**
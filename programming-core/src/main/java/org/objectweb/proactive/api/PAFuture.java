@@ -310,6 +310,8 @@ public class PAFuture {
      *	<b>Warning</b> : this method must be called by either any active object or by the thread that 
      *  performed the method calls corresponding to the futures in the list.
      *
+     *  Each call scans the whole list, to process many results as they arrive use a
+     *  {@link org.objectweb.proactive.core.body.future.FutureCompletionQueue} instead.
      *
      * @param futures
      *            a list of futures
@@ -34,6 +34,7 @@ import org.objectweb.proactive.annotation.PublicAPI;
 import org.objectweb.proactive.core.body.future.FutureProxy;
 import org.objectweb.proactive.core.group.DispatchMode;
 import org.objectweb.proactive.core.group.Group;
+import org.objectweb.proactive.core.group.MulticastOverlay;
 import org.objectweb.proactive.core.group.ProxyForGroup;
 import org.objectweb.proactive.core.mop.ClassNotReifiableException;
 import org.objectweb.proactive.core.mop.ConstructionOfProxyObjectFailedException;
@@ -1191,6 +1192,23 @@ public class PAGroup {
         }
     }
 
+    /**
+     * Relays the broadcasts on a typed group along a tree: the caller sends a call to the roots
+     * of the tree only, and the runtime of each member forwards it to its children. The
+     * latency of a broadcast then grows as the depth of the tree instead of the size of the
+     * group. Only broadcasts to groups of active objects are relayed.
+     * @param ogroup the typed group who will change his semantic of communication.
+     * @param overlay the tree, for instance {@link org.objectweb.proactive.core.group.topology.KaryTreeOverlay},
+     * <code>null</code> to send the calls directly to every member.
+     */
+    public static void setMulticastOverlay(Object ogroup, MulticastOverlay overlay) {
+        ProxyForGroup<?> proxytmp = PAGroup.findProxyForGroup(ogroup);
+        if (proxytmp == null) {
+            throw new IllegalArgumentException("argument " + ogroup.getClass().getName() + " is not a group");
+        }
+        proxytmp.setMulticastOverlay(overlay);
+    }
+
     /**
      * Checks if the object <code>o</code> is an object representing a Group (future or not).
      * @param o the Object to check.
@@ -46,6 +46,7 @@ import org.objectweb.proactive.core.body.exceptions.BodyTerminatedReplyException
 import org.objectweb.proactive.core.body.exceptions.BodyTerminatedRequestException;
 import org.objectweb.proactive.core.body.future.Future;
 import org.objectweb.proactive.core.body.future.FuturePool;
+import org.objectweb.proactive.core.body.latency.LatencyRecorder;
 import org.objectweb.proactive.core.body.reply.Reply;
 import org.objectweb.proactive.core.body.request.BlockingRequestQueue;
 import org.objectweb.proactive.core.body.request.Request;
@@ -113,6 +114,9 @@ public abstract class AbstractBody extends AbstractUniversalBody implements Body
 
     protected boolean isProActiveInternalObject = false;
 
+    /** The latencies of the served requests, <code>null</code> if they are not recorded */
+    protected LatencyRecorder latencyRecorder;
+
     // MESSAGE-TAGS Factory
     protected MessageTagsFactory messageTagsFactory;
 
@@ -175,6 +179,16 @@ public abstract class AbstractBody extends AbstractUniversalBody implements Body
         return this.mbean;
     }
 
+    /**
+     * Returns the latencies of the requests served by this body.
+     *
+     * @return the latencies, or <code>null</code> if they are not recorded
+     * @see CentralPAPropertyRepository#PA_LATENCY_HISTOGRAMS
+     */
+    public LatencyRecorder getLatencyRecorder() {
+        return this.latencyRecorder;
+    }
+
     public String getReifiedClassName() {
         return this.localBodyStrategy.getReifiedObject().getClass().getName();
     }
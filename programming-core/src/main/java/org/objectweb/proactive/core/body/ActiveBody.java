@@ -41,13 +41,16 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.*;
+import org.objectweb.proactive.annotation.DefineGroups;
 import org.objectweb.proactive.core.ProActiveRuntimeException;
 import org.objectweb.proactive.core.body.future.MethodCallResult;
 import org.objectweb.proactive.core.body.reply.ReplyImpl;
 import org.objectweb.proactive.core.body.request.BlockingRequestQueue;
+import org.objectweb.proactive.core.body.request.BlockingRequestQueueImpl;
 import org.objectweb.proactive.core.body.request.Request;
 import org.objectweb.proactive.core.mop.ConstructorCall;
 import org.objectweb.proactive.core.mop.ConstructorCallExecutionFailedException;
@@ -77,6 +80,18 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
 
     private Throwable lastErrorCaught = null;
 
+    /** The scheduler running the activity of this body, null if the body has its own thread */
+    private transient BodyScheduler scheduler;
+
+    /** Whether this body is queued in or run by its scheduler */
+    private transient AtomicBoolean scheduled;
+
+    /** Guards carrier */
+    private transient Object carrierLock;
+
+    /** The thread running the activity of this body when it is scheduled, null between the turns */
+    private transient Thread carrier;
+
     //
     // -- CONSTRUCTORS -----------------------------------------------
     //
@@ -110,6 +125,8 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
             this.runActive = (RunActive) activity;
         } else if (reifiedObject instanceof RunActive) {
             this.runActive = (RunActive) reifiedObject;
+        } else if (reifiedObject.getClass().isAnnotationPresent(DefineGroups.class)) {
+            this.runActive = new MultiActiveRunActive();
         } else {
             this.runActive = new FIFORunActive();
         }
@@ -145,6 +162,13 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
             this.notify();
         }
 
+        live();
+    }
+
+    /**
+     * Runs the activity of the body until its end, in the current thread
+     */
+    private void live() {
         boolean callTerminate = false;
 
         // run the activity of the body
@@ -191,19 +215,139 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
             logger.error("Exception occurred in runActivity method of body " + toString() +
                          ". Now terminating the body", t);
         } finally {
-            // execute the end of activity
-            if (this.endActive != null) {
-                this.endActive.endActivity(this);
+            endActivity(callTerminate);
+        }
+    }
+
+    private void endActivity(boolean callTerminate) {
+        // execute the end of activity
+        if (this.endActive != null) {
+            this.endActive.endActivity(this);
+        }
+
+        if (callTerminate) {
+            terminate();
+        } else if (isActive()) {
+            activityStopped(!this.getFuturePool().remainingAC());
+        }
+    }
+
+    /**
+     * Runs a turn of the activity of a scheduled body: serves at most quantum requests, then
+     * queues the body again if it has more requests to serve.
+     */
+    void runTurn(int quantum) {
+        synchronized (this.carrierLock) {
+            this.carrier = Thread.currentThread();
+        }
+        LocalBodyStore.getInstance().pushContext(new Context(this, null));
+
+        boolean callTerminate = false;
+        boolean finished = false;
+        boolean detach = false;
+        boolean yield = false;
+        try {
+            // execute the initialization if needed. Only once
+            if ((this.initActive != null) && isActive()) {
+                try {
+                    this.initActive.initActivity(this);
+                } catch (Throwable t) {
+                    initActiveExecutionFailed = true;
+                    throw t;
+                }
+
+                this.initActive = null; // we won't do it again
+            }
+
+            for (int served = 0; isActive(); served++) {
+                if (served == quantum) {
+                    yield = true;
+                    break;
+                }
+
+                /* We may race with a termination request in immediate service */
+                BlockingRequestQueueImpl queue;
+                try {
+                    queue = (BlockingRequestQueueImpl) this.localBodyStrategy.getRequestQueue();
+                } catch (ProActiveRuntimeException pre) {
+                    break;
+                }
+
+                // barriers block the service, it needs a thread of its own
+                if (queue.isSuspended() || !getProActiveSPMDGroupManager().isCurrentBarriersEmpty()) {
+                    detach = true;
+                    break;
+                }
+
+                Request request = queue.removeOldest();
+                if (request == null) {
+                    break;
+                }
+                serve(request);
+            }
+            finished = !isActive();
+        } catch (Throwable t) {
+            lastErrorCaught = t;
+            callTerminate = true;
+            finished = true;
+            logger.error("Exception occurred in runActivity method of body " + toString() +
+                         ". Now terminating the body", t);
+        } finally {
+            if (finished) {
+                endActivity(callTerminate);
             }
+            LocalBodyStore.getInstance().popContext();
+            synchronized (this.carrierLock) {
+                this.carrier = null;
+            }
+        }
+
+        if (finished) {
+            return;
+        }
 
-            if (callTerminate) {
-                terminate();
-            } else if (isActive()) {
-                activityStopped(!this.getFuturePool().remainingAC());
+        if (detach) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    synchronized (carrierLock) {
+                        carrier = Thread.currentThread();
+                    }
+                    LocalBodyStore.getInstance().pushContext(new Context(ActiveBody.this, null));
+                    live();
+                }
+            }, shortClassName(getName()) + " on " + getNodeURL());
+            t.start();
+        } else if (yield) {
+            this.scheduler.execute(this);
+        } else {
+            this.scheduled.set(false);
+            // a request may have been received before the body was marked as idle
+            if (hasRequestToServe()) {
+                wakeUp();
             }
         }
     }
 
+    private boolean hasRequestToServe() {
+        if (!isActive()) {
+            return true;
+        }
+        try {
+            return !this.localBodyStrategy.getRequestQueue().isEmpty();
+        } catch (ProActiveRuntimeException pre) {
+            return true;
+        }
+    }
+
+    /**
+     * Queues this scheduled body in its scheduler unless it is already queued or running
+     */
+    private void wakeUp() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.scheduler.execute(this);
+        }
+    }
+
     @Override
     public void terminate() {
         // Calls terminate for stopping the activity of the current active object
@@ -214,6 +358,11 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
 
         // for fixing PALIGHT-73
         notifyPendingCallers(lastErrorCaught);
+
+        // an idle scheduled body has to run the end of its activity
+        if (this.scheduler != null) {
+            wakeUp();
+        }
     }
 
     private void notifyPendingCallers(Throwable localErrorCatched) {
@@ -261,14 +410,40 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
     // -- PROTECTED METHODS -----------------------------------------------
     //
 
+    @Override
+    protected void internalReceiveRequest(Request request) throws IOException {
+        super.internalReceiveRequest(request);
+        if (this.scheduler != null) {
+            wakeUp();
+        }
+    }
+
     /**
-     * Creates the active thread and start it using this runnable body.
+     * Creates the active thread and start it using this runnable body. If a body scheduler is
+     * configured and the body serves its requests in FIFO order, the body is run by the scheduler
+     * instead.
      */
     public void startBody() {
         if (logger.isDebugEnabled()) {
             logger.debug("Starting Body");
         }
 
+        BodyScheduler bodyScheduler = BodyScheduler.getInstance();
+        if ((bodyScheduler != null) && (this.runActive instanceof FIFORunActive) &&
+            (this.localBodyStrategy.getRequestQueue() instanceof BlockingRequestQueueImpl)) {
+            this.carrierLock = new Object();
+            this.scheduled = new AtomicBoolean(true);
+            this.scheduler = bodyScheduler;
+
+            // registers this body as the active thread would do, without keeping its context
+            // in the current thread
+            activityStarted();
+            LocalBodyStore.getInstance().popContext();
+
+            bodyScheduler.execute(this);
+            return;
+        }
+
         Thread t = new Thread(this, shortClassName(getName()) + " on " + getNodeURL());
 
         // Wait for the registration of this Body inside the LocalBodyStore
@@ -295,6 +470,25 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
         this.runActive = null;
     }
 
+    /**
+     * Interrupts the thread serving this body. When the body is run by a scheduler, this is the
+     * carrier thread currently running it, if any.
+     */
+    @Override
+    public void interruptService() {
+        if (this.scheduler == null) {
+            super.interruptService();
+            return;
+        }
+
+        // the carrier is only interrupted while it runs this body
+        synchronized (this.carrierLock) {
+            if (this.carrier != null) {
+                this.carrier.interrupt();
+            }
+        }
+    }
+
     //
     // -- PRIVATE METHODS -----------------------------------------------
     //
@@ -330,6 +524,12 @@ public class ActiveBody extends BodyImpl implements Runnable, java.io.Serializab
         }
     }
 
+    private class MultiActiveRunActive implements RunActive, java.io.Serializable {
+        public void runActivity(Body body) {
+            new MultiActiveService(body).multiActiveServing();
+        }
+    }
+
     /*
      * @see org.objectweb.proactive.core.body.LocalBodyStrategy#getNextSequenceID()
      */
@@ -46,6 +46,8 @@ import org.objectweb.proactive.core.body.exceptions.InactiveBodyException;
 import org.objectweb.proactive.core.body.future.Future;
 import org.objectweb.proactive.core.body.future.FuturePool;
 import org.objectweb.proactive.core.body.future.MethodCallResult;
+import org.objectweb.proactive.core.body.latency.LatencyRecorder;
+import org.objectweb.proactive.core.body.latency.MethodLatencies;
 import org.objectweb.proactive.core.body.reply.Reply;
 import org.objectweb.proactive.core.body.reply.ReplyImpl;
 import org.objectweb.proactive.core.body.reply.ReplyReceiver;
@@ -153,6 +155,10 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
                                                      factory.newRequestFactory()));
         this.localBodyStrategy.getFuturePool().setOwnerBody(this);
 
+        if (!super.isProActiveInternalObject && CentralPAPropertyRepository.PA_LATENCY_HISTOGRAMS.isTrue()) {
+            super.latencyRecorder = new LatencyRecorder();
+        }
+
         // JMX registration
         if (!super.isProActiveInternalObject) {
             MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
@@ -188,8 +194,12 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
      */
     @Override
     protected void internalReceiveRequest(Request request) throws java.io.IOException {
+        if (this.latencyRecorder != null) {
+            request.setReceptionTime(System.nanoTime());
+        }
+
         // JMX Notification
-        if (!isProActiveInternalObject && (this.mbean != null)) {
+        if (!isProActiveInternalObject && (this.mbean != null) && this.mbean.hasNotificationListeners()) {
             String tagNotification = createTagNotification(request.getTags());
             RequestNotificationData requestNotificationData = new RequestNotificationData(request.getSourceBodyID(),
                                                                                           request.getSenderNodeURL(),
@@ -219,7 +229,8 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
     @Override
     protected void internalReceiveReply(Reply reply) throws java.io.IOException {
         // JMX Notification
-        if (!isProActiveInternalObject && (this.mbean != null) && reply.getResult().getException() == null) {
+        if (!isProActiveInternalObject && (this.mbean != null) && this.mbean.hasNotificationListeners() &&
+            reply.getResult().getException() == null) {
             String tagNotification = createTagNotification(reply.getTags());
             RequestNotificationData requestNotificationData = new RequestNotificationData(BodyImpl.this.bodyID,
                                                                                           BodyImpl.this.getNodeURL(),
@@ -512,7 +523,7 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
             }
 
             // JMX Notification
-            if (!isProActiveInternalObject && (mbean != null)) {
+            if (!isProActiveInternalObject && (mbean != null) && mbean.hasNotificationListeners()) {
                 String tagNotification = createTagNotification(request.getTags());
                 RequestNotificationData data = new RequestNotificationData(request.getSourceBodyID(),
                                                                            request.getSenderNodeURL(),
@@ -526,6 +537,16 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
             }
 
             // END JMX Notification
+            MethodLatencies latencies = null;
+            long servingTime = 0;
+            if (latencyRecorder != null) {
+                latencies = latencyRecorder.getMethodLatencies(request.getMethodName());
+                servingTime = System.nanoTime();
+                if (request.getReceptionTime() != 0) {
+                    latencies.getQueueWait().record(servingTime - request.getReceptionTime());
+                }
+            }
+
             Reply reply = null;
 
             // If the request is not a "terminate Active Object" request,
@@ -559,6 +580,9 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
 
                 } else {
                     reply = request.serve(BodyImpl.this);
+                    if (latencies != null) {
+                        latencies.getService().record(System.nanoTime() - servingTime);
+                    }
                 }
             }
 
@@ -569,7 +593,7 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
                 }
 
                 // JMX Notification
-                if (!isProActiveInternalObject && (mbean != null)) {
+                if (!isProActiveInternalObject && (mbean != null) && mbean.hasNotificationListeners()) {
                     String tagNotification = createTagNotification(request.getTags());
                     RequestNotificationData data = new RequestNotificationData(request.getSourceBodyID(),
                                                                                request.getSenderNodeURL(),
@@ -587,7 +611,8 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
             }
 
             // JMX Notification
-            if (!isProActiveInternalObject && (mbean != null) && reply.getResult().getException() == null) {
+            if (!isProActiveInternalObject && (mbean != null) && mbean.hasNotificationListeners() &&
+                reply.getResult().getException() == null) {
                 String tagNotification = createTagNotification(request.getTags());
                 RequestNotificationData data = new RequestNotificationData(request.getSourceBodyID(),
                                                                            request.getSenderNodeURL(),
@@ -634,6 +659,7 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
             // as result
             // Useful if the exception is due to the content of the result
             // (e.g. InvalidClassException)
+            long sendingTime = (latencies != null) ? System.nanoTime() : 0;
             try {
                 reply.send(request.getSender());
             } catch (Throwable e1) {
@@ -658,6 +684,9 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
                                                     "/" + request.getSender(), e1);
                 }
             }
+            if (latencies != null) {
+                latencies.getReplySend().record(System.nanoTime() - sendingTime);
+            }
 
             this.getFuturePool().removeDestinations();
 
@@ -713,7 +742,7 @@ public abstract class BodyImpl extends AbstractBody implements java.io.Serializa
             // TODO Write this section, after the commit of Arnaud
             // TODO Send a notification only if the destination doesn't
             // implement ProActiveInternalObject
-            if (!isProActiveInternalObject && (mbean != null)) {
+            if (!isProActiveInternalObject && (mbean != null) && mbean.hasNotificationListeners()) {
                 ServerConnector serverConnector = ProActiveRuntimeImpl.getProActiveRuntime().getJMXServerConnector();
 
                 // If the connector server is not active the connectorID can be
@@ -0,0 +1,260 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+
+
+/**
+ * Runs the activity of the active objects serving their requests in FIFO order on a pool of
+ * carrier threads shared by the runtime, instead of giving a thread to each active object.
+ * <p>
+ * An active object with requests to serve is queued; a carrier serves at most
+ * {@link CentralPAPropertyRepository#PA_BODY_SCHEDULER_QUANTUM} requests of it before queuing it
+ * again, so that a busy active object does not starve the others. An idle active object does not
+ * hold any thread.
+ * <p>
+ * A carrier blocked in the code of an active object stays with it, and another carrier is started
+ * to keep the number of available carriers: the blocking is either signaled, see
+ * {@link #beginBlocking()}, or detected when a carrier runs the same turn for more than
+ * {@link #STALL_THRESHOLD} ms. Carriers in excess stop after being idle for {@link #KEEP_ALIVE} ms.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ * @see CentralPAPropertyRepository#PA_BODY_SCHEDULER_THREADS
+ */
+public class BodyScheduler {
+    static final Logger logger = ProActiveLogger.getLogger(Loggers.BODY);
+
+    /** Duration of a turn, in ms, after which its carrier is considered as blocked */
+    static final long STALL_THRESHOLD = 100;
+
+    /** Idle time, in ms, after which a carrier in excess stops */
+    static final long KEEP_ALIVE = 5000;
+
+    private static BodyScheduler instance;
+
+    /** Number of carriers available to run the turns */
+    private final int parallelism;
+
+    private final int quantum;
+
+    /** The active objects waiting for a carrier */
+    private final LinkedBlockingQueue<ActiveBody> runQueue = new LinkedBlockingQueue<ActiveBody>();
+
+    private final Set<Carrier> carriers = Collections.newSetFromMap(new ConcurrentHashMap<Carrier, Boolean>());
+
+    private final AtomicInteger carrierNumber = new AtomicInteger();
+
+    /** Number of running carriers, guarded by this */
+    private int carrierCount;
+
+    /** Number of carriers blocked in the code of an active object, guarded by this */
+    private int blockedCount;
+
+    BodyScheduler(int parallelism, int quantum) {
+        this.parallelism = parallelism;
+        this.quantum = quantum;
+
+        synchronized (this) {
+            for (int i = 0; i < parallelism; i++) {
+                startCarrier();
+            }
+        }
+
+        Thread monitor = new Thread(new Runnable() {
+            public void run() {
+                monitor();
+            }
+        }, "ProActive body scheduler monitor");
+        monitor.setDaemon(true);
+        monitor.start();
+    }
+
+    /**
+     * Returns the scheduler of this runtime, or null if the active objects have their own thread
+     */
+    static synchronized BodyScheduler getInstance() {
+        int threads = CentralPAPropertyRepository.PA_BODY_SCHEDULER_THREADS.getValue();
+        if (threads <= 0) {
+            return null;
+        }
+        if (instance == null) {
+            instance = new BodyScheduler(threads, Math.max(1,
+                                                           CentralPAPropertyRepository.PA_BODY_SCHEDULER_QUANTUM.getValue()));
+        }
+        return instance;
+    }
+
+    /**
+     * Signals that the current thread is about to block. If it is a carrier, another carrier can run
+     * the queued active objects in the meantime.
+     *
+     * @return the value to give to {@link #endBlocking(boolean)} once the thread is not blocked anymore
+     */
+    public static boolean beginBlocking() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof Carrier) {
+            Carrier carrier = (Carrier) thread;
+            return carrier.getScheduler().blocked(carrier);
+        }
+        return false;
+    }
+
+    /**
+     * Signals that the current thread, which called {@link #beginBlocking()}, is not blocked anymore
+     *
+     * @param blocking the value returned by {@link #beginBlocking()}
+     */
+    public static void endBlocking(boolean blocking) {
+        if (blocking) {
+            Carrier carrier = (Carrier) Thread.currentThread();
+            carrier.getScheduler().unblocked(carrier);
+        }
+    }
+
+    /**
+     * Queues an active object to run a turn of its activity on a carrier
+     */
+    void execute(ActiveBody body) {
+        this.runQueue.offer(body);
+    }
+
+    private void startCarrier() {
+        this.carrierCount++;
+        Carrier carrier = new Carrier("ProActive body scheduler carrier " + this.carrierNumber.incrementAndGet());
+        this.carriers.add(carrier);
+        carrier.start();
+    }
+
+    private synchronized boolean blocked(Carrier carrier) {
+        if (carrier.blocked) {
+            return false;
+        }
+        carrier.blocked = true;
+        this.blockedCount++;
+        if ((this.carrierCount - this.blockedCount) < this.parallelism) {
+            startCarrier();
+        }
+        return true;
+    }
+
+    private synchronized void unblocked(Carrier carrier) {
+        if (carrier.blocked) {
+            carrier.blocked = false;
+            this.blockedCount--;
+        }
+    }
+
+    private synchronized boolean retire(Carrier carrier) {
+        if ((this.carrierCount - this.blockedCount) > this.parallelism) {
+            this.carrierCount--;
+            this.carriers.remove(carrier);
+            return true;
+        }
+        return false;
+    }
+
+    private void monitor() {
+        long threshold = TimeUnit.MILLISECONDS.toNanos(STALL_THRESHOLD);
+        for (;;) {
+            try {
+                Thread.sleep(STALL_THRESHOLD / 2);
+            } catch (InterruptedException e) {
+                logger.debug(e);
+            }
+
+            long now = System.nanoTime();
+            for (Carrier carrier : this.carriers) {
+                long turnStart = carrier.turnStart;
+                if ((turnStart != 0) && ((now - turnStart) > threshold)) {
+                    blocked(carrier);
+                }
+            }
+        }
+    }
+
+    /**
+     * A thread running the turns of the queued active objects
+     */
+    final class Carrier extends Thread {
+        /** Start time of the current turn, 0 between the turns */
+        volatile long turnStart;
+
+        /** Whether this carrier is counted as blocked, guarded by the scheduler */
+        boolean blocked;
+
+        Carrier(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        BodyScheduler getScheduler() {
+            return BodyScheduler.this;
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                ActiveBody body;
+                try {
+                    body = runQueue.poll(KEEP_ALIVE, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+
+                if (body == null) {
+                    if (retire(this)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                this.turnStart = System.nanoTime() | 1;
+                try {
+                    body.runTurn(quantum);
+                } catch (Throwable t) {
+                    logger.error("Exception occurred in the turn of body " + body, t);
+                } finally {
+                    this.turnStart = 0;
+                    unblocked(this);
+                    // an interruption aimed at the body must not disturb the next turns
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+}
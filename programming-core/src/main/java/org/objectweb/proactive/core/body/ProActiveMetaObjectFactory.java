@@ -30,6 +30,7 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.body.reply.ReplyReceiver;
@@ -42,12 +43,15 @@ import org.objectweb.proactive.core.body.request.RequestReceiver;
 import org.objectweb.proactive.core.body.request.RequestReceiverFactory;
 import org.objectweb.proactive.core.body.tags.MessageTags;
 import org.objectweb.proactive.core.body.tags.MessageTagsFactory;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.group.spmd.ProActiveSPMDGroupManager;
 import org.objectweb.proactive.core.group.spmd.ProActiveSPMDGroupManagerFactory;
 import org.objectweb.proactive.core.mop.MethodCall;
 import org.objectweb.proactive.core.util.ThreadStore;
 import org.objectweb.proactive.core.util.ThreadStoreFactory;
 import org.objectweb.proactive.core.util.converter.MakeDeepCopy;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
 
 
 // TODO JAVADOC SHOULD BE REWRITTEN
@@ -95,6 +99,8 @@ public class ProActiveMetaObjectFactory implements MetaObjectFactory, java.io.Se
     //
     // -- PRIVATE MEMBERS -----------------------------------------------
     //
+    private static final Logger logger = ProActiveLogger.getLogger(Loggers.BODY);
+
     // private static final MetaObjectFactory instance = new ProActiveMetaObjectFactory();
     private static MetaObjectFactory instance = new ProActiveMetaObjectFactory();
 
@@ -255,7 +261,17 @@ public class ProActiveMetaObjectFactory implements MetaObjectFactory, java.io.Se
     // end inner class RequestReceiverFactoryImpl
     protected class RequestQueueFactoryImpl implements RequestQueueFactory, java.io.Serializable {
         public BlockingRequestQueue newRequestQueue(UniqueID ownerID) {
-            return new org.objectweb.proactive.core.body.request.BlockingRequestQueueImpl(ownerID);
+            String implementation = CentralPAPropertyRepository.PA_BODY_REQUEST_QUEUE.getValue();
+            switch (implementation.trim()) {
+                case "lockfree":
+                    return new org.objectweb.proactive.core.body.request.LockFreeRequestQueueImpl(ownerID);
+                case "blocking":
+                    return new org.objectweb.proactive.core.body.request.BlockingRequestQueueImpl(ownerID);
+                default:
+                    logger.warn("Unrecognized request queue implementation : " + implementation +
+                                " revert to default");
+                    return new org.objectweb.proactive.core.body.request.BlockingRequestQueueImpl(ownerID);
+            }
         }
     }
 
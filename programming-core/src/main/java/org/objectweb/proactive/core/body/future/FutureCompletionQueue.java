@@ -0,0 +1,194 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.future;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.annotation.PublicAPI;
+import org.objectweb.proactive.core.ProActiveTimeoutException;
+import org.objectweb.proactive.core.mop.MOP;
+import org.objectweb.proactive.core.mop.StubObject;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.utils.TimeoutAccounter;
+
+
+/**
+ * Delivers futures in the order in which they are updated.
+ * <p>
+ * Futures added to the queue are handed back by {@link #take()} or {@link #poll()} once they are
+ * available, each one exactly once, in the order their values arrived. The queue is fed by the
+ * futures themselves when they receive their reply, so retrieving a result does not depend on
+ * the number of futures still awaited, as opposed to {@link org.objectweb.proactive.api.PAFuture#waitForAny(java.util.List)}
+ * which scans the whole list. A typical master/worker loop is:
+ * <pre>
+ * FutureCompletionQueue&lt;Result&gt; results = new FutureCompletionQueue&lt;Result&gt;();
+ * for (Task task : tasks) {
+ *     results.add(worker.compute(task));
+ * }
+ * while (!results.isEmpty()) {
+ *     Result result = results.take();
+ *     ...
+ * }
+ * </pre>
+ * Objects which are not awaited futures when added are available right away.
+ *
+ * @param <T> the type of the futures
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+@PublicAPI
+public class FutureCompletionQueue<T> {
+    static final Logger logger = ProActiveLogger.getLogger(Loggers.CORE);
+
+    /** Futures not updated yet */
+    private final Map<FutureProxy, T> awaited;
+
+    /** Futures updated but not taken yet, in arrival order */
+    private final Queue<T> available;
+
+    public FutureCompletionQueue() {
+        this.awaited = new IdentityHashMap<FutureProxy, T>();
+        this.available = new ArrayDeque<T>();
+    }
+
+    /**
+     * Adds a future to this queue. It will be returned by {@link #take()} or {@link #poll()}
+     * once updated. Adding a future which is already awaited in this queue has no effect.
+     *
+     * @param future a future, or any other object which is then immediately available
+     */
+    public void add(T future) {
+        FutureProxy fp = getFutureProxy(future);
+        if (fp == null) {
+            synchronized (this) {
+                this.available.add(future);
+                this.notifyAll();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            if (this.awaited.containsKey(fp)) {
+                return;
+            }
+            this.awaited.put(fp, future);
+        }
+        // Not holding the lock of this queue, the future calls futureUpdated() under its own lock
+        fp.addCompletionQueue(this);
+        FutureMonitoring.monitorFutureProxy(fp);
+    }
+
+    /**
+     * Returns the next updated future, waiting for it if necessary.
+     *
+     * @return the first future updated and not taken yet
+     * @throws IllegalStateException if this queue is empty
+     */
+    public T take() {
+        try {
+            return take(0);
+        } catch (ProActiveTimeoutException e) {
+            // Cannot happen, no timeout
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the next updated future, waiting for it until the timeout expires.
+     *
+     * @param timeout time to wait in ms, 0 to wait forever
+     * @return the first future updated and not taken yet
+     * @throws ProActiveTimeoutException if the timeout expires
+     * @throws IllegalStateException if this queue is empty
+     */
+    public synchronized T take(long timeout) throws ProActiveTimeoutException {
+        TimeoutAccounter time = TimeoutAccounter.getAccounter(timeout);
+        while (this.available.isEmpty()) {
+            if (this.awaited.isEmpty()) {
+                throw new IllegalStateException("No future to wait for in this completion queue");
+            }
+            if (time.isTimeoutElapsed()) {
+                throw new ProActiveTimeoutException("Timeout expired while waiting for a future update");
+            }
+            try {
+                this.wait(time.getRemainingTimeout());
+            } catch (InterruptedException e) {
+                logger.debug(e);
+            }
+        }
+        return this.available.poll();
+    }
+
+    /**
+     * Returns the next updated future without waiting.
+     *
+     * @return the first future updated and not taken yet, null if none
+     */
+    public synchronized T poll() {
+        return this.available.poll();
+    }
+
+    /**
+     * @return the number of futures added to this queue and not taken yet
+     */
+    public synchronized int size() {
+        return this.awaited.size() + this.available.size();
+    }
+
+    /**
+     * @return true if all the futures added to this queue have been taken
+     */
+    public synchronized boolean isEmpty() {
+        return this.awaited.isEmpty() && this.available.isEmpty();
+    }
+
+    /**
+     * Called by a future of this queue when it receives its value
+     */
+    synchronized void futureUpdated(FutureProxy fp) {
+        T future = this.awaited.remove(fp);
+        if (future != null) {
+            this.available.add(future);
+            this.notifyAll();
+        }
+    }
+
+    private static FutureProxy getFutureProxy(Object future) {
+        if (MOP.isReifiedObject(future)) {
+            Object proxy = ((StubObject) future).getProxy();
+            if (proxy instanceof FutureProxy) {
+                return (FutureProxy) proxy;
+            }
+        }
+        return null;
+    }
+}
@@ -25,26 +25,48 @@
  */
 package org.objectweb.proactive.core.body.future;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.ProActiveRuntimeException;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.body.UniversalBody;
 import org.objectweb.proactive.core.body.exceptions.FutureMonitoringPingFailureException;
+import org.objectweb.proactive.core.body.exceptions.SendRequestCommunicationException;
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.util.ActiveObjectLocationInfo;
 import org.objectweb.proactive.core.util.HeartbeatResponse;
 import org.objectweb.proactive.core.util.log.Loggers;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 
 
+/**
+ * Monitors the updater bodies of the awaited futures.
+ * <p>
+ * Every TTM, the monitored bodies are grouped by runtime and each runtime is handed to a
+ * bounded pool of threads which pings all its bodies. A body is thus pinged about once every
+ * TTM whatever the number of monitored bodies. When a ping fails because the runtime cannot
+ * be reached, the other bodies of this runtime are considered as failed without waiting for
+ * their own ping to fail.
+ */
 public class FutureMonitoring implements Runnable {
 
-    /** Ping one body every 21s */
+    /** Ping every monitored body every 21s */
     private static int TTM = 21000;
 
     /**
@@ -55,6 +77,19 @@ public class FutureMonitoring implements Runnable {
 
     private static final ConcurrentHashMap<UniqueID, String> nodeUrls = new ConcurrentHashMap<UniqueID, String>();
 
+    /** Runtimes whose previous ping is not finished yet, they are skipped until it is */
+    private static final Set<String> runtimesBeingPinged = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /** Pings the runtimes in parallel */
+    private static ExecutorService pingExecutor;
+
+    private static final AtomicLong pingCount = new AtomicLong();
+
+    private static final AtomicLong pingFailureCount = new AtomicLong();
+
+    /** Sum of the ping latencies, in nanoseconds */
+    private static final AtomicLong pingLatency = new AtomicLong();
+
     static final Logger logger = ProActiveLogger.getLogger(Loggers.CORE);
     static {
 
@@ -71,6 +106,14 @@ public class FutureMonitoring implements Runnable {
         }
 
         if (TTM > 0) {
+            int nbThreads = CentralPAPropertyRepository.PA_FUTUREMONITORING_THREADS.getValue();
+            if (nbThreads <= 0) {
+                logger.error(CentralPAPropertyRepository.PA_FUTUREMONITORING_THREADS.getName() +
+                             " must be strictly positive. This value is ignored");
+                nbThreads = CentralPAPropertyRepository.PA_FUTUREMONITORING_THREADS.getDefaultValue();
+            }
+            pingExecutor = Executors.newFixedThreadPool(nbThreads,
+                                                        new NamedThreadFactory("Monitoring the Futures - ping", true));
             Thread t = new Thread(new FutureMonitoring(), "Monitoring the Futures");
             t.setDaemon(true);
             t.start();
@@ -80,93 +123,233 @@ public class FutureMonitoring implements Runnable {
     }
 
     /** To avoid copy-pasting */
-    private static void monitoringDelay() {
+    private static void monitoringDelay(long delay) {
+        if (delay <= 0) {
+            return;
+        }
         try {
-            Thread.sleep(TTM);
+            Thread.sleep(delay);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * @return true iff a body has been pinged
+     * Pings the updater body of one of the awaited futures of the given body
+     *
+     * @return the state of the pinged body, null if nobody had to be pinged
+     * @throws Exception if the body could not be pinged
      */
-    private static boolean pingBody(UniqueID bodyId) {
-        boolean pinged = false;
-        FutureMonitoringPingFailureException bodyException = null;
+    private static Integer pingBody(UniqueID bodyId) throws Exception {
         Collection<FutureProxy> futures = futuresToMonitor.get(bodyId);
-        String nodeUrl = nodeUrls.get(bodyId);
         if (futures == null) {
 
             /*
              * By the time we got to iterate over these futures, they have all
              * been updated, so the body entry was removed.
              */
-            return false;
+            return null;
         }
 
+        UniversalBody body = null;
         for (FutureProxy fp : futures) {
-            if (!pinged) {
+            synchronized (fp) {
+                if (fp.isAwaited()) {
+                    body = fp.getUpdater();
+                }
+            }
+            if (body != null) {
+                break;
+            }
+        }
+        if (body == null) {
+            return null;
+        }
 
-                /* Not yet pinged somebody */
-                UniversalBody body = null;
+        long start = System.nanoTime();
+        try {
+            return (Integer) body.receiveHeartbeat();
+        } finally {
+            pingLatency.addAndGet(System.nanoTime() - start);
+            pingCount.incrementAndGet();
+        }
+    }
 
-                synchronized (fp) {
-                    if (fp.isAwaited()) {
-                        body = fp.getUpdater();
-                    }
+    /**
+     * Ping failure, update all awaited futures on this body with the exception
+     */
+    private static void failFutures(UniqueID bodyId, Exception e) {
+        Collection<FutureProxy> futures = futuresToMonitor.get(bodyId);
+        if (futures == null) {
+            return;
+        }
+        pingFailureCount.incrementAndGet();
+        FutureMonitoringPingFailureException bodyException = new FutureMonitoringPingFailureException(bodyId,
+                                                                                                      nodeUrls.get(bodyId),
+                                                                                                      e);
+        for (FutureProxy fp : futures) {
+            synchronized (fp) {
+                if (fp.isAwaited()) {
+                    fp.receiveReply(new MethodCallResult(null, bodyException));
                 }
-                if (body != null) {
-                    /* OK, Found somebody to ping */
-                    pinged = true;
+            }
+        }
+    }
+
+    /**
+     * Pings all the monitored bodies of a runtime. Once the runtime cannot be reached, the
+     * remaining bodies are failed without being pinged.
+     */
+    private static class RuntimePing implements Runnable {
+        private final String runtime;
+
+        private final List<UniqueID> bodyIds;
+
+        RuntimePing(String runtime, List<UniqueID> bodyIds) {
+            this.runtime = runtime;
+            this.bodyIds = bodyIds;
+        }
+
+        public void run() {
+            try {
+                Exception runtimeFailure = null;
+                for (UniqueID bodyId : bodyIds) {
+                    if (runtimeFailure != null) {
+                        /* The runtime cannot be reached, no need to wait for another timeout */
+                        failFutures(bodyId, runtimeFailure);
+                        continue;
+                    }
                     try {
-                        Integer state = (Integer) body.receiveHeartbeat();
+                        Integer state = pingBody(bodyId);
                         /* If the object is dead, ping failed ... */
-                        if (state.equals(HeartbeatResponse.IS_DEAD)) {
-                            throw new ProActiveRuntimeException("Awaited body " + bodyId + " on " + nodeUrl +
-                                                                " has been terminated.");
+                        if (HeartbeatResponse.IS_DEAD.equals(state)) {
+                            failFutures(bodyId,
+                                        new ProActiveRuntimeException("Awaited body " + bodyId + " on " +
+                                                                      nodeUrls.get(bodyId) + " has been terminated."));
                         }
-                        /* Successful ping, nothing more to do */
-                        return true;
                     } catch (Exception e) {
-                        /*
-                         * Ping failure, update all awaited futures on this node with the exception
-                         */
-                        bodyException = new FutureMonitoringPingFailureException(bodyId, nodeUrl, e);
+                        if (isConnectionFailure(e)) {
+                            runtimeFailure = e;
+                        }
+                        failFutures(bodyId, e);
                     }
                 }
+            } catch (Throwable t) {
+                logger.error("Failed to ping the awaited bodies on " + runtime, t);
+            } finally {
+                runtimesBeingPinged.remove(runtime);
             }
+        }
+    }
 
-            if (bodyException != null) {
-                synchronized (fp) {
-                    if (fp.isAwaited()) {
-                        fp.receiveReply(new MethodCallResult(null, bodyException));
-                    }
+    /**
+     * @return true if the ping failed because the runtime could not be reached, in which case the
+     * other bodies of the runtime cannot be reached either. Other failures only concern the
+     * pinged body.
+     */
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if ((t instanceof IOException) || (t instanceof SendRequestCommunicationException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the monitored bodies grouped by the runtime hosting them
+     */
+    private static Map<String, List<UniqueID>> bodiesPerRuntime() {
+        Map<String, List<UniqueID>> bodiesPerRuntime = new HashMap<String, List<UniqueID>>();
+        for (UniqueID bodyId : futuresToMonitor.keySet()) {
+            String runtime = getRuntime(bodyId);
+            List<UniqueID> bodyIds = bodiesPerRuntime.get(runtime);
+            if (bodyIds == null) {
+                bodyIds = new ArrayList<UniqueID>();
+                bodiesPerRuntime.put(runtime, bodyIds);
+            }
+            bodyIds.add(bodyId);
+        }
+        return bodiesPerRuntime;
+    }
+
+    /**
+     * @return an identifier of the runtime hosting the given body: the protocol and address of its
+     * node URL, or the body id itself when the node is unknown
+     */
+    private static String getRuntime(UniqueID bodyId) {
+        String nodeUrl = nodeUrls.get(bodyId);
+        if (nodeUrl != null) {
+            try {
+                URI uri = new URI(nodeUrl);
+                if (uri.getScheme() != null && uri.getAuthority() != null) {
+                    return uri.getScheme() + "://" + uri.getAuthority();
                 }
+            } catch (URISyntaxException e) {
+                // pinged on its own
             }
         }
-        return pinged;
+        return bodyId.toString();
     }
 
     /**
-     * Arrange to ping a single body every TTM
-     * There is a single daemon thread running the monitoring, so
+     * Arrange to ping every monitored body every TTM, one runtime per ping thread.
+     * There is a single daemon thread scheduling the monitoring, so
      * it will end with the JVM.
      */
     public void run() {
         for (;;) {
-            boolean pingedOneBody = false;
-            for (UniqueID bodyId : futuresToMonitor.keySet()) {
-                boolean pingedThisBody = pingBody(bodyId);
-                if (pingedThisBody) {
-                    pingedOneBody = true;
-                    monitoringDelay();
+            long start = System.currentTimeMillis();
+            for (Map.Entry<String, List<UniqueID>> entry : bodiesPerRuntime().entrySet()) {
+                String runtime = entry.getKey();
+                if (runtimesBeingPinged.add(runtime)) {
+                    pingExecutor.execute(new RuntimePing(runtime, entry.getValue()));
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Previous ping of " + runtime + " not finished yet, skipped");
                 }
             }
-            if (!pingedOneBody) {
-                monitoringDelay();
-            }
+            monitoringDelay(TTM - (System.currentTimeMillis() - start));
+        }
+    }
+
+    /**
+     * @return the number of awaited futures currently monitored
+     */
+    public static int getMonitoredFutureCount() {
+        int count = 0;
+        for (Collection<FutureProxy> futures : futuresToMonitor.values()) {
+            count += futures.size();
         }
+        return count;
+    }
+
+    /**
+     * @return the number of updater bodies currently monitored
+     */
+    public static int getMonitoredBodyCount() {
+        return futuresToMonitor.size();
+    }
+
+    /**
+     * @return the number of heartbeats sent since the start of the monitoring
+     */
+    public static long getPingCount() {
+        return pingCount.get();
+    }
+
+    /**
+     * @return the number of monitored bodies found terminated or unreachable
+     */
+    public static long getPingFailureCount() {
+        return pingFailureCount.get();
+    }
+
+    /**
+     * @return the average latency of the heartbeats, in milliseconds
+     */
+    public static double getAveragePingLatency() {
+        long count = pingCount.get();
+        return (count == 0) ? 0 : pingLatency.get() / (count * 1000000.0);
     }
 
     private static UniqueID getUpdaterBodyId(FutureProxy fp) {
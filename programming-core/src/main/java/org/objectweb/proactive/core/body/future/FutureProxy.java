@@ -28,6 +28,7 @@ package org.objectweb.proactive.core.body.future;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.Body;
@@ -38,6 +39,7 @@ import org.objectweb.proactive.core.ProActiveException;
 import org.objectweb.proactive.core.ProActiveRuntimeException;
 import org.objectweb.proactive.core.ProActiveTimeoutException;
 import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.body.BodyScheduler;
 import org.objectweb.proactive.core.body.LocalBodyStore;
 import org.objectweb.proactive.core.body.UniversalBody;
 import org.objectweb.proactive.core.body.proxy.AbstractProxy;
@@ -124,6 +126,11 @@ public class FutureProxy implements Future, Proxy, java.io.Serializable {
      */
     private transient LocalFutureUpdateCallbacks callbacks;
 
+    /**
+     * The completion queues to feed when this future is updated
+     */
+    private transient List<FutureCompletionQueue<?>> completionQueues;
+
     // returns future update info used during dynamic dispatch for groups
     private transient DispatchMonitor dispatchMonitor;
 
@@ -177,7 +184,7 @@ public class FutureProxy implements Future, Proxy, java.io.Serializable {
         return PAFuture.isAwaited(obj);
     }
 
-    public synchronized static FutureProxy getFutureProxy() {
+    public static FutureProxy getFutureProxy() {
         FutureProxy result;
         try {
             result = new FutureProxy();
@@ -233,6 +240,13 @@ public class FutureProxy implements Future, Proxy, java.io.Serializable {
             this.callbacks = null;
         }
 
+        if (this.completionQueues != null) {
+            for (FutureCompletionQueue<?> queue : this.completionQueues) {
+                queue.futureUpdated(this);
+            }
+            this.completionQueues = null;
+        }
+
         this.notifyAll();
     }
 
@@ -323,7 +337,7 @@ public class FutureProxy implements Future, Proxy, java.io.Serializable {
         // Send notification only if ActiveObject, not for HalfBodies
         if (body != null) {
             mbean = body.getMBean();
-            if (mbean != null) {
+            if ((mbean != null) && mbean.hasNotificationListeners()) {
                 mbean.sendNotification(NotificationType.waitByNecessity,
                                        new FutureNotificationData(bodyId, getCreatorID()));
             }
@@ -331,19 +345,24 @@ public class FutureProxy implements Future, Proxy, java.io.Serializable {
 
         // END JMX Notification
         TimeoutAccounter time = TimeoutAccounter.getAccounter(timeout);
-        while (!isAvailable()) {
-            if (time.isTimeoutElapsed()) {
-                throw new ProActiveTimeoutException("Timeout expired while waiting for the future update");
-            }
-            try {
-                this.wait(time.getRemainingTimeout());
-            } catch (InterruptedException e) {
-                logger.debug(e);
+        boolean blocking = BodyScheduler.beginBlocking();
+        try {
+            while (!isAvailable()) {
+                if (time.isTimeoutElapsed()) {
+                    throw new ProActiveTimeoutException("Timeout expired while waiting for the future update");
+                }
+                try {
+                    this.wait(time.getRemainingTimeout());
+                } catch (InterruptedException e) {
+                    logger.debug(e);
+                }
             }
+        } finally {
+            BodyScheduler.endBlocking(blocking);
         }
 
         // JMX Notification
-        if (mbean != null) {
+        if ((mbean != null) && mbean.hasNotificationListeners()) {
             mbean.sendNotification(NotificationType.receivedFutureResult,
                                    new FutureNotificationData(bodyId, getCreatorID()));
         }
@@ -636,6 +655,21 @@ public class FutureProxy implements Future, Proxy, java.io.Serializable {
         }
     }
 
+    /**
+     * Feed the given completion queue when the future is arrived, or now if the
+     * future is already arrived.
+     */
+    synchronized void addCompletionQueue(FutureCompletionQueue<?> queue) {
+        if (this.isAvailable()) {
+            queue.futureUpdated(this);
+            return;
+        }
+        if (this.completionQueues == null) {
+            this.completionQueues = new ArrayList<FutureCompletionQueue<?>>(1);
+        }
+        this.completionQueues.add(queue);
+    }
+
     //////////////////////////
     //////////////////////////
     ////FOR DEBUG PURPOSE/////
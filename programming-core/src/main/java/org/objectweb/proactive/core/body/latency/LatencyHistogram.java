@@ -0,0 +1,172 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.latency;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A histogram of latencies with fixed buckets.
+ * <p>
+ * Latencies are recorded in microseconds. Each power of two is divided in
+ * {@link #SUB_BUCKETS} buckets, so that a percentile is known within 25%. Recording a
+ * latency allocates nothing and takes no lock.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class LatencyHistogram implements Serializable {
+
+    /** Number of buckets per power of two, as a power of two */
+    private static final int SUB_BUCKET_BITS = 2;
+
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Higher latencies, in microseconds (about 35 minutes), are recorded in the last bucket */
+    static final long MAX_LATENCY = Integer.MAX_VALUE;
+
+    static final int NB_BUCKETS = bucketIndex(MAX_LATENCY) + 1;
+
+    private final AtomicLongArray counts;
+
+    /** Sum of the recorded latencies, in microseconds */
+    private final AtomicLong sum;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(NB_BUCKETS);
+        this.sum = new AtomicLong();
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1000, 0), MAX_LATENCY);
+        this.counts.incrementAndGet(bucketIndex(micros));
+        this.sum.addAndGet(micros);
+    }
+
+    /**
+     * Adds the latencies recorded by another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                this.counts.addAndGet(i, count);
+            }
+        }
+        this.sum.addAndGet(other.sum.get());
+    }
+
+    /**
+     * Returns a copy of this histogram, which is not updated anymore.
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram snapshot = new LatencyHistogram();
+        snapshot.add(this);
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            count += this.counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded latencies, in microseconds.
+     */
+    public double getMean() {
+        long count = getCount();
+        return (count == 0) ? 0 : ((double) this.sum.get() / count);
+    }
+
+    /**
+     * Returns a percentile of the recorded latencies, in microseconds: the highest latency of
+     * the bucket containing the percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile, or 0 if no latency is recorded
+     */
+    public long getPercentile(double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("A percentile must be between 0 and 100: " + percentile);
+        }
+        long[] snapshot = new long[NB_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil((percentile * count) / 100));
+        long seen = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return MAX_LATENCY;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + Math.round(getMean()) + "us, p50=" + getPercentile(50) +
+               "us, p99=" + getPercentile(99) + "us, max=" + getPercentile(100) + "us";
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (1L << exponent) + (index & (SUB_BUCKETS - 1)) * width;
+        return Math.min(lowerBound + width - 1, MAX_LATENCY);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.latency;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Records the latencies of the requests of an active object, per method name.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ * @see org.objectweb.proactive.core.config.CentralPAPropertyRepository#PA_LATENCY_HISTOGRAMS
+ */
+public class LatencyRecorder implements Serializable {
+    private final ConcurrentHashMap<String, MethodLatencies> methods;
+
+    public LatencyRecorder() {
+        this.methods = new ConcurrentHashMap<String, MethodLatencies>();
+    }
+
+    /**
+     * Returns the latencies of a method, which are updated when its requests are served.
+     */
+    public MethodLatencies getMethodLatencies(String methodName) {
+        MethodLatencies latencies = this.methods.get(methodName);
+        if (latencies == null) {
+            latencies = new MethodLatencies();
+            MethodLatencies previous = this.methods.putIfAbsent(methodName, latencies);
+            if (previous != null) {
+                latencies = previous;
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns a copy of the latencies of each served method.
+     */
+    public SortedMap<String, MethodLatencies> snapshot() {
+        SortedMap<String, MethodLatencies> snapshot = new TreeMap<String, MethodLatencies>();
+        addTo(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Adds the latencies of each served method to an aggregate, such as the latencies of all the
+     * active objects of a runtime.
+     *
+     * @param aggregate the latencies per method name, which are not updated anymore
+     */
+    public void addTo(Map<String, MethodLatencies> aggregate) {
+        for (Map.Entry<String, MethodLatencies> entry : this.methods.entrySet()) {
+            MethodLatencies latencies = aggregate.get(entry.getKey());
+            if (latencies == null) {
+                aggregate.put(entry.getKey(), entry.getValue().snapshot());
+            } else {
+                latencies.add(entry.getValue());
+            }
+        }
+    }
+}
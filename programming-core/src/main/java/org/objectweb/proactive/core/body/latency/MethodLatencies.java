@@ -0,0 +1,97 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.latency;
+
+import java.io.Serializable;
+
+
+/**
+ * The latencies of the requests of an active object for a method: how long they waited in the
+ * request queue, how long they were served, and how long their reply took to be sent.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class MethodLatencies implements Serializable {
+    private final LatencyHistogram queueWait;
+
+    private final LatencyHistogram service;
+
+    private final LatencyHistogram replySend;
+
+    public MethodLatencies() {
+        this(new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram());
+    }
+
+    private MethodLatencies(LatencyHistogram queueWait, LatencyHistogram service, LatencyHistogram replySend) {
+        this.queueWait = queueWait;
+        this.service = service;
+        this.replySend = replySend;
+    }
+
+    /**
+     * Returns the time between the reception of the requests and the start of their service.
+     */
+    public LatencyHistogram getQueueWait() {
+        return this.queueWait;
+    }
+
+    /**
+     * Returns the time taken to serve the requests.
+     */
+    public LatencyHistogram getService() {
+        return this.service;
+    }
+
+    /**
+     * Returns the time taken to send the replies. One way requests have no reply.
+     */
+    public LatencyHistogram getReplySend() {
+        return this.replySend;
+    }
+
+    /**
+     * Adds the latencies recorded by another instance to this one.
+     */
+    public void add(MethodLatencies other) {
+        this.queueWait.add(other.queueWait);
+        this.service.add(other.service);
+        this.replySend.add(other.replySend);
+    }
+
+    /**
+     * Returns a copy of these latencies, which is not updated anymore.
+     */
+    public MethodLatencies snapshot() {
+        return new MethodLatencies(this.queueWait.snapshot(), this.service.snapshot(), this.replySend.snapshot());
+    }
+
+    @Override
+    public String toString() {
+        return "queue wait [" + this.queueWait + "], service [" + this.service + "], reply send [" + this.replySend +
+               "]";
+    }
+}
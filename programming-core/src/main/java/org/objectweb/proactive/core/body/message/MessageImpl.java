@@ -27,6 +27,7 @@ package org.objectweb.proactive.core.body.message;
 
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.body.tags.MessageTags;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 
 
 /**
@@ -43,11 +44,11 @@ import org.objectweb.proactive.core.body.tags.MessageTags;
 
 public class MessageImpl implements Message, java.io.Serializable {
 
-    /** The name of the method called */
-    protected String methodName;
+    /** The name of the method called, transient as it is written as an id, see writeObject */
+    protected transient String methodName;
 
-    /** The UniqueID of the body sending the message */
-    protected UniqueID sourceID;
+    /** The UniqueID of the body sending the message, transient as it is written as an id, see writeObject */
+    protected transient UniqueID sourceID;
 
     /** The unique sequence number for the message */
     protected long sequenceNumber;
@@ -119,8 +120,17 @@ public class MessageImpl implements Message, java.io.Serializable {
         return timeStamp;
     }
 
+    private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+        s.defaultWriteObject();
+        // repeated by every message between two bodies, written as ids on compact connections
+        WireDictionary.writeShared(s, this.methodName);
+        WireDictionary.writeShared(s, this.sourceID);
+    }
+
     private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
         s.defaultReadObject();
+        this.methodName = (String) WireDictionary.readShared(s);
+        this.sourceID = (UniqueID) WireDictionary.readShared(s);
         this.timeStamp = System.currentTimeMillis();
     }
 
@@ -110,7 +110,7 @@ public abstract class AbstractBodyProxy extends AbstractProxy implements BodyPro
             return cachedMethodResult;
         }
 
-        return invokeOnBody(methodCall);
+        return invokeOnBody(methodCall, methodCall.takeOwnership());
     }
 
     /*
@@ -127,7 +127,11 @@ public abstract class AbstractBodyProxy extends AbstractProxy implements BodyPro
 
     private static Set<String> loggedSyncCalls = Collections.synchronizedSet(new HashSet<String>());
 
-    private Object invokeOnBody(MethodCall methodCall) throws Exception, Throwable {
+    /**
+     * @param owned true if the call has been created by the stub of this proxy, and is not
+     *        referenced by anyone else
+     */
+    private Object invokeOnBody(MethodCall methodCall, boolean owned) throws Exception, Throwable {
         initUrls();
         // Now gives the MethodCall object to the body
 
@@ -137,6 +141,9 @@ public abstract class AbstractBodyProxy extends AbstractProxy implements BodyPro
 
             if (mci.getType() == MethodCallInfo.CallType.OneWay) {
                 reifyAsOneWay(methodCall);
+                if (owned && isRecyclable(methodCall)) {
+                    MethodCall.recycle(methodCall);
+                }
                 return null;
             }
 
@@ -227,6 +234,15 @@ public abstract class AbstractBodyProxy extends AbstractProxy implements BodyPro
         sendRequest(methodCall, null);
     }
 
+    /**
+     * Returns true if the given one-way call, owned by this proxy and sent, is not referenced
+     * anymore by the request that carries it and can be reused for the next call of the current
+     * thread. Requests to local bodies keep their MethodCall, so the default is false.
+     */
+    protected boolean isRecyclable(MethodCall methodCall) {
+        return false;
+    }
+
     /*
      * Dummy Future used to reply to a one-way method call with exceptions Declared as public to
      * accomodate the MOP
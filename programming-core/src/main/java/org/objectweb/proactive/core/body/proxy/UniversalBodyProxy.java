@@ -431,6 +431,12 @@ public class UniversalBodyProxy extends AbstractBodyProxy implements java.io.Ser
 
     }
 
+    @Override
+    protected boolean isRecyclable(MethodCall methodCall) {
+        // MethodCall.recycle also checks that the request has been serialized while being sent
+        return !this.isLocal;
+    }
+
     protected void sendRequestInternal(MethodCall methodCall, Future future, Body sourceBody)
             throws java.io.IOException {
         sourceBody.sendRequest(methodCall, future, this.universalBody);
@@ -69,6 +69,9 @@ public class AwaitedRequest implements Request, java.io.Serializable {
 
     protected int nfRequestPriority;
 
+    // latency histograms
+    protected transient long receptionTime;
+
     /**
      * Create a new awaited request.
      * @param awaitedSender the id of the awaited sender.
@@ -212,6 +215,14 @@ public class AwaitedRequest implements Request, java.io.Serializable {
         return nfRequestPriority;
     }
 
+    public void setReceptionTime(long receptionTime) {
+        this.receptionTime = receptionTime;
+    }
+
+    public long getReceptionTime() {
+        return this.receptionTime;
+    }
+
     /*
      * (non-Javadoc)
      * 
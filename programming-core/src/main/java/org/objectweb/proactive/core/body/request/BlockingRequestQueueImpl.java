@@ -177,12 +177,12 @@ public class BlockingRequestQueueImpl extends RequestQueueImpl implements java.i
      *
      * Does not check for pending requests before waiting
      */
-    private synchronized void internalWait(long timeout) throws InterruptedException {
+    protected synchronized void internalWait(long timeout) throws InterruptedException {
         // JMX Notification
         Body body = LocalBodyStore.getInstance().getLocalBody(ownerID);
         if (body != null) {
             BodyWrapperMBean mbean = body.getMBean();
-            if (mbean != null) {
+            if ((mbean != null) && mbean.hasNotificationListeners()) {
                 mbean.sendNotification(NotificationType.waitForRequest);
             }
         }
@@ -217,6 +217,13 @@ public class BlockingRequestQueueImpl extends RequestQueueImpl implements java.i
         }
     }
 
+    /**
+     * Waits until a request is added or the queue is notified, even if it already holds requests
+     */
+    public synchronized void waitForChange(long timeout) throws InterruptedException {
+        internalWait(timeout);
+    }
+
     //
     // -- PRIVATE METHODS -----------------------------------------------
     //
@@ -347,7 +354,7 @@ public class BlockingRequestQueueImpl extends RequestQueueImpl implements java.i
     }
 
     protected Request barrierRemoveOldest() {
-        Request r = (Request) requestQueue.remove(indexOfRequestToServe());
+        Request r = removeRequestAt(indexOfRequestToServe());
 
         // ProActiveEvent
         if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
@@ -384,6 +391,13 @@ public class BlockingRequestQueueImpl extends RequestQueueImpl implements java.i
         this.suspended = true;
     }
 
+    /**
+     * Returns true if the service of requests is suspended, by a method barrier for instance.
+     */
+    public boolean isSuspended() {
+        return this.suspended;
+    }
+
     /**
      * Resumes the service of requests.
      */
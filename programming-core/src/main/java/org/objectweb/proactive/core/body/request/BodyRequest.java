@@ -47,6 +47,9 @@ public class BodyRequest extends MessageImpl implements Request, java.io.Seriali
 
     protected int nfRequestPriority;
 
+    // latency histograms
+    protected transient long receptionTime;
+
     //
     // -- CONSTRUCTORS -----------------------------------------------
     //
@@ -173,6 +176,14 @@ public class BodyRequest extends MessageImpl implements Request, java.io.Seriali
         return this.nfRequestPriority;
     }
 
+    public void setReceptionTime(long receptionTime) {
+        this.receptionTime = receptionTime;
+    }
+
+    public long getReceptionTime() {
+        return this.receptionTime;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -0,0 +1,307 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.request;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.proactive.Body;
+import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.group.spmd.MethodCallBarrierWithMethodName;
+import org.objectweb.proactive.core.util.CircularArrayList;
+import org.objectweb.proactive.core.util.MultiProducerSingleConsumerQueue;
+
+
+/**
+ * <p>
+ * A {@link BlockingRequestQueue} whose {@link #add(Request)} never takes the queue monitor.
+ * </p><p>
+ * Incoming requests are pushed into a lock-free multi-producer single-consumer queue. They are
+ * transferred, in arrival order, into the underlying {@link CircularArrayList} by the thread that
+ * next inspects the queue (usually the active thread of the body), while holding the monitor.
+ * The transfer goes through {@link BlockingRequestQueueImpl#add(Request)} so non functional
+ * priorities and method barriers keep exactly the same semantics as with the default queue.
+ * Barrier requests, and requests received while the queue is suspended, are added under the
+ * monitor so that {@link #isSuspended()} is always up to date and a barrier is never hidden in
+ * the lock-free queue.
+ * </p><p>
+ * A serving thread with nothing to serve parks on the queue monitor. Producers only enter the
+ * monitor to wake it up, so as long as the body is busy serving requests, senders never contend
+ * with each other nor with the body.
+ * </p>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class LockFreeRequestQueueImpl extends BlockingRequestQueueImpl {
+
+    /** Requests received but not yet transferred into the request queue */
+    private transient MultiProducerSingleConsumerQueue<Request> incoming;
+
+    /** Number of requests in {@link #incoming}, only used to answer {@link #size()} without locking */
+    private transient AtomicInteger incomingCount;
+
+    /** Number of threads parked on the monitor waiting for a request */
+    private transient volatile int waiters;
+
+    public LockFreeRequestQueueImpl(UniqueID ownerID) {
+        super(ownerID);
+        initIncoming();
+    }
+
+    //
+    // -- PUBLIC METHODS -----------------------------------------------
+    //
+    @Override
+    public void add(Request request) {
+        if (request.getMethodCall() instanceof MethodCallBarrierWithMethodName) {
+            synchronized (this) {
+                transferIncoming();
+                super.add(request);
+                // a request offered before the suspension became visible may be part of the barrier
+                transferIncoming();
+            }
+            return;
+        }
+        this.incoming.offer(request);
+        this.incomingCount.incrementAndGet();
+        // Checked after the offer: a waiter registers itself before looking at incoming, and a
+        // suspended queue must see the request to find out whether it releases the barrier
+        if ((this.waiters > 0) || isSuspended()) {
+            synchronized (this) {
+                transferIncoming();
+                this.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void addToFront(Request request) {
+        transferIncoming();
+        super.addToFront(request);
+    }
+
+    @Override
+    public synchronized Iterator<Request> iterator() {
+        transferIncoming();
+        return super.iterator();
+    }
+
+    @Override
+    public synchronized CircularArrayList<Request> getInternalQueue() {
+        transferIncoming();
+        return super.getInternalQueue();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        transferIncoming();
+        return super.isEmpty();
+    }
+
+    /**
+     * Does not transfer nor lock: the result may be slightly off while requests are being added.
+     */
+    @Override
+    public int size() {
+        return this.requestQueue.size() + this.incomingCount.get();
+    }
+
+    @Override
+    public synchronized boolean hasRequest(String methodName) {
+        transferIncoming();
+        return super.hasRequest(methodName);
+    }
+
+    @Override
+    public synchronized void clear() {
+        discardIncoming();
+        super.clear();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        discardIncoming();
+        super.destroy();
+    }
+
+    @Override
+    public synchronized Request getOldest() {
+        transferIncoming();
+        return super.getOldest();
+    }
+
+    @Override
+    public synchronized Request getOldest(String methodName) {
+        transferIncoming();
+        return super.getOldest(methodName);
+    }
+
+    @Override
+    public synchronized Request getOldest(RequestFilter requestFilter) {
+        transferIncoming();
+        return super.getOldest(requestFilter);
+    }
+
+    @Override
+    public synchronized Request removeOldest() {
+        transferIncoming();
+        return super.removeOldest();
+    }
+
+    @Override
+    public synchronized Request removeOldest(String methodName) {
+        transferIncoming();
+        return super.removeOldest(methodName);
+    }
+
+    @Override
+    public synchronized Request removeOldest(RequestFilter requestFilter) {
+        transferIncoming();
+        return super.removeOldest(requestFilter);
+    }
+
+    @Override
+    public synchronized Request getYoungest() {
+        transferIncoming();
+        return super.getYoungest();
+    }
+
+    @Override
+    public synchronized Request getYoungest(String methodName) {
+        transferIncoming();
+        return super.getYoungest(methodName);
+    }
+
+    @Override
+    public synchronized Request getYoungest(RequestFilter requestFilter) {
+        transferIncoming();
+        return super.getYoungest(requestFilter);
+    }
+
+    @Override
+    public synchronized Request removeYoungest() {
+        transferIncoming();
+        return super.removeYoungest();
+    }
+
+    @Override
+    public synchronized Request removeYoungest(String methodName) {
+        transferIncoming();
+        return super.removeYoungest(methodName);
+    }
+
+    @Override
+    public synchronized Request removeYoungest(RequestFilter requestFilter) {
+        transferIncoming();
+        return super.removeYoungest(requestFilter);
+    }
+
+    @Override
+    public synchronized List<Request> removeAll(String methodName) {
+        transferIncoming();
+        return super.removeAll(methodName);
+    }
+
+    @Override
+    public void processRequests(RequestProcessor processor, Body body) {
+        synchronized (this) {
+            transferIncoming();
+        }
+        super.processRequests(processor, body);
+    }
+
+    @Override
+    public synchronized String toString() {
+        transferIncoming();
+        return super.toString();
+    }
+
+    //
+    // -- PROTECTED METHODS -----------------------------------------------
+    //
+    @Override
+    protected synchronized void internalWait(long timeout) throws InterruptedException {
+        this.waiters++;
+        try {
+            // A request may have been offered between the last check and the registration
+            if (transferIncoming() == 0) {
+                super.internalWait(timeout);
+            }
+        } finally {
+            this.waiters--;
+        }
+    }
+
+    //
+    // -- PRIVATE METHODS -----------------------------------------------
+    //
+
+    /**
+     * Moves all the incoming requests into the request queue. Must be called with the monitor held.
+     * @return the number of transferred requests
+     */
+    private int transferIncoming() {
+        int transferred = 0;
+        Request request;
+        while ((request = this.incoming.poll()) != null) {
+            super.add(request);
+            transferred++;
+        }
+        if (transferred > 0) {
+            this.incomingCount.addAndGet(-transferred);
+        }
+        return transferred;
+    }
+
+    private void discardIncoming() {
+        int discarded = 0;
+        while (this.incoming.poll() != null) {
+            discarded++;
+        }
+        this.incomingCount.addAndGet(-discarded);
+    }
+
+    private void initIncoming() {
+        this.incoming = new MultiProducerSingleConsumerQueue<Request>();
+        this.incomingCount = new AtomicInteger();
+        this.waiters = 0;
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        transferIncoming();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initIncoming();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.request;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * <p>
+ * Secondary index of a request queue, by method name.
+ * </p><p>
+ * Each request of the queue is given a sequence number which is increasing from the front to
+ * the end of the queue: requests added to the end get a number greater than all the others,
+ * requests added to the front a number lower than all the others. The index keeps the sequence
+ * numbers of the whole queue, in queue order, and for each method name the sequence numbers of
+ * the requests of that name. Since both are sorted, the position of the oldest or youngest
+ * request of a given name is found by a binary search instead of testing every queued request.
+ * </p><p>
+ * The index must be updated for every modification of the indexed queue, and is not thread
+ * safe: it is protected by the monitor of the queue.
+ * </p>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+class MethodNameIndex implements Serializable {
+
+    /** Sequence numbers of all the requests, in queue order */
+    private final SequenceList order = new SequenceList();
+
+    /** Sequence numbers of the requests of each method name, in queue order */
+    private final Map<String, SequenceList> byMethodName = new HashMap<String, SequenceList>();
+
+    private long youngestSequence = 0;
+
+    private long oldestSequence = 1;
+
+    public int size() {
+        return order.size();
+    }
+
+    public boolean contains(String methodName) {
+        return byMethodName.containsKey(methodName);
+    }
+
+    public void addLast(Request request) {
+        long sequence = ++youngestSequence;
+        order.addLast(sequence);
+        listFor(request.getMethodName()).addLast(sequence);
+    }
+
+    public void addFirst(Request request) {
+        long sequence = --oldestSequence;
+        order.addFirst(sequence);
+        listFor(request.getMethodName()).addFirst(sequence);
+    }
+
+    /**
+     * Must be called when the request at the given position of the queue is removed
+     */
+    public void removeAt(int position, Request request) {
+        long sequence = order.removeAt(position);
+        String methodName = request.getMethodName();
+        SequenceList list = byMethodName.get(methodName);
+        list.removeAt(list.indexOf(sequence));
+        if (list.size() == 0) {
+            byMethodName.remove(methodName);
+        }
+    }
+
+    /**
+     * @return the position in the queue of the oldest request of the given name, -1 if none
+     */
+    public int positionOfOldest(String methodName) {
+        SequenceList list = byMethodName.get(methodName);
+        return (list == null) ? -1 : order.indexOf(list.get(0));
+    }
+
+    /**
+     * @return the position in the queue of the youngest request of the given name, -1 if none
+     */
+    public int positionOfYoungest(String methodName) {
+        SequenceList list = byMethodName.get(methodName);
+        return (list == null) ? -1 : order.indexOf(list.get(list.size() - 1));
+    }
+
+    /**
+     * @return the positions in the queue of all the requests of the given name, in queue order
+     */
+    public int[] positionsOf(String methodName) {
+        SequenceList list = byMethodName.get(methodName);
+        if (list == null) {
+            return new int[0];
+        }
+        int[] positions = new int[list.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = order.indexOf(list.get(i));
+        }
+        return positions;
+    }
+
+    public void clear() {
+        order.clear();
+        byMethodName.clear();
+    }
+
+    /**
+     * Rebuilds the index from the content of the queue
+     */
+    public void rebuild(List<Request> queue) {
+        clear();
+        for (Request request : queue) {
+            addLast(request);
+        }
+    }
+
+    private SequenceList listFor(String methodName) {
+        SequenceList list = byMethodName.get(methodName);
+        if (list == null) {
+            list = new SequenceList();
+            byMethodName.put(methodName, list);
+        }
+        return list;
+    }
+
+    /**
+     * A circular array of increasing sequence numbers
+     */
+    static class SequenceList implements Serializable {
+        private long[] array = new long[4];
+
+        private int head = 0;
+
+        private int size = 0;
+
+        public int size() {
+            return size;
+        }
+
+        public long get(int index) {
+            return array[(head + index) % array.length];
+        }
+
+        public void addLast(long sequence) {
+            ensureCapacity();
+            array[(head + size) % array.length] = sequence;
+            size++;
+        }
+
+        public void addFirst(long sequence) {
+            ensureCapacity();
+            head = (head + array.length - 1) % array.length;
+            array[head] = sequence;
+            size++;
+        }
+
+        /**
+         * Removes the element at the given index, shifting the shortest side of the array
+         */
+        public long removeAt(int index) {
+            long removed = get(index);
+            if (index < size / 2) {
+                for (int i = index; i > 0; i--) {
+                    array[(head + i) % array.length] = array[(head + i - 1) % array.length];
+                }
+                head = (head + 1) % array.length;
+            } else {
+                for (int i = index; i < size - 1; i++) {
+                    array[(head + i) % array.length] = array[(head + i + 1) % array.length];
+                }
+            }
+            size--;
+            return removed;
+        }
+
+        /**
+         * @return the index of the given sequence number, -1 if not present
+         */
+        public int indexOf(long sequence) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long value = get(middle);
+                if (value < sequence) {
+                    low = middle + 1;
+                } else if (value > sequence) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        public void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == array.length) {
+                long[] newArray = new long[array.length * 2];
+                for (int i = 0; i < size; i++) {
+                    newArray[i] = get(i);
+                }
+                array = newArray;
+                head = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.request;
+
+/**
+ * <p>
+ * A {@link RequestFilter} accepting exactly the requests of one method name.
+ * </p><p>
+ * Request queues recognize such filters and look up the matching requests through
+ * their method name index instead of testing every queued request.
+ * </p>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public interface MethodNameRequestFilter extends RequestFilter {
+
+    /**
+     * @return the name of the method whose requests are accepted
+     */
+    public String getMethodName();
+}
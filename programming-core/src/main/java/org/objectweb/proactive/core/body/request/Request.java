@@ -149,4 +149,16 @@ public interface Request extends Message {
      * @return request priority
      */
     public int getNFRequestPriority();
+
+    /**
+     * Sets the time this request was received by the body serving it
+     * @param receptionTime the reception time, as given by {@link System#nanoTime()}
+     */
+    public void setReceptionTime(long receptionTime);
+
+    /**
+     * Returns the time this request was received by the body serving it
+     * @return the reception time, as given by {@link System#nanoTime()}, or 0 if unknown
+     */
+    public long getReceptionTime();
 }
@@ -0,0 +1,148 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.request;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.objectweb.proactive.annotation.DefineGroups;
+import org.objectweb.proactive.annotation.Group;
+import org.objectweb.proactive.annotation.MemberOf;
+import org.objectweb.proactive.core.mop.MethodCall;
+
+
+/**
+ * The compatibility between the methods of an active object class, as declared by
+ * {@link DefineGroups}, {@link Group} and {@link MemberOf}. Two requests are compatible,
+ * and can be served in parallel, if the groups of their methods are compatible.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class RequestCompatibility {
+    /** Marks the methods without group in {@link #groupsByMethod} */
+    private static final String NO_GROUP = "";
+
+    /** For each group, the groups it is compatible with, including itself if self compatible */
+    private final Map<String, Set<String>> compatibleGroups = new HashMap<String, Set<String>>();
+
+    /** The groups of the public methods of the class, by name and parameter types */
+    private final Map<String, String> groupsBySignature = new HashMap<String, String>();
+
+    /** The groups of the reified methods already looked up */
+    private final ConcurrentHashMap<Method, String> groupsByMethod = new ConcurrentHashMap<Method, String>();
+
+    private final int maxThreads;
+
+    private RequestCompatibility(Class<?> c, DefineGroups definition) {
+        for (Group group : definition.value()) {
+            if (this.compatibleGroups.put(group.name(), new HashSet<String>()) != null) {
+                throw new IllegalArgumentException("Group " + group.name() + " is defined twice in " + c.getName());
+            }
+        }
+        for (Group group : definition.value()) {
+            if (group.selfCompatible()) {
+                this.compatibleGroups.get(group.name()).add(group.name());
+            }
+            for (String other : group.compatibleWith()) {
+                checkGroup(c, other);
+                this.compatibleGroups.get(group.name()).add(other);
+                this.compatibleGroups.get(other).add(group.name());
+            }
+        }
+
+        for (Method m : c.getMethods()) {
+            MemberOf member = m.getAnnotation(MemberOf.class);
+            if (member != null) {
+                checkGroup(c, member.value());
+                this.groupsBySignature.put(signature(m), member.value());
+            }
+        }
+
+        this.maxThreads = (definition.maxThreads() > 0) ? definition.maxThreads()
+                                                         : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns the compatibility declared by the given class, or null if it does not declare groups
+     *
+     * @throws IllegalArgumentException if the declaration refers to an undefined group
+     */
+    public static RequestCompatibility forClass(Class<?> c) {
+        DefineGroups definition = c.getAnnotation(DefineGroups.class);
+        return (definition == null) ? null : new RequestCompatibility(c, definition);
+    }
+
+    /**
+     * Returns the maximum number of requests to serve in parallel
+     */
+    public int getMaxThreads() {
+        return this.maxThreads;
+    }
+
+    /**
+     * Returns the group of the method of a request, null if it has no group
+     */
+    public String getGroup(Request request) {
+        MethodCall methodCall = request.getMethodCall();
+        Method method = (methodCall == null) ? null : methodCall.getReifiedMethod();
+        if (method == null) {
+            return null;
+        }
+
+        String group = this.groupsByMethod.get(method);
+        if (group == null) {
+            group = this.groupsBySignature.get(signature(method));
+            if (group == null) {
+                group = NO_GROUP;
+            }
+            this.groupsByMethod.putIfAbsent(method, group);
+        }
+        return (group == NO_GROUP) ? null : group;
+    }
+
+    /**
+     * Returns true if requests of methods of the given groups can be served in parallel
+     */
+    public boolean areCompatible(String group, String otherGroup) {
+        return (group != null) && (otherGroup != null) && this.compatibleGroups.get(group).contains(otherGroup);
+    }
+
+    private void checkGroup(Class<?> c, String group) {
+        if (!this.compatibleGroups.containsKey(group)) {
+            throw new IllegalArgumentException("Group " + group + " is not defined in " + c.getName());
+        }
+    }
+
+    private static String signature(Method m) {
+        return m.getName() + Arrays.toString(m.getParameterTypes());
+    }
+}
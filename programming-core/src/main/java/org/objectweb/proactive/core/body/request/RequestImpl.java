@@ -39,6 +39,7 @@ import org.objectweb.proactive.core.body.reply.ReplyImpl;
 import org.objectweb.proactive.core.body.tags.MessageTags;
 import org.objectweb.proactive.core.mop.MethodCall;
 import org.objectweb.proactive.core.mop.MethodCallExecutionFailedException;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.Loggers;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 
@@ -68,6 +69,9 @@ public class RequestImpl extends MessageImpl implements Request, java.io.Seriali
 
     protected String senderNodeURI;
 
+    // latency histograms
+    protected transient long receptionTime;
+
     //
     // -- CONSTRUCTORS -----------------------------------------------
     //
@@ -239,10 +243,11 @@ public class RequestImpl extends MessageImpl implements Request, java.io.Seriali
 
     protected void writeTheObject(java.io.ObjectOutputStream out) throws java.io.IOException {
         out.defaultWriteObject();
+        // the remote adapter of the sender is only sent once per connection when possible
         if (this.sender != null) {
-            out.writeObject(this.sender.getRemoteAdapter());
+            WireDictionary.writeShared(out, this.sender.getRemoteAdapter());
         } else {
-            out.writeObject(this.sender);
+            WireDictionary.writeShared(out, null);
         }
     }
 
@@ -252,7 +257,7 @@ public class RequestImpl extends MessageImpl implements Request, java.io.Seriali
 
     protected void readTheObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
-        sender = (UniversalBody) in.readObject(); // it is actually a UniversalBody
+        sender = (UniversalBody) WireDictionary.readShared(in); // it is actually a UniversalBody
     }
 
     //
@@ -274,6 +279,14 @@ public class RequestImpl extends MessageImpl implements Request, java.io.Seriali
         return this.nfRequestPriority;
     }
 
+    public void setReceptionTime(long receptionTime) {
+        this.receptionTime = receptionTime;
+    }
+
+    public long getReceptionTime() {
+        return this.receptionTime;
+    }
+
     public String getSenderNodeURL() {
         return this.senderNodeURI;
     }
@@ -26,6 +26,7 @@
 package org.objectweb.proactive.core.body.request;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.objectweb.proactive.Body;
 import org.objectweb.proactive.core.event.RequestQueueEventListener;
@@ -140,6 +141,13 @@ public interface RequestQueue {
      */
     public Request removeYoungest(RequestFilter requestFilter);
 
+    /**
+     * Removes all the requests whose method name is methodName and returns them
+     * @param methodName the name of the method to look for
+     * @return the removed requests, oldest first, or an empty list if no match
+     */
+    public List<Request> removeAll(String methodName);
+
     /**
      * Adds the given request to the end of the queue
      * @param request the request to add
@@ -26,9 +26,8 @@
 package org.objectweb.proactive.core.body.request;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ListIterator;
 
 import org.objectweb.proactive.Body;
 import org.objectweb.proactive.core.UniqueID;
@@ -55,6 +54,12 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
 
     protected NonFunctionalRequestsProcessor nfRequestsProcessor;
 
+    /** Must be updated on every modification of requestQueue, see removeRequestAt */
+    protected MethodNameIndex methodNameIndex;
+
+    /** Modification count of requestQueue the method name index is up to date with */
+    protected int indexedModificationCount;
+
     //
     // -- CONSTRUCTORS -----------------------------------------------
     //
@@ -63,13 +68,14 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
         this.ownerID = ownerID;
         this.requestFilterOnMethodName = new RequestFilterOnMethodName();
         this.nfRequestsProcessor = new NonFunctionalRequestsProcessor();
+        this.methodNameIndex = new MethodNameIndex();
     }
 
     //
     // -- PUBLIC METHODS -----------------------------------------------
     //
     public java.util.Iterator<Request> iterator() {
-        return requestQueue.iterator();
+        return new IndexedIterator();
     }
 
     public CircularArrayList<Request> getInternalQueue() {
@@ -84,12 +90,14 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
         return requestQueue.size();
     }
 
-    public boolean hasRequest(String s) {
-        return getOldest(s) != null;
+    public synchronized boolean hasRequest(String s) {
+        return methodNameIndex().contains(s);
     }
 
     public synchronized void clear() {
         requestQueue.clear();
+        methodNameIndex.clear();
+        indexUpdated();
     }
 
     public synchronized Request getOldest() {
@@ -116,11 +124,11 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
             return null;
         } else if (!nfRequestsProcessor.isEmpty()) {
             Request r = nfRequestsProcessor.getOldestPriorityNFRequest(true);
-            requestQueue.remove(r);
+            removeRequest(r);
             return r;
         }
 
-        Request r = (Request) requestQueue.remove(0);
+        Request r = removeRequestAt(0);
 
         // ProActiveEvent
         if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
@@ -163,10 +171,10 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
             return null;
         } else if (!nfRequestsProcessor.isEmpty()) {
             Request r = nfRequestsProcessor.getYoungestPriorityNFRequest(true);
-            requestQueue.remove(r);
+            removeRequest(r);
             return r;
         }
-        Request r = (Request) requestQueue.remove(requestQueue.size() - 1);
+        Request r = removeRequestAt(requestQueue.size() - 1);
 
         // ProActiveEvent
         if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
@@ -186,6 +194,31 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
         return findYoungest(requestFilter, true);
     }
 
+    public synchronized List<Request> removeAll(String methodName) {
+        Request r;
+
+        //First, we deal with priority non functional requests
+        while (!nfRequestsProcessor.isEmpty()) {
+            r = nfRequestsProcessor.getOldestPriorityNFRequest(true);
+            LocalBodyStore.getInstance().getLocalBody(ownerID).serve(r);
+            removeRequest(r);
+        }
+
+        int[] positions = methodNameIndex().positionsOf(methodName);
+        Request[] removed = new Request[positions.length];
+        // from the youngest so that the positions of the remaining ones do not change
+        for (int i = positions.length - 1; i >= 0; i--) {
+            removed[i] = removeRequestAt(positions[i]);
+
+            // ProActiveEvent
+            if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
+                notifyAllListeners(new RequestQueueEvent(ownerID, RequestQueueEvent.REMOVE_REQUEST));
+            }
+            // END ProActiveEvent
+        }
+        return Arrays.asList(removed);
+    }
+
     public synchronized void add(Request request) {
         //System.out.println("  --> RequestQueue.add m="+request.getMethodName());
 
@@ -195,7 +228,9 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
             nfRequestsProcessor.addToNFRequestsQueue(request);
         }
 
+        methodNameIndex().addLast(request);
         requestQueue.add(request);
+        indexUpdated();
 
         // ProActiveEvent
         if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
@@ -212,7 +247,9 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
             nfRequestsProcessor.addToNFRequestsQueue(request);
         }
 
+        methodNameIndex().addFirst(request);
         requestQueue.add(0, request);
+        indexUpdated();
 
         // ProActiveEvent
         if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
@@ -234,7 +271,7 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
                 while (!nfRequestsProcessor.isEmpty()) {
                     r = nfRequestsProcessor.getOldestPriorityNFRequest(true);
                     LocalBodyStore.getInstance().getLocalBody(ownerID).serve(r);
-                    requestQueue.remove(r);
+                    removeRequest(r);
                 }
                 if (requestQueue.isEmpty()) {
                     return;
@@ -244,7 +281,7 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
                 int result = processor.processRequest(r);
                 switch (result) {
                     case RequestProcessor.REMOVE_AND_SERVE:
-                        requestQueue.remove(i);
+                        removeRequestAt(i);
                         i--;
 
                         // ProActiveEvent
@@ -257,7 +294,7 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
 
                         break;
                     case RequestProcessor.REMOVE:
-                        requestQueue.remove(i);
+                        removeRequestAt(i);
                         i--;
                         if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
                             notifyAllListeners(new RequestQueueEvent(ownerID, RequestQueueEvent.REMOVE_REQUEST));
@@ -324,7 +361,6 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
      * @return the oldest matching request or null
      */
     private Request findOldest(RequestFilter requestFilter, boolean shouldRemove) {
-        Iterator<Request> iterator;
         Request r;
 
         //First, we deal with priority non functional requests
@@ -332,29 +368,24 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
             while (!nfRequestsProcessor.isEmpty()) {
                 r = nfRequestsProcessor.getOldestPriorityNFRequest(true);
                 LocalBodyStore.getInstance().getLocalBody(ownerID).serve(r);
-                requestQueue.remove(r);
+                removeRequest(r);
             }
         }
 
-        iterator = requestQueue.iterator();
-        //then we look for the oldest request fullfilling the criteria defined by the given filter
-        while (iterator.hasNext()) {
-            r = (Request) iterator.next();
-            if (requestFilter.acceptRequest(r)) {
-                if (shouldRemove) {
-                    iterator.remove();
-
-                    // ProActiveEvent
-                    if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
-                        notifyAllListeners(new RequestQueueEvent(ownerID, RequestQueueEvent.REMOVE_REQUEST));
-                    }
-
-                    // END ProActiveEvent
+        int index;
+        if (requestFilter instanceof MethodNameRequestFilter) {
+            // the index gives the position of the oldest request with this name
+            index = methodNameIndex().positionOfOldest(((MethodNameRequestFilter) requestFilter).getMethodName());
+        } else {
+            //then we look for the oldest request fullfilling the criteria defined by the given filter
+            index = -1;
+            for (int i = 0; (i < requestQueue.size()) && (index == -1); i++) {
+                if (requestFilter.acceptRequest(requestQueue.get(i))) {
+                    index = i;
                 }
-                return r;
             }
         }
-        return null;
+        return (index == -1) ? null : found(index, shouldRemove);
     }
 
     /**
@@ -372,33 +403,113 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
         while (!nfRequestsProcessor.isEmpty()) {
             r = nfRequestsProcessor.getYoungestPriorityNFRequest(true);
             LocalBodyStore.getInstance().getLocalBody(ownerID).serve(r);
-            requestQueue.remove(r);
+            removeRequest(r);
         }
 
-        ListIterator<Request> iterator = requestQueue.listIterator(requestQueue.size());
-        while (iterator.hasPrevious()) {
-            r = iterator.previous();
-            if (requestFilter.acceptRequest(r)) {
-                if (shouldRemove) {
-                    iterator.remove();
-
-                    // ProActiveEvent
-                    if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
-                        notifyAllListeners(new RequestQueueEvent(ownerID, RequestQueueEvent.REMOVE_REQUEST));
-                    }
-
-                    // END ProActiveEvent
+        int index;
+        if (requestFilter instanceof MethodNameRequestFilter) {
+            index = methodNameIndex().positionOfYoungest(((MethodNameRequestFilter) requestFilter).getMethodName());
+        } else {
+            index = -1;
+            for (int i = requestQueue.size() - 1; (i >= 0) && (index == -1); i--) {
+                if (requestFilter.acceptRequest(requestQueue.get(i))) {
+                    index = i;
                 }
-                return r;
             }
         }
-        return null;
+        return (index == -1) ? null : found(index, shouldRemove);
+    }
+
+    private Request found(int index, boolean shouldRemove) {
+        if (!shouldRemove) {
+            return requestQueue.get(index);
+        }
+        Request r = removeRequestAt(index);
+
+        // ProActiveEvent
+        if (SEND_ADD_REMOVE_EVENT && hasListeners()) {
+            notifyAllListeners(new RequestQueueEvent(ownerID, RequestQueueEvent.REMOVE_REQUEST));
+        }
+
+        // END ProActiveEvent
+        return r;
+    }
+
+    /**
+     * Removes the request at the given position from the queue and from the method name index.
+     * Every removal from the queue must go through this method or {@link #removeRequest(Request)}.
+     */
+    protected Request removeRequestAt(int index) {
+        Request r = requestQueue.get(index);
+        methodNameIndex().removeAt(index, r);
+        requestQueue.remove(index);
+        indexUpdated();
+        return r;
+    }
+
+    protected void removeRequest(Request r) {
+        int index = requestQueue.indexOf(r);
+        if (index != -1) {
+            removeRequestAt(index);
+        }
+    }
+
+    /**
+     * Returns the method name index, rebuilt if requestQueue has been modified behind its back
+     * (for instance through {@link #getInternalQueue()})
+     */
+    protected MethodNameIndex methodNameIndex() {
+        if (indexedModificationCount != requestQueue.getModificationCount()) {
+            methodNameIndex.rebuild(requestQueue);
+            indexUpdated();
+        }
+        return methodNameIndex;
+    }
+
+    /**
+     * Must be called once the method name index has been updated along with requestQueue
+     */
+    protected void indexUpdated() {
+        indexedModificationCount = requestQueue.getModificationCount();
     }
 
     //
     // -- INNER CLASSES -----------------------------------------------
     //
-    protected class RequestFilterOnMethodName implements RequestFilter, java.io.Serializable {
+
+    /**
+     * Iterator over the requests keeping the method name index up to date on removal
+     */
+    private class IndexedIterator implements java.util.Iterator<Request> {
+        private java.util.Iterator<Request> it = requestQueue.iterator();
+
+        private int position = -1;
+
+        private Request current;
+
+        IndexedIterator() {
+            // make sure the index matches the queue before tracking removals
+            methodNameIndex();
+        }
+
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        public Request next() {
+            current = it.next();
+            position++;
+            return current;
+        }
+
+        public void remove() {
+            it.remove();
+            methodNameIndex.removeAt(position, current);
+            indexUpdated();
+            position--;
+        }
+    }
+    protected class RequestFilterOnMethodName implements MethodNameRequestFilter, java.io.Serializable {
         private String methodName;
 
         public RequestFilterOnMethodName() {
@@ -408,6 +519,10 @@ public class RequestQueueImpl extends AbstractEventProducer implements java.io.S
             return methodName.equals(request.getMethodName());
         }
 
+        public String getMethodName() {
+            return methodName;
+        }
+
         public void setMethodName(String methodName) {
             this.methodName = methodName;
         }
@@ -156,6 +156,15 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
     static public PAPropertyInteger PA_FUTUREMONITORING_TTM = new PAPropertyInteger("proactive.futuremonitoring.ttm",
                                                                                     false);
 
+    /**
+     * Maximum number of runtimes pinged in parallel by the future monitoring
+     * <p/>
+     * All the bodies monitored on a given runtime are pinged by the same thread
+     */
+    static public PAPropertyInteger PA_FUTUREMONITORING_THREADS = new PAPropertyInteger("proactive.futuremonitoring.threads",
+                                                                                        false,
+                                                                                        8);
+
     /**
      * When this property is set to true, at each proactive call, the stack trace context of the call is embedded in the future.
      * It is specially useful when debugging automatic continuations. If an exception is thrown consecutively to a proactive call,
@@ -165,6 +174,35 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
      */
     static public PAPropertyBoolean PA_STACKTRACE = new PAPropertyBoolean("proactive.stack_trace", false, false);
 
+    /**
+     * Implementation of the request queue used by active objects
+     * <p/>
+     * Supported values are: blocking (default, every operation takes the queue monitor) and lockfree
+     * (incoming requests are enqueued without locking and transferred by the serving thread)
+     */
+    static public PAPropertyString PA_BODY_REQUEST_QUEUE = new PAPropertyString("proactive.body.request_queue",
+                                                                                false,
+                                                                                "blocking");
+
+    /**
+     * Number of carrier threads shared by the active objects serving their requests in FIFO order
+     * <p/>
+     * With the default value 0, every active object has its own thread. With a positive value, the
+     * active objects using the default FIFO activity are run by this number of carrier threads while
+     * they have requests to serve, and do not hold any thread while idle.
+     */
+    static public PAPropertyInteger PA_BODY_SCHEDULER_THREADS = new PAPropertyInteger("proactive.body.scheduler.threads",
+                                                                                      false,
+                                                                                      0);
+
+    /**
+     * Maximum number of requests served by an active object on a carrier thread before letting the
+     * other active objects run, see {@link #PA_BODY_SCHEDULER_THREADS}
+     */
+    static public PAPropertyInteger PA_BODY_SCHEDULER_QUANTUM = new PAPropertyInteger("proactive.body.scheduler.quantum",
+                                                                                      false,
+                                                                                      16);
+
     /**
      * Activates the legacy SAX ProActive Descriptor parser
      * <p/>
@@ -509,6 +547,33 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
                                                                           false,
                                                                           600000L);
 
+    /**
+     * Activate the adaptive protocol selection, false by default
+     *
+     * When activated, the protocols of a multi-protocol remote object are ranked according to
+     * the latency and the error rate observed on the messages actually sent. This ranking
+     * supersedes the benchmark results but not the proactive.communication.protocols.order property.
+     */
+    public static PAPropertyBoolean PA_ADAPTIVE_SELECTION_ACTIVATE = new PAPropertyBoolean("proactive.communication.adaptive.activate",
+                                                                                           false,
+                                                                                           false);
+
+    /**
+     * With adaptive protocol selection, one message out of this number is sent through a non-preferred
+     * protocol to keep its statistics up to date
+     */
+    public static PAPropertyInteger PA_ADAPTIVE_SELECTION_PROBE_PERIOD = new PAPropertyInteger("proactive.communication.adaptive.probe_period",
+                                                                                               false,
+                                                                                               100);
+
+    /**
+     * With adaptive protocol selection, time in milliseconds during which a protocol that failed is only
+     * used as a last resort and is not probed
+     */
+    public static PAPropertyLong PA_ADAPTIVE_SELECTION_QUARANTINE = new PAPropertyLong("proactive.communication.adaptive.quarantine",
+                                                                                       false,
+                                                                                       30000L);
+
     /*
      * ------------------------------------
      * MESSAGE TAGGING
@@ -567,6 +632,23 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
                                                                                             false,
                                                                                             256);
 
+    /**
+     * The number of stripes a large file is split into when it is sent. Each stripe is
+     * sent by its own thread, with positional reads and writes and checksummed blocks,
+     * and an interrupted striped transfer is resumed when it is issued again.
+     * 1, the default, disables striped transfers.
+     */
+    static public PAPropertyInteger PA_FILETRANSFER_STRIPES = new PAPropertyInteger("proactive.filetransfer.stripes_number",
+                                                                                    false,
+                                                                                    1);
+
+    /**
+     * The size, in [KB], from which files are sent with a striped transfer.
+     */
+    static public PAPropertyInteger PA_FILETRANSFER_STRIPE_THRESHOLD = new PAPropertyInteger("proactive.filetransfer.stripe_threshold_kb",
+                                                                                             false,
+                                                                                             16384);
+
     // -------------- DATA SPACES
 
     /**
@@ -618,6 +700,30 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
     static public PAPropertyInteger PA_VFSPROVIDER_SERVER_STREAM_OPEN_MAXIMUM_PERIOD_MILLIS = new PAPropertyInteger("proactive.vfsprovider.server.stream_open_maximum_period_millis",
                                                                                                                     false);
 
+    /**
+     * This property sets the size in bytes of the direct buffers used by a file system server to
+     * read files.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_SERVER_READ_BUFFER_SIZE = new PAPropertyInteger("proactive.vfsprovider.server.read_buffer_size",
+                                                                                                   false,
+                                                                                                   256 * 1024);
+
+    /**
+     * This property sets the maximum number of pooled direct buffers used by a file system server to
+     * read files. Reads performed while all of them are in use read directly into their result.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_SERVER_READ_BUFFERS = new PAPropertyInteger("proactive.vfsprovider.server.read_buffers",
+                                                                                               false,
+                                                                                               16);
+
+    /**
+     * This property sets the minimum size in bytes of the files that a file system server maps in
+     * memory when they are open for reading only. A negative value disables memory mapping.
+     */
+    static public PAPropertyLong PA_VFSPROVIDER_SERVER_MMAP_THRESHOLD = new PAPropertyLong("proactive.vfsprovider.server.mmap_threshold",
+                                                                                           false,
+                                                                                           64L * 1024 * 1024);
+
     /**
      * This property indicates the number of threads used to find files in a remote ProActive virtual file system.
      * A number <= 1 indicates that parallel processing is disabled when finding files
@@ -625,6 +731,69 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
     static public PAPropertyInteger PA_VFSPROVIDER_CLIENT_FIND_FILES_THREAD_NUMBER = new PAPropertyInteger("proactive.vfsprovider.client.find_files_thread_number",
                                                                                                            false);
 
+    /**
+     * This property sets the time in milliseconds during which file metadata and directory listings
+     * obtained from a file system server are reused by a ProActive virtual file system client. 0,
+     * the default, disables the metadata cache: changes made by other clients are then always seen.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS = new PAPropertyInteger("proactive.vfsprovider.client.metadata_cache_ttl_millis",
+                                                                                                            false,
+                                                                                                            0);
+
+    /**
+     * This property sets the maximum number of file metadata entries, and of directory listings,
+     * cached by a ProActive virtual file system client.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_CLIENT_METADATA_CACHE_SIZE = new PAPropertyInteger("proactive.vfsprovider.client.metadata_cache_size",
+                                                                                                      false,
+                                                                                                      20000);
+
+    /**
+     * This property enables the strict mode of the metadata cache of a ProActive virtual file system
+     * client: refreshing a file always fetches its metadata from the server, and missing files are
+     * not cached.
+     */
+    static public PAPropertyBoolean PA_VFSPROVIDER_CLIENT_METADATA_CACHE_STRICT = new PAPropertyBoolean("proactive.vfsprovider.client.metadata_cache_strict",
+                                                                                                        false,
+                                                                                                        false);
+
+    /**
+     * This property sets the size in bytes of the blocks transferred by the read-ahead and
+     * write-behind buffering of sequential ProActive virtual file system streams.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_CLIENT_STREAM_BLOCK_SIZE = new PAPropertyInteger("proactive.vfsprovider.client.stream_block_size",
+                                                                                                    false,
+                                                                                                    256 * 1024);
+
+    /**
+     * This property indicates how many blocks a sequential input stream of a ProActive virtual
+     * file system requests from the file server ahead of the reader. 0, the default, disables
+     * read-ahead: each read is then sent synchronously to the server.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_CLIENT_READ_AHEAD_BLOCKS = new PAPropertyInteger("proactive.vfsprovider.client.read_ahead_blocks",
+                                                                                                    false,
+                                                                                                    0);
+
+    /**
+     * This property indicates how many blocks written to a sequential output stream of a ProActive
+     * virtual file system can be in flight to the file server before the writer blocks. 0 disables
+     * write-behind, each write is then sent synchronously to the server.
+     */
+    static public PAPropertyInteger PA_VFSPROVIDER_CLIENT_WRITE_BEHIND_BLOCKS = new PAPropertyInteger("proactive.vfsprovider.client.write_behind_blocks",
+                                                                                                      false,
+                                                                                                      4);
+
+    // -------------- GROUPS
+
+    /**
+     * The parallelism of the work-stealing pool shared by all the groups of the runtime to
+     * dispatch their calls. The pool adds threads when tasks block, and removes them when
+     * they are idle. 0 means the number of available processors.
+     */
+    static public PAPropertyInteger PA_GROUP_DISPATCH_THREADS = new PAPropertyInteger("proactive.group.dispatch.threads",
+                                                                                      false,
+                                                                                      0);
+
     // -------------- Misc
 
     /**
@@ -665,6 +834,16 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
                                                                                      false,
                                                                                      false);
 
+    /**
+     * if true, each active object records, per method, how long its requests wait in the request
+     * queue, are served and have their reply sent. The histograms are read through the JMX MBeans
+     * of the active objects and of the runtime. Only the active objects created while this
+     * property is true record latencies.
+     */
+    static public PAPropertyBoolean PA_LATENCY_HISTOGRAMS = new PAPropertyBoolean("proactive.latency.histograms",
+                                                                                  false,
+                                                                                  true);
+
     /**
      * on unix system, define the shell that the GCM deployment invokes when creating new runtimes.
      */
@@ -686,6 +865,28 @@ public class CentralPAPropertyRepository implements PAPropertiesLoaderSPI {
     static public PAPropertyString PA_MOP_GENERATEDCLASSES_DIR = new PAPropertyString("proactive.mop.generatedclassesdir",
                                                                                       false);
 
+    /**
+     * Strategy used to copy the arguments of calls between active objects of the same runtime
+     * <p/>
+     * Supported values are: serialization (default, the arguments are serialized and deserialized),
+     * reflection (immutable objects are shared and other objects are copied field by field, falling
+     * back to serialization when needed) or the name of a class implementing
+     * {@link org.objectweb.proactive.core.mop.DeepCopyStrategy}
+     */
+    static public PAPropertyString PA_MOP_DEEP_COPY = new PAPropertyString("proactive.mop.deep_copy",
+                                                                           false,
+                                                                           "serialization");
+
+    /**
+     * if true, the MethodCall objects of one-way calls sent to remote active objects are reused
+     * by the calling thread once the request has been sent
+     * <p/>
+     * Only enable it when the transports in use serialize requests in the calling thread.
+     */
+    static public PAPropertyBoolean PA_MOP_RECYCLE_ONEWAY_CALLS = new PAPropertyBoolean("proactive.mop.recycle_oneway_calls",
+                                                                                        false,
+                                                                                        false);
+
     /**
      * activate or not the ping feature in ProActive -- each time a runtime
      * starts it pings a given web server.
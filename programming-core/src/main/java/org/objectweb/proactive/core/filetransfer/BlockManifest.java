@@ -0,0 +1,225 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.filetransfer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.BitSet;
+
+
+/**
+ * This class keeps track of the blocks of a striped transfer that have been
+ * durably written on the destination.
+ *
+ * The receiving side stores it next to the destination file, so that a transfer
+ * interrupted by a failure can be resumed later on without sending again the
+ * blocks already written. A manifest is only reused when the source file has the
+ * same length and modification date, and the transfer uses the same block size.
+ *
+ * @author The ProActive Team
+ */
+public class BlockManifest implements Serializable {
+    private static final int MAGIC = 0x5041464d; // PAFM
+
+    private static final String MANIFEST_SUFFIX = ".pamanifest";
+
+    private long length;
+
+    private long lastModified;
+
+    private int blockSize;
+
+    private BitSet completed;
+
+    /**
+     * ProActive empty constructor.
+     */
+    public BlockManifest() {
+    }
+
+    public BlockManifest(long length, long lastModified, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.length = length;
+        this.lastModified = lastModified;
+        this.blockSize = blockSize;
+        this.completed = new BitSet();
+    }
+
+    /**
+     * @return The file where the manifest of the specified destination file is stored.
+     */
+    public static File getManifestFile(File dstFile) {
+        return new File(dstFile.getPath() + MANIFEST_SUFFIX);
+    }
+
+    /**
+     * Loads the manifest stored for the specified destination file.
+     *
+     * @return The manifest, or null if there is none or it cannot be read.
+     */
+    public static BlockManifest load(File dstFile) {
+        File manifestFile = getManifestFile(dstFile);
+        if (!manifestFile.isFile()) {
+            return null;
+        }
+
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new FileInputStream(manifestFile));
+            if (dis.readInt() != MAGIC) {
+                return null;
+            }
+            BlockManifest manifest = new BlockManifest(dis.readLong(), dis.readLong(), dis.readInt());
+            byte[] bits = new byte[dis.readInt()];
+            dis.readFully(bits);
+            manifest.completed = BitSet.valueOf(bits);
+            return manifest;
+        } catch (IOException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        } finally {
+            if (dis != null) {
+                try {
+                    dis.close();
+                } catch (IOException e) {
+                    //We don't care about closing exceptions
+                }
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces the manifest stored for the specified destination file.
+     */
+    public synchronized void store(File dstFile) throws IOException {
+        File manifestFile = getManifestFile(dstFile);
+        File tmpFile = new File(manifestFile.getPath() + ".tmp");
+
+        FileOutputStream fos = new FileOutputStream(tmpFile);
+        try {
+            DataOutputStream dos = new DataOutputStream(fos);
+            byte[] bits = completed.toByteArray();
+            dos.writeInt(MAGIC);
+            dos.writeLong(length);
+            dos.writeLong(lastModified);
+            dos.writeInt(blockSize);
+            dos.writeInt(bits.length);
+            dos.write(bits);
+            dos.flush();
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+
+        if (!tmpFile.renameTo(manifestFile)) {
+            // renameTo does not replace an existing file on every platform
+            manifestFile.delete();
+            if (!tmpFile.renameTo(manifestFile)) {
+                throw new IOException("Cannot write transfer manifest: " + manifestFile);
+            }
+        }
+    }
+
+    /**
+     * Deletes the manifest stored for the specified destination file.
+     */
+    public static void delete(File dstFile) {
+        getManifestFile(dstFile).delete();
+    }
+
+    /**
+     * @return true if this manifest describes a transfer of the same source with the same block size.
+     */
+    public boolean matches(long length, long lastModified, int blockSize) {
+        return (this.length == length) && (this.lastModified == lastModified) && (this.blockSize == blockSize);
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return The number of blocks the file is split into.
+     */
+    public int getNumberOfBlocks() {
+        return (int) ((length + blockSize - 1) / blockSize);
+    }
+
+    /**
+     * @return The position in the file of the specified block.
+     */
+    public long getBlockOffset(int index) {
+        return (long) index * blockSize;
+    }
+
+    /**
+     * @return The number of bytes of the specified block.
+     */
+    public int getBlockLength(int index) {
+        return (int) Math.min(blockSize, length - getBlockOffset(index));
+    }
+
+    public synchronized boolean isCompleted(int index) {
+        return completed.get(index);
+    }
+
+    public synchronized void setCompleted(int index) {
+        completed.set(index);
+    }
+
+    public synchronized int getNumberOfCompletedBlocks() {
+        return completed.cardinality();
+    }
+
+    public synchronized boolean isComplete() {
+        return completed.cardinality() == getNumberOfBlocks();
+    }
+
+    /**
+     * @return A copy of this manifest, which can be updated independently.
+     */
+    public synchronized BlockManifest copy() {
+        BlockManifest manifest = new BlockManifest(length, lastModified, blockSize);
+        manifest.completed = (BitSet) completed.clone();
+        return manifest;
+    }
+}
@@ -27,8 +27,12 @@ package org.objectweb.proactive.core.filetransfer;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
@@ -45,6 +49,9 @@ import org.objectweb.proactive.core.util.log.ProActiveLogger;
  *
  */
 public class FileBlock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     protected static Logger logger = ProActiveLogger.getLogger(Loggers.FILETRANSFER);
 
     public static final int DEFAULT_BLOCK_SIZE = CentralPAPropertyRepository.PA_FILETRANSFER_MAX_BLOCK_SIZE.getValue() *
@@ -58,6 +65,8 @@ public class FileBlock implements Serializable {
 
     private int blockSize;
 
+    private long checksum;
+
     private Exception exception;
 
     /**
@@ -112,6 +121,63 @@ public class FileBlock implements Serializable {
         bos.write(buffer, 0, usage);
     }
 
+    /**
+     * Loads the FileBlock object with the specified range of a file, using a positional read
+     * which does not depend on the position of the channel. Several blocks can therefore be
+     * loaded concurrently from the same channel. The checksum of the block is computed as well.
+     *
+     * @param channel The channel of the source file.
+     * @param position The position of the block in the file.
+     * @param length The number of bytes to load, at most the block size.
+     */
+    public void loadBlock(FileChannel channel, long position, int length) throws IOException {
+        if (length > blockSize) {
+            throw new IllegalArgumentException("Block length " + length + " is greater than the block size " +
+                                               blockSize);
+        }
+
+        usage = 0;
+        ByteBuffer bb = ByteBuffer.wrap(buffer, 0, length);
+        while (bb.hasRemaining()) {
+            if (channel.read(bb, position + bb.position()) < 0) {
+                throw new EOFException("Unexpected end of file at position " + (position + bb.position()));
+            }
+        }
+
+        offset = position;
+        usage = length;
+        checksum = computeChecksum();
+    }
+
+    /**
+     * Saves the current block at its position in a file, using a positional write.
+     * @param channel The channel of the destination file.
+     * @throws IOException If an error is encountered or the block is corrupted.
+     */
+    public void saveBlock(FileChannel channel) throws IOException {
+        if (!hasValidChecksum()) {
+            throw new IOException("Corrupted file block at offset " + offset);
+        }
+
+        ByteBuffer bb = ByteBuffer.wrap(buffer, 0, usage);
+        while (bb.hasRemaining()) {
+            channel.write(bb, offset + bb.position());
+        }
+    }
+
+    /**
+     * @return true if the content of the block matches the checksum computed when it was loaded.
+     */
+    public boolean hasValidChecksum() {
+        return checksum == computeChecksum();
+    }
+
+    private long computeChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update(buffer, 0, usage);
+        return crc.getValue();
+    }
+
     /**
      * @return Returns the offset.
      */
@@ -126,6 +192,20 @@ public class FileBlock implements Serializable {
         return blockSize;
     }
 
+    /**
+     * @return Returns the number of bytes loaded in the block.
+     */
+    public int getUsage() {
+        return usage;
+    }
+
+    /**
+     * @return Returns the checksum of the loaded bytes.
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
     public Exception getException() {
         return exception;
     }
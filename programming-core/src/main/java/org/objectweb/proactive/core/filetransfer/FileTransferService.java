@@ -32,7 +32,21 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.Body;
@@ -40,10 +54,12 @@ import org.objectweb.proactive.InitActive;
 import org.objectweb.proactive.ProActiveInternalObject;
 import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.util.log.Loggers;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 
 
 /**
@@ -52,6 +68,15 @@ import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
  *
  * This class is not Serializable on purpose.
  *
+ * When {@link CentralPAPropertyRepository#PA_FILETRANSFER_STRIPES} is set, files larger than
+ * {@link CentralPAPropertyRepository#PA_FILETRANSFER_STRIPE_THRESHOLD} are sent with a striped
+ * transfer: the file is split into ranges of blocks which are sent in parallel by several threads,
+ * using positional reads and writes. Each block carries a checksum verified by the receiver, and
+ * the receiver keeps a {@link BlockManifest} of the written blocks so that a transfer interrupted
+ * before its end is resumed when it is issued again. The manifest of a transfer which fails is
+ * kept; it is only replaced when the next transfer does not match it (length, modification date,
+ * block size) or when it cannot be read.
+ *
  * @author The ProActive Team
  */
 public class FileTransferService
@@ -63,8 +88,22 @@ public class FileTransferService
     public static final int DEFAULT_BUFFER_SIZE = CentralPAPropertyRepository.PA_FILETRANSFER_MAX_BUFFER_SIZE.getValue() *
                                                   1024; //Bytes
 
+    public static final long DEFAULT_STRIPE_THRESHOLD = CentralPAPropertyRepository.PA_FILETRANSFER_STRIPE_THRESHOLD.getValue() *
+                                                        1024L; //Bytes
+
+    /** The number of times a block rejected by the receiver is sent again */
+    private static final int MAX_BLOCK_RETRIES = 2;
+
+    /** The number of written blocks after which the receiver forces the file and updates the manifest */
+    private static final int CHECKPOINT_BLOCKS = 32;
+
+    private static final ExecutorService stripeExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("ProActive file transfer stripe",
+                                                                                                              true));
+
     protected HashMap<File, BufferedOutputStream> writeBufferMap; //Map for storing the opened output sockets
 
+    protected Map<UniqueID, StripedWrite> stripedWriteMap; //Map for storing the opened striped transfers, by transfer id
+
     /**
      * This is an empty constructor for ProActive's MOP. Don't use directly.
      */
@@ -75,6 +114,13 @@ public class FileTransferService
     //TODO Java 1.6: @Override
     public void initActivity(Body body) {
         writeBufferMap = new HashMap<File, BufferedOutputStream>();
+        stripedWriteMap = new ConcurrentHashMap<UniqueID, StripedWrite>();
+
+        // blocks of striped transfers are written concurrently with positional writes
+        PAActiveObject.setImmediateService("openStripedWrite");
+        PAActiveObject.setImmediateService("saveStripedBlock");
+        PAActiveObject.setImmediateService("closeStripedWrite");
+        PAActiveObject.setImmediateService("abortStripedWrite");
 
         //PAActiveObject.setImmediateService("requestFileTransfer", new Class[] { FileTransferRequest.class });
     }
@@ -138,6 +184,91 @@ public class FileTransferService
         return writeBufferMap.get(f);
     }
 
+    public BlockManifest openStripedWrite(UniqueID transferId, File dstFile, long length, long lastModified,
+            int blockSize) throws IOException {
+        StripedWrite stripedWrite;
+        synchronized (stripedWriteMap) {
+            // a transfer to the same file left by a dead sender is closed so that its blocks are resumed
+            Iterator<Map.Entry<UniqueID, StripedWrite>> it = stripedWriteMap.entrySet().iterator();
+            while (it.hasNext()) {
+                StripedWrite previous = it.next().getValue();
+                if (previous.dstFile.getAbsoluteFile().equals(dstFile.getAbsoluteFile())) {
+                    it.remove();
+                    try {
+                        previous.close();
+                    } catch (IOException e) {
+                        logger.debug("Unable to close the previous transfer to " + dstFile.getAbsolutePath(), e);
+                    }
+                }
+            }
+
+            stripedWrite = new StripedWrite(dstFile, length, lastModified, blockSize);
+            stripedWriteMap.put(transferId, stripedWrite);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Striped transfer to " + dstFile.getAbsolutePath() + " opened, " +
+                         stripedWrite.manifest.getNumberOfCompletedBlocks() + " of " +
+                         stripedWrite.manifest.getNumberOfBlocks() + " blocks already written");
+        }
+
+        return stripedWrite.manifest.copy();
+    }
+
+    public OperationStatus saveStripedBlock(UniqueID transferId, FileBlock block) {
+        StripedWrite stripedWrite = stripedWriteMap.get(transferId);
+        if (stripedWrite == null) {
+            return new OperationStatus(new IOException("No striped transfer opened with id: " + transferId));
+        }
+
+        try {
+            stripedWrite.save(block);
+        } catch (IOException e) {
+            return new OperationStatus(e);
+        }
+        return new OperationStatus();
+    }
+
+    public OperationStatus closeStripedWrite(UniqueID transferId) {
+        StripedWrite stripedWrite = stripedWriteMap.remove(transferId);
+        if (stripedWrite == null) {
+            return new OperationStatus(new IOException("No striped transfer opened with id: " + transferId));
+        }
+
+        File dstFile = stripedWrite.dstFile;
+        try {
+            stripedWrite.close();
+        } catch (IOException e) {
+            // the manifest still lists the blocks written before the failure
+            return new OperationStatus(e);
+        }
+
+        BlockManifest manifest = stripedWrite.manifest;
+        if (!manifest.isComplete()) {
+            // kept so that the next transfer resumes
+            return new OperationStatus(new IOException("Incomplete transfer to " + dstFile + ": " +
+                                                       manifest.getNumberOfCompletedBlocks() + " of " +
+                                                       manifest.getNumberOfBlocks() + " blocks written"));
+        }
+        BlockManifest.delete(dstFile);
+        return new OperationStatus();
+    }
+
+    public OperationStatus abortStripedWrite(UniqueID transferId) {
+        StripedWrite stripedWrite = stripedWriteMap.remove(transferId);
+        if (stripedWrite == null) {
+            return new OperationStatus(new IOException("No striped transfer opened with id: " + transferId));
+        }
+
+        try {
+            // the blocks already written are kept in the manifest, the next transfer resumes
+            stripedWrite.close();
+        } catch (IOException e) {
+            return new OperationStatus(e);
+        }
+        return new OperationStatus();
+    }
+
     public OperationStatus mkdirs(File dstFile) {
         if (!dstFile.exists() && !dstFile.mkdirs()) {
             return new OperationStatus(new IOException("Cannot creat directory: " + dstFile));
@@ -211,7 +342,12 @@ public class FileTransferService
     protected void internalSend(File srcFile, FileTransferServiceReceive ftsRemote, File dstFile, int bsize,
             int numFlyingBlocks) throws IOException {
         if (srcFile.isFile()) {
-            internalSendFile(srcFile, ftsRemote, dstFile, bsize, numFlyingBlocks);
+            int numStripes = CentralPAPropertyRepository.PA_FILETRANSFER_STRIPES.getValue();
+            if ((numStripes > 1) && (srcFile.length() >= DEFAULT_STRIPE_THRESHOLD)) {
+                internalSendFileStriped(srcFile, ftsRemote, dstFile, bsize, numFlyingBlocks, numStripes);
+            } else {
+                internalSendFile(srcFile, ftsRemote, dstFile, bsize, numFlyingBlocks);
+            }
         } else if (srcFile.isDirectory()) {
             ftsRemote.mkdirs(dstFile);
             File[] files = srcFile.listFiles();
@@ -311,6 +447,112 @@ public class FileTransferService
         return true;
     }
 
+    /**
+     * This method handles the sending of a file with a striped transfer.
+     * @param ftsRemote The remote FileTransferService object that will receive the file.
+     * @param srcFile The local source of the file.
+     * @param dstFile The remote destination of the file.
+     * @param bsize The size of the blocks the file will be split into.
+     * @param numFlyingBlocks The number of simultaneous blocks that will be sent by each stripe.
+     * @param numStripes The number of stripes sent in parallel.
+     * @return The result status of the operation.
+     */
+    protected boolean internalSendFileStriped(File srcFile, FileTransferServiceReceive ftsRemote, File dstFile,
+            int bsize, int numFlyingBlocks, int numStripes) throws IOException {
+        long init = System.currentTimeMillis();
+
+        FileInputStream fis;
+        try {
+            fis = new FileInputStream(srcFile.getAbsolutePath());
+        } catch (FileNotFoundException e) {
+            throw new IOException("Cannot open for sending:" + srcFile.getAbsoluteFile(), e);
+        }
+
+        try {
+            UniqueID transferId = new UniqueID();
+            BlockManifest manifest;
+            try {
+                manifest = ftsRemote.openStripedWrite(transferId,
+                                                      dstFile,
+                                                      srcFile.length(),
+                                                      srcFile.lastModified(),
+                                                      bsize);
+            } catch (Exception e) {
+                throw new IOException("Unable to open remote file for writing: " + dstFile.getAbsolutePath(), e);
+            }
+
+            int totalNumBlocks = manifest.getNumberOfBlocks();
+            int blocksPerStripe = (totalNumBlocks + numStripes - 1) / numStripes;
+            AtomicBoolean aborted = new AtomicBoolean();
+
+            List<Future<Integer>> stripes = new ArrayList<Future<Integer>>(numStripes);
+            for (int first = 0; first < totalNumBlocks; first += blocksPerStripe) {
+                int last = Math.min(first + blocksPerStripe, totalNumBlocks);
+                stripes.add(stripeExecutor.submit(new StripeSender(fis.getChannel(),
+                                                                   manifest,
+                                                                   first,
+                                                                   last,
+                                                                   ftsRemote,
+                                                                   transferId,
+                                                                   dstFile,
+                                                                   numFlyingBlocks,
+                                                                   aborted)));
+            }
+
+            long numBlocks = 0;
+            IOException failure = null;
+            for (Future<Integer> stripe : stripes) {
+                try {
+                    numBlocks += stripe.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = (e.getCause() instanceof IOException) ? (IOException) e.getCause()
+                                                                        : new IOException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    aborted.set(true);
+                    Thread.currentThread().interrupt();
+                    if (failure == null) {
+                        failure = new IOException("Interrupted while sending: " + srcFile.getAbsolutePath());
+                    }
+                }
+            }
+
+            if (failure != null) {
+                try {
+                    // the blocks written so far are kept by the receiver, the next transfer resumes
+                    PAFuture.waitFor(ftsRemote.abortStripedWrite(transferId));
+                } catch (Exception e) {
+                    logger.debug("Unable to close remote file " + dstFile.getAbsolutePath(), e);
+                }
+                throw new IOException("Cannot send file block to:" + PAActiveObject.getActiveObjectNodeUrl(ftsRemote),
+                                      failure);
+            }
+
+            OperationStatus status = ftsRemote.closeStripedWrite(transferId);
+            PAFuture.waitFor(status);
+            if (status.hasException()) {
+                throw status.getException();
+            }
+
+            if (logger.isDebugEnabled()) {
+                long fin = System.currentTimeMillis();
+                long delta = (fin - init);
+                logger.debug("File " + dstFile.getAbsolutePath() + " sent using " + numBlocks + " blocks (" +
+                             (totalNumBlocks - numBlocks) + " resumed) in " + stripes.size() + " stripes, in: " +
+                             delta + "[ms]");
+            }
+        } finally {
+            try {
+                fis.close();
+            } catch (IOException e) {
+                //We don't care about closing exceptions
+            }
+        }
+
+        return true;
+    }
+
     protected void close(BufferedInputStream bis) {
         try {
             bis.close();
@@ -334,4 +576,189 @@ public class FileTransferService
         putBackInLocalPool();
         ftsDst.putBackInLocalPool();
     }
+
+    /**
+     * Sends a range of blocks of a file, keeping up to numFlyingBlocks blocks
+     * in flight and sending again the blocks rejected by the receiver.
+     */
+    private static class StripeSender implements Callable<Integer> {
+        private final FileChannel channel;
+
+        private final BlockManifest manifest;
+
+        private final int first;
+
+        private final int last;
+
+        private final FileTransferServiceReceive ftsRemote;
+
+        private final UniqueID transferId;
+
+        private final File dstFile;
+
+        private final int numFlyingBlocks;
+
+        private final AtomicBoolean aborted;
+
+        private final FileBlock fileBlock;
+
+        StripeSender(FileChannel channel, BlockManifest manifest, int first, int last,
+                FileTransferServiceReceive ftsRemote, UniqueID transferId, File dstFile, int numFlyingBlocks,
+                AtomicBoolean aborted) {
+            this.channel = channel;
+            this.manifest = manifest;
+            this.first = first;
+            this.last = last;
+            this.ftsRemote = ftsRemote;
+            this.transferId = transferId;
+            this.dstFile = dstFile;
+            this.numFlyingBlocks = Math.max(1, numFlyingBlocks);
+            this.aborted = aborted;
+            this.fileBlock = new FileBlock(0, manifest.getBlockSize());
+        }
+
+        public Integer call() throws IOException {
+            LinkedList<Integer> flyingIndexes = new LinkedList<Integer>();
+            LinkedList<OperationStatus> flyingStatus = new LinkedList<OperationStatus>();
+            int numBlocks = 0;
+
+            try {
+                for (int i = first; (i < last) && !aborted.get(); i++) {
+                    if (manifest.isCompleted(i)) {
+                        continue;
+                    }
+
+                    flyingStatus.add(sendBlock(i));
+                    flyingIndexes.add(i);
+                    numBlocks++;
+
+                    if (flyingStatus.size() >= numFlyingBlocks) { //rendezvous the oldest block, so the remote AO will not be drowned
+                        checkBlock(flyingIndexes.removeFirst(), flyingStatus.removeFirst());
+                    }
+                }
+
+                while (!flyingStatus.isEmpty()) {
+                    checkBlock(flyingIndexes.removeFirst(), flyingStatus.removeFirst());
+                }
+            } catch (IOException e) {
+                aborted.set(true);
+                throw e;
+            } catch (RuntimeException e) {
+                aborted.set(true);
+                throw e;
+            }
+
+            return numBlocks;
+        }
+
+        private OperationStatus sendBlock(int index) throws IOException {
+            fileBlock.loadBlock(channel, manifest.getBlockOffset(index), manifest.getBlockLength(index));
+            return ftsRemote.saveStripedBlock(transferId, fileBlock); //remote (async) invocation
+        }
+
+        private void checkBlock(int index, OperationStatus status) throws IOException {
+            PAFuture.waitFor(status);
+            for (int retry = 0; status.hasException() && (retry < MAX_BLOCK_RETRIES); retry++) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Sending again block " + index + " of " + dstFile.getAbsolutePath(),
+                                 status.getException());
+                }
+                status = sendBlock(index);
+                PAFuture.waitFor(status);
+            }
+
+            if (status.hasException()) {
+                throw status.getException();
+            }
+        }
+    }
+
+    /**
+     * The receiving side of a striped transfer. Blocks are written concurrently with
+     * positional writes, and the manifest is updated once the written blocks are durable.
+     */
+    protected static class StripedWrite {
+        private final File dstFile;
+
+        private final RandomAccessFile raf;
+
+        private final FileChannel channel;
+
+        private final BlockManifest manifest;
+
+        private final List<Integer> writtenBlocks;
+
+        StripedWrite(File dstFile, long length, long lastModified, int blockSize) throws IOException {
+            File parent = dstFile.getAbsoluteFile().getParentFile();
+            if ((parent != null) && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot creat directory: " + parent);
+            }
+
+            BlockManifest previous = BlockManifest.load(dstFile);
+            boolean resume = (previous != null) && previous.matches(length, lastModified, blockSize) &&
+                             (dstFile.length() == length);
+
+            this.dstFile = dstFile;
+            this.raf = new RandomAccessFile(dstFile, "rw");
+            this.channel = raf.getChannel();
+            this.writtenBlocks = new ArrayList<Integer>();
+
+            try {
+                if (resume) {
+                    this.manifest = previous;
+                } else {
+                    this.manifest = new BlockManifest(length, lastModified, blockSize);
+                    raf.setLength(length);
+                    manifest.store(dstFile);
+                }
+            } catch (IOException e) {
+                raf.close();
+                BlockManifest.delete(dstFile);
+                throw e;
+            }
+        }
+
+        void save(FileBlock block) throws IOException {
+            int blockSize = manifest.getBlockSize();
+            long offset = block.getOffset();
+            if ((offset % blockSize != 0) || (offset >= manifest.getLength()) ||
+                (block.getUsage() != manifest.getBlockLength((int) (offset / blockSize)))) {
+                throw new IOException("Unexpected file block at offset " + offset + " for: " + dstFile);
+            }
+
+            block.saveBlock(channel);
+
+            synchronized (this) {
+                writtenBlocks.add((int) (offset / blockSize));
+                if (writtenBlocks.size() >= CHECKPOINT_BLOCKS) {
+                    checkpoint();
+                }
+            }
+        }
+
+        private synchronized void checkpoint() throws IOException {
+            if (writtenBlocks.isEmpty()) {
+                return;
+            }
+
+            channel.force(false);
+            for (int index : writtenBlocks) {
+                manifest.setCompleted(index);
+            }
+            writtenBlocks.clear();
+            manifest.store(dstFile);
+        }
+
+        /**
+         * Records the written blocks in the manifest and closes the file. The manifest is only
+         * replaced when the next transfer does not match it.
+         */
+        synchronized void close() throws IOException {
+            try {
+                checkpoint();
+            } finally {
+                raf.close();
+            }
+        }
+    }
 }
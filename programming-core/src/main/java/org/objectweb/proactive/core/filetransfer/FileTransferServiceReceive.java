@@ -28,6 +28,7 @@ package org.objectweb.proactive.core.filetransfer;
 import java.io.File;
 import java.io.IOException;
 
+import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
 
 
@@ -40,6 +41,45 @@ public interface FileTransferServiceReceive {
 
     public void saveFileBlockWithoutThrowingException(File dstFile, FileBlock block);
 
+    /**
+     * Opens the destination of a striped transfer. If a transfer of the same source interrupted
+     * before its end left a manifest next to the destination, the transfer is resumed. A transfer
+     * to the same destination still opened, by a sender which died for instance, is closed first.
+     *
+     * @param transferId The identifier of the transfer, used by the following calls.
+     * @param dstFile The destination file.
+     * @param length The length of the source file.
+     * @param lastModified The modification date of the source file.
+     * @param blockSize The size of the blocks the file is split into.
+     * @return The manifest of the blocks already written.
+     */
+    public BlockManifest openStripedWrite(UniqueID transferId, File dstFile, long length, long lastModified,
+            int blockSize) throws IOException;
+
+    /**
+     * Writes a block of a striped transfer at its position in the destination file.
+     * Blocks can be received concurrently and in any order.
+     *
+     * @return The result status of the operation, with an exception if the block is corrupted.
+     */
+    public OperationStatus saveStripedBlock(UniqueID transferId, FileBlock block);
+
+    /**
+     * Closes the destination of a striped transfer and removes its manifest once all the blocks
+     * have been written. The manifest of an incomplete transfer is kept.
+     *
+     * @return The result status of the operation, with an exception if the transfer is incomplete.
+     */
+    public OperationStatus closeStripedWrite(UniqueID transferId);
+
+    /**
+     * Closes the destination of a striped transfer which failed. The blocks written so far are
+     * kept in its manifest, so that the next transfer resumes after them.
+     *
+     * @return The result status of the operation.
+     */
+    public OperationStatus abortStripedWrite(UniqueID transferId);
+
     public void putBackInLocalPool();
 
     public OperationStatus mkdirs(File dstFile);
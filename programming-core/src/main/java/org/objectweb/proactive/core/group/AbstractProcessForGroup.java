@@ -25,6 +25,7 @@
  */
 package org.objectweb.proactive.core.group;
 
+import java.util.List;
 import java.util.Vector;
 
 import org.objectweb.proactive.core.body.future.FutureProxy;
@@ -50,7 +51,7 @@ public abstract class AbstractProcessForGroup implements Runnable {
         return proxy;
     }
 
-    protected Vector<?> memberList;
+    protected List<?> memberList;
 
     protected ProxyForGroup proxyGroup;
 
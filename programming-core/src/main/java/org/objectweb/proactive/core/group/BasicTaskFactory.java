@@ -35,6 +35,7 @@ import java.util.concurrent.CountDownLatch;
 
 import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.api.PAGroup;
+import org.objectweb.proactive.core.body.proxy.UniversalBodyProxy;
 import org.objectweb.proactive.core.mop.MethodCall;
 import org.objectweb.proactive.core.mop.StubObject;
 
@@ -66,20 +67,21 @@ public class BasicTaskFactory implements TaskFactory {
      * must be in *scatter* mode in order to take advantage of dynamic dispatch.
      * 
      */
-    public List<MethodCall> generateMethodCalls(MethodCall mc) throws InvocationTargetException {
-        List<MethodCall> methodsToDispatch = new ArrayList<MethodCall>(getNbTasks(mc));
+    public List<MethodCall> generateMethodCalls(MethodCall mc, List<?> members) throws InvocationTargetException {
+        int nbTasks = getNbTasks(mc, members.size());
+        List<MethodCall> methodsToDispatch = new ArrayList<MethodCall>(nbTasks);
         if (!groupProxy.isDispatchingCall(mc)) {
             // enqueue all tasks with same parameters
             if (groupProxy.isUniqueSerializationOn()) {
                 mc.transformEffectiveArgumentsIntoByteArray();
             }
             // broadcast
-            for (int i = 0; i < getNbTasks(mc); i++) {
+            for (int i = 0; i < nbTasks; i++) {
                 methodsToDispatch.add(mc);
             }
         } else { // isDispatchingCall == true
 
-            for (int i = 0; i < getNbTasks(mc); i++) {
+            for (int i = 0; i < nbTasks; i++) {
                 Object[] individualEffectiveArguments = new Object[mc.getNumberOfParameter()];
                 for (int j = 0; j < mc.getNumberOfParameter(); j++)
                     if (PAGroup.isScatterGroupOn(mc.getParameter(j))) {
@@ -99,7 +101,7 @@ public class BasicTaskFactory implements TaskFactory {
 
     }
 
-    private int getNbTasks(MethodCall mc) {
+    private int getNbTasks(MethodCall mc, int nbMembers) {
 
         int nbTasks = 0;
         // for standard proactive groups, the number of tasks is given by the
@@ -122,7 +124,7 @@ public class BasicTaskFactory implements TaskFactory {
             }
         }
         if ((broadcast == true) || (maxParameters == 0)) {
-            nbTasks = groupProxy.getMemberList().size();
+            nbTasks = nbMembers;
         } else {
             nbTasks = maxParameters;
         }
@@ -132,7 +134,11 @@ public class BasicTaskFactory implements TaskFactory {
 
     public Queue<AbstractProcessForGroup> generateTasks(MethodCall originalMethodCall, List<MethodCall> methodCalls,
             Object result, ExceptionListException exceptionList, CountDownLatch doneSignal,
-            ProxyForGroup<?> groupProxy) {
+            ProxyForGroup<?> groupProxy, List<?> members) {
+
+        if (useMulticastTree(originalMethodCall, methodCalls, members)) {
+            return generateTreeTasks(originalMethodCall, result, exceptionList, doneSignal, groupProxy, members);
+        }
 
         Queue<AbstractProcessForGroup> taskList = new ConcurrentLinkedQueue<AbstractProcessForGroup>();
 
@@ -143,7 +149,7 @@ public class BasicTaskFactory implements TaskFactory {
         // tasks
         // reorder(methodCalls, originalMethodCall.getReifiedMethod());
 
-        List<Integer> taskIndexes = getTaskIndexes(originalMethodCall, methodCalls, groupProxy.getMemberList().size());
+        List<Integer> taskIndexes = getTaskIndexes(originalMethodCall, methodCalls, members.size());
         if (!(result == null)) {
             memberListOfResultGroup = initializeResultsGroup(result, methodCalls.size());
         }
@@ -151,17 +157,16 @@ public class BasicTaskFactory implements TaskFactory {
         for (int i = 0; i < methodCalls.size(); i++) {
             MethodCall mc = methodCalls.get(i);
             AbstractProcessForGroup task = useOneWayProcess(mc) ? new ProcessForOneWayCall(groupProxy,
-                                                                                           groupProxy.getMemberList(),
+                                                                                           members,
                                                                                            getTaskIndex(mc,
                                                                                                         i,
-                                                                                                        groupProxy.getMemberList()
-                                                                                                                  .size()),
+                                                                                                        members.size()),
                                                                                            mc,
                                                                                            PAActiveObject.getBodyOnThis(),
                                                                                            exceptionList,
                                                                                            doneSignal)
                                                                 : new ProcessForAsyncCall(groupProxy,
-                                                                                          groupProxy.getMemberList(),
+                                                                                          members,
                                                                                           memberListOfResultGroup,
                                                                                           taskIndexes.get(i),
                                                                                           mc,
@@ -178,6 +183,57 @@ public class BasicTaskFactory implements TaskFactory {
         return taskList;
     }
 
+    /**
+     * Checks whether a call is relayed along the multicast overlay of the group: it must be a
+     * plain broadcast to active objects, without any dispatch mode.
+     */
+    protected boolean useMulticastTree(MethodCall mc, List<MethodCall> methodCalls, List<?> members) {
+        if (groupProxy.getMulticastOverlay() == null || members.isEmpty() || methodCalls.size() != members.size() ||
+            (mc instanceof MethodCallControlForGroup) || !groupProxy.balancing().equals(DispatchMode.UNSPECIFIED) ||
+            mc.getReifiedMethod().getAnnotation(Dispatch.class) != null) {
+            return false;
+        }
+        for (MethodCall methodCall : methodCalls) {
+            if (methodCall != mc) {
+                // parameters are scattered
+                return false;
+            }
+        }
+        for (Object member : members) {
+            if (!(AbstractProcessForGroup.findLastProxy(member) instanceof UniversalBodyProxy)) {
+                // standard Java objects, groups and failed members are called directly
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates one task per subtree of the caller in the multicast overlay of the group.
+     */
+    protected Queue<AbstractProcessForGroup> generateTreeTasks(MethodCall mc, Object result,
+            ExceptionListException exceptionList, CountDownLatch doneSignal, ProxyForGroup<?> groupProxy,
+            List<?> members) {
+        Queue<AbstractProcessForGroup> taskList = new ConcurrentLinkedQueue<AbstractProcessForGroup>();
+        Vector<Object> memberListOfResultGroup = null;
+        if (!(result == null)) {
+            memberListOfResultGroup = initializeResultsGroup(result, members.size());
+        }
+        // the relays forward the serialized arguments
+        mc.transformEffectiveArgumentsIntoByteArray();
+        for (MulticastNode node : MulticastNode.build(members, groupProxy.getMulticastOverlay())) {
+            taskList.offer(new ProcessForTreeCall(groupProxy,
+                                                  members,
+                                                  memberListOfResultGroup,
+                                                  node,
+                                                  mc,
+                                                  PAActiveObject.getBodyOnThis(),
+                                                  exceptionList,
+                                                  doneSignal));
+        }
+        return taskList;
+    }
+
     protected boolean useOneWayProcess(MethodCall mc) {
         return (mc.isOneWayCall() || (mc.getReifiedMethod().getReturnType() == Void.TYPE));
     }
@@ -28,6 +28,7 @@ package org.objectweb.proactive.core.group;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
@@ -72,6 +73,8 @@ public class DispatchMonitor {
 
     ProxyForGroup<?> groupProxy;
 
+    List<?> members;
+
     Map<Integer, Worker> dispatched = new ConcurrentHashMap<Integer, Worker>();
 
     Map<Worker, Worker> replicated = new ConcurrentHashMap<Worker, Worker>();
@@ -79,10 +82,18 @@ public class DispatchMonitor {
     LinkedList<Worker> rankedWorkers = new LinkedList<Worker>();
 
     public DispatchMonitor(ProxyForGroup<?> groupProxy, int instance) {
+        this(groupProxy, instance, groupProxy.getMemberSnapshot());
+    }
+
+    /**
+     * @param members the snapshot of the members of the group the monitored call is applied to
+     */
+    public DispatchMonitor(ProxyForGroup<?> groupProxy, int instance, List<?> members) {
         this.instance = instance;
         this.groupProxy = groupProxy;
+        this.members = members;
         int index = 0;
-        for (Iterator<?> iterator = groupProxy.iterator(); iterator.hasNext();) {
+        for (Iterator<?> iterator = members.iterator(); iterator.hasNext();) {
             Object member = (Object) iterator.next();
             Worker worker = new Worker(index, groupProxy.bufferSize);
             rankedWorkers.add(worker);
@@ -267,8 +278,8 @@ public class DispatchMonitor {
         boolean refIsBodyProxy = (originatingProxy instanceof BodyProxy);
         //		boolean refIsBodyAdapterImpl = (originatingProxy instanceof BodyAdapterImpl);
         //		boolean refIsBodyAdapterImpl = false;
-        for (int i = 0; i < groupProxy.getMemberList().size(); i++) {
-            BodyProxy groupMemberProxy = (BodyProxy) ((StubObject) groupProxy.getMemberList().get(i)).getProxy();
+        for (int i = 0; i < members.size(); i++) {
+            BodyProxy groupMemberProxy = (BodyProxy) ((StubObject) members.get(i)).getProxy();
             // need some workaround because getBodyID is not part of Proxy
             // interface
             if (refIsBodyProxy) {
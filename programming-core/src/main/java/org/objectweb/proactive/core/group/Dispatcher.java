@@ -25,19 +25,17 @@
  */
 package org.objectweb.proactive.core.group;
 
+import java.util.List;
 import java.util.Queue;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.objectweb.proactive.Body;
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.core.ProActiveRuntimeException;
-import org.objectweb.proactive.utils.NamedThreadFactory;
-import org.objectweb.proactive.utils.ThreadPools;
 
 
 /**
@@ -52,19 +50,22 @@ import org.objectweb.proactive.utils.ThreadPools;
  * previous performance. (This technique does not consider heterogeneity of tasks, but
  * copes with network latency).
  * 
+ * Tasks run on the executor shared by all the groups of the runtime. The number of tasks
+ * of a dispatcher running at the same time is bounded by {@link #getOptimalPoolSize(int)}.
+ * 
  * @author The ProActive Team
  *
  */
 @PublicAPI
 public class Dispatcher {
 
-    ThreadPoolExecutor threadPool;
+    GroupExecutor.Lane lane;
 
     ProxyForGroup groupProxy;
 
     Body body;
 
-    static int dispatcherIndex = 0;
+    static final AtomicInteger dispatcherIndex = new AtomicInteger();
 
     int nbAdditionalThreads = 3;
 
@@ -78,9 +79,7 @@ public class Dispatcher {
         this.groupProxy = groupProxy;
 
         body = PAActiveObject.getBodyOnThis();
-        // thread pool is configurable
-        ThreadFactory tf = new NamedThreadFactory("PAGroup", true);
-        threadPool = ThreadPools.newFixedThreadPool(1, tf);
+        lane = GroupExecutor.getInstance().newLane();
     }
 
     protected int getOptimalPoolSize(int nbMembers) {
@@ -101,14 +100,34 @@ public class Dispatcher {
         }
     }
 
-    private void checkOptimalPoolSize() {
-        threadPool.setCorePoolSize(getOptimalPoolSize(groupProxy.getMemberList().size()));
-        threadPool.setMaximumPoolSize(getOptimalPoolSize(groupProxy.getMemberList().size()));
+    /**
+     * Returns the number of tasks of this dispatcher waiting for their turn to run.
+     */
+    public int getQueueDepth() {
+        return lane.getQueueDepth();
+    }
+
+    /**
+     * Returns the number of tasks of this dispatcher currently running.
+     */
+    public int getRunningTasks() {
+        return lane.getRunningTasks();
     }
 
     public void dispatchTasks(Queue<AbstractProcessForGroup> taskList, CountDownLatch doneSignal,
             Dispatch loadBalancingAnnotation) {
-        checkOptimalPoolSize();
+        dispatchTasks(taskList, doneSignal, loadBalancingAnnotation, groupProxy.getMemberSnapshot());
+    }
+
+    /**
+     * Dispatches the tasks of a call on the group, and waits for their completion.
+     *
+     * @param members the snapshot of the members of the group the tasks were generated for
+     */
+    public void dispatchTasks(Queue<AbstractProcessForGroup> taskList, CountDownLatch doneSignal,
+            Dispatch loadBalancingAnnotation, List<?> members) {
+        int nbMembers = members.size();
+        lane.setMaxRunningTasks(getOptimalPoolSize(nbMembers));
 
         int nbTasks = taskList.size();
         DispatchMode balancingMode;
@@ -122,7 +141,8 @@ public class Dispatcher {
         }
         DispatchMonitor dispatchMonitor = (balancingMode.equals(DispatchMode.DYNAMIC) ||
                                            balancingMode.equals(DispatchMode.STATIC_RANDOM)) ? new DispatchMonitor(groupProxy,
-                                                                                                                   dispatcherIndex++)
+                                                                                                                   dispatcherIndex.getAndIncrement(),
+                                                                                                                   members)
                                                                                              : null;
 
         // BlockingQueue<AbstractProcessForGroup> spawnedTasks = new
@@ -134,7 +154,7 @@ public class Dispatcher {
 
             // TODO NO NEED FOR ALREADY TARGETED : JUST USE RANDOMIZATION FOR
             // DYNAMIC DISPATCH!
-            for (int j = 0; j < groupProxy.getMemberList().size(); j++) {
+            for (int j = 0; j < nbMembers; j++) {
 
                 boolean foundTaskWithAvailableTarget = false;
                 int iterations = 0;
@@ -154,7 +174,7 @@ public class Dispatcher {
                         // group index and result index are kept as they have
                         // been generated (i.e. round robin or random for group
                         // index)
-                        threadPool.execute(new BufferedTaskContainer(task, dispatchMonitor));
+                        lane.execute(new BufferedTaskContainer(task, dispatchMonitor));
                         alreadyTargeted.add(task.getGroupIndex());
                         foundTaskWithAvailableTarget = true;
                     }
@@ -163,15 +183,15 @@ public class Dispatcher {
             }
         }
 
-        for (int i = (bufferSize * groupProxy.getMemberList().size()); i < nbTasks; i++) {
+        for (int i = (bufferSize * nbMembers); i < nbTasks; i++) {
             AbstractProcessForGroup task = taskList.poll();
             // dynamic dispatch is set on a per-task basis
-            threadPool.execute(task.isDynamicallyDispatchable() ? new DynamicTaskContainer(task, dispatchMonitor)
+            lane.execute(task.isDynamicallyDispatchable() ? new DynamicTaskContainer(task, dispatchMonitor)
                                                                 : new BufferedTaskContainer(task, dispatchMonitor));
         }
 
         try {
-            doneSignal.await();
+            GroupExecutor.await(doneSignal);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
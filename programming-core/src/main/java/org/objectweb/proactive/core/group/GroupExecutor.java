@@ -0,0 +1,290 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.lang.management.ManagementFactory;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+
+
+/**
+ * The executor shared by all the {@link Dispatcher} of the runtime.
+ *
+ * Tasks run on a work-stealing pool sized to the available processors. Most group tasks
+ * only enqueue a request and are run directly. The parts which may block, sending a request
+ * to a remote member, serving a call on a plain object or waiting for a nested group call, go
+ * through {@link #block(BlockingCall)} or {@link #await(CountDownLatch)}, which run them as
+ * {@link ForkJoinPool.ManagedBlocker}: the pool starts threads to compensate for the blocked
+ * ones, and stops them once they are idle.
+ *
+ * Each dispatcher submits its tasks through its own {@link Lane}, which limits how many
+ * of them run at the same time. A group with many members thus cannot take the whole
+ * pool and delay the calls on the other groups.
+ *
+ * @author The ProActive Team
+ */
+class GroupExecutor implements GroupExecutorMBean {
+    static final private Logger logger = ProActiveLogger.getLogger(Loggers.GROUPS);
+
+    static private GroupExecutor instance;
+
+    final private ForkJoinPool pool;
+
+    final private AtomicInteger runningTasks = new AtomicInteger();
+
+    final private AtomicInteger queuedTasks = new AtomicInteger();
+
+    final private AtomicLong completedTasks = new AtomicLong();
+
+    /**
+     * @param parallelism the targeted number of running threads, 0 for the number of available processors
+     */
+    GroupExecutor(int parallelism) {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        this.pool = new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            final private AtomicInteger threadIndex = new AtomicInteger();
+
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+                };
+                thread.setName("PAGroup-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, null, true);
+    }
+
+    /** Returns the executor of this runtime, created on first use */
+    static synchronized GroupExecutor getInstance() {
+        if (instance == null) {
+            instance = new GroupExecutor(CentralPAPropertyRepository.PA_GROUP_DISPATCH_THREADS.getValue());
+            instance.registerMBean();
+        }
+        return instance;
+    }
+
+    /** Exposes the gauges of the executor through JMX */
+    private void registerMBean() {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName oname = new ObjectName("org.objectweb.proactive.core.group:type=GroupExecutor");
+            if (!mbs.isRegistered(oname)) {
+                mbs.registerMBean(this, oname);
+            }
+        } catch (JMException e) {
+            logger.warn("Failed to register the MBean of the group executor", e);
+        }
+    }
+
+    /** Creates the queue through which a dispatcher submits its tasks */
+    Lane newLane() {
+        return new Lane();
+    }
+
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    public int getPoolSize() {
+        return this.pool.getPoolSize();
+    }
+
+    public int getRunningTasks() {
+        return this.runningTasks.get();
+    }
+
+    public int getQueueDepth() {
+        return this.queuedTasks.get();
+    }
+
+    public long getScheduledTasks() {
+        return this.pool.getQueuedSubmissionCount() + this.pool.getQueuedTaskCount();
+    }
+
+    public long getStealCount() {
+        return this.pool.getStealCount();
+    }
+
+    public long getCompletedTasks() {
+        return this.completedTasks.get();
+    }
+
+    /**
+     * The tasks of one dispatcher. At most {@link #getMaxRunningTasks()} of them are
+     * submitted to the pool at the same time, the others wait in FIFO order.
+     */
+    class Lane {
+        final private Queue<Runnable> pending = new ConcurrentLinkedQueue<Runnable>();
+
+        final private AtomicInteger running = new AtomicInteger();
+
+        private volatile int maxRunningTasks = 1;
+
+        public void execute(Runnable task) {
+            this.pending.offer(task);
+            queuedTasks.incrementAndGet();
+            schedule();
+        }
+
+        public int getMaxRunningTasks() {
+            return this.maxRunningTasks;
+        }
+
+        public void setMaxRunningTasks(int maxRunningTasks) {
+            this.maxRunningTasks = Math.max(1, maxRunningTasks);
+            schedule();
+        }
+
+        /** Returns the number of tasks waiting for the lane to be below its maximum */
+        public int getQueueDepth() {
+            return this.pending.size();
+        }
+
+        /** Returns the number of tasks of the lane submitted to the pool */
+        public int getRunningTasks() {
+            return this.running.get();
+        }
+
+        /*
+         * Both the submitters and the completed tasks call this method after having
+         * updated the pending queue or the running count, so no task is left behind.
+         */
+        private void schedule() {
+            for (;;) {
+                int r = this.running.get();
+                if (r >= this.maxRunningTasks || this.pending.isEmpty()) {
+                    return;
+                }
+                if (this.running.compareAndSet(r, r + 1)) {
+                    final Runnable task = this.pending.poll();
+                    if (task == null) {
+                        this.running.decrementAndGet();
+                        continue;
+                    }
+                    queuedTasks.decrementAndGet();
+                    pool.execute(new Runnable() {
+                        public void run() {
+                            runTask(task);
+                        }
+                    });
+                }
+            }
+        }
+
+        private void runTask(final Runnable task) {
+            runningTasks.incrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("A group task failed", e);
+            } finally {
+                runningTasks.decrementAndGet();
+                completedTasks.incrementAndGet();
+                this.running.decrementAndGet();
+                schedule();
+            }
+        }
+    }
+
+    /** A part of a group task which may block */
+    interface BlockingCall<T> {
+        T call() throws Throwable;
+    }
+
+    /**
+     * Runs a part of a group task which may block. When called from a worker of the pool, the
+     * pool compensates for the blocked worker.
+     */
+    static <T> T block(final BlockingCall<T> call) throws Throwable {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+            return call.call();
+        }
+
+        final Object[] result = new Object[1];
+        final Throwable[] failure = new Throwable[1];
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean done;
+
+            public boolean block() {
+                try {
+                    result[0] = call.call();
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+                this.done = true;
+                return true;
+            }
+
+            public boolean isReleasable() {
+                return this.done;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        @SuppressWarnings("unchecked")
+        T t = (T) result[0];
+        return t;
+    }
+
+    /**
+     * Waits for the tasks of a call. When called from a worker of the pool, by a nested
+     * group call for instance, the pool compensates for the blocked worker.
+     */
+    static void await(final CountDownLatch doneSignal) throws InterruptedException {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+            doneSignal.await();
+            return;
+        }
+
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            public boolean block() throws InterruptedException {
+                doneSignal.await();
+                return true;
+            }
+
+            public boolean isReleasable() {
+                return doneSignal.getCount() == 0;
+            }
+        });
+    }
+}
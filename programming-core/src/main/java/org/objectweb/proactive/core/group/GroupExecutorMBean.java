@@ -0,0 +1,76 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+/**
+ * MBean exposing the state of the executor shared by the groups to dispatch their calls.
+ *
+ * @since ProActive 8.4.0
+ */
+public interface GroupExecutorMBean {
+
+    /**
+     * Returns the targeted number of running threads.
+     * @return The parallelism of the pool.
+     */
+    public int getParallelism();
+
+    /**
+     * Returns the number of threads of the pool, including those compensating for blocked tasks.
+     * @return The number of threads.
+     */
+    public int getPoolSize();
+
+    /**
+     * Returns the number of tasks currently running.
+     * @return The number of running tasks.
+     */
+    public int getRunningTasks();
+
+    /**
+     * Returns the number of tasks waiting for their group to be below its share of the pool.
+     * @return The number of tasks waiting in the group queues.
+     */
+    public int getQueueDepth();
+
+    /**
+     * Returns the number of tasks waiting for a thread of the pool.
+     * @return The number of scheduled tasks.
+     */
+    public long getScheduledTasks();
+
+    /**
+     * Returns the number of tasks stolen by a thread from the queue of another one.
+     * @return The number of steals.
+     */
+    public long getStealCount();
+
+    /**
+     * Returns the number of completed tasks.
+     * @return The number of completed tasks.
+     */
+    public long getCompletedTasks();
+}
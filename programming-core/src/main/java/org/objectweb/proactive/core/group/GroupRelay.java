@@ -0,0 +1,183 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.ActiveObjectCreationException;
+import org.objectweb.proactive.Body;
+import org.objectweb.proactive.InitActive;
+import org.objectweb.proactive.ProActiveInternalObject;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.core.body.proxy.UniversalBodyProxy;
+import org.objectweb.proactive.core.mop.MethodCall;
+import org.objectweb.proactive.core.mop.Proxy;
+import org.objectweb.proactive.core.mop.StubObject;
+import org.objectweb.proactive.core.node.NodeException;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+
+
+/**
+ * The active object relaying the broadcasts on a group to the members of a subtree.
+ *
+ * A relay is created on the node of the member at the root of each subtree, the first time
+ * this node is reached, and is then shared by all the broadcasts reaching this node. It sends
+ * the call to the relays of its subtrees and applies the call to its member. It replies as soon
+ * as the call has been sent to its whole subtree: the outcome holds the futures of the results
+ * of the members, updated by automatic continuation, so that the caller only waits for them by
+ * necessity. A relay which fails is forgotten: the current broadcast calls its subtree
+ * directly, the following ones create a new relay.
+ *
+ * Relays are served as immediate services, as a relay sending a call to its subtrees may be
+ * part of the subtree of another broadcast going through the same nodes.
+ *
+ * @author The ProActive Team
+ */
+public class GroupRelay implements ProActiveInternalObject, InitActive, Serializable {
+    static final Logger logger = ProActiveLogger.getLogger(Loggers.GROUPS);
+
+    /** The relays known by this runtime, by node URL */
+    static final private Map<String, GroupRelay> relays = new HashMap<String, GroupRelay>();
+
+    public GroupRelay() {
+    }
+
+    public void initActivity(Body body) {
+        PAActiveObject.setImmediateService("relay");
+    }
+
+    /**
+     * Relays a call to a subtree.
+     *
+     * @param mc the call, its arguments are serialized
+     * @param node the subtree, rooted at a member of the node of this relay
+     * @return the outcome of the call on the subtree
+     */
+    public MulticastResult relay(MethodCall mc, MulticastNode node) {
+        return multicast(mc, node, PAActiveObject.getBodyOnThis().getNodeURL());
+    }
+
+    /**
+     * Sends a call to the subtrees of a node through their relays and applies it to the member
+     * of the node, without waiting for the results.
+     *
+     * @param localNodeUrl the node of the current relay, the subtrees rooted on this node are
+     *        relayed by the current thread
+     */
+    private static MulticastResult multicast(MethodCall mc, MulticastNode node, String localNodeUrl) {
+        MulticastNode[] children = node.getChildren();
+        if (children.length > 0) {
+            // serialize the arguments once for all the subtrees
+            mc.transformEffectiveArgumentsIntoByteArray();
+        }
+        MulticastResult[] results = new MulticastResult[children.length];
+        for (int i = 0; i < children.length; i++) {
+            Object member = children[i].getMember();
+            GroupRelay relay = null;
+            try {
+                // the subtrees rooted on this node are relayed after the call on the member
+                if (!localNodeUrl.equals(PAActiveObject.getActiveObjectNodeUrl(member))) {
+                    relay = getRelay(member);
+                    results[i] = relay.relay(mc, children[i]);
+                }
+            } catch (Exception e) {
+                logger.warn("Cannot relay the call to member " + children[i].getIndex() +
+                            ", its subtree is called directly", e);
+                if (relay != null) {
+                    evict(relay);
+                }
+                results[i] = callDirectly(mc, children[i]);
+            }
+        }
+        MulticastResult outcome = call(mc, node, results);
+        for (int i = 0; i < children.length; i++) {
+            if (results[i] == null) {
+                results[i] = multicast(mc, children[i], localNodeUrl);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Applies a call to all the members of a subtree, without relays.
+     */
+    static MulticastResult callDirectly(MethodCall mc, MulticastNode node) {
+        MulticastNode[] children = node.getChildren();
+        MulticastResult[] results = new MulticastResult[children.length];
+        for (int i = 0; i < children.length; i++) {
+            results[i] = callDirectly(mc, children[i]);
+        }
+        return call(mc, node, results);
+    }
+
+    private static MulticastResult call(MethodCall mc, MulticastNode node, MulticastResult[] children) {
+        Object member = node.getMember();
+        try {
+            Proxy lastProxy = AbstractProcessForGroup.findLastProxy(member);
+            boolean objectIsLocal = (lastProxy instanceof UniversalBodyProxy) &&
+                                    ((UniversalBodyProxy) lastProxy).isLocal();
+            Object result = ((StubObject) member).getProxy().reify(objectIsLocal ? mc.getShallowCopy() : mc);
+            return new MulticastResult(node.getIndex(), result, null, children);
+        } catch (Throwable e) {
+            return new MulticastResult(node.getIndex(), null, e, children);
+        }
+    }
+
+    /**
+     * Returns the relay on the node of an active object, and creates it if needed.
+     */
+    static GroupRelay getRelay(Object member) throws ActiveObjectCreationException, NodeException {
+        String nodeUrl = PAActiveObject.getActiveObjectNodeUrl(member);
+        synchronized (relays) {
+            GroupRelay relay = relays.get(nodeUrl);
+            if (relay == null) {
+                relay = PAActiveObject.newActive(GroupRelay.class, new Object[0], nodeUrl);
+                relays.put(nodeUrl, relay);
+            }
+            return relay;
+        }
+    }
+
+    /**
+     * Forgets a relay which failed, the following broadcasts create a new one on its node.
+     */
+    static void evict(GroupRelay relay) {
+        synchronized (relays) {
+            Iterator<GroupRelay> it = relays.values().iterator();
+            while (it.hasNext()) {
+                // stubs are compared by reference, equals() would be sent to the relay
+                if (it.next() == relay) {
+                    it.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
+
+
+/**
+ * The list of members of a group.
+ *
+ * It keeps an immutable snapshot of the members, rebuilt only after the list has been
+ * modified. A method call on the group works on the snapshot taken when it starts, so that
+ * concurrent calls do not have to lock the group while they are dispatched, and membership
+ * changes do not affect the calls in progress.
+ *
+ * @author The ProActive Team
+ */
+class MemberList<E> extends Vector<E> {
+
+    /** Counts the replacements of members, which do not change modCount */
+    private transient int replacements;
+
+    private transient List<E> snapshot;
+
+    private transient int snapshotModCount;
+
+    private transient int snapshotReplacements;
+
+    MemberList() {
+        super();
+    }
+
+    /**
+     * @return An immutable view of the current members of the group.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<E> snapshot() {
+        if ((snapshot == null) || (snapshotModCount != modCount) || (snapshotReplacements != replacements)) {
+            snapshot = Collections.unmodifiableList(Arrays.asList((E[]) toArray()));
+            snapshotModCount = modCount;
+            snapshotReplacements = replacements;
+        }
+        return snapshot;
+    }
+
+    @Override
+    public synchronized E set(int index, E element) {
+        E previous = super.set(index, element);
+        replacements++;
+        return previous;
+    }
+
+    @Override
+    public synchronized void setElementAt(E obj, int index) {
+        super.setElementAt(obj, index);
+        replacements++;
+    }
+}
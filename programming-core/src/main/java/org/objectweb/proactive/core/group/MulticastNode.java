@@ -0,0 +1,119 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.objectweb.proactive.core.ProActiveRuntimeException;
+
+
+/**
+ * A subtree of the members a broadcast is relayed to. It is sent to the relay of the member
+ * at its root, along with the call.
+ *
+ * @author The ProActive Team
+ */
+public class MulticastNode implements Serializable {
+
+    static final private MulticastNode[] LEAF = new MulticastNode[0];
+
+    private int index;
+
+    private Object member;
+
+    private MulticastNode[] children;
+
+    public MulticastNode() {
+    }
+
+    private MulticastNode(int index, Object member, MulticastNode[] children) {
+        this.index = index;
+        this.member = member;
+        this.children = children;
+    }
+
+    /**
+     * Builds the subtrees of the caller.
+     *
+     * @param members the members the call is applied to
+     * @param overlay the overlay defining the tree
+     * @return the subtrees whose root the caller sends the call to
+     * @throws ProActiveRuntimeException if the overlay does not reach every member exactly once
+     */
+    static MulticastNode[] build(List<?> members, MulticastOverlay overlay) {
+        boolean[] reached = new boolean[members.size()];
+        MulticastNode[] roots = buildChildren(-1, members, overlay, reached);
+        for (int i = 0; i < reached.length; i++) {
+            if (!reached[i]) {
+                throw new ProActiveRuntimeException("The multicast overlay " + overlay + " does not reach member " +
+                                                    i + " of " + reached.length);
+            }
+        }
+        return roots;
+    }
+
+    private static MulticastNode[] buildChildren(int index, List<?> members, MulticastOverlay overlay,
+            boolean[] reached) {
+        int[] indexes = overlay.getChildren(index, members.size());
+        if (indexes.length == 0) {
+            return LEAF;
+        }
+        MulticastNode[] children = new MulticastNode[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            int child = indexes[i];
+            if (child < 0 || child >= reached.length || reached[child]) {
+                throw new ProActiveRuntimeException("The multicast overlay " + overlay + " is not a tree: member " +
+                                                    child + " reached from " + index);
+            }
+            reached[child] = true;
+            children[i] = new MulticastNode(child, members.get(child), buildChildren(child, members, overlay, reached));
+        }
+        return children;
+    }
+
+    /** Returns the index of the member in the group */
+    public int getIndex() {
+        return this.index;
+    }
+
+    public Object getMember() {
+        return this.member;
+    }
+
+    public MulticastNode[] getChildren() {
+        return this.children;
+    }
+
+    /** Returns the number of members of the subtree */
+    public int size() {
+        int size = 1;
+        for (MulticastNode child : this.children) {
+            size += child.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.io.Serializable;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * Defines the tree along which a broadcast on a group is relayed by the runtimes of its
+ * members, instead of being sent by the caller to every member.
+ *
+ * Members are designated by their index in the group. The caller is the root of the tree
+ * and has the index <code>-1</code>. Every member must be the child of exactly one node,
+ * and the depth of the tree should grow as the logarithm of the size of the group.
+ *
+ * @author The ProActive Team
+ * @see org.objectweb.proactive.api.PAGroup#setMulticastOverlay(Object, MulticastOverlay)
+ */
+@PublicAPI
+public interface MulticastOverlay extends Serializable {
+
+    /**
+     * Returns the members a node of the tree relays the calls to.
+     *
+     * @param index the index of the node, <code>-1</code> for the caller
+     * @param size the number of members of the group
+     * @return the indexes of the children of the node, an empty array for a leaf
+     */
+    public int[] getChildren(int index, int size);
+}
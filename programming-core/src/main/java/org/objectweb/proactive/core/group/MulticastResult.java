@@ -0,0 +1,77 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.io.Serializable;
+
+
+/**
+ * The outcome of a broadcast relayed to a subtree: the result of the call on the member at
+ * its root, and the outcomes of its subtrees. The outcomes of the subtrees, as well as the
+ * result of the call, are usually futures updated when the relays and the member reply.
+ *
+ * @author The ProActive Team
+ */
+public class MulticastResult implements Serializable {
+
+    private int index;
+
+    private Object result;
+
+    private Throwable exception;
+
+    private MulticastResult[] children;
+
+    public MulticastResult() {
+    }
+
+    public MulticastResult(int index, Object result, Throwable exception, MulticastResult[] children) {
+        this.index = index;
+        this.result = result;
+        this.exception = exception;
+        this.children = children;
+    }
+
+    /** Returns the index of the member at the root of the subtree */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /** Returns the result of the call on the member, <code>null</code> for a one way call */
+    public Object getResult() {
+        return this.result;
+    }
+
+    /** Returns the exception raised when calling the member, <code>null</code> if the call succeeded */
+    public Throwable getException() {
+        return this.exception;
+    }
+
+    /** Returns the outcomes of the subtrees, in the order of the children of the node */
+    public MulticastResult[] getChildren() {
+        return this.children;
+    }
+}
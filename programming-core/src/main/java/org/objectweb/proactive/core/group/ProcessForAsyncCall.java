@@ -25,6 +25,7 @@
  */
 package org.objectweb.proactive.core.group;
 
+import java.util.List;
 import java.util.Vector;
 import java.util.concurrent.CountDownLatch;
 
@@ -53,7 +54,7 @@ public class ProcessForAsyncCall extends AbstractProcessForGroup implements Runn
     DispatchMonitor dispatchMonitor;
 
     @SuppressWarnings("unchecked")
-    public ProcessForAsyncCall(ProxyForGroup proxyGroup, Vector memberList, Vector memberListOfResultGroup,
+    public ProcessForAsyncCall(ProxyForGroup proxyGroup, List memberList, Vector memberListOfResultGroup,
             int groupIndex, MethodCall mc, int resultIndex, Body body, CountDownLatch doneSignal) {
         this.proxyGroup = proxyGroup;
         this.memberList = memberList;
@@ -109,7 +110,7 @@ public class ProcessForAsyncCall extends AbstractProcessForGroup implements Runn
         LocalBodyStore.getInstance().clearAllContexts();
     }
 
-    public void executeMC(MethodCall mc, Object object) throws Throwable {
+    public void executeMC(final MethodCall mc, final Object object) throws Throwable {
 
         boolean objectIsLocal = false;
 
@@ -119,11 +120,19 @@ public class ProcessForAsyncCall extends AbstractProcessForGroup implements Runn
         }
 
         if (lastProxy == null) {
-            // means we are dealing with a standard Java Object 
-            this.addToListOfResult(mc.execute(object));
+            // means we are dealing with a standard Java Object, served by this thread
+            this.addToListOfResult(GroupExecutor.block(new GroupExecutor.BlockingCall<Object>() {
+                public Object call() throws Throwable {
+                    return mc.execute(object);
+                }
+            }));
         } else if (!objectIsLocal) {
             /* add the return value into the result group */
-            this.addToListOfResult(((StubObject) object).getProxy().reify(mc));
+            this.addToListOfResult(GroupExecutor.block(new GroupExecutor.BlockingCall<Object>() {
+                public Object call() throws Throwable {
+                    return ((StubObject) object).getProxy().reify(mc);
+                }
+            }));
         } else {
             /* add the return value into the result group */
             this.addToListOfResult(((StubObject) object).getProxy().reify(mc.getShallowCopy()));
@@ -25,7 +25,7 @@
  */
 package org.objectweb.proactive.core.group;
 
-import java.util.Vector;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import org.objectweb.proactive.Body;
@@ -52,7 +52,7 @@ public class ProcessForOneWayCall extends AbstractProcessForGroup {
 
     CountDownLatch doneSignal;
 
-    public ProcessForOneWayCall(ProxyForGroup proxyGroup, Vector memberList, int index, MethodCall mc, Body body,
+    public ProcessForOneWayCall(ProxyForGroup proxyGroup, List memberList, int index, MethodCall mc, Body body,
             ExceptionListException exceptionList, CountDownLatch doneSignal) {
         this.proxyGroup = proxyGroup;
         this.memberList = memberList;
@@ -84,15 +84,19 @@ public class ProcessForOneWayCall extends AbstractProcessForGroup {
         LocalBodyStore.getInstance().clearAllContexts();
     }
 
-    public void executeMC(MethodCall mc, Object target) throws Throwable {
+    public void executeMC(final MethodCall mc, final Object target) throws Throwable {
         boolean objectIsLocal = false;
         Proxy lastProxy = AbstractProcessForGroup.findLastProxy(target);
         if (lastProxy instanceof UniversalBodyProxy) {
             objectIsLocal = ((UniversalBodyProxy) lastProxy).isLocal();
         }
         if (lastProxy == null) {
-            // means we are dealing with a non-reified object (a standard Java Object)
-            mc.execute(target);
+            // means we are dealing with a non-reified object (a standard Java Object), served by this thread
+            GroupExecutor.block(new GroupExecutor.BlockingCall<Object>() {
+                public Object call() throws Throwable {
+                    return mc.execute(target);
+                }
+            });
         } else if (objectIsLocal) {
             if (!(mc instanceof MethodCallControlForGroup)) {
                 ((StubObject) target).getProxy().reify(mc.getShallowCopy());
@@ -100,7 +104,11 @@ public class ProcessForOneWayCall extends AbstractProcessForGroup {
                 ((StubObject) target).getProxy().reify(mc);
             }
         } else {
-            ((StubObject) target).getProxy().reify(mc);
+            GroupExecutor.block(new GroupExecutor.BlockingCall<Object>() {
+                public Object call() throws Throwable {
+                    return ((StubObject) target).getProxy().reify(mc);
+                }
+            });
         }
     }
 
@@ -0,0 +1,195 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+
+import org.objectweb.proactive.Body;
+import org.objectweb.proactive.core.body.Context;
+import org.objectweb.proactive.core.body.LocalBodyStore;
+import org.objectweb.proactive.core.mop.MethodCall;
+
+
+/**
+ * This class provides multithreading for a broadcast relayed along a tree: it sends the call
+ * to the relay of a subtree of the caller, then puts the outcome of the call on each member of
+ * this subtree in the result group. Relays are immediate services replying once the call has
+ * been sent to their subtree, so the outcome is known as soon as the call is sent: the results
+ * are futures, the caller waits for the members only by necessity.
+ *
+ * @author The ProActive Team
+ * @see MulticastOverlay
+ */
+public class ProcessForTreeCall extends AbstractProcessForGroup {
+    private MethodCall mc;
+
+    private MulticastNode node;
+
+    private Body body;
+
+    private ExceptionListException exceptionList;
+
+    CountDownLatch doneSignal;
+
+    /**
+     * @param memberListOfResultGroup the result group, <code>null</code> for a one way call
+     * @param exceptionList the list of exceptions of a one way call, <code>null</code> otherwise
+     */
+    public ProcessForTreeCall(ProxyForGroup proxyGroup, List memberList, Vector memberListOfResultGroup,
+            MulticastNode node, MethodCall mc, Body body, ExceptionListException exceptionList,
+            CountDownLatch doneSignal) {
+        this.proxyGroup = proxyGroup;
+        this.memberList = memberList;
+        this.memberListOfResultGroup = memberListOfResultGroup;
+        this.node = node;
+        this.groupIndex = node.getIndex();
+        this.resultIndex = node.getIndex();
+        this.mc = mc;
+        this.body = body;
+        this.exceptionList = exceptionList;
+        this.doneSignal = doneSignal;
+    }
+
+    public void run() {
+        // push an initial context for this thread
+        LocalBodyStore.getInstance().pushContext(new Context(body, null));
+        try {
+            // the relays are called synchronously
+            GroupExecutor.block(new GroupExecutor.BlockingCall<Void>() {
+                public Void call() {
+                    relayCall();
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // relayCall does not throw checked exceptions
+            throw new IllegalStateException(e);
+        } finally {
+            // delete contexts for this thread
+            LocalBodyStore.getInstance().clearAllContexts();
+        }
+    }
+
+    /**
+     * Sends the call to the relay of the subtree, or directly to its members if the relay cannot
+     * be reached, then collects the outcome.
+     */
+    private void relayCall() {
+        GroupRelay relay = null;
+        try {
+            relay = GroupRelay.getRelay(node.getMember());
+        } catch (Throwable e) {
+            GroupRelay.logger.warn("Cannot create a relay for member " + node.getIndex() +
+                                   ", its subtree is called directly", e);
+        }
+
+        MulticastResult outcome = null;
+        if (relay != null) {
+            try {
+                outcome = relay.relay(mc, node);
+            } catch (Throwable e) {
+                // the call has not been sent to the relay
+                GroupRelay.logger.warn("Cannot relay the call to member " + node.getIndex() +
+                                       ", its subtree is called directly", e);
+                GroupRelay.evict(relay);
+                relay = null;
+            }
+        }
+        if (outcome == null) {
+            outcome = GroupRelay.callDirectly(mc, node);
+        }
+
+        if (!collect(node, outcome) && (relay != null)) {
+            GroupRelay.evict(relay);
+        }
+    }
+
+    /**
+     * Puts the outcome of the call on each member of a subtree in the result group. It only waits
+     * for the replies of the relays of the subtree, never for the results of the members.
+     *
+     * @return <code>false</code> if the relay of the subtree failed
+     */
+    private boolean collect(MulticastNode node, MulticastResult outcome) {
+        Object result;
+        Throwable exception;
+        MulticastResult[] children;
+        try {
+            result = outcome.getResult();
+            exception = outcome.getException();
+            children = outcome.getChildren();
+        } catch (Throwable e) {
+            // the relay failed: the call may or may not have reached the subtree
+            fail(node, e);
+            return false;
+        }
+
+        if (exception != null) {
+            addException(node, exception);
+        } else if (this.memberListOfResultGroup != null) {
+            ProxyForGroup.addToListOfResult(this.memberListOfResultGroup, result, node.getIndex(), null, node.getIndex());
+        }
+        doneSignal.countDown();
+
+        MulticastNode[] childNodes = node.getChildren();
+        for (int i = 0; i < childNodes.length; i++) {
+            collect(childNodes[i], children[i]);
+        }
+        return true;
+    }
+
+    private void fail(MulticastNode node, Throwable e) {
+        addException(node, e);
+        doneSignal.countDown();
+        for (MulticastNode child : node.getChildren()) {
+            fail(child, e);
+        }
+    }
+
+    private void addException(MulticastNode node, Throwable e) {
+        ExceptionInGroup exception = new ExceptionInGroup(node.getMember(), node.getIndex(), e);
+        if (this.memberListOfResultGroup != null) {
+            ProxyForGroup.addToListOfResult(this.memberListOfResultGroup,
+                                            exception,
+                                            node.getIndex(),
+                                            null,
+                                            node.getIndex());
+        } else {
+            this.exceptionList.add(exception);
+        }
+    }
+
+    @Override
+    public int getMemberListSize() {
+        return node.size();
+    }
+}
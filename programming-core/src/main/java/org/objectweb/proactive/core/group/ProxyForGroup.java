@@ -28,7 +28,9 @@ package org.objectweb.proactive.core.group;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -76,7 +78,8 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
 
     /**
      * The list of member : it contains exclusively, StubObjects connected to Proxies, or Java
-     * Objects
+     * Objects. Method calls on the group work on a snapshot of this list (see
+     * {@link #getMemberSnapshot()}), so that they do not lock the group.
      */
     protected Vector<E> memberList;
 
@@ -107,6 +110,9 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
      */
     protected boolean uniqueSerialization = false;
 
+    /** The tree along which broadcasts are relayed, null to send them directly to every member */
+    protected MulticastOverlay multicastOverlay = null;
+
     /** The stub of the typed group */
     protected StubObject stub;
 
@@ -133,7 +139,7 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
     }
 
     public ProxyForGroup() throws ConstructionOfReifiedObjectFailedException {
-        this.memberList = new Vector<E>();
+        this.memberList = new MemberList<E>();
         this.proxyForGroupID = new UniqueID();
         this.elementNames = new HashMap<String, Integer>();
         dispatcher = new Dispatcher(this, false, bufferSize);
@@ -184,6 +190,21 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
         return uniqueSerialization;
     }
 
+    /**
+     * Sets the tree along which broadcasts to active objects are relayed by the runtimes of the
+     * members. The arguments of a relayed call are serialized once by the caller.
+     *
+     * @param overlay
+     *            the tree, <code>null</code> to send the calls directly to every member.
+     */
+    public void setMulticastOverlay(MulticastOverlay overlay) {
+        this.multicastOverlay = overlay;
+    }
+
+    public MulticastOverlay getMulticastOverlay() {
+        return this.multicastOverlay;
+    }
+
     /**
      * Checks the semantic of communication of the Group.
      * 
@@ -201,18 +222,37 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
         return false;
     }
 
+    /**
+     * Returns the members the next method call on the group will be applied to. The returned list
+     * is immutable and is not affected by later membership changes.
+     *
+     * @return a snapshot of the members of the group.
+     */
+    List<E> getMemberSnapshot() {
+        Vector<E> members = this.memberList;
+        if (members instanceof MemberList) {
+            return ((MemberList<E>) members).snapshot();
+        }
+        synchronized (members) {
+            return Collections.unmodifiableList(new ArrayList<E>(members));
+        }
+    }
+
     /**
      * Remove failing elements from the group according either to a group of potential exceptions or
      * an exception list. result == null XOR exceptionList == null
+     *
+     * @param members
+     *            the members the call was applied to, the group may have changed since then.
      */
-    private void purge(Object result, ExceptionListException exceptionList) {
+    private void purge(Object result, ExceptionListException exceptionList, List<E> members) {
         if (result != null) {
             @SuppressWarnings("unchecked")
             ProxyForGroup<E> resultGroup = (ProxyForGroup<E>) ((StubObject) result).getProxy();
-            for (int i = this.size() - 1; i >= 0; i--) {
+            for (int i = Math.min(members.size(), resultGroup.size()) - 1; i >= 0; i--) {
                 Object res = resultGroup.get(i);
                 if ((res != null) && res instanceof Throwable) {
-                    this.remove(i);
+                    this.removeMember(members.get(i));
                 }
             }
         }
@@ -237,10 +277,13 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
      * @throws InvocationTargetException
      *             if a problem occurs when invoking the method on the members of the Group
      */
-    public synchronized Object reify(MethodCall mc) throws InvocationTargetException {
+    public Object reify(MethodCall mc) throws InvocationTargetException {
         // System.out.println("A method is called : \"" + mc.getName() + "\" on
         // " + this.memberList.size() + " membres.");
 
+        // the call is shared by the members, their proxies must never recycle it
+        mc.takeOwnership();
+
         ExceptionListException exceptionList = null;
 
         /* if the method called is toString, apply it to the proxy, not to the members */
@@ -265,6 +308,12 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
          */
         Object result = null;
 
+        /*
+         * the call is applied to the members of the group at this time, concurrent calls and
+         * membership changes do not wait for each other
+         */
+        List<E> members = getMemberSnapshot();
+
         /*
          * check if the threadpool is big enough to make the call (is there is not enough thread,
          * create new ones)
@@ -278,20 +327,20 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
         /* if OneWay : do not construct result */
         if (mc.isOneWayCall()) {
             exceptionList = new ExceptionListException();
-            this.oneWayCallOnGroup(mc, exceptionList);
+            this.oneWayCallOnGroup(mc, exceptionList, members);
         }
         /*
          * Special case : the method returns void but is Synchronous because it throws Exception
          */
         else if (mc.getReifiedMethod().getReturnType() == Void.TYPE) {
             exceptionList = new ExceptionListException();
-            this.oneWayCallOnGroup(mc, exceptionList);
+            this.oneWayCallOnGroup(mc, exceptionList, members);
         }
         /*
          * if the call is asynchronous the group of result will be a group a future
          */
         else { // with group in general case : SYNC == ASYNC !!!!
-            result = this.asynchronousCallOnGroup(mc);
+            result = this.asynchronousCallOnGroup(mc, members);
         }
 
         /*
@@ -310,7 +359,7 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
          * rendez-vous failure.
          */
         if (this.autoPurge) {
-            purge(result, exceptionList);
+            purge(result, exceptionList, members);
         } else if ((exceptionList != null) && (exceptionList.size() != 0)) {
             throw exceptionList;
         }
@@ -345,6 +394,20 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
      * @return the result of the call.
      */
     protected Object asynchronousCallOnGroup(MethodCall mc) throws InvocationTargetException {
+        return asynchronousCallOnGroup(mc, getMemberSnapshot());
+    }
+
+    /**
+     * Creates and initializes (and returns) the group of result, then launch threads for
+     * asynchronous call of each member.
+     *
+     * @param mc
+     *            the MethodCall to be applied on each member of the Group.
+     * @param members
+     *            the members of the Group the call is applied to.
+     * @return the result of the call.
+     */
+    protected Object asynchronousCallOnGroup(MethodCall mc, List<E> members) throws InvocationTargetException {
         Object result;
 
         // Creates a stub + ProxyForGroup for representing the result
@@ -374,7 +437,7 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
         }
 
         // data partitioning
-        List<MethodCall> methodsToDispatch = taskFactory.generateMethodCalls(mc);
+        List<MethodCall> methodsToDispatch = taskFactory.generateMethodCalls(mc, members);
         int nbExpectedCalls = methodsToDispatch.size();
         CountDownLatch doneSignal = new CountDownLatch(nbExpectedCalls);
         Queue<AbstractProcessForGroup> tasksToDispatch = taskFactory.generateTasks(mc,
@@ -382,9 +445,13 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
                                                                                    result,
                                                                                    null,
                                                                                    doneSignal,
-                                                                                   this);
+                                                                                   this,
+                                                                                   members);
         // dispatch
-        dispatcher.dispatchTasks(tasksToDispatch, doneSignal, mc.getReifiedMethod().getAnnotation(Dispatch.class));
+        dispatcher.dispatchTasks(tasksToDispatch,
+                                 doneSignal,
+                                 mc.getReifiedMethod().getAnnotation(Dispatch.class),
+                                 members);
 
         // TODO rely on API or method call rather than annotation?
         // Reduce reduceAnnotation = mc.getReifiedMethod().getAnnotation(Reduce.class);
@@ -473,7 +540,20 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
      */
     protected void oneWayCallOnGroup(MethodCall mc, ExceptionListException exceptionList)
             throws InvocationTargetException {
-        List<MethodCall> methodsToDispatch = taskFactory.generateMethodCalls(mc);
+        oneWayCallOnGroup(mc, exceptionList, getMemberSnapshot());
+    }
+
+    /**
+     * Launches the threads for OneWay call of each member of the Group.
+     *
+     * @param mc
+     *            the MethodCall to be applied on each member of the Group.
+     * @param members
+     *            the members of the Group the call is applied to.
+     */
+    protected void oneWayCallOnGroup(MethodCall mc, ExceptionListException exceptionList, List<E> members)
+            throws InvocationTargetException {
+        List<MethodCall> methodsToDispatch = taskFactory.generateMethodCalls(mc, members);
         int nbExpectedCalls = methodsToDispatch.size();
         CountDownLatch doneSignal = new CountDownLatch(nbExpectedCalls);
         Queue<AbstractProcessForGroup> tasksToDispatch = taskFactory.generateTasks(mc,
@@ -481,8 +561,12 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
                                                                                    null,
                                                                                    exceptionList,
                                                                                    doneSignal,
-                                                                                   this);
-        dispatcher.dispatchTasks(tasksToDispatch, doneSignal, mc.getReifiedMethod().getAnnotation(Dispatch.class));
+                                                                                   this,
+                                                                                   members);
+        dispatcher.dispatchTasks(tasksToDispatch,
+                                 doneSignal,
+                                 mc.getReifiedMethod().getAnnotation(Dispatch.class),
+                                 members);
         // LocalBodyStore.getInstance().setCurrentThreadBody(body);
     }
 
@@ -794,7 +878,7 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
      *            the rank of the object to remove in the Group.
      * @return the object that has been removed
      */
-    public E remove(int index) {
+    public synchronized E remove(int index) {
         // decrease indexes in the map element names <-> indexes
         Iterator<String> it = elementNames.keySet().iterator();
         while (it.hasNext()) {
@@ -807,6 +891,21 @@ public class ProxyForGroup<E> extends AbstractProxy implements Proxy, Group<E>,
         return this.memberList.remove(index);
     }
 
+    /**
+     * Removes the specified member, compared by reference, if it is still in the group.
+     *
+     * @param member
+     *            the member to remove.
+     */
+    private synchronized void removeMember(Object member) {
+        for (int i = this.memberList.size() - 1; i >= 0; i--) {
+            if (this.memberList.get(i) == member) {
+                this.remove(i);
+                return;
+            }
+        }
+    }
+
     /**
      * Returns the i-th member of the group.
      * 
@@ -52,19 +52,21 @@ public interface TaskFactory {
      * @param doneSignal
      * @param originalReifiedMethod TODO
      * @param groupProxy TODO
+     * @param members the snapshot of the members of the group the call is applied to
      * @return
      */
     public Queue<AbstractProcessForGroup> generateTasks(MethodCall originalMethodCall, List<MethodCall> methodCalls,
             Object result, ExceptionListException exceptionList, CountDownLatch doneSignal,
-            ProxyForGroup<?> groupProxy);
+            ProxyForGroup<?> groupProxy, List<?> members);
 
     /**
      * 
      * @param mc
+     * @param members the snapshot of the members of the group the call is applied to
      * @return
      * @throws InvocationTargetException
      */
-    public List<MethodCall> generateMethodCalls(MethodCall mc) throws InvocationTargetException;
+    public List<MethodCall> generateMethodCalls(MethodCall mc, List<?> members) throws InvocationTargetException;
 
     /**
      * Static mapping of a task to a worker
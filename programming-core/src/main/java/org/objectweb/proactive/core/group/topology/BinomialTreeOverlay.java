@@ -0,0 +1,55 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group.topology;
+
+import org.objectweb.proactive.core.group.MulticastOverlay;
+
+
+/**
+ * A binomial tree, as used to broadcast along the edges of a hypercube. The caller has the
+ * position <code>0</code> and the member <code>i</code> the position <code>i+1</code>. The
+ * node at position <code>p</code> relays to the positions <code>p+2^j</code> for every
+ * <code>2^j &gt; p</code>, so each node starts relaying as soon as it received the call.
+ *
+ * @author The ProActive Team
+ */
+public class BinomialTreeOverlay implements MulticastOverlay {
+
+    public int[] getChildren(int index, int size) {
+        int position = index + 1;
+        int step = Integer.highestOneBit(position);
+        step = (step == 0) ? 1 : (step << 1);
+        int count = 0;
+        for (long s = step; position + s <= size; s <<= 1) {
+            count++;
+        }
+        int[] children = new int[count];
+        for (int i = 0; i < count; i++) {
+            children[i] = position + (step << i) - 1;
+        }
+        return children;
+    }
+}
@@ -26,6 +26,7 @@
 package org.objectweb.proactive.core.group.topology;
 
 import org.objectweb.proactive.core.group.Group;
+import org.objectweb.proactive.core.group.MulticastOverlay;
 import org.objectweb.proactive.core.mop.ConstructionOfReifiedObjectFailedException;
 
 
@@ -39,4 +40,14 @@ public class Hypercube<E> extends TopologyGroup<E> {
             this.add(g.get(i));
         }
     }
+
+    /**
+     * Returns the overlay relaying the broadcasts along a binomial tree, the spanning tree of
+     * a hypercube. It can be set on any group with
+     * {@link org.objectweb.proactive.api.PAGroup#setMulticastOverlay(Object, MulticastOverlay)}.
+     * @return the overlay of the hypercube
+     */
+    public MulticastOverlay getMulticastOverlay() {
+        return new BinomialTreeOverlay();
+    }
 }
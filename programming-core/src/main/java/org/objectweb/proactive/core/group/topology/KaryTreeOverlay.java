@@ -0,0 +1,64 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group.topology;
+
+import org.objectweb.proactive.core.group.MulticastOverlay;
+
+
+/**
+ * A complete k-ary tree: the caller relays to the members <code>0</code> to <code>k-1</code>,
+ * and the member <code>i</code> to the members <code>(i+1)*k</code> to <code>(i+1)*k+k-1</code>.
+ *
+ * @author The ProActive Team
+ */
+public class KaryTreeOverlay implements MulticastOverlay {
+
+    private int arity;
+
+    /**
+     * @param arity the number of children of each node
+     */
+    public KaryTreeOverlay(int arity) {
+        if (arity < 1) {
+            throw new IllegalArgumentException("The arity of a tree must be positive: " + arity);
+        }
+        this.arity = arity;
+    }
+
+    public int getArity() {
+        return this.arity;
+    }
+
+    public int[] getChildren(int index, int size) {
+        int first = (index + 1) * this.arity;
+        int count = Math.max(0, Math.min(this.arity, size - first));
+        int[] children = new int[count];
+        for (int i = 0; i < count; i++) {
+            children[i] = first + i;
+        }
+        return children;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group.topology;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.proactive.core.group.Group;
+import org.objectweb.proactive.core.group.MulticastOverlay;
+import org.objectweb.proactive.core.mop.ConstructionOfReifiedObjectFailedException;
+
+
+/**
+ * This class represents a group by a complete k-ary tree topology. The member at position
+ * <code>0</code> is the root, the children of the member at position <code>i</code> are
+ * at the positions <code>i*k+1</code> to <code>i*k+k</code>.
+ *
+ * @author The ProActive Team
+ */
+public class Tree<E> extends TopologyGroup<E> {
+
+    /** number of children of each node */
+    protected int arity;
+
+    /**
+     * Construtor. The members of <code>g</code> are used to fill the topology group.
+     * @param g - the group used a base for the new group (topology)
+     * @param size - the number of members of the tree
+     * @param arity - the number of children of each node
+     * @throws ConstructionOfReifiedObjectFailedException
+     */
+    public Tree(Group<E> g, int size, int arity) throws ConstructionOfReifiedObjectFailedException {
+        super(g, size);
+        if (arity < 1) {
+            throw new IllegalArgumentException("The arity of a tree must be positive: " + arity);
+        }
+        this.arity = arity;
+    }
+
+    /**
+     * Returns the number of children of each node
+     * @return the arity of the tree
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * Returns the parent of the specified object
+     * @param o - the specified object
+     * @return the parent of <code>o</code>, <code>null</code> if <code>o</code> is the root
+     */
+    public Object parent(Object o) {
+        int position = this.indexOf(o);
+        if (position <= 0) {
+            return null;
+        }
+        return this.get((position - 1) / this.arity);
+    }
+
+    /**
+     * Returns the children of the specified object
+     * @param o - the specified object
+     * @return the children of <code>o</code>, an empty list for a leaf
+     */
+    public List<E> children(Object o) {
+        int first = (this.indexOf(o) * this.arity) + 1;
+        int last = Math.min(first + this.arity, this.size());
+        List<E> children = new ArrayList<E>();
+        for (int i = first; i < last; i++) {
+            children.add(this.get(i));
+        }
+        return children;
+    }
+
+    /**
+     * Returns the overlay relaying the broadcasts along a k-ary tree of the same arity. It can
+     * be set on any group with {@link org.objectweb.proactive.api.PAGroup#setMulticastOverlay(Object, MulticastOverlay)}.
+     * @return the overlay of the tree
+     */
+    public MulticastOverlay getMulticastOverlay() {
+        return new KaryTreeOverlay(this.arity);
+    }
+}
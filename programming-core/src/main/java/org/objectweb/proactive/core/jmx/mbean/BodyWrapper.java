@@ -28,20 +28,30 @@ package org.objectweb.proactive.core.jmx.mbean;
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.management.InstanceAlreadyExistsException;
 import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanRegistrationException;
 import javax.management.MBeanServer;
 import javax.management.NotCompliantMBeanException;
 import javax.management.Notification;
 import javax.management.NotificationBroadcasterSupport;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.body.AbstractBody;
+import org.objectweb.proactive.core.body.latency.LatencyRecorder;
+import org.objectweb.proactive.core.body.latency.MethodLatencies;
 import org.objectweb.proactive.core.jmx.naming.FactoryName;
 import org.objectweb.proactive.core.jmx.notification.NotificationType;
 import org.objectweb.proactive.core.util.log.Loggers;
@@ -92,9 +102,6 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
 
     // -- JMX Datas --
 
-    /** Timeout between updates */
-    private long updateFrequence = 300;
-
     /** Used by the JMX notifications */
     private long counter = 1;
 
@@ -104,11 +111,23 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
      */
     private transient ConcurrentLinkedQueue<Notification> notifications;
 
+    /** Whether the notifications are waiting for the {@link NotificationScheduler} */
+    private transient AtomicBoolean scheduled;
+
+    /**
+     * The listeners of this MBean. Notifications are neither created nor stored while there is
+     * no listener.
+     */
+    private transient List<NotificationListener> listeners;
+
     /**
      * Empty constructor required by JMX
      */
     public BodyWrapper() {
         /* Empty Constructor required by JMX */
+        this.notifications = new ConcurrentLinkedQueue<Notification>();
+        this.scheduled = new AtomicBoolean();
+        this.listeners = new CopyOnWriteArrayList<NotificationListener>();
     }
 
     /**
@@ -126,7 +145,8 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
         this.nodeUrl = body.getNodeURL();
         this.isReifiedObjectSerializable = body.getReifiedObject() instanceof Serializable;
         this.notifications = new ConcurrentLinkedQueue<Notification>();
-        this.launchNotificationsThread();
+        this.scheduled = new AtomicBoolean();
+        this.listeners = new CopyOnWriteArrayList<NotificationListener>();
     }
 
     public UniqueID getID() {
@@ -156,6 +176,9 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
     }
 
     public void sendNotification(String type, Object userData) {
+        if (!hasNotificationListeners()) {
+            return;
+        }
         ObjectName source = getObjectName();
         if (notificationsLogger.isDebugEnabled()) {
             notificationsLogger.debug("[" + type + "]#[BodyWrapper.sendNotification] source=" + source + ", userData=" +
@@ -172,7 +195,41 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
             sendNotifications(NotificationType.migrationMessage);
         } else {
             notifications.add(notification);
+            if (this.scheduled.compareAndSet(false, true)) {
+                NotificationScheduler.getInstance().schedule(this);
+            }
+        }
+    }
+
+    public Map<String, MethodLatencies> getLatencies() {
+        LatencyRecorder recorder = this.body.getLatencyRecorder();
+        if (recorder == null) {
+            return Collections.emptyMap();
         }
+        return recorder.snapshot();
+    }
+
+    public boolean hasNotificationListeners() {
+        return (this.listeners != null) && !this.listeners.isEmpty();
+    }
+
+    @Override
+    public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+        super.addNotificationListener(listener, filter, handback);
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeNotificationListener(NotificationListener listener) throws ListenerNotFoundException {
+        super.removeNotificationListener(listener);
+        this.listeners.removeAll(Collections.singleton(listener));
+    }
+
+    @Override
+    public void removeNotificationListener(NotificationListener listener, NotificationFilter filter,
+            Object handback) throws ListenerNotFoundException {
+        super.removeNotificationListener(listener, filter, handback);
+        this.listeners.remove(listener);
     }
 
     //
@@ -180,37 +237,18 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
     //
 
     /**
-     * Creates a new thread which sends JMX notifications. A BodyWrapperMBean
-     * keeps all the notifications, and the NotificationsThread sends every
-     * 'updateFrequence' a list of notifications.
+     * Called by the {@link NotificationScheduler} to send the stored notifications, once the
+     * body is activated.
+     *
+     * @return <code>false</code> if the body is not yet activated
      */
-    private void launchNotificationsThread() {
-        Thread t = new Thread("JMXNotificationThread for " + BodyWrapper.this.objectName) {
-            @Override
-            public void run() {
-                // first we wait for the creation of the body
-                while (!BodyWrapper.this.body.isActive() && BodyWrapper.this.body.isAlive()) {
-                    try {
-                        Thread.sleep(updateFrequence);
-                    } catch (InterruptedException e) {
-                        logger.error("The JMX notifications sender thread was interrupted", e);
-                    }
-                }
-
-                // and once the body is activated, we can forward the
-                // notifications
-                while (BodyWrapper.this.body.isActive()) {
-                    try {
-                        Thread.sleep(updateFrequence);
-                        sendNotifications();
-                    } catch (InterruptedException e) {
-                        logger.error("The JMX notifications sender thread was interrupted", e);
-                    }
-                }
-            }
-        };
-        t.setDaemon(true);
-        t.start();
+    boolean flushNotifications() {
+        if (!this.body.isActive() && this.body.isAlive()) {
+            return false;
+        }
+        this.scheduled.set(false);
+        sendNotifications();
+        return true;
     }
 
     /**
@@ -231,15 +269,18 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
             this.notifications = new ConcurrentLinkedQueue<Notification>();
         }
 
-        // not sure if the synchronize is needed here, let's see ...
-        // synchronized (notifications) {
-        if (!this.notifications.isEmpty()) {
+        // the stored notifications are moved to the sent set, so that the notifications stored
+        // meanwhile are neither lost nor sent twice
+        ConcurrentLinkedQueue<Notification> set = new ConcurrentLinkedQueue<Notification>();
+        Notification notification;
+        while ((notification = this.notifications.poll()) != null) {
+            set.add(notification);
+        }
+        if (!set.isEmpty()) {
             ObjectName source = getObjectName();
             Notification n = new Notification(NotificationType.setOfNotifications, source, counter++, userMessage);
-            n.setUserData(this.notifications);
+            n.setUserData(set);
             super.sendNotification(n);
-            this.notifications.clear();
-            // }
         }
     }
 
@@ -295,6 +336,8 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
 
         // Warning notifications is transient
         this.notifications = new ConcurrentLinkedQueue<Notification>();
+        this.scheduled = new AtomicBoolean();
+        this.listeners = new CopyOnWriteArrayList<NotificationListener>();
 
         // Register the MBean into the MBean Server
         try {
@@ -307,8 +350,6 @@ public class BodyWrapper extends NotificationBroadcasterSupport implements Seria
         } catch (NotCompliantMBeanException e) {
             logger.error("Exception throws during the deserialization of the MBean", e);
         }
-
-        launchNotificationsThread();
     }
 
     /**
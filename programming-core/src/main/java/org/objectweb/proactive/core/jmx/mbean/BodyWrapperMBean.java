@@ -26,10 +26,12 @@
 package org.objectweb.proactive.core.jmx.mbean;
 
 import java.io.Serializable;
+import java.util.Map;
 
 import javax.management.ObjectName;
 
 import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.body.latency.MethodLatencies;
 import org.objectweb.proactive.core.jmx.notification.NotificationType;
 
 
@@ -80,6 +82,22 @@ public interface BodyWrapperMBean extends Serializable {
      */
     public void sendNotification(String type, Object userData);
 
+    /**
+     * Returns <code>true</code> if a listener is registered on this MBean. Notifications sent
+     * while there is no listener are dropped.
+     *
+     * @return <code>true</code> if a listener is registered on this MBean
+     */
+    public boolean hasNotificationListeners();
+
+    /**
+     * Returns the latencies of the requests served by the active object.
+     *
+     * @return the latencies per method name, empty if they are not recorded
+     * @see org.objectweb.proactive.core.config.CentralPAPropertyRepository#PA_LATENCY_HISTOGRAMS
+     */
+    public Map<String, MethodLatencies> getLatencies();
+
     /**
      * Returns the object name used for this MBean.
      * @return The object name used for this MBean.
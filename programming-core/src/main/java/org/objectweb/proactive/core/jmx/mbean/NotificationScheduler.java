@@ -0,0 +1,98 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.jmx.mbean;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+
+
+/**
+ * Sends the JMX notifications stored by the {@link BodyWrapper} MBeans of a runtime.
+ * <p>
+ * A single thread wakes up every {@link #PERIOD} milliseconds and sends, for each wrapper
+ * which stored notifications since the last period, a notification containing all of them.
+ * Wrappers without pending notifications cost nothing.
+ *
+ * @author The ProActive Team
+ */
+class NotificationScheduler implements Runnable {
+    private static final Logger logger = ProActiveLogger.getLogger(Loggers.JMX_NOTIFICATION);
+
+    /** Timeout between updates, in milliseconds */
+    static final long PERIOD = 300;
+
+    private static class Holder {
+        private static final NotificationScheduler instance = new NotificationScheduler();
+    }
+
+    /** The wrappers with pending notifications */
+    private final Queue<BodyWrapper> pending;
+
+    private final ScheduledExecutorService executor;
+
+    private NotificationScheduler() {
+        this.pending = new ConcurrentLinkedQueue<BodyWrapper>();
+        this.executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("JMX notifications",
+                                                                                          true));
+        this.executor.scheduleWithFixedDelay(this, PERIOD, PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    static NotificationScheduler getInstance() {
+        return Holder.instance;
+    }
+
+    /**
+     * Sends the notifications of a wrapper at the end of the current period.
+     */
+    void schedule(BodyWrapper wrapper) {
+        this.pending.offer(wrapper);
+    }
+
+    public void run() {
+        // the wrappers of bodies not yet activated are scheduled again
+        for (int i = this.pending.size(); i > 0; i--) {
+            BodyWrapper wrapper = this.pending.poll();
+            if (wrapper == null) {
+                break;
+            }
+            try {
+                if (!wrapper.flushNotifications()) {
+                    this.pending.offer(wrapper);
+                }
+            } catch (Throwable e) {
+                logger.error("Cannot send the JMX notifications of " + wrapper.getObjectName(), e);
+            }
+        }
+    }
+}
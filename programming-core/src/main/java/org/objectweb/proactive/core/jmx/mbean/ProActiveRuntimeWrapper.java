@@ -28,7 +28,10 @@ package org.objectweb.proactive.core.jmx.mbean;
 import java.io.Serializable;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.management.Notification;
 import javax.management.NotificationBroadcasterSupport;
@@ -36,7 +39,12 @@ import javax.management.ObjectName;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.ProActiveException;
+import org.objectweb.proactive.core.body.AbstractBody;
 import org.objectweb.proactive.core.body.LocalBodyStore;
+import org.objectweb.proactive.core.body.UniversalBody;
+import org.objectweb.proactive.core.body.future.FutureMonitoring;
+import org.objectweb.proactive.core.body.latency.LatencyRecorder;
+import org.objectweb.proactive.core.body.latency.MethodLatencies;
 import org.objectweb.proactive.core.jmx.naming.FactoryName;
 import org.objectweb.proactive.core.runtime.ProActiveRuntime;
 import org.objectweb.proactive.core.util.log.Loggers;
@@ -167,6 +175,59 @@ public class ProActiveRuntimeWrapper extends NotificationBroadcasterSupport
         return ManagementFactory.getMemoryMXBean().getObjectPendingFinalizationCount();
     }
 
+    /**
+     * @see org.objectweb.proactive.core.jmx.mbean.ProActiveRuntimeWrapperMBean#getLatencies()
+     */
+    public Map<String, MethodLatencies> getLatencies() {
+        Map<String, MethodLatencies> latencies = new TreeMap<String, MethodLatencies>();
+        Iterator<UniversalBody> bodies = LocalBodyStore.getInstance().getLocalBodies().bodiesIterator();
+        while (bodies.hasNext()) {
+            UniversalBody body = bodies.next();
+            if (body instanceof AbstractBody) {
+                LatencyRecorder recorder = ((AbstractBody) body).getLatencyRecorder();
+                if (recorder != null) {
+                    recorder.addTo(latencies);
+                }
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * @see org.objectweb.proactive.core.jmx.mbean.ProActiveRuntimeWrapperMBean#getMonitoredFutureCount()
+     */
+    public int getMonitoredFutureCount() {
+        return FutureMonitoring.getMonitoredFutureCount();
+    }
+
+    /**
+     * @see org.objectweb.proactive.core.jmx.mbean.ProActiveRuntimeWrapperMBean#getMonitoredBodyCount()
+     */
+    public int getMonitoredBodyCount() {
+        return FutureMonitoring.getMonitoredBodyCount();
+    }
+
+    /**
+     * @see org.objectweb.proactive.core.jmx.mbean.ProActiveRuntimeWrapperMBean#getFuturePingCount()
+     */
+    public long getFuturePingCount() {
+        return FutureMonitoring.getPingCount();
+    }
+
+    /**
+     * @see org.objectweb.proactive.core.jmx.mbean.ProActiveRuntimeWrapperMBean#getFuturePingFailureCount()
+     */
+    public long getFuturePingFailureCount() {
+        return FutureMonitoring.getPingFailureCount();
+    }
+
+    /**
+     * @see org.objectweb.proactive.core.jmx.mbean.ProActiveRuntimeWrapperMBean#getAverageFuturePingLatency()
+     */
+    public double getAverageFuturePingLatency() {
+        return FutureMonitoring.getAveragePingLatency();
+    }
+
     public void sendNotification(String type) {
         this.sendNotification(type, null);
     }
@@ -27,10 +27,12 @@ package org.objectweb.proactive.core.jmx.mbean;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 import javax.management.ObjectName;
 
 import org.objectweb.proactive.core.ProActiveException;
+import org.objectweb.proactive.core.body.latency.MethodLatencies;
 import org.objectweb.proactive.core.jmx.notification.NotificationType;
 
 
@@ -115,6 +117,46 @@ public interface ProActiveRuntimeWrapperMBean extends Serializable {
      */
     public int getObjectPendingFinalizationCount();
 
+    /**
+     * Returns the latencies of the requests served by all the active objects of the runtime.
+     *
+     * @return the latencies per method name
+     * @see org.objectweb.proactive.core.config.CentralPAPropertyRepository#PA_LATENCY_HISTOGRAMS
+     */
+    public Map<String, MethodLatencies> getLatencies();
+
+    /**
+     * Returns the number of awaited futures whose updater body is monitored by this runtime.
+     * @return the number of monitored futures
+     * @see org.objectweb.proactive.core.body.future.FutureMonitoring
+     */
+    public int getMonitoredFutureCount();
+
+    /**
+     * Returns the number of updater bodies monitored by this runtime.
+     * @return the number of monitored bodies
+     */
+    public int getMonitoredBodyCount();
+
+    /**
+     * Returns the number of heartbeats sent to the monitored bodies.
+     * @return the number of heartbeats sent since the start of the monitoring
+     */
+    public long getFuturePingCount();
+
+    /**
+     * Returns the number of monitored bodies found terminated or unreachable.
+     * Their awaited futures have been updated with an exception.
+     * @return the number of failed monitored bodies
+     */
+    public long getFuturePingFailureCount();
+
+    /**
+     * Returns the average latency of the heartbeats sent to the monitored bodies.
+     * @return the average heartbeat latency, in milliseconds
+     */
+    public double getAverageFuturePingLatency();
+
     /**
      * Sends a new notification.
      * @param type The type of the notification. See {@link NotificationType}
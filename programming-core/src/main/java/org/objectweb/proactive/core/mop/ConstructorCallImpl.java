@@ -94,7 +94,7 @@ public class ConstructorCallImpl implements ConstructorCall, Serializable {
      * Make a deep copy of all arguments of the constructor
      */
     public void makeDeepCopyOfArguments() throws java.io.IOException {
-        effectiveArguments = Utils.makeDeepCopy(effectiveArguments);
+        effectiveArguments = Utils.getDeepCopyStrategy().makeDeepCopy(effectiveArguments);
     }
 
     /**
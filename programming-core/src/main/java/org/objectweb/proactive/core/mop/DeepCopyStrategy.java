@@ -0,0 +1,51 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.mop;
+
+import java.io.IOException;
+
+
+/**
+ * Copies the arguments of a call between two active objects of the same runtime, so that the
+ * callee shares no mutable object with the caller, as if the call had been sent to a remote
+ * active object.
+ * <p>
+ * The strategy is selected with the property
+ * {@link org.objectweb.proactive.core.config.CentralPAPropertyRepository#PA_MOP_DEEP_COPY}.
+ * Implementations must provide a public no-arg constructor and be thread safe.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public interface DeepCopyStrategy {
+
+    /**
+     * @param source the arguments to copy, may be null
+     * @return the copy of the arguments
+     * @throws IOException if an argument cannot be copied
+     */
+    public Object[] makeDeepCopy(Object[] source) throws IOException;
+}
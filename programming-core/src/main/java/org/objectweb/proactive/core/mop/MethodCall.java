@@ -34,13 +34,16 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.exceptions.ExceptionHandler;
 import org.objectweb.proactive.core.mop.MethodCallInfo.SynchronousReason;
 import org.objectweb.proactive.core.util.converter.ObjectToByteConverter;
 import org.objectweb.proactive.core.util.converter.ProActiveByteToObjectConverter;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.Loggers;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 
@@ -62,11 +65,23 @@ public class MethodCall implements java.io.Serializable, Cloneable {
      * This dramatically improves performances, since we do not have to call
      * isAsynchronousCall for every call, but only once for a given method
      */
-    private static transient java.util.Hashtable<String, ReifiableAndExceptions> REIF_AND_EXCEP = new java.util.Hashtable<String, ReifiableAndExceptions>();
+    private static transient ConcurrentHashMap<String, ReifiableAndExceptions> REIF_AND_EXCEP = new ConcurrentHashMap<String, ReifiableAndExceptions>();
 
     static Logger logger = ProActiveLogger.getLogger(Loggers.MOP);
 
-    private static java.util.Hashtable<String, Method> reifiedMethodsTable = new java.util.Hashtable<String, Method>();
+    private static ConcurrentHashMap<String, Method> reifiedMethodsTable = new ConcurrentHashMap<String, Method>();
+
+    /**
+     * The keys of the reified methods without generic types mapping, computed once per method
+     * as building a key is much more expensive than looking it up
+     */
+    private static final ConcurrentHashMap<Method, String> KEYS = new ConcurrentHashMap<Method, String>();
+
+    /**
+     * A MethodCall released by the current thread after a one-way call, reused by its next call
+     * (see {@link CentralPAPropertyRepository#PA_MOP_RECYCLE_ONEWAY_CALLS})
+     */
+    private static final ThreadLocal<MethodCall> recycledCalls = new ThreadLocal<MethodCall>();
 
     //
     // --- PRIVATE MEMBERS -----------------------------------------------------------------------
@@ -87,12 +102,19 @@ public class MethodCall implements java.io.Serializable, Cloneable {
      */
     private transient Method reifiedMethod;
 
-    private String key;
+    /** transient as it is written along with the method, see writeTheObject */
+    private transient String key;
 
     private transient MethodCallExceptionContext exceptioncontext;
 
     private transient Map<TypeVariable<?>, Class<?>> genericTypesMapping = null;
 
+    /** true until the first proxy receiving a call created by a stub takes it, see takeOwnership */
+    private transient boolean ownedByStub;
+
+    /** true once the call has been serialized, see recycle */
+    private transient boolean serialized;
+
     /**
      * byte[] to store effectiveArguments. Required to optimize multiple serialization
      * in some case (such as group communication) or to create a stronger
@@ -129,18 +151,71 @@ public class MethodCall implements java.io.Serializable, Cloneable {
      *        @return        a MethodCall object representing an invocation of method
      *        <code>reifiedMethod</code> with arguments <code>effectiveArguments</code>
      */
-    public synchronized static MethodCall getMethodCall(Method reifiedMethod,
+    public static MethodCall getMethodCall(Method reifiedMethod,
             Map<TypeVariable<?>, Class<?>> genericTypesMapping, Object[] effectiveArguments,
             MethodCallExceptionContext exceptioncontext) {
         exceptioncontext = MethodCallExceptionContext.optimize(exceptioncontext);
 
+        MethodCall recycled = recycledCalls.get();
+        if (recycled != null) {
+            recycledCalls.set(null);
+            recycled.init(reifiedMethod, genericTypesMapping, effectiveArguments, exceptioncontext);
+            return recycled;
+        }
+
         return new MethodCall(reifiedMethod, genericTypesMapping, effectiveArguments, exceptioncontext);
     }
 
-    public synchronized static MethodCall getMethodCall(Method reifiedMethod, Object[] effectiveArguments,
+    /**
+     * Gives back a MethodCall that is not referenced anymore, so that the next call made by the
+     * current thread reuses it. Does nothing unless
+     * {@link CentralPAPropertyRepository#PA_MOP_RECYCLE_ONEWAY_CALLS} is set, or if the call has
+     * not been serialized since its creation: a request which has not been copied yet may still
+     * be referenced by the transport or by a local body.
+     *
+     * @param methodCall a call owned by the caller (see {@link #takeOwnership()}), that has been
+     *        sent and will not be used anymore
+     */
+    public static void recycle(MethodCall methodCall) {
+        if (RecyclingSwitch.ENABLED && methodCall.serialized && (methodCall.getClass() == MethodCall.class) &&
+            (methodCall.tagsForBarrier == null)) {
+            methodCall.reifiedMethod = null;
+            methodCall.genericTypesMapping = null;
+            methodCall.effectiveArguments = null;
+            methodCall.serializedEffectiveArguments = null;
+            methodCall.key = null;
+            methodCall.exceptioncontext = null;
+            recycledCalls.set(methodCall);
+        }
+    }
+
+    /* The property is read on the first recycling, once the configuration has been loaded */
+    private static class RecyclingSwitch {
+        static final boolean ENABLED = CentralPAPropertyRepository.PA_MOP_RECYCLE_ONEWAY_CALLS.isTrue();
+    }
+
+    /**
+     * Factory method used by the stubs. The returned call is owned by the stub: the first proxy
+     * receiving it may recycle it once sent (see {@link #takeOwnership()}).
+     */
+    public static MethodCall getMethodCall(Method reifiedMethod, Object[] effectiveArguments,
             Map<TypeVariable<?>, Class<?>> genericTypesMapping) {
         MethodCallExceptionContext exceptioncontext = ExceptionHandler.getContextForCall(reifiedMethod);
-        return getMethodCall(reifiedMethod, genericTypesMapping, effectiveArguments, exceptioncontext);
+        MethodCall methodCall = getMethodCall(reifiedMethod, genericTypesMapping, effectiveArguments, exceptioncontext);
+        methodCall.ownedByStub = true;
+        return methodCall;
+    }
+
+    /**
+     * Takes the ownership of a call created by a stub. Only the first caller gets it: a proxy
+     * giving the call to other proxies, like a group proxy, takes it so that they never recycle it.
+     *
+     * @return true if the caller is the only one referencing the call and may recycle it
+     */
+    public boolean takeOwnership() {
+        boolean owned = this.ownedByStub;
+        this.ownedByStub = false;
+        return owned;
     }
 
     /**
@@ -154,6 +229,11 @@ public class MethodCall implements java.io.Serializable, Cloneable {
     // instances of this class (see <I>Factory</I> pattern in GoF).
     public MethodCall(Method reifiedMethod, Map<TypeVariable<?>, Class<?>> genericTypesMapping,
             Object[] effectiveArguments, MethodCallExceptionContext exceptionContext) {
+        this.init(reifiedMethod, genericTypesMapping, effectiveArguments, exceptionContext);
+    }
+
+    private void init(Method reifiedMethod, Map<TypeVariable<?>, Class<?>> genericTypesMapping,
+            Object[] effectiveArguments, MethodCallExceptionContext exceptionContext) {
         this.reifiedMethod = reifiedMethod;
         this.genericTypesMapping = ((genericTypesMapping != null) && (genericTypesMapping.size() > 0))
                                                                                                        ? genericTypesMapping
@@ -161,6 +241,8 @@ public class MethodCall implements java.io.Serializable, Cloneable {
         this.effectiveArguments = effectiveArguments;
         this.key = buildKey(reifiedMethod, genericTypesMapping);
         this.exceptioncontext = MethodCallExceptionContext.optimize(exceptionContext);
+        this.ownedByStub = false;
+        this.serialized = false;
     }
 
     public MethodCall(Method reifiedMethod, Map<TypeVariable<?>, Class<?>> genericTypesMapping,
@@ -286,7 +368,7 @@ public class MethodCall implements java.io.Serializable, Cloneable {
      * Make a deep copy of all arguments of the constructor
      */
     public void makeDeepCopyOfArguments() throws java.io.IOException {
-        this.effectiveArguments = Utils.makeDeepCopy(this.effectiveArguments);
+        this.effectiveArguments = Utils.getDeepCopyStrategy().makeDeepCopy(this.effectiveArguments);
     }
 
     //
@@ -314,6 +396,21 @@ public class MethodCall implements java.io.Serializable, Cloneable {
 
     // build a key for uniquely identifying methods, including parameterized ones
     private static String buildKey(Method reifiedMethod, Map<TypeVariable<?>, Class<?>> genericTypesMapping) {
+        if ((genericTypesMapping == null) || genericTypesMapping.isEmpty()) {
+            String key = KEYS.get(reifiedMethod);
+            if (key == null) {
+                key = computeKey(reifiedMethod, null);
+                String previous = KEYS.putIfAbsent(reifiedMethod, key);
+                if (previous != null) {
+                    key = previous;
+                }
+            }
+            return key;
+        }
+        return computeKey(reifiedMethod, genericTypesMapping);
+    }
+
+    private static String computeKey(Method reifiedMethod, Map<TypeVariable<?>, Class<?>> genericTypesMapping) {
         //TODO It seems genericTypesMapping is always an empty map, It is either useless or not correctly built.
         final StringBuilder sb = new StringBuilder((reifiedMethod.getDeclaringClass().getName()));
 
@@ -352,11 +449,15 @@ public class MethodCall implements java.io.Serializable, Cloneable {
     }
 
     protected void writeTheObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+        this.serialized = true;
         out.defaultWriteObject();
-        // The Method object needs to be converted
-        out.writeObject(this.reifiedMethod.getDeclaringClass());
-        out.writeObject(this.reifiedMethod.getName());
-        out.writeObject(fixBugWrite(this.reifiedMethod.getParameterTypes()));
+        // The Method object needs to be converted, unless the peer already knows its key
+        if (WireDictionary.writeReference(out, this.key) < 0) {
+            out.writeObject(this.key);
+            out.writeObject(this.reifiedMethod.getDeclaringClass());
+            out.writeObject(this.reifiedMethod.getName());
+            out.writeObject(fixBugWrite(this.reifiedMethod.getParameterTypes()));
+        }
     }
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
@@ -365,6 +466,14 @@ public class MethodCall implements java.io.Serializable, Cloneable {
 
     protected void readTheObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
+        int ref = WireDictionary.readReference(in);
+        if (ref >= 0) {
+            // the method has been defined by a previous message of the connection
+            this.key = (String) WireDictionary.resolve(in, ref);
+        } else {
+            this.key = (String) in.readObject();
+        }
+
         this.reifiedMethod = reifiedMethodsTable.get(this.key);
         if (this.reifiedMethod == null) {
             // Reads several pieces of data that we need for looking up the method
@@ -381,6 +490,9 @@ public class MethodCall implements java.io.Serializable, Cloneable {
                                             ". This may be caused by having different versions of the same class on different VMs. Check your CLASSPATH settings.");
             }
         }
+        if (ref < 0) {
+            WireDictionary.bind(in, ref, this.key);
+        }
 
         if ((this.serializedEffectiveArguments != null) && (this.effectiveArguments == null)) {
             try {
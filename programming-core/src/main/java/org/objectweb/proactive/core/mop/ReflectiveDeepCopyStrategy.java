@@ -0,0 +1,386 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.mop;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.rmi.Remote;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.annotation.Immutable;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+
+
+/**
+ * Copies the arguments without serializing them when possible.
+ * <p>
+ * Instances of immutable types (strings, primitive wrappers, enums, classes annotated with
+ * {@link Immutable}) are shared, arrays of primitives are copied with System.arraycopy and
+ * other objects are copied field by field. The way to copy a class is computed once and cached.
+ * Copies are created with the no-arg constructor of their class, then, as with serialization,
+ * transient fields are reset and the identity of the objects is preserved within the copied graph.
+ * </p><p>
+ * When the graph holds an object for which such a copy would not behave as serialization does,
+ * all the arguments are copied by {@link SerializationDeepCopyStrategy} instead. This is the
+ * case of stubs and futures, of non-serializable objects and of classes customizing their
+ * serialization (writeObject, readObject, writeReplace, readResolve, Externalizable,
+ * serialPersistentFields), apart from a few collections of java.util, and of classes without
+ * an accessible no-arg constructor.
+ * </p>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class ReflectiveDeepCopyStrategy implements DeepCopyStrategy {
+    static final Logger logger = ProActiveLogger.getLogger(Loggers.MOP);
+
+    /** The copiers are attached to their class, so that they do not prevent it from being unloaded */
+    private static final ClassValue<ClassCopier> copiers = new ClassValue<ClassCopier>() {
+        @Override
+        protected ClassCopier computeValue(Class<?> cl) {
+            return newCopier(cl);
+        }
+    };
+
+    private static final String[] SERIALIZATION_METHODS = { "writeObject", "readObject", "readObjectNoData",
+                                                            "writeReplace", "readResolve" };
+
+    private final DeepCopyStrategy fallback = new SerializationDeepCopyStrategy();
+
+    public Object[] makeDeepCopy(Object[] source) throws IOException {
+        if (source == null) {
+            return null;
+        }
+        try {
+            return (Object[]) new GraphCopy().copy(source);
+        } catch (UnsupportedCopyException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Copying arguments by serialization: " + e.getMessage());
+            }
+            return fallback.makeDeepCopy(source);
+        }
+    }
+
+    private static ClassCopier getCopier(Class<?> cl) {
+        return copiers.get(cl);
+    }
+
+    private static ClassCopier newCopier(Class<?> cl) {
+        if (isImmutable(cl)) {
+            return IMMUTABLE;
+        }
+        if (StubObject.class.isAssignableFrom(cl) || Proxy.class.isAssignableFrom(cl)) {
+            return new Unsupported(cl, "stubs and futures");
+        }
+        if (Remote.class.isAssignableFrom(cl)) {
+            // replaced by their stub when serialized
+            return new Unsupported(cl, "remote object");
+        }
+        if (cl.isArray()) {
+            return cl.getComponentType().isPrimitive() ? PRIMITIVE_ARRAY : OBJECT_ARRAY;
+        }
+        if (!Serializable.class.isAssignableFrom(cl)) {
+            return new Unsupported(cl, "not serializable");
+        }
+        if ((cl == ArrayList.class) || (cl == LinkedList.class) || (cl == HashSet.class) ||
+            (cl == LinkedHashSet.class)) {
+            return COLLECTION;
+        }
+        if (cl == HashMap.class) {
+            return MAP;
+        }
+        if (Externalizable.class.isAssignableFrom(cl)) {
+            return new Unsupported(cl, "externalizable");
+        }
+        for (Class<?> c = cl; c != null; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                for (String name : SERIALIZATION_METHODS) {
+                    if (m.getName().equals(name)) {
+                        return new Unsupported(cl, "custom serialization");
+                    }
+                }
+            }
+            try {
+                c.getDeclaredField("serialPersistentFields");
+                return new Unsupported(cl, "custom serialization");
+            } catch (NoSuchFieldException e) {
+                // expected
+            }
+        }
+        try {
+            return new FieldsCopier(cl);
+        } catch (Throwable t) {
+            // The serialization of this class is expected to fail the same way
+            return new Unsupported(cl, t.toString());
+        }
+    }
+
+    private static boolean isImmutable(Class<?> cl) {
+        return (cl == String.class) || (cl == Boolean.class) || (cl == Character.class) || (cl == Byte.class) ||
+               (cl == Short.class) || (cl == Integer.class) || (cl == Long.class) || (cl == Float.class) ||
+               (cl == Double.class) || (cl == BigInteger.class) || (cl == BigDecimal.class) ||
+               (cl == Class.class) || Enum.class.isAssignableFrom(cl) ||
+               (cl.isAnnotationPresent(Immutable.class) && Serializable.class.isAssignableFrom(cl));
+    }
+
+    /**
+     * The copy of one object graph, remembering the objects already copied
+     */
+    private static class GraphCopy {
+        private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+        Object copy(Object source) throws UnsupportedCopyException {
+            if (source == null) {
+                return null;
+            }
+            ClassCopier copier = getCopier(source.getClass());
+            if (copier == IMMUTABLE) {
+                return source;
+            }
+            Object copy = copies.get(source);
+            if (copy == null) {
+                copy = copier.copy(source, this);
+            }
+            return copy;
+        }
+
+        /** To be called before copying the content of the copy, in case of cycles */
+        void copied(Object source, Object copy) {
+            copies.put(source, copy);
+        }
+    }
+
+    private static abstract class ClassCopier {
+        abstract Object copy(Object source, GraphCopy graph) throws UnsupportedCopyException;
+    }
+
+    private static final ClassCopier IMMUTABLE = new ClassCopier() {
+        @Override
+        Object copy(Object source, GraphCopy graph) {
+            return source;
+        }
+    };
+
+    private static final ClassCopier PRIMITIVE_ARRAY = new ClassCopier() {
+        @Override
+        Object copy(Object source, GraphCopy graph) {
+            int length = Array.getLength(source);
+            Object copy = Array.newInstance(source.getClass().getComponentType(), length);
+            System.arraycopy(source, 0, copy, 0, length);
+            graph.copied(source, copy);
+            return copy;
+        }
+    };
+
+    private static final ClassCopier OBJECT_ARRAY = new ClassCopier() {
+        @Override
+        Object copy(Object source, GraphCopy graph) throws UnsupportedCopyException {
+            Object[] array = (Object[]) source;
+            Object[] copy = (Object[]) Array.newInstance(source.getClass().getComponentType(), array.length);
+            graph.copied(source, copy);
+            for (int i = 0; i < array.length; i++) {
+                copy[i] = graph.copy(array[i]);
+            }
+            return copy;
+        }
+    };
+
+    private static final ClassCopier COLLECTION = new ClassCopier() {
+        @Override
+        @SuppressWarnings("unchecked")
+        Object copy(Object source, GraphCopy graph) throws UnsupportedCopyException {
+            Collection<Object> collection = (Collection<Object>) source;
+            Collection<Object> copy;
+            if (source instanceof ArrayList) {
+                copy = new ArrayList<Object>(collection.size());
+            } else if (source instanceof LinkedList) {
+                copy = new LinkedList<Object>();
+            } else if (source instanceof LinkedHashSet) {
+                copy = new LinkedHashSet<Object>(Math.max(16, (int) (collection.size() / .75f) + 1));
+            } else {
+                copy = new HashSet<Object>(Math.max(16, (int) (collection.size() / .75f) + 1));
+            }
+            graph.copied(source, copy);
+            for (Object element : collection) {
+                copy.add(graph.copy(element));
+            }
+            return copy;
+        }
+    };
+
+    private static final ClassCopier MAP = new ClassCopier() {
+        @Override
+        @SuppressWarnings("unchecked")
+        Object copy(Object source, GraphCopy graph) throws UnsupportedCopyException {
+            Map<Object, Object> map = (Map<Object, Object>) source;
+            Map<Object, Object> copy = new HashMap<Object, Object>(Math.max(16, (int) (map.size() / .75f) + 1));
+            graph.copied(source, copy);
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                copy.put(graph.copy(entry.getKey()), graph.copy(entry.getValue()));
+            }
+            return copy;
+        }
+    };
+
+    private static class Unsupported extends ClassCopier {
+        private final String reason;
+
+        Unsupported(Class<?> cl, String reason) {
+            this.reason = cl.getName() + ": " + reason;
+        }
+
+        @Override
+        Object copy(Object source, GraphCopy graph) throws UnsupportedCopyException {
+            throw new UnsupportedCopyException(reason);
+        }
+    }
+
+    /**
+     * Copies the serializable fields of a class, and resets its transient ones as serialization does
+     */
+    private static class FieldsCopier extends ClassCopier {
+        private final Constructor<?> constructor;
+
+        private final Field[] fields;
+
+        private final Field[] transientFields;
+
+        FieldsCopier(Class<?> cl) throws Exception {
+            List<Field> fieldList = new ArrayList<Field>();
+            List<Field> transientFieldList = new ArrayList<Field>();
+            for (Class<?> c = cl; Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    int modifiers = f.getModifiers();
+                    if (Modifier.isStatic(modifiers)) {
+                        continue;
+                    }
+                    f.setAccessible(true);
+                    if (Modifier.isTransient(modifiers)) {
+                        transientFieldList.add(f);
+                    } else {
+                        fieldList.add(f);
+                    }
+                }
+            }
+            // throws NoSuchMethodException if there is none, the arguments are then serialized
+            this.constructor = cl.getDeclaredConstructor();
+            this.constructor.setAccessible(true);
+            this.fields = fieldList.toArray(new Field[fieldList.size()]);
+            this.transientFields = transientFieldList.toArray(new Field[transientFieldList.size()]);
+        }
+
+        @Override
+        Object copy(Object source, GraphCopy graph) throws UnsupportedCopyException {
+            try {
+                Object copy = constructor.newInstance();
+                graph.copied(source, copy);
+                for (Field f : transientFields) {
+                    resetField(f, copy);
+                }
+                for (Field f : fields) {
+                    Class<?> type = f.getType();
+                    if (!type.isPrimitive()) {
+                        f.set(copy, graph.copy(f.get(source)));
+                    } else if (type == int.class) {
+                        f.setInt(copy, f.getInt(source));
+                    } else if (type == long.class) {
+                        f.setLong(copy, f.getLong(source));
+                    } else if (type == double.class) {
+                        f.setDouble(copy, f.getDouble(source));
+                    } else if (type == boolean.class) {
+                        f.setBoolean(copy, f.getBoolean(source));
+                    } else if (type == float.class) {
+                        f.setFloat(copy, f.getFloat(source));
+                    } else if (type == byte.class) {
+                        f.setByte(copy, f.getByte(source));
+                    } else if (type == char.class) {
+                        f.setChar(copy, f.getChar(source));
+                    } else {
+                        f.setShort(copy, f.getShort(source));
+                    }
+                }
+                return copy;
+            } catch (UnsupportedCopyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new UnsupportedCopyException(e.toString());
+            }
+        }
+
+        /** Sets the default value of its type to a field initialized by the constructor */
+        private static void resetField(Field f, Object copy) throws IllegalAccessException {
+            Class<?> type = f.getType();
+            if (!type.isPrimitive()) {
+                f.set(copy, null);
+            } else if (type == boolean.class) {
+                f.setBoolean(copy, false);
+            } else if (type == char.class) {
+                f.setChar(copy, (char) 0);
+            } else if (type == long.class) {
+                f.setLong(copy, 0L);
+            } else if (type == float.class) {
+                f.setFloat(copy, 0f);
+            } else if (type == double.class) {
+                f.setDouble(copy, 0d);
+            } else if (type == byte.class) {
+                f.setByte(copy, (byte) 0);
+            } else if (type == short.class) {
+                f.setShort(copy, (short) 0);
+            } else {
+                f.setInt(copy, 0);
+            }
+        }
+    }
+
+    private static class UnsupportedCopyException extends Exception {
+        UnsupportedCopyException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -35,7 +35,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.util.converter.ProActiveMakeDeepCopy;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
 
 
 /**
@@ -499,6 +502,36 @@ public abstract class Utils extends Object {
         return ret;
     }
 
+    /**
+     * @return the strategy used to copy the arguments of calls between active objects of the same
+     * runtime, as configured by {@link CentralPAPropertyRepository#PA_MOP_DEEP_COPY}
+     */
+    public static DeepCopyStrategy getDeepCopyStrategy() {
+        return DeepCopyStrategyHolder.strategy;
+    }
+
+    private static class DeepCopyStrategyHolder {
+        static final DeepCopyStrategy strategy = newDeepCopyStrategy(CentralPAPropertyRepository.PA_MOP_DEEP_COPY.getValue());
+
+        private static DeepCopyStrategy newDeepCopyStrategy(String strategy) {
+            switch (strategy.trim()) {
+                case "serialization":
+                    return new SerializationDeepCopyStrategy();
+                case "reflection":
+                    return new ReflectiveDeepCopyStrategy();
+                default:
+                    try {
+                        return (DeepCopyStrategy) Class.forName(strategy.trim()).newInstance();
+                    } catch (Exception e) {
+                        ProActiveLogger.getLogger(Loggers.MOP)
+                                       .warn("Unrecognized deep copy strategy : " + strategy + " revert to default",
+                                             e);
+                        return new SerializationDeepCopyStrategy();
+                    }
+            }
+        }
+    }
+
     /**
      * Make a deep copy of source object using a ProActiveObjectStream.
      * @param source The object to copy.
@@ -48,6 +48,7 @@ import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.log4j.Logger;
@@ -58,6 +59,8 @@ import org.objectweb.proactive.core.body.reply.Reply;
 import org.objectweb.proactive.core.body.request.Request;
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
 import org.objectweb.proactive.core.mop.MethodCall;
+import org.objectweb.proactive.core.remoteobject.benchmark.ProtocolSelectionMonitor;
+import org.objectweb.proactive.core.remoteobject.benchmark.ProtocolStatistics;
 import org.objectweb.proactive.core.remoteobject.benchmark.RemoteObjectBenchmark;
 import org.objectweb.proactive.core.remoteobject.exception.UnknownProtocolException;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
@@ -81,6 +84,21 @@ public class RemoteObjectSet implements Serializable, Observer {
      */
     private static List<String> defaultProtocolOrder;
 
+    /**
+     * Adaptive protocol selection settings, read from the proactive.communication.adaptive.* properties
+     */
+    private static final boolean ADAPTIVE_SELECTION;
+
+    private static final int PROBE_PERIOD;
+
+    private static final long QUARANTINE;
+
+    /**
+     * With adaptive protocol selection, a protocol must be this much faster than the preferred one
+     * to replace it, to avoid oscillating between protocols of similar performance
+     */
+    private static final double SWITCH_MARGIN = 0.2;
+
     /**
      * Order received when reading a stub or when creating the RemoteObjectSet locally.
      * The order will be used each time this RemoteObjectSet will serialized
@@ -103,9 +121,20 @@ public class RemoteObjectSet implements Serializable, Observer {
     private transient HashMap<URI, RemoteRemoteObject> rros;
 
     /**
-     * Sorted list of RRO uris, according to natural order, benchmark or reachability
+     * Sorted list of RRO uris, according to natural order, benchmark, live statistics or reachability.
+     * A published list is never modified, updates replace it so that senders can iterate without copy
+     */
+    private transient volatile ArrayList<URI> sortedrros;
+
+    /**
+     * Live statistics of each RRO, only used by the adaptive protocol selection
+     */
+    private transient ConcurrentHashMap<URI, ProtocolStatistics> statistics;
+
+    /**
+     * Number of messages sent, used to schedule the probes of the adaptive protocol selection
      */
-    private transient ArrayList<URI> sortedrros;
+    private transient AtomicLong messageCount;
 
     /**
      * The default protocol of this remote object set
@@ -129,6 +158,9 @@ public class RemoteObjectSet implements Serializable, Observer {
         } else {
             defaultProtocolOrder = Collections.emptyList();
         }
+        ADAPTIVE_SELECTION = CentralPAPropertyRepository.PA_ADAPTIVE_SELECTION_ACTIVATE.isTrue();
+        PROBE_PERIOD = Math.max(1, CentralPAPropertyRepository.PA_ADAPTIVE_SELECTION_PROBE_PERIOD.getValue());
+        QUARANTINE = CentralPAPropertyRepository.PA_ADAPTIVE_SELECTION_QUARANTINE.getValue();
         try {
             getURI = InternalRemoteRemoteObject.class.getDeclaredMethod("getURI", new Class<?>[0]);
         } catch (NoSuchMethodException e) {
@@ -149,6 +181,8 @@ public class RemoteObjectSet implements Serializable, Observer {
             this.initialorder = new ArrayList<URI>();
             this.initialorder.add(defaultURI);
             this.lastBenchmarkResults = new ConcurrentHashMap<URI, Integer>();
+            this.statistics = new ConcurrentHashMap<URI, ProtocolStatistics>();
+            this.messageCount = new AtomicLong();
             for (RemoteRemoteObject rro : rros) {
                 this.add(rro);
             }
@@ -166,18 +200,27 @@ public class RemoteObjectSet implements Serializable, Observer {
      * Select the best suited RemoteRemoteObject (protocol related), and send it the Request
      * Fallback to default (according to the PA_COMMUNICATION_PROTOCOL property) if necessary
      */
-    @SuppressWarnings("unchecked")
     public Reply receiveMessage(Request message) throws ProActiveException, IOException {
         if (forcedProtocol != null) {
             return forcedProtocol.receiveMessage(message);
         }
         RemoteRemoteObject rro = null;
-        // the order is cloned to allow asynchronous updates by the benchmark threads
-        ReentrantReadWriteLock.ReadLock rl = rwlock.readLock();
-
-        rl.lock();
-        ArrayList<URI> cloned = (ArrayList<URI>) sortedrros.clone();
-        rl.unlock();
+        // the sorted list is replaced, never modified, by the benchmark threads and the adaptive selection
+        List<URI> cloned = sortedrros;
+
+        // from time to time, the adaptive selection sends a message through a non-preferred protocol
+        boolean probe = false;
+        if (ADAPTIVE_SELECTION && cloned.size() > 1) {
+            long count = messageCount.incrementAndGet();
+            if (count % PROBE_PERIOD == 0) {
+                List<URI> probeOrder = probeOrder(cloned, count / PROBE_PERIOD);
+                if (probeOrder != null) {
+                    cloned = probeOrder;
+                    probe = true;
+                    ProtocolSelectionMonitor.getInstance().probed();
+                }
+            }
+        }
         // For each protocol already selected and sorted
 
         Throwable defaultProtocolException = null;
@@ -190,6 +233,7 @@ public class RemoteObjectSet implements Serializable, Observer {
             if (LOGGER_RO.isDebugEnabled()) {
                 LOGGER_RO.debug("[ROAdapter] Sending message " + message + " to " + uri);
             }
+            long start = ADAPTIVE_SELECTION ? System.nanoTime() : 0;
             try {
                 reply = rro.receiveMessage(message);
                 // These Exceptions happened on client side
@@ -212,14 +256,17 @@ public class RemoteObjectSet implements Serializable, Observer {
                     defaultProtocolException = handleProtocolException(t, uri, cloned.size() > 1);
                     continue;
                 }
+                if (ADAPTIVE_SELECTION) {
+                    statisticsFor(uri).success(System.nanoTime() - start);
+                }
                 break;
             }
         }
 
         // if we arrive to this point either a reply has been received or all protocols sent exceptions
 
-        // if there has been any exception we sort the uri list before sending back the result
-        if (anyException) {
+        // if there has been any exception or a probe we sort the uri list before sending back the result
+        if (anyException || probe) {
             sortProtocolsInternal();
         }
 
@@ -237,6 +284,15 @@ public class RemoteObjectSet implements Serializable, Observer {
 
     // Handles the Exceptions received in the receiveMessage method, doing a special treatment for the default protocol
     private Throwable handleProtocolException(Throwable e, URI uri, boolean multiProtocol) {
+        if (ADAPTIVE_SELECTION) {
+            // the protocol is quarantined instead of being disabled, it will be probed again later
+            statisticsFor(uri).failure();
+            if (multiProtocol) {
+                LOGGER_RO.warn("[ROAdapter] Quarantining protocol " + uri.getScheme() + " because of received exception",
+                               e);
+            }
+            return uri.equals(defaultURI) ? e : null;
+        }
         if (!uri.equals(defaultURI)) {
             LOGGER_RO.warn("[ROAdapter] Disabling protocol " + uri.getScheme() + " because of received exception", e);
             lastBenchmarkResults.put(uri, UNREACHABLE_VALUE);
@@ -302,8 +358,70 @@ public class RemoteObjectSet implements Serializable, Observer {
     private void sortProtocolsInternal() {
         ReentrantReadWriteLock.WriteLock wl = rwlock.writeLock();
         wl.lock();
-        sortedrros = sortProtocols(rros.keySet(), defaultProtocolOrder, lastBenchmarkResults, defaultURI);
-        wl.unlock();
+        ArrayList<URI> sorted;
+        try {
+            Map<URI, Double> scores = ADAPTIVE_SELECTION ? getScores() : null;
+            sorted = sortProtocols(rros.keySet(), defaultProtocolOrder, lastBenchmarkResults, scores, defaultURI);
+            sortedrros = sorted;
+        } finally {
+            wl.unlock();
+        }
+
+        if (ADAPTIVE_SELECTION && sorted.size() > 1) {
+            List<String> ranking = new ArrayList<String>(sorted.size());
+            for (URI uri : sorted) {
+                ranking.add(uri.getScheme());
+            }
+            ProtocolSelectionMonitor.getInstance().rankingChanged(defaultURI.toString(), ranking);
+        }
+    }
+
+    /**
+     * Returns the order used to probe a non-preferred protocol, or null if the protocol to probe
+     * is quarantined. Non-preferred protocols are probed in turn.
+     */
+    private List<URI> probeOrder(List<URI> order, long round) {
+        URI probed = order.get(1 + (int) (round % (order.size() - 1)));
+        if (statisticsFor(probed).isQuarantined(QUARANTINE)) {
+            return null;
+        }
+        List<URI> probeOrder = new ArrayList<URI>(order.size());
+        probeOrder.add(probed);
+        for (URI uri : order) {
+            if (uri != probed) {
+                probeOrder.add(uri);
+            }
+        }
+        return probeOrder;
+    }
+
+    /**
+     * Returns the live statistics of a RRO, shared with all the remote objects of the same runtime
+     */
+    private ProtocolStatistics statisticsFor(URI uri) {
+        ProtocolStatistics stats = statistics.get(uri);
+        if (stats == null) {
+            stats = ProtocolSelectionMonitor.getInstance().getStatistics(remoteRuntimeName, uri.getScheme());
+            statistics.put(uri, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Snapshot of the scores of all RRO, used by the adaptive protocol selection.
+     * The currently preferred RRO is favoured by SWITCH_MARGIN
+     */
+    private Map<URI, Double> getScores() {
+        URI preferred = sortedrros.get(0);
+        Map<URI, Double> scores = new HashMap<URI, Double>();
+        for (URI uri : rros.keySet()) {
+            double score = statisticsFor(uri).getScore(QUARANTINE);
+            if (uri.equals(preferred)) {
+                score = score / (1 + SWITCH_MARGIN);
+            }
+            scores.put(uri, score);
+        }
+        return scores;
     }
 
     /**
@@ -316,6 +434,22 @@ public class RemoteObjectSet implements Serializable, Observer {
      */
     public static ArrayList<URI> sortProtocols(Collection<URI> input, final List<String> defOrder,
             final ConcurrentHashMap<URI, Integer> benchmarkRes, final URI defUri) {
+        return sortProtocols(input, defOrder, benchmarkRes, null, defUri);
+    }
+
+    /**
+     * Helper method used to sort the list of protocols, using the scores of the adaptive protocol selection.
+     * A quarantined protocol (infinite score) is put after the reachable ones but is kept as a last resort.
+     * Protocols without score (NaN) are put after the ones with a score.
+     * @param input
+     * @param defOrder
+     * @param benchmarkRes
+     * @param scores live scores of the protocols, the lower the better, or null
+     * @param defUri
+     * @return
+     */
+    public static ArrayList<URI> sortProtocols(Collection<URI> input, final List<String> defOrder,
+            final ConcurrentHashMap<URI, Integer> benchmarkRes, final Map<URI, Double> scores, final URI defUri) {
 
         ArrayList<URI> output = new ArrayList<URI>();
         output.addAll(input);
@@ -332,6 +466,19 @@ public class RemoteObjectSet implements Serializable, Observer {
                     return -1;
                 }
 
+                double s1 = Double.NaN;
+                double s2 = Double.NaN;
+                if (scores != null) {
+                    s1 = scores.containsKey(o1) ? scores.get(o1) : Double.NaN;
+                    s2 = scores.containsKey(o2) ? scores.get(o2) : Double.NaN;
+                    // quarantined uri, they are put after the reachable ones
+                    boolean q1 = s1 == Double.POSITIVE_INFINITY;
+                    boolean q2 = s2 == Double.POSITIVE_INFINITY;
+                    if (q1 != q2) {
+                        return q1 ? 1 : -1;
+                    }
+                }
+
                 // sort accordingly to fixed order
                 if (defOrder.contains(o1.getScheme()) && defOrder.contains(o2.getScheme())) {
                     return defOrder.indexOf(o1.getScheme()) - defOrder.indexOf(o2.getScheme());
@@ -345,6 +492,18 @@ public class RemoteObjectSet implements Serializable, Observer {
                 if (defOrder.contains(o2.getScheme())) {
                     return 1;
                 }
+                if (scores != null) {
+                    // sort accordingly to live statistics, protocols never used come last
+                    if (!Double.isNaN(s1) && !Double.isNaN(s2)) {
+                        return Double.compare(s1, s2);
+                    }
+                    if (!Double.isNaN(s1)) {
+                        return -1;
+                    }
+                    if (!Double.isNaN(s2)) {
+                        return 1;
+                    }
+                }
                 if (benchmarkRes.containsKey(o1) && benchmarkRes.containsKey(o2)) {
                     // sort accordingly to benchmark results
                     if (benchmarkRes.get(o1) > benchmarkRes.get(o2)) {
@@ -383,7 +542,9 @@ public class RemoteObjectSet implements Serializable, Observer {
         try {
             URI uri = getURI(rro);
             this.rros.put(uri, rro);
-            this.sortedrros.add(uri);
+            ArrayList<URI> sorted = new ArrayList<URI>(this.sortedrros);
+            sorted.add(uri);
+            this.sortedrros = sorted;
             this.initialorder.add(uri);
         } catch (RemoteRemoteObjectException e) {
             LOGGER_RO.warn(e);
@@ -493,8 +654,10 @@ public class RemoteObjectSet implements Serializable, Observer {
         ReentrantReadWriteLock.WriteLock wl = rwlock.writeLock();
         wl.lock();
         this.rros = new LinkedHashMap<URI, RemoteRemoteObject>(size);
-        this.sortedrros = new ArrayList<URI>();
+        ArrayList<URI> sorted = new ArrayList<URI>();
         this.lastBenchmarkResults = new ConcurrentHashMap<URI, Integer>();
+        this.statistics = new ConcurrentHashMap<URI, ProtocolStatistics>();
+        this.messageCount = new AtomicLong();
 
         // read protocols
         for (int i = 0; i < size; i++) {
@@ -508,10 +671,11 @@ public class RemoteObjectSet implements Serializable, Observer {
                     this.defaultRO = rro;
                 }
                 this.rros.put(uri, rro);
-                sortedrros.add(uri);
+                sorted.add(uri);
                 lastBenchmarkResults.put(uri, size - i);
             }
         }
+        this.sortedrros = sorted;
         wl.unlock();
         sortProtocolsInternal();
 
@@ -0,0 +1,170 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.remoteobject.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+
+
+/**
+ * Holds the live protocol statistics used by the adaptive protocol selection.
+ *
+ * Statistics are shared by all the remote objects of a same remote runtime, since the
+ * performance of a protocol depends on the path to the runtime rather than on the object.
+ * The monitor is registered in the platform MBean server on first use.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class ProtocolSelectionMonitor implements ProtocolSelectionMonitorMBean {
+
+    static final Logger logger = ProActiveLogger.getLogger(Loggers.REMOTEOBJECT);
+
+    public static final String OBJECT_NAME = "org.objectweb.proactive:type=ProtocolSelection";
+
+    /** Maximum number of remote objects whose ranking is kept for JMX */
+    static final int MAX_RANKINGS = 1000;
+
+    private static ProtocolSelectionMonitor singleInstance = null;
+
+    private final ConcurrentMap<String, ProtocolStatistics> statistics;
+
+    private final Map<String, String> rankings;
+
+    private final AtomicLong probes;
+
+    public static synchronized ProtocolSelectionMonitor getInstance() {
+        if (singleInstance == null) {
+            singleInstance = new ProtocolSelectionMonitor();
+            singleInstance.register();
+        }
+        return singleInstance;
+    }
+
+    ProtocolSelectionMonitor() {
+        this.statistics = new ConcurrentHashMap<String, ProtocolStatistics>();
+        this.rankings = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > MAX_RANKINGS;
+            }
+        };
+        this.probes = new AtomicLong();
+    }
+
+    private void register() {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName oname = new ObjectName(OBJECT_NAME);
+            if (!mbs.isRegistered(oname)) {
+                mbs.registerMBean(this, oname);
+            }
+        } catch (JMException e) {
+            logger.warn("Failed to register the protocol selection MBean", e);
+        }
+    }
+
+    /**
+     * Returns the statistics of a protocol towards a remote runtime, created if needed
+     */
+    public ProtocolStatistics getStatistics(String runtimeName, String protocol) {
+        String key = runtimeName + " " + protocol;
+        ProtocolStatistics stats = statistics.get(key);
+        if (stats == null) {
+            stats = new ProtocolStatistics(runtimeName, protocol);
+            ProtocolStatistics previous = statistics.putIfAbsent(key, stats);
+            if (previous != null) {
+                stats = previous;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Record the current ranking of a remote object
+     * @param remoteObject the default URI of the remote object
+     * @param ranking the protocols, the preferred one first
+     */
+    public void rankingChanged(String remoteObject, List<String> ranking) {
+        synchronized (rankings) {
+            rankings.put(remoteObject, ranking.toString());
+        }
+    }
+
+    /**
+     * Record a message sent through a non-preferred protocol
+     */
+    public void probed() {
+        probes.incrementAndGet();
+    }
+
+    @Override
+    public String[] getRankings() {
+        List<String> result = new ArrayList<String>();
+        synchronized (rankings) {
+            for (Map.Entry<String, String> entry : rankings.entrySet()) {
+                result.add(entry.getKey() + " " + entry.getValue());
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    @Override
+    public String[] getStatistics() {
+        List<String> result = new ArrayList<String>();
+        for (ProtocolStatistics stats : statistics.values()) {
+            result.add(stats.toString());
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    @Override
+    public long getProbes() {
+        return probes.get();
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (ProtocolStatistics stats : statistics.values()) {
+            stats.reset();
+        }
+        probes.set(0);
+    }
+}
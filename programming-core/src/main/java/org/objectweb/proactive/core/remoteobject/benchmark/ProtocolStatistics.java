@@ -0,0 +1,136 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.remoteobject.benchmark;
+
+/**
+ * Live statistics of a protocol towards a remote runtime, fed by the messages actually sent
+ * through this protocol.
+ *
+ * Latency and error rate are exponentially weighted moving averages, so that the ranking
+ * follows the changes of the network conditions.
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class ProtocolStatistics {
+
+    /** Weight of the last sample in the moving averages */
+    static final double ALPHA = 0.2;
+
+    /** Lowest success rate taken into account in the score, to keep it finite */
+    static final double MIN_SUCCESS_RATE = 0.01;
+
+    private final String runtimeName;
+
+    private final String protocol;
+
+    /** Average latency in nanoseconds, negative until the first successful message */
+    private double latency = -1;
+
+    private double errorRate = 0;
+
+    private long calls = 0;
+
+    private long errors = 0;
+
+    private long lastErrorTime = 0;
+
+    public ProtocolStatistics(String runtimeName, String protocol) {
+        this.runtimeName = runtimeName;
+        this.protocol = protocol;
+    }
+
+    /**
+     * Record a message successfully sent through this protocol
+     * @param nanos the time taken to send the message, in nanoseconds
+     */
+    public synchronized void success(long nanos) {
+        calls++;
+        latency = latency < 0 ? nanos : ALPHA * nanos + (1 - ALPHA) * latency;
+        errorRate = (1 - ALPHA) * errorRate;
+    }
+
+    /**
+     * Record a message that could not be sent through this protocol
+     */
+    public synchronized void failure() {
+        calls++;
+        errors++;
+        errorRate = ALPHA + (1 - ALPHA) * errorRate;
+        lastErrorTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Forget all the samples
+     */
+    public synchronized void reset() {
+        latency = -1;
+        errorRate = 0;
+        calls = 0;
+        errors = 0;
+        lastErrorTime = 0;
+    }
+
+    /**
+     * Returns the score of this protocol, the lower the better.
+     *
+     * The score is the average latency inflated by the error rate, it is {@link Double#NaN} when
+     * no message has been successfully sent yet and {@link Double#POSITIVE_INFINITY} while the
+     * protocol is quarantined after a failure.
+     *
+     * @param quarantine the quarantine period in milliseconds
+     */
+    public synchronized double getScore(long quarantine) {
+        if (isQuarantined(quarantine)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (latency < 0) {
+            return Double.NaN;
+        }
+        return latency / Math.max(1 - errorRate, MIN_SUCCESS_RATE);
+    }
+
+    /**
+     * Returns true if the last failure of this protocol happened less than quarantine milliseconds ago
+     */
+    public synchronized boolean isQuarantined(long quarantine) {
+        return errors > 0 && System.currentTimeMillis() - lastErrorTime < quarantine;
+    }
+
+    public String getRuntimeName() {
+        return runtimeName;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return runtimeName + " " + protocol + ": latency=" + (latency < 0 ? "n/a" : (long) (latency / 1000) + "us") +
+               " errorRate=" + String.format("%.3f", errorRate) + " calls=" + calls + " errors=" + errors;
+    }
+}
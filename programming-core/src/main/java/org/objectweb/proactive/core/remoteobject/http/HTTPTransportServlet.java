@@ -25,9 +25,8 @@
  */
 package org.objectweb.proactive.core.remoteobject.http;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.net.URI;
 
@@ -99,9 +98,7 @@ public class HTTPTransportServlet extends HttpServlet {
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 
         // Read the payload
-        final byte[] data = new byte[req.getContentLength()];
-        DataInputStream input = new DataInputStream(req.getInputStream());
-        input.readFully(data);
+        final byte[] data = HttpUtils.readPayload(req.getInputStream(), req.getContentLength());
 
         ClassLoader savedClassLoader = Thread.currentThread().getContextClassLoader();
         try {
@@ -114,11 +111,7 @@ public class HTTPTransportServlet extends HttpServlet {
             } catch (Throwable t) {
                 Throwable t1 = new IOException6("Failed to unmarshall incoming message", t);
                 SynchronousReplyImpl sr = new SynchronousReplyImpl(new MethodCallResult(null, t1));
-                byte[] buf = HttpMarshaller.marshallObject(sr);
-                DataOutputStream ouput = new DataOutputStream(resp.getOutputStream());
-                ouput.write(buf, 0, buf.length);
-                resp.setContentType(HttpUtils.SERVICE_REQUEST_CONTENT_TYPE);
-                resp.setStatus(HttpServletResponse.SC_OK);
+                sendReply(resp, HttpMarshaller.marshallObject(sr));
                 return;
             }
 
@@ -130,30 +123,18 @@ public class HTTPTransportServlet extends HttpServlet {
             } catch (Throwable t) {
                 Throwable t1 = new IOException6("Failed to marshall the result bytes", t);
                 SynchronousReplyImpl sr = new SynchronousReplyImpl(new MethodCallResult(null, t1));
-                byte[] buf = HttpMarshaller.marshallObject(sr);
-                DataOutputStream ouput = new DataOutputStream(resp.getOutputStream());
-                ouput.write(buf, 0, buf.length);
-                resp.setContentType(HttpUtils.SERVICE_REQUEST_CONTENT_TYPE);
-                resp.setStatus(HttpServletResponse.SC_OK);
+                sendReply(resp, HttpMarshaller.marshallObject(sr));
                 return;
             }
 
+            // Send the response
             try {
-                DataOutputStream ouput = new DataOutputStream(resp.getOutputStream());
-                ouput.write(resultBytes, 0, resultBytes.length);
-                resp.setContentType(HttpUtils.SERVICE_REQUEST_CONTENT_TYPE);
-                resp.setStatus(HttpServletResponse.SC_OK);
+                sendReply(resp, resultBytes);
             } catch (Throwable t) {
                 logger.info("Failed to send the HTTP reply to " + message +
                             ". The client side should discover the disconnection and unlock the caller", t);
                 return;
             }
-
-            // Send the response
-            DataOutputStream ouput = new DataOutputStream(resp.getOutputStream());
-            ouput.write(resultBytes, 0, resultBytes.length);
-            resp.setContentType(HttpUtils.SERVICE_REQUEST_CONTENT_TYPE);
-            resp.setStatus(HttpServletResponse.SC_OK);
         } catch (Exception e) {
             ProActiveLogger.getLogger(Loggers.HTTP_TRANSPORT).warn("HTTP Failed to serve a message", e);
             resp.setContentType("text/plain");
@@ -164,4 +145,20 @@ public class HTTPTransportServlet extends HttpServlet {
             Thread.currentThread().setContextClassLoader(savedClassLoader);
         }
     }
+
+    /**
+     * Send a reply in a single write.
+     *
+     * Headers are set before the body is written and the Content-Length is always
+     * announced, so the client can read the reply in one buffer and keep the
+     * connection alive for the next message.
+     */
+    private static void sendReply(HttpServletResponse resp, byte[] reply) throws IOException {
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(HttpUtils.SERVICE_REQUEST_CONTENT_TYPE);
+        resp.setContentLength(reply.length);
+        OutputStream output = resp.getOutputStream();
+        output.write(reply, 0, reply.length);
+        output.flush();
+    }
 }
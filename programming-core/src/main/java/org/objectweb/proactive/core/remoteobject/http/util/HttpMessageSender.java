@@ -25,13 +25,12 @@
  */
 package org.objectweb.proactive.core.remoteobject.http.util;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -61,6 +60,9 @@ public class HttpMessageSender {
 
     private String url;
 
+    /** The URL of the remote transport servlet, computed on the first message */
+    private volatile URL endpoint;
+
     /**
      *
      * @param url
@@ -70,108 +72,110 @@ public class HttpMessageSender {
     }
 
     /**
+     * Send a message to the remote runtime and wait for its reply.
+     *
+     * The request announces its Content-Length and the reply is read in a single
+     * buffer sized from its Content-Length. Both streams are always fully consumed and
+     * closed, so the underlying socket goes back to the JDK keep-alive cache and is reused
+     * by the next message sent to the same endpoint (see the <code>http.maxConnections</code>
+     * system property to tune the number of idle connections kept per endpoint).
      *
      * @param message
      */
     public Object sendMessage(HttpMessage message) throws HTTPRemoteException {
         byte[] bytes = HttpMarshaller.marshallObject(message);
 
-        String url_;
-
-        //        try {
-        //            url_ = UrlBuilder.checkUrl(url);
-        //            System.out.println("************* " + url_);
-        //        } catch (UnknownHostException e1) {
-        //            // TODO Auto-generated catch block
-        //            e1.printStackTrace();
-        //        }
+        HttpURLConnection connection = null;
         try {
-            String nodename = null;
-            if (!url.startsWith(Constants.XMLHTTP_PROTOCOL_IDENTIFIER)) {
-                url = Constants.XMLHTTP_PROTOCOL_IDENTIFIER + url;
-            }
-            int lastslash = url.lastIndexOf('/');
-            if (lastslash > 6) {
-                URI u;
-                u = new URI(url);
-                nodename = u.getPath();
-                url = URIBuilder.getProtocol(u) + "://" + u.getHost() + ":" + u.getPort();
-            }
-            int lastIndex = url.lastIndexOf(":");
-
-            URL u;
-            if (!HTTPServer.SERVER_CONTEXT.equals("/")) {
-                u = new URL(url + HTTPServer.SERVER_CONTEXT + HTTPTransportServlet.NS);
-            } else {
-                u = new URL(url + HTTPTransportServlet.NS);
-            }
-
             //connection to the specified url
-            HttpURLConnection connection = (HttpURLConnection) u.openConnection();
+            connection = (HttpURLConnection) getEndpoint().openConnection();
             if (CentralPAPropertyRepository.PA_HTTP_CONNECT_TIMEOUT.isSet()) {
                 connection.setConnectTimeout(CentralPAPropertyRepository.PA_HTTP_CONNECT_TIMEOUT.getValue());
             }
             connection.setDoOutput(true);
             connection.setDoInput(true);
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Content-Length", "" + bytes.length);
+            connection.setRequestMethod("POST");
             connection.setRequestProperty("Content-Type", SERVICE_REQUEST_CONTENT_TYPE);
+            // Do not use the fixed length streaming mode: headers and payload would be sent
+            // in two segments and the payload delayed by Nagle's algorithm on small messages
+            connection.setRequestProperty("Content-Length", Integer.toString(bytes.length));
             connection.setUseCaches(false);
             connection.connect();
 
             //write data in the stream
-            BufferedOutputStream out = new BufferedOutputStream(connection.getOutputStream());
-
-            out.write(bytes);
-            out.flush();
-            out.close();
+            OutputStream out = connection.getOutputStream();
+            try {
+                out.write(bytes);
+                out.flush();
+            } finally {
+                out.close();
+            }
 
             //Get data returned in the connection
-            DataInputStream in = null;
-            in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
-
-            byte[] buf = new byte[0];
-            byte[] acc = new byte[1024];
-            int acc_i = 0;
-            boolean cont = true;
-            while (cont) {
-                try {
-                    if (acc_i == acc.length) {
-                        // acc is full flush it into buf
-                        byte[] old = buf;
-                        buf = new byte[old.length + acc.length];
-                        System.arraycopy(old, 0, buf, 0, old.length);
-                        System.arraycopy(acc, 0, buf, old.length, acc.length);
-
-                        acc_i = 0;
-                    }
-
-                    acc[acc_i] = in.readByte();
-                    acc_i++;
-                } catch (EOFException e) {
-                    cont = false;
-                }
+            byte[] buf;
+            InputStream in = connection.getInputStream();
+            try {
+                buf = HttpUtils.readPayload(in, connection.getContentLength());
+            } finally {
+                in.close();
             }
 
-            // flush acc into buf
-            byte[] old = buf;
-            buf = new byte[old.length + acc_i];
-            System.arraycopy(old, 0, buf, 0, old.length);
-            System.arraycopy(acc, 0, buf, old.length, acc_i);
-
             Object returnedObject = HttpMarshaller.unmarshallObject(buf);
             return returnedObject;
-
-            //            if (returnedObject instanceof Exception)
-            //                throw (Exception)returnedObject;
         } catch (ConnectException e) {
             throw new HTTPRemoteException("Error while connecting the remote host: " + url, e);
         } catch (UnknownHostException e) {
             throw new HTTPRemoteException("Unknown remote host: " + url, e);
         } catch (IOException e) {
+            discardErrorStream(connection);
             throw new HTTPRemoteException("Error during connection with remote host" + url, e);
         } catch (URISyntaxException e) {
             throw new HTTPRemoteException("Bad URL " + url, e);
         }
     }
+
+    /** Compute the URL of the remote transport servlet from the URL of the remote object */
+    private URL getEndpoint() throws URISyntaxException, MalformedURLException {
+        URL u = this.endpoint;
+        if (u == null) {
+            String base = this.url;
+            if (!base.startsWith(Constants.XMLHTTP_PROTOCOL_IDENTIFIER)) {
+                base = Constants.XMLHTTP_PROTOCOL_IDENTIFIER + base;
+            }
+            int lastslash = base.lastIndexOf('/');
+            if (lastslash > 6) {
+                URI uri = new URI(base);
+                base = URIBuilder.getProtocol(uri) + "://" + uri.getHost() + ":" + uri.getPort();
+            }
+
+            if (!HTTPServer.SERVER_CONTEXT.equals("/")) {
+                u = new URL(base + HTTPServer.SERVER_CONTEXT + HTTPTransportServlet.NS);
+            } else {
+                u = new URL(base + HTTPTransportServlet.NS);
+            }
+            this.endpoint = u;
+        }
+        return u;
+    }
+
+    /**
+     * Consume and close the error stream of a failed exchange.
+     *
+     * An error stream left unread prevents the JDK from reusing the connection.
+     */
+    private static void discardErrorStream(HttpURLConnection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        InputStream err = connection.getErrorStream();
+        if (err != null) {
+            try {
+                HttpUtils.readPayload(err, -1);
+                err.close();
+            } catch (IOException e) {
+                logger.debug("Failed to discard the HTTP error stream of " + connection.getURL(), e);
+            }
+        }
+    }
 }
@@ -25,6 +25,11 @@
  */
 package org.objectweb.proactive.core.remoteobject.http.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.objectweb.proactive.Body;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.core.body.LocalBodyStore;
@@ -39,6 +44,9 @@ import org.objectweb.proactive.core.body.LocalBodyStore;
 public class HttpUtils {
     public static final String SERVICE_REQUEST_CONTENT_TYPE = "application/java";
 
+    /** Size of the chunks used to read a message body of unknown length */
+    private static final int PAYLOAD_CHUNK_SIZE = 8192;
+
     //    public static final String SERVICE_REQUEST_URI = "/ProActiveHTTP";
 
     /**
@@ -70,4 +78,40 @@ public class HttpUtils {
         body = bodyStore.getForwarder(id);
         return body;
     }
+
+    /**
+     * Read a whole HTTP message body.
+     *
+     * When the length of the body is known the payload is read in a single
+     * buffer of the exact size. Otherwise the stream is read until its end.
+     * The stream is not closed.
+     *
+     * @param in the stream of the message body
+     * @param contentLength the announced length of the body or -1 if unknown
+     * @return the payload
+     * @throws IOException if the stream ends before contentLength bytes have been read
+     */
+    public static byte[] readPayload(InputStream in, int contentLength) throws IOException {
+        if (contentLength >= 0) {
+            byte[] payload = new byte[contentLength];
+            int offset = 0;
+            while (offset < contentLength) {
+                int read = in.read(payload, offset, contentLength - offset);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of HTTP message: " + offset + " bytes read, " +
+                                           contentLength + " expected");
+                }
+                offset += read;
+            }
+            return payload;
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(PAYLOAD_CHUNK_SIZE);
+        byte[] chunk = new byte[PAYLOAD_CHUNK_SIZE];
+        int read;
+        while ((read = in.read(chunk)) >= 0) {
+            baos.write(chunk, 0, read);
+        }
+        return baos.toByteArray();
+    }
 }
@@ -25,9 +25,9 @@
  */
 package org.objectweb.proactive.core.util.converter;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 
 import org.objectweb.proactive.core.mop.PAObjectOutputStream;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
@@ -89,20 +89,25 @@ public class ProActiveObjectToByteConverter {
         objectOutputStream.flush();
     }
 
+    private static ObjectOutputStream newObjectOutputStream(OutputStream out, ConversionMode conversionMode)
+            throws IOException {
+        // we use enum and static calls to avoid object instanciation
+        if (conversionMode == ConversionMode.MARSHALL) {
+            return new SunMarshalOutputStream(out);
+        } else if (conversionMode == ConversionMode.OBJECT) {
+            return new ObjectOutputStream(out);
+        } else {
+            return new PAObjectOutputStream(out);
+        }
+    }
+
     private static byte[] standardConvert(Object o, ConversionMode conversionMode) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
+        final ReusableByteArrayOutputStream byteArrayOutputStream = ReusableByteArrayOutputStream.acquire();
         ObjectOutputStream objectOutputStream = null;
 
         try {
-            // we use enum and static calls to avoid object instanciation
-            if (conversionMode == ConversionMode.MARSHALL) {
-                objectOutputStream = new SunMarshalOutputStream(byteArrayOutputStream);
-            } else if (conversionMode == ConversionMode.OBJECT) {
-                objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-            } else if (conversionMode == ConversionMode.PAOBJECT) {
-                objectOutputStream = new PAObjectOutputStream(byteArrayOutputStream);
-            }
-
+            objectOutputStream = ProActiveObjectToByteConverter.newObjectOutputStream(byteArrayOutputStream,
+                                                                                      conversionMode);
             ProActiveObjectToByteConverter.writeToStream(objectOutputStream, o);
             return byteArrayOutputStream.toByteArray();
         } finally {
@@ -110,7 +115,7 @@ public class ProActiveObjectToByteConverter {
             if (objectOutputStream != null) {
                 objectOutputStream.close();
             }
-            byteArrayOutputStream.close();
+            byteArrayOutputStream.release();
         }
     }
 }
@@ -43,9 +43,21 @@ public class ProActiveMarshalInputStream extends ObjectInputStream {
 
     private final ProActiveRemoteClassLoader remoteLoader;
 
+    /** The dictionary of the connection the stream is read from, may be null */
+    private final WireDictionary dictionary;
+
     public ProActiveMarshalInputStream(InputStream in) throws IOException {
+        this(in, null);
+    }
+
+    public ProActiveMarshalInputStream(InputStream in, WireDictionary dictionary) throws IOException {
         super(in);
-        remoteLoader = new ProActiveRemoteClassLoader();
+        this.remoteLoader = new ProActiveRemoteClassLoader();
+        this.dictionary = dictionary;
+    }
+
+    public WireDictionary getDictionary() {
+        return this.dictionary;
     }
 
     @Override
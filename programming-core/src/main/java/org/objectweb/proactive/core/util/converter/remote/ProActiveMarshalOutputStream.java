@@ -43,9 +43,22 @@ public class ProActiveMarshalOutputStream extends ObjectOutputStream {
 
     private final String localRuntimeUrl;
 
+    /** The ids defined by the message being written, null if the connection has no dictionary */
+    private final WireDictionary.Batch batch;
+
     public ProActiveMarshalOutputStream(OutputStream out, String localRuntimeUrl) throws IOException {
+        this(out, localRuntimeUrl, null);
+    }
+
+    public ProActiveMarshalOutputStream(OutputStream out, String localRuntimeUrl, WireDictionary.Batch batch)
+            throws IOException {
         super(out);
         this.localRuntimeUrl = localRuntimeUrl;
+        this.batch = batch;
+    }
+
+    public WireDictionary.Batch getBatch() {
+        return this.batch;
     }
 
     @Override
@@ -26,9 +26,11 @@
 package org.objectweb.proactive.core.util.converter.remote;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.objectweb.proactive.core.util.converter.ReusableByteArrayOutputStream;
 
 
 /**
@@ -45,10 +47,21 @@ public class ProActiveMarshaller {
     }
 
     public byte[] marshallObject(Object o) throws IOException {
+        return marshallObject(o, (WireDictionary.Batch) null);
+    }
+
+    /**
+     * Serializes an object sent through a connection owning a {@link WireDictionary}. The
+     * values already known by the peer are written as ids.
+     *
+     * @param batch the batch of the message, to be acknowledged once the peer has answered it
+     */
+    public byte[] marshallObject(Object o, WireDictionary.Batch batch) throws IOException {
         ProActiveMarshalOutputStream serializer = null;
+        // the buffer of the previous messages of this thread is reused
+        ReusableByteArrayOutputStream baos = ReusableByteArrayOutputStream.acquire();
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            serializer = new ProActiveMarshalOutputStream(baos, this.localRuntimeURL);
+            serializer = new ProActiveMarshalOutputStream(baos, this.localRuntimeURL, batch);
             serializer.writeObject(o);
             serializer.flush();
             return baos.toByteArray();
@@ -56,13 +69,35 @@ public class ProActiveMarshaller {
             // cleanup
             if (serializer != null)
                 serializer.close(); // this will also close the underlying baos
+            baos.release();
         }
     }
 
+    /**
+     * Serializes an object directly in the given stream, a network buffer for instance, without
+     * intermediate byte array nor final copy. The stream is flushed but not closed.
+     *
+     * @param batch the batch of the message, to be acknowledged once the peer has answered it,
+     * can be null
+     */
+    public void marshallObject(Object o, WireDictionary.Batch batch, OutputStream out) throws IOException {
+        ProActiveMarshalOutputStream serializer = new ProActiveMarshalOutputStream(out, this.localRuntimeURL, batch);
+        serializer.writeObject(o);
+        serializer.flush();
+    }
+
     public Object unmarshallObject(byte[] bytes) throws IOException, ClassNotFoundException {
+        return unmarshallObject(bytes, null);
+    }
+
+    /**
+     * Deserializes an object received through a connection owning a {@link WireDictionary}
+     */
+    public Object unmarshallObject(byte[] bytes, WireDictionary dictionary) throws IOException,
+            ClassNotFoundException {
         ProActiveMarshalInputStream deserializer = null;
         try {
-            deserializer = new ProActiveMarshalInputStream(new ByteArrayInputStream(bytes));
+            deserializer = new ProActiveMarshalInputStream(new ByteArrayInputStream(bytes), dictionary);
             return deserializer.readObject();
         } finally {
             // cleanup
@@ -72,9 +107,17 @@ public class ProActiveMarshaller {
     }
 
     public Object unmarshallObject(InputStream is) throws IOException, ClassNotFoundException {
+        return unmarshallObject(is, null);
+    }
+
+    /**
+     * Deserializes an object received through a connection owning a {@link WireDictionary}
+     */
+    public Object unmarshallObject(InputStream is, WireDictionary dictionary) throws IOException,
+            ClassNotFoundException {
         ProActiveMarshalInputStream deserializer = null;
         try {
-            deserializer = new ProActiveMarshalInputStream(is);
+            deserializer = new ProActiveMarshalInputStream(is, dictionary);
             return deserializer.readObject();
         } finally {
             // cleanup
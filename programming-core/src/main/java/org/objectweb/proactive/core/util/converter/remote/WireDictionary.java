@@ -0,0 +1,275 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.util.converter.remote;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Interns the values repeated by every message of a connection (method signatures, method names,
+ * body identifiers, sender references...) as small integer ids.
+ * <p>
+ * Each end of a connection owns a dictionary. The sender side assigns the ids and writes the
+ * definition of an id along with it until a message carrying this definition has been answered
+ * by the peer. Messages can then be decoded in any order by the receiver: an id is only written
+ * alone once the receiver is known to have bound it.
+ * <p>
+ * Values are written through {@link #writeShared(ObjectOutputStream, Object)} and read through
+ * {@link #readShared(ObjectInputStream)}. When the stream has no dictionary, for instance with
+ * RMI or a deep copy, the value is written inline.
+ */
+public class WireDictionary {
+
+    /** The value is written inline and is not bound to any id */
+    public static final int INLINE = -1;
+
+    /** Maximum number of ids assigned by a dictionary, next values are written inline */
+    static final int MAX_ENTRIES = 1 << 16;
+
+    /** The ids assigned by this end of the connection */
+    private final ConcurrentHashMap<Object, Entry> outgoing;
+
+    private final AtomicInteger nextId;
+
+    /** The ids assigned by the other end of the connection */
+    private final ConcurrentHashMap<Integer, Object> incoming;
+
+    public WireDictionary() {
+        this.outgoing = new ConcurrentHashMap<Object, Entry>();
+        this.nextId = new AtomicInteger();
+        this.incoming = new ConcurrentHashMap<Integer, Object>();
+    }
+
+    /**
+     * Starts the marshalling of a message sent through the connection
+     *
+     * @return the batch to give to the marshaller, to be acknowledged once the peer has answered
+     */
+    public Batch newBatch() {
+        return new Batch(this);
+    }
+
+    /**
+     * Forgets the ids assigned by this end of the connection, for instance when the peer
+     * has been restarted and lost its own dictionary. Following messages define their ids again.
+     */
+    public void reset() {
+        this.outgoing.clear();
+    }
+
+    /**
+     * Returns the reference to write for the given key
+     *
+     * @return the id of the key if the peer knows it, {@link #INLINE} or an encoded id
+     *         whose definition must follow
+     */
+    int reference(Object key, Batch batch) {
+        if (key == null) {
+            return INLINE;
+        }
+
+        Entry entry = this.outgoing.get(key);
+        if (entry == null) {
+            if (this.outgoing.size() >= MAX_ENTRIES) {
+                return INLINE;
+            }
+
+            entry = new Entry(this.nextId.getAndIncrement());
+            Entry previous = this.outgoing.putIfAbsent(key, entry);
+            if (previous != null) {
+                entry = previous;
+            }
+        }
+
+        if (entry.acknowledged) {
+            return entry.id;
+        }
+
+        batch.defined.add(entry);
+        return -(entry.id + 2);
+    }
+
+    Object resolve(int id) throws IOException {
+        Object value = this.incoming.get(id);
+        if (value == null) {
+            throw new UnknownReferenceException("Unknown wire dictionary id " + id);
+        }
+        return value;
+    }
+
+    void bind(int id, Object value) {
+        // a restarted peer reuses its ids, the last definition wins
+        this.incoming.put(id, value);
+    }
+
+    /**
+     * Writes a reference to the given key on the stream
+     *
+     * @return the written reference, the caller must write the definition of the key right
+     *         after when it is negative
+     */
+    public static int writeReference(ObjectOutputStream out, Object key) throws IOException {
+        int ref = INLINE;
+        if (out instanceof ProActiveMarshalOutputStream) {
+            Batch batch = ((ProActiveMarshalOutputStream) out).getBatch();
+            if (batch != null) {
+                ref = batch.dictionary.reference(key, batch);
+            }
+        }
+
+        out.writeInt(ref);
+        return ref;
+    }
+
+    /**
+     * Reads a reference written by {@link #writeReference(ObjectOutputStream, Object)}
+     *
+     * @return the reference, its definition follows on the stream when it is negative
+     */
+    public static int readReference(ObjectInputStream in) throws IOException {
+        return in.readInt();
+    }
+
+    /**
+     * Returns the value bound to a non negative reference
+     *
+     * @throws UnknownReferenceException if the stream has no dictionary or the id is unknown
+     */
+    public static Object resolve(ObjectInputStream in, int ref) throws IOException {
+        WireDictionary dictionary = dictionaryOf(in);
+        if (dictionary == null) {
+            throw new UnknownReferenceException("Received the wire dictionary id " + ref +
+                                                " on a stream without dictionary");
+        }
+        return dictionary.resolve(ref);
+    }
+
+    /**
+     * Binds the definition read after a negative reference
+     */
+    public static void bind(ObjectInputStream in, int ref, Object value) throws IOException {
+        if (ref == INLINE) {
+            return;
+        }
+
+        WireDictionary dictionary = dictionaryOf(in);
+        if (dictionary == null) {
+            throw new UnknownReferenceException("Received a wire dictionary definition on a stream without dictionary");
+        }
+        dictionary.bind(-ref - 2, value);
+    }
+
+    /**
+     * Writes a serializable value, as an id when the peer already knows it
+     */
+    public static void writeShared(ObjectOutputStream out, Object value) throws IOException {
+        if (writeReference(out, value) < 0) {
+            out.writeObject(value);
+        }
+    }
+
+    /**
+     * Reads a value written by {@link #writeShared(ObjectOutputStream, Object)}
+     */
+    public static Object readShared(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        int ref = readReference(in);
+        if (ref >= 0) {
+            return resolve(in, ref);
+        }
+
+        Object value = in.readObject();
+        if (value != null) {
+            bind(in, ref, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns true if the exception has been caused by a message referencing ids the
+     * receiver does not know
+     */
+    public static boolean isUnknownReference(Throwable t) {
+        while (t != null) {
+            if (t instanceof UnknownReferenceException) {
+                return true;
+            }
+            t = t.getCause();
+        }
+        return false;
+    }
+
+    private static WireDictionary dictionaryOf(ObjectInputStream in) {
+        if (in instanceof ProActiveMarshalInputStream) {
+            return ((ProActiveMarshalInputStream) in).getDictionary();
+        }
+        return null;
+    }
+
+    static final class Entry {
+        final int id;
+
+        /** true once a message defining this id has been answered by the peer */
+        volatile boolean acknowledged;
+
+        Entry(int id) {
+            this.id = id;
+        }
+    }
+
+    /** The ids defined by a message */
+    public static final class Batch {
+        final WireDictionary dictionary;
+
+        final List<Entry> defined;
+
+        Batch(WireDictionary dictionary) {
+            this.dictionary = dictionary;
+            this.defined = new ArrayList<Entry>();
+        }
+
+        /**
+         * Must be called once the peer has answered the message, its ids can then be written alone
+         */
+        public void acknowledge() {
+            for (Entry entry : this.defined) {
+                entry.acknowledged = true;
+            }
+        }
+    }
+
+    /** Thrown when a message references an id unknown to the receiver */
+    public static class UnknownReferenceException extends IOException {
+        public UnknownReferenceException(String message) {
+            super(message);
+        }
+    }
+}
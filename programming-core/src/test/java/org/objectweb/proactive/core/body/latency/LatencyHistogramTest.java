@@ -0,0 +1,94 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.latency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverAllLatencies() {
+        assertEquals(0, LatencyHistogram.bucketIndex(0));
+        for (int i = 0; i < LatencyHistogram.NB_BUCKETS; i++) {
+            long upperBound = LatencyHistogram.bucketUpperBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(upperBound));
+            if (i + 1 < LatencyHistogram.NB_BUCKETS) {
+                assertEquals(i + 1, LatencyHistogram.bucketIndex(upperBound + 1));
+            }
+        }
+        assertEquals(LatencyHistogram.MAX_LATENCY,
+                     LatencyHistogram.bucketUpperBound(LatencyHistogram.NB_BUCKETS - 1));
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertWithin(500, histogram.getPercentile(50));
+        assertWithin(990, histogram.getPercentile(99));
+        assertWithin(1000, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void outOfRangeLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(LatencyHistogram.MAX_LATENCY, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void snapshotsAreNotUpdated() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.getMethodLatencies("foo").getService().record(10000);
+        MethodLatencies snapshot = recorder.snapshot().get("foo");
+        recorder.getMethodLatencies("foo").getService().record(10000);
+        recorder.getMethodLatencies("bar").getQueueWait().record(10000);
+
+        assertEquals(1, snapshot.getService().getCount());
+        assertEquals(2, recorder.getMethodLatencies("foo").getService().getCount());
+        snapshot.add(recorder.getMethodLatencies("foo"));
+        assertEquals(3, snapshot.getService().getCount());
+        assertEquals(2, recorder.snapshot().size());
+    }
+
+    /** The percentiles are known within 25% */
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                   (actual >= expected) && (actual <= expected * 1.25));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.group.spmd.MethodCallBarrierWithMethodName;
+import org.objectweb.proactive.core.mop.MethodCall;
+
+
+public class LockFreeRequestQueueImplTest {
+
+    private LockFreeRequestQueueImpl queue;
+
+    @Before
+    public void setUp() {
+        queue = new LockFreeRequestQueueImpl(new UniqueID());
+    }
+
+    @Test
+    public void fifoOrder() {
+        for (int i = 0; i < 100; i++) {
+            queue.add(newRequest(i % 2 == 0 ? "even" : "odd"));
+        }
+        assertEquals(100, queue.size());
+
+        Request first = queue.getOldest();
+        assertEquals("even", first.getMethodName());
+        assertTrue(first == queue.removeOldest());
+        assertEquals("odd", queue.removeOldest("odd").getMethodName());
+        assertEquals("odd", queue.getYoungest().getMethodName());
+        assertEquals(98, queue.size());
+    }
+
+    @Test
+    public void filtersAndAddToFront() {
+        queue.add(newRequest("a"));
+        queue.add(newRequest("b"));
+        Request front = newRequest("c");
+        queue.addToFront(front);
+
+        assertTrue(front == queue.getOldest());
+        assertTrue(queue.hasRequest("b"));
+        assertFalse(queue.hasRequest("d"));
+        assertEquals("b", queue.removeOldest(new RequestFilter() {
+            public boolean acceptRequest(Request request) {
+                return request.getMethodName().equals("b");
+            }
+        }).getMethodName());
+        assertNull(queue.removeYoungest("b"));
+    }
+
+    @Test
+    public void clearAndDestroy() throws InterruptedException {
+        queue.add(newRequest("a"));
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+
+        queue.add(newRequest("a"));
+        queue.destroy();
+        assertTrue(queue.isDestroyed());
+        assertEquals(0, queue.size());
+        assertNull(queue.blockingRemoveOldest(10));
+    }
+
+    @Test
+    public void blockedConsumerIsWokenUp() throws Exception {
+        final CountDownLatch served = new CountDownLatch(1);
+        Thread consumer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    if (queue.blockingRemoveOldest(10000) != null) {
+                        served.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // test will fail
+                }
+            }
+        };
+        consumer.start();
+        while (!queue.isWaitingForRequest()) {
+            Thread.sleep(1);
+        }
+        queue.add(newRequest("a"));
+        assertTrue(served.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void concurrentProducers() throws Exception {
+        final int nbProducers = 8;
+        final int nbRequests = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < nbProducers; p++) {
+            final String name = "m" + p;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < nbRequests; i++) {
+                        queue.add(newRequest(name));
+                    }
+                }
+            }.start();
+        }
+        start.countDown();
+
+        for (int i = 0; i < nbProducers * nbRequests; i++) {
+            assertNotNull(queue.blockingRemoveOldest(10000));
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void methodBarrierSuspendsOnArrival() throws Exception {
+        queue.add(new RequestImpl(new MethodCallBarrierWithMethodName(new String[] { "b" }), true));
+        queue.add(newRequest("a"));
+        assertTrue(queue.isSuspended());
+        assertNull(queue.blockingRemoveOldest(100));
+
+        final CountDownLatch served = new CountDownLatch(1);
+        Thread consumer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    if (queue.blockingRemoveOldest(10000) != null) {
+                        served.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // test will fail
+                }
+            }
+        };
+        consumer.start();
+        assertFalse(served.await(100, TimeUnit.MILLISECONDS));
+
+        queue.add(newRequest("b"));
+        assertFalse(queue.isSuspended());
+        assertTrue(served.await(5, TimeUnit.SECONDS));
+    }
+
+    private static Request newRequest(String methodName) {
+        try {
+            Method method = Methods.class.getMethod(methodName);
+            return new RequestImpl(new MethodCall(method, null, new Object[0]), true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(methodName, e);
+        }
+    }
+
+    public static class Methods {
+        public void a() {
+        }
+
+        public void b() {
+        }
+
+        public void c() {
+        }
+
+        public void d() {
+        }
+
+        public void even() {
+        }
+
+        public void odd() {
+        }
+
+        public void m0() {
+        }
+
+        public void m1() {
+        }
+
+        public void m2() {
+        }
+
+        public void m3() {
+        }
+
+        public void m4() {
+        }
+
+        public void m5() {
+        }
+
+        public void m6() {
+        }
+
+        public void m7() {
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.body.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.mop.MethodCall;
+
+
+public class RequestQueueImplTest {
+
+    private static final String[] NAMES = { "a", "b", "c", "d" };
+
+    private RequestQueueImpl queue;
+
+    @Before
+    public void setUp() {
+        queue = new RequestQueueImpl(new UniqueID());
+    }
+
+    @Test
+    public void oldestAndYoungestByName() {
+        Request a1 = newRequest("a");
+        Request b1 = newRequest("b");
+        Request a2 = newRequest("a");
+        Request c1 = newRequest("c");
+        queue.add(a1);
+        queue.add(b1);
+        queue.add(a2);
+        queue.addToFront(c1);
+
+        assertTrue(queue.hasRequest("a"));
+        assertFalse(queue.hasRequest("d"));
+        assertSame(a1, queue.getOldest("a"));
+        assertSame(a2, queue.getYoungest("a"));
+        assertSame(c1, queue.getOldest());
+
+        assertSame(a2, queue.removeYoungest("a"));
+        assertSame(a1, queue.removeOldest("a"));
+        assertNull(queue.removeOldest("a"));
+        assertFalse(queue.hasRequest("a"));
+        assertSame(c1, queue.removeOldest());
+        assertSame(b1, queue.removeYoungest());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void removeAll() {
+        List<Request> expected = new ArrayList<Request>();
+        for (int i = 0; i < 30; i++) {
+            Request r = newRequest(NAMES[i % 3]);
+            if (i % 3 == 1) {
+                expected.add(r);
+            }
+            queue.add(r);
+        }
+        assertEquals(expected, queue.removeAll("b"));
+        assertEquals(20, queue.size());
+        assertFalse(queue.hasRequest("b"));
+        assertTrue(queue.removeAll("b").isEmpty());
+    }
+
+    /**
+     * Random operations checked against the linear search on the internal queue
+     */
+    @Test
+    public void indexMatchesQueue() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            switch (random.nextInt(7)) {
+                case 0:
+                case 1:
+                    queue.add(newRequest(name));
+                    break;
+                case 2:
+                    queue.addToFront(newRequest(name));
+                    break;
+                case 3:
+                    assertSame(linearOldest(name), queue.removeOldest(name));
+                    break;
+                case 4:
+                    assertSame(linearYoungest(name), queue.removeYoungest(name));
+                    break;
+                case 5:
+                    queue.removeOldest(new AnyFilter(name));
+                    break;
+                case 6:
+                    assertSame(linearOldest(name), queue.getOldest(name));
+                    assertSame(linearYoungest(name), queue.getYoungest(name));
+                    break;
+            }
+        }
+    }
+
+    @Test
+    public void indexFollowsModificationsOutsideOfTheQueue() {
+        queue.add(newRequest("a"));
+        queue.add(newRequest("b"));
+        queue.add(newRequest("a"));
+        Iterator<Request> it = queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().getMethodName().equals("a")) {
+                it.remove();
+            }
+        }
+        queue.getInternalQueue().add(newRequest("c"));
+
+        assertFalse(queue.hasRequest("a"));
+        assertEquals("c", queue.removeOldest("c").getMethodName());
+        assertEquals("b", queue.removeOldest("b").getMethodName());
+    }
+
+    @Test
+    public void indexFollowsModificationsKeepingTheSize() {
+        queue.add(newRequest("a"));
+        queue.add(newRequest("b"));
+        assertTrue(queue.hasRequest("a"));
+        queue.getInternalQueue().remove(0);
+        queue.getInternalQueue().add(newRequest("c"));
+        queue.getInternalQueue().set(0, newRequest("a"));
+
+        assertFalse(queue.hasRequest("b"));
+        assertEquals("c", queue.removeOldest("c").getMethodName());
+        assertEquals("a", queue.removeOldest("a").getMethodName());
+        assertTrue(queue.isEmpty());
+    }
+
+    private Request linearOldest(String name) {
+        for (Request r : queue.getInternalQueue()) {
+            if (r.getMethodName().equals(name)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    private Request linearYoungest(String name) {
+        Request youngest = null;
+        for (Request r : queue.getInternalQueue()) {
+            if (r.getMethodName().equals(name)) {
+                youngest = r;
+            }
+        }
+        return youngest;
+    }
+
+    private static Request newRequest(String methodName) {
+        try {
+            Method method = Methods.class.getMethod(methodName);
+            return new RequestImpl(new MethodCall(method, null, new Object[0]), true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(methodName, e);
+        }
+    }
+
+    /** Not recognized as a method name filter, goes through the linear search */
+    private static class AnyFilter implements RequestFilter {
+        private String name;
+
+        AnyFilter(String name) {
+            this.name = name;
+        }
+
+        public boolean acceptRequest(Request request) {
+            return request.getMethodName().equals(name);
+        }
+    }
+
+    public static class Methods {
+        public void a() {
+        }
+
+        public void b() {
+        }
+
+        public void c() {
+        }
+
+        public void d() {
+        }
+    }
+}
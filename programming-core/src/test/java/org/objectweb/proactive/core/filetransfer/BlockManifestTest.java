@@ -0,0 +1,124 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.filetransfer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class BlockManifestTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void blockLayout() {
+        BlockManifest manifest = new BlockManifest(2500, 42, 1000);
+
+        assertEquals(3, manifest.getNumberOfBlocks());
+        assertEquals(2000, manifest.getBlockOffset(2));
+        assertEquals(1000, manifest.getBlockLength(1));
+        assertEquals(500, manifest.getBlockLength(2));
+        assertEquals(0, new BlockManifest(0, 42, 1000).getNumberOfBlocks());
+    }
+
+    @Test
+    public void storeAndLoad() throws IOException {
+        File dstFile = new File(tmp.getRoot(), "file.dat");
+        BlockManifest manifest = new BlockManifest(10000, 42, 1000);
+        manifest.setCompleted(0);
+        manifest.setCompleted(7);
+        manifest.store(dstFile);
+
+        BlockManifest loaded = BlockManifest.load(dstFile);
+        assertTrue(loaded.matches(10000, 42, 1000));
+        assertFalse(loaded.matches(10000, 43, 1000));
+        assertEquals(2, loaded.getNumberOfCompletedBlocks());
+        assertTrue(loaded.isCompleted(7));
+        assertFalse(loaded.isCompleted(6));
+
+        for (int i = 0; i < loaded.getNumberOfBlocks(); i++) {
+            loaded.setCompleted(i);
+        }
+        assertTrue(loaded.isComplete());
+        assertFalse(manifest.isComplete());
+
+        BlockManifest.delete(dstFile);
+        assertNull(BlockManifest.load(dstFile));
+    }
+
+    @Test
+    public void loadCorrupted() throws IOException {
+        File dstFile = new File(tmp.getRoot(), "file.dat");
+        FileOutputStream fos = new FileOutputStream(BlockManifest.getManifestFile(dstFile));
+        fos.write(new byte[] { 1, 2, 3 });
+        fos.close();
+
+        assertNull(BlockManifest.load(dstFile));
+    }
+
+    @Test
+    public void positionalBlocks() throws IOException {
+        byte[] content = new byte[2500];
+        new Random().nextBytes(content);
+        File srcFile = tmp.newFile("src.dat");
+        FileOutputStream fos = new FileOutputStream(srcFile);
+        fos.write(content);
+        fos.close();
+
+        BlockManifest manifest = new BlockManifest(content.length, srcFile.lastModified(), 1000);
+        RandomAccessFile src = new RandomAccessFile(srcFile, "r");
+        RandomAccessFile dst = new RandomAccessFile(new File(tmp.getRoot(), "dst.dat"), "rw");
+        FileBlock block = new FileBlock(0, manifest.getBlockSize());
+
+        // blocks are written in reverse order
+        for (int i = manifest.getNumberOfBlocks() - 1; i >= 0; i--) {
+            block.loadBlock(src.getChannel(), manifest.getBlockOffset(i), manifest.getBlockLength(i));
+            assertTrue(block.hasValidChecksum());
+            block.saveBlock(dst.getChannel());
+        }
+
+        byte[] copy = new byte[content.length];
+        dst.seek(0);
+        dst.readFully(copy);
+        assertEquals(content.length, dst.length());
+        assertArrayEquals(content, copy);
+        src.close();
+        dst.close();
+    }
+}
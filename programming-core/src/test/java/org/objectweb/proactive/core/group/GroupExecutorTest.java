@@ -0,0 +1,136 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+public class GroupExecutorTest {
+
+    @Test
+    public void laneBoundsRunningTasks() throws Exception {
+        GroupExecutor executor = new GroupExecutor(4);
+        GroupExecutor.Lane lane = executor.newLane();
+        lane.setMaxRunningTasks(2);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(10);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            lane.execute(new Runnable() {
+                public void run() {
+                    int r = running.incrementAndGet();
+                    while (maxRunning.get() < r && !maxRunning.compareAndSet(maxRunning.get(), r)) {
+                    }
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        waitFor(running, 2);
+        assertEquals(2, lane.getRunningTasks());
+        assertEquals(8, lane.getQueueDepth());
+        assertEquals(8, executor.getQueueDepth());
+
+        release.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, lane.getQueueDepth());
+    }
+
+    @Test
+    public void blockedTasksDoNotStarveOtherLanes() throws Exception {
+        GroupExecutor executor = new GroupExecutor(1);
+        GroupExecutor.Lane busy = executor.newLane();
+        busy.setMaxRunningTasks(4);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            busy.execute(new Runnable() {
+                public void run() {
+                    running.incrementAndGet();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                    }
+                }
+            });
+        }
+        waitFor(running, 4);
+
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.newLane().execute(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void lanesShareThreads() throws Exception {
+        GroupExecutor executor = new GroupExecutor(2);
+        final CountDownLatch done = new CountDownLatch(500);
+        for (int i = 0; i < 500; i++) {
+            GroupExecutor.Lane lane = executor.newLane();
+            lane.setMaxRunningTasks(3);
+            lane.execute(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertTrue("pool size " + executor.getPoolSize(), executor.getPoolSize() < 50);
+        while (executor.getCompletedTasks() < 500) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    private static void waitFor(AtomicInteger running, int runningTasks) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (running.get() < runningTasks && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(runningTasks, running.get());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.group;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.objectweb.proactive.core.ProActiveRuntimeException;
+import org.objectweb.proactive.core.group.topology.BinomialTreeOverlay;
+import org.objectweb.proactive.core.group.topology.KaryTreeOverlay;
+
+
+public class MulticastNodeTest {
+
+    @Test
+    public void karyTree() {
+        KaryTreeOverlay overlay = new KaryTreeOverlay(3);
+        assertArrayEquals(new int[] { 0, 1, 2 }, overlay.getChildren(-1, 10));
+        assertArrayEquals(new int[] { 3, 4, 5 }, overlay.getChildren(0, 10));
+        assertArrayEquals(new int[] { 9 }, overlay.getChildren(2, 10));
+        assertArrayEquals(new int[0], overlay.getChildren(3, 10));
+
+        for (int size = 1; size < 200; size++) {
+            MulticastNode[] roots = MulticastNode.build(members(size), overlay);
+            assertEquals(size, size(roots));
+            assertTrue(depth(roots) <= 1 + (int) Math.ceil(Math.log(size) / Math.log(3)));
+        }
+    }
+
+    @Test
+    public void binomialTree() {
+        BinomialTreeOverlay overlay = new BinomialTreeOverlay();
+        assertArrayEquals(new int[] { 0, 1, 3, 7 }, overlay.getChildren(-1, 10));
+        assertArrayEquals(new int[] { 2, 4, 8 }, overlay.getChildren(0, 10));
+        assertArrayEquals(new int[] { 6 }, overlay.getChildren(2, 10));
+        assertArrayEquals(new int[0], overlay.getChildren(7, 10));
+
+        for (int size = 1; size < 200; size++) {
+            MulticastNode[] roots = MulticastNode.build(members(size), overlay);
+            assertEquals(size, size(roots));
+            assertTrue(depth(roots) <= 1 + (int) Math.ceil(Math.log(size + 1) / Math.log(2)));
+        }
+    }
+
+    @Test(expected = ProActiveRuntimeException.class)
+    public void memberReachedTwice() {
+        MulticastNode.build(members(3), new MulticastOverlay() {
+            public int[] getChildren(int index, int size) {
+                return (index == -1) ? new int[] { 0, 1 } : new int[] { 2 };
+            }
+        });
+    }
+
+    @Test(expected = ProActiveRuntimeException.class)
+    public void memberNotReached() {
+        MulticastNode.build(members(3), new KaryTreeOverlay(1) {
+            @Override
+            public int[] getChildren(int index, int size) {
+                return (index == 0) ? new int[0] : super.getChildren(index, size);
+            }
+        });
+    }
+
+    private static List<Object> members(int size) {
+        List<Object> members = new ArrayList<Object>();
+        for (int i = 0; i < size; i++) {
+            members.add("member" + i);
+        }
+        return members;
+    }
+
+    private static int size(MulticastNode[] nodes) {
+        int size = 0;
+        for (MulticastNode node : nodes) {
+            size += node.size();
+        }
+        return size;
+    }
+
+    private static int depth(MulticastNode[] nodes) {
+        int depth = 0;
+        for (MulticastNode node : nodes) {
+            depth = Math.max(depth, 1 + depth(node.getChildren()));
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.mop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.objectweb.proactive.annotation.Immutable;
+
+
+public class ReflectiveDeepCopyStrategyTest {
+
+    private ReflectiveDeepCopyStrategy strategy = new ReflectiveDeepCopyStrategy();
+
+    @Test
+    public void immutablesAreShared() throws Exception {
+        Object[] source = { "s", 1, 2L, TimeUnit.SECONDS, new Point(1, 2), String.class, null };
+        Object[] copy = strategy.makeDeepCopy(source);
+        assertNotSame(source, copy);
+        for (int i = 0; i < source.length; i++) {
+            assertSame(source[i], copy[i]);
+        }
+    }
+
+    @Test
+    public void arraysAreCopied() throws Exception {
+        int[] ints = { 1, 2, 3 };
+        String[][] strings = { { "a" }, { "b", "c" } };
+        Object[] copy = strategy.makeDeepCopy(new Object[] { ints, strings, ints });
+        assertNotSame(ints, copy[0]);
+        assertArrayEquals(ints, (int[]) copy[0]);
+        assertSame(copy[0], copy[2]);
+        assertNotSame(strings, copy[1]);
+        assertNotSame(strings[1], ((String[][]) copy[1])[1]);
+        assertArrayEquals(strings, (String[][]) copy[1]);
+    }
+
+    @Test
+    public void graphIsCopied() throws Exception {
+        Node a = new Node("a");
+        Node b = new Node("b");
+        a.next = b;
+        b.next = a;
+        a.values.add(b);
+        a.byName.put("b", b);
+        a.cache = "cached";
+
+        Node copy = (Node) strategy.makeDeepCopy(new Object[] { a })[0];
+        assertNotSame(a, copy);
+        assertEquals("a", copy.name);
+        assertEquals(42, copy.number);
+        assertNull("transient fields are reset", copy.cache);
+        Node copyOfB = copy.next;
+        assertNotSame(b, copyOfB);
+        assertSame(copy, copyOfB.next);
+        assertSame(copyOfB, copy.values.get(0));
+        assertSame(copyOfB, copy.byName.get("b"));
+        assertEquals("base", copy.base);
+    }
+
+    @Test
+    public void customSerializationFallsBack() throws Exception {
+        Custom custom = new Custom();
+        Custom copy = (Custom) strategy.makeDeepCopy(new Object[] { custom })[0];
+        assertNotSame(custom, copy);
+        assertEquals(true, copy.deserialized);
+    }
+
+    @Test
+    public void noDefaultConstructorFallsBack() throws Exception {
+        NoDefaultConstructor source = new NoDefaultConstructor("a");
+        NoDefaultConstructor copy = (NoDefaultConstructor) strategy.makeDeepCopy(new Object[] { source })[0];
+        assertNotSame(source, copy);
+        assertEquals("a", copy.name);
+    }
+
+    @Test(expected = NotSerializableException.class)
+    public void notSerializableFails() throws Exception {
+        strategy.makeDeepCopy(new Object[] { new Object() });
+    }
+
+    @Immutable
+    public static class Point implements Serializable {
+        private final int x;
+
+        private final int y;
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static class Base {
+        protected String base = "base";
+    }
+
+    public static class Node extends Base implements Serializable {
+        private final String name;
+
+        private int number = 42;
+
+        private Node next;
+
+        private List<Node> values = new ArrayList<Node>();
+
+        private Map<String, Node> byName = new HashMap<String, Node>();
+
+        private transient String cache = "initial";
+
+        Node() {
+            this(null);
+        }
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class NoDefaultConstructor implements Serializable {
+        private final String name;
+
+        public NoDefaultConstructor(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Custom implements Serializable {
+        private transient boolean deserialized;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            deserialized = true;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.remoteobject.benchmark;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.proactive.core.remoteobject.RemoteObjectSet;
+
+
+/**
+ * AdaptiveOrderTest
+ *
+ * This test ensures that the adaptive protocol selection sorts the protocols according to :
+ * - the live latency and error rate of each protocol
+ * - the quarantine of the protocols that failed
+ * - the property proactive.communication.protocols.order, which supersedes the live statistics
+ *
+ * @author The ProActive Team
+ */
+public class AdaptiveOrderTest {
+
+    static final double NONE = Double.NaN;
+
+    static final double QUARANTINED = Double.POSITIVE_INFINITY;
+
+    @Test
+    public void checkSort() throws Exception {
+        // lowest score first
+        Assert.assertArrayEquals(new String[] { "c:c", "a:a", "b:b" },
+                                 doSort(new double[] { 20, 30, 10 }, new String[0], "a:a"));
+
+        // protocols without statistics come after the others, in natural order
+        Assert.assertArrayEquals(new String[] { "b:b", "a:a", "c:c" },
+                                 doSort(new double[] { NONE, 10, NONE }, new String[0], "a:a"));
+
+        // quarantined protocols are kept as a last resort, even the default one
+        Assert.assertArrayEquals(new String[] { "c:c", "b:b", "a:a" },
+                                 doSort(new double[] { QUARANTINED, 30, 10 }, new String[0], "a:a"));
+        Assert.assertArrayEquals(new String[] { "b:b", "a:a", "c:c" },
+                                 doSort(new double[] { 20, 10, QUARANTINED }, new String[0], "a:a"));
+
+        // the fixed order supersedes the statistics, but not the quarantine
+        Assert.assertArrayEquals(new String[] { "a:a", "c:c", "b:b" },
+                                 doSort(new double[] { 30, 20, 10 }, new String[] { "a" }, "a:a"));
+        Assert.assertArrayEquals(new String[] { "c:c", "b:b", "a:a" },
+                                 doSort(new double[] { QUARANTINED, 20, 10 }, new String[] { "a" }, "a:a"));
+    }
+
+    @Test
+    public void checkStatistics() {
+        long quarantine = 60000;
+        ProtocolStatistics fast = new ProtocolStatistics("runtime", "fast");
+        ProtocolStatistics slow = new ProtocolStatistics("runtime", "slow");
+        Assert.assertTrue(Double.isNaN(fast.getScore(quarantine)));
+
+        for (int i = 0; i < 10; i++) {
+            fast.success(1000);
+            slow.success(5000);
+        }
+        Assert.assertTrue(fast.getScore(quarantine) < slow.getScore(quarantine));
+
+        // the latency follows the recent samples
+        for (int i = 0; i < 50; i++) {
+            fast.success(10000);
+        }
+        Assert.assertTrue(fast.getScore(quarantine) > slow.getScore(quarantine));
+
+        // a failure quarantines the protocol for the given period
+        slow.failure();
+        Assert.assertEquals(Double.POSITIVE_INFINITY, slow.getScore(quarantine), 0);
+        Assert.assertTrue(slow.isQuarantined(quarantine));
+        Assert.assertFalse(slow.isQuarantined(0));
+
+        // after the quarantine, errors still inflate the score
+        double penalized = slow.getScore(0);
+        Assert.assertTrue(penalized > 5000);
+        slow.success(5000);
+        Assert.assertTrue(slow.getScore(0) < penalized);
+
+        slow.reset();
+        Assert.assertFalse(slow.isQuarantined(quarantine));
+        Assert.assertTrue(Double.isNaN(slow.getScore(quarantine)));
+    }
+
+    /**
+     * Sort the a:a, b:b, c:c uris using the given scores
+     * @param scoreValues the scores of the uris
+     * @param fixedOrder defines the fixed order of protocols
+     * @param defaultUri the default uri of the remote object set
+     * @return a sorted array
+     */
+    private String[] doSort(double[] scoreValues, String[] fixedOrder, String defaultUri) throws Exception {
+        String[] inputuris = new String[] { "a:a", "b:b", "c:c" };
+        ConcurrentHashMap<URI, Integer> benchmarkres = new ConcurrentHashMap<URI, Integer>();
+        Map<URI, Double> scores = new HashMap<URI, Double>();
+        List<URI> input = new ArrayList<URI>();
+
+        for (int i = 0; i < inputuris.length; i++) {
+            URI uri = new URI(inputuris[i]);
+            benchmarkres.put(uri, inputuris.length - i);
+            scores.put(uri, scoreValues[i]);
+            input.add(uri);
+        }
+
+        ArrayList<URI> outputList = RemoteObjectSet.sortProtocols(input,
+                                                                  fixedOrder.length == 0 ? Collections.<String> emptyList()
+                                                                                         : Arrays.asList(fixedOrder),
+                                                                  benchmarkres,
+                                                                  scores,
+                                                                  new URI(defaultUri));
+        String[] output = new String[outputList.size()];
+        for (int i = 0; i < outputList.size(); i++) {
+            output[i] = outputList.get(i).toString();
+        }
+        return output;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.remoteobject.http.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.httpserver.HTTPServer;
+import org.objectweb.proactive.core.remoteobject.http.HTTPTransportServlet;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+
+public class HttpMessageSenderTest {
+
+    private HttpServer server;
+
+    /** The client endpoint of each received message */
+    private final List<InetSocketAddress> clients = new CopyOnWriteArrayList<InetSocketAddress>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(HTTPServer.SERVER_CONTEXT + HTTPTransportServlet.NS, new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                clients.add(exchange.getRemoteAddress());
+                byte[] request = HttpUtils.readPayload(exchange.getRequestBody(), -1);
+                HttpMessage message = (HttpMessage) HttpMarshaller.unmarshallObject(request);
+                byte[] reply = HttpMarshaller.marshallObject(message.processMessage());
+                exchange.sendResponseHeaders(200, reply.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(reply);
+                out.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void connectionIsReused() throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/remoteObject";
+        HttpMessageSender sender = new HttpMessageSender(url);
+
+        assertEquals("reply-1", sender.sendMessage(new EchoMessage(url, "1")));
+        assertEquals("reply-2", sender.sendMessage(new EchoMessage(url, "2")));
+
+        assertEquals(2, clients.size());
+        assertEquals("both messages should use the same pooled connection", clients.get(0), clients.get(1));
+    }
+
+    static class EchoMessage extends HttpMessage {
+        private final String value;
+
+        EchoMessage(String url, String value) {
+            super(url);
+            this.value = value;
+        }
+
+        @Override
+        public Object processMessage() {
+            return "reply-" + this.value;
+        }
+    }
+}
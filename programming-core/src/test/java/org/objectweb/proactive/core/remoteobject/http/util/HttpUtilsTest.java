@@ -0,0 +1,100 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.remoteobject.http.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+
+public class HttpUtilsTest {
+
+    @Test
+    public void exactLength() throws IOException {
+        byte[] data = newData(3 * 8192 + 17);
+        byte[] trailing = newData(data.length + 10);
+        InputStream in = new TrickleInputStream(new ByteArrayInputStream(trailing));
+
+        byte[] payload = HttpUtils.readPayload(in, data.length);
+        assertArrayEquals(data, payload);
+        // the bytes after the payload are left in the stream
+        assertEquals(trailing[data.length] & 0xff, in.read());
+    }
+
+    @Test
+    public void shortStream() throws IOException {
+        InputStream in = new TrickleInputStream(new ByteArrayInputStream(newData(100)));
+        try {
+            HttpUtils.readPayload(in, 101);
+            fail("the stream ends before the announced length");
+        } catch (EOFException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void zeroLength() throws IOException {
+        InputStream in = new ByteArrayInputStream(newData(10));
+        assertEquals(0, HttpUtils.readPayload(in, 0).length);
+        assertEquals(0, in.read());
+    }
+
+    @Test
+    public void unknownLength() throws IOException {
+        byte[] data = newData(5 * 8192 + 3);
+        InputStream in = new TrickleInputStream(new ByteArrayInputStream(data));
+        assertArrayEquals(data, HttpUtils.readPayload(in, -1));
+        assertEquals(0, HttpUtils.readPayload(new ByteArrayInputStream(new byte[0]), -1).length);
+    }
+
+    private static byte[] newData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    /** Returns fewer bytes than asked, as a socket stream does */
+    private static class TrickleInputStream extends FilterInputStream {
+        TrickleInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1000));
+        }
+    }
+}
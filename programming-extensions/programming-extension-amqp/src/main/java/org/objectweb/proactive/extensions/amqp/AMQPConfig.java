@@ -26,6 +26,7 @@
 package org.objectweb.proactive.extensions.amqp;
 
 import org.objectweb.proactive.core.config.PAProperties.PAPropertiesLoaderSPI;
+import org.objectweb.proactive.core.config.PAPropertyBoolean;
 import org.objectweb.proactive.core.config.PAPropertyInteger;
 import org.objectweb.proactive.core.config.PAPropertyLong;
 import org.objectweb.proactive.core.config.PAPropertyString;
@@ -81,6 +82,17 @@ public class AMQPConfig implements PAPropertiesLoaderSPI {
                                                                                 false,
                                                                                 10000);
 
+    /**
+     * Use one multiplexed reply queue per broker connection instead of one reply queue per
+     * in-flight call. Requests carry a correlation id and replies are dispatched to the waiting
+     * callers, so many calls can be outstanding on a single connection.
+     *
+     * The remote runtimes must propagate the correlation id of the requests in their replies
+     */
+    static final public PAPropertyBoolean PA_AMQP_RPC_MULTIPLEXED = new PAPropertyBoolean("proactive.communication.amqp.rpc_multiplexed",
+                                                                                          false,
+                                                                                          false);
+
     static public PAPropertyString PA_AMQP_SOCKET_FACTORY = new PAPropertyString("proactive.communication.amqp.socketfactory",
                                                                                  false,
                                                                                  "plain");
@@ -26,6 +26,7 @@
 package org.objectweb.proactive.extensions.amqp.federation;
 
 import org.objectweb.proactive.core.config.PAProperties.PAPropertiesLoaderSPI;
+import org.objectweb.proactive.core.config.PAPropertyBoolean;
 import org.objectweb.proactive.core.config.PAPropertyInteger;
 import org.objectweb.proactive.core.config.PAPropertyLong;
 import org.objectweb.proactive.core.config.PAPropertyString;
@@ -74,6 +75,14 @@ public class AMQPFederationConfig implements PAPropertiesLoaderSPI {
                                                                                             false,
                                                                                             5000);
 
+    /**
+     * Use one multiplexed reply queue per broker connection, see
+     * {@link org.objectweb.proactive.extensions.amqp.AMQPConfig#PA_AMQP_RPC_MULTIPLEXED}
+     */
+    static final public PAPropertyBoolean PA_AMQP_FEDERATION_RPC_MULTIPLEXED = new PAPropertyBoolean("proactive.communication.amqp_federation.rpc_multiplexed",
+                                                                                                     false,
+                                                                                                     false);
+
     static public PAPropertyString PA_AMQP_FEDERATION_BROKER_MAPPING_FILE = new PAPropertyString("proactive.communication.amqp_federation.broker.mapping_file",
                                                                                                  false);
 
@@ -30,6 +30,7 @@ import java.net.URI;
 
 import org.objectweb.proactive.core.ProActiveException;
 import org.objectweb.proactive.extensions.amqp.remoteobject.AbstractAMQPRemoteObject;
+import org.objectweb.proactive.extensions.amqp.remoteobject.MultiplexedReplyQueue;
 import org.objectweb.proactive.extensions.amqp.remoteobject.RpcReusableChannel;
 
 
@@ -55,6 +56,8 @@ public class AMQPFederationRemoteObject extends AbstractAMQPRemoteObject {
 
     private static final long RPC_REPLY_TIMEOUT = AMQPFederationConfig.PA_AMQP_FEDERATION_RPC_TIMEOUT.getValue();
 
+    private static final boolean RPC_MULTIPLEXED = AMQPFederationConfig.PA_AMQP_FEDERATION_RPC_MULTIPLEXED.isTrue();
+
     public AMQPFederationRemoteObject(URI remoteObjectURL) throws ProActiveException, IOException {
         super(remoteObjectURL, RPC_EXCHANGE_NAME, RPC_REPLY_TIMEOUT);
     }
@@ -64,6 +67,11 @@ public class AMQPFederationRemoteObject extends AbstractAMQPRemoteObject {
         return AMQPFederationUtils.getRpcChannel(remoteObjectURL);
     }
 
+    @Override
+    protected MultiplexedReplyQueue getMultiplexedReplyQueue() throws IOException {
+        return RPC_MULTIPLEXED ? AMQPFederationUtils.getMultiplexedReplyQueue(remoteObjectURL) : null;
+    }
+
     @Override
     protected void checkTargetObjectExists() throws IOException {
         if (!AMQPFederationUtils.pingRemoteObject(queueName, remoteObjectURL)) {
@@ -39,6 +39,7 @@ import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.extensions.amqp.AMQPConfig;
 import org.objectweb.proactive.extensions.amqp.remoteobject.AMQPConnectionParameters;
 import org.objectweb.proactive.extensions.amqp.remoteobject.ConnectionAndChannelFactory;
+import org.objectweb.proactive.extensions.amqp.remoteobject.MultiplexedReplyQueue;
 import org.objectweb.proactive.extensions.amqp.remoteobject.ReusableChannel;
 import org.objectweb.proactive.extensions.amqp.remoteobject.RpcReusableChannel;
 
@@ -161,4 +162,8 @@ class AMQPFederationUtils {
         return connectionFactory.getRpcChannel(brokerAddressMap.getBrokerForObject(uri));
     }
 
+    static MultiplexedReplyQueue getMultiplexedReplyQueue(URI uri) throws IOException {
+        return connectionFactory.getMultiplexedReplyQueue(brokerAddressMap.getBrokerForObject(uri));
+    }
+
 }
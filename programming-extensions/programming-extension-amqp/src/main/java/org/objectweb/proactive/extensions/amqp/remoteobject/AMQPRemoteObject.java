@@ -52,6 +52,8 @@ public class AMQPRemoteObject extends AbstractAMQPRemoteObject {
 
     private static final long RPC_REPLY_TIMEOUT = AMQPConfig.PA_AMQP_RPC_TIMEOUT.getValue();
 
+    private static final boolean RPC_MULTIPLEXED = AMQPConfig.PA_AMQP_RPC_MULTIPLEXED.isTrue();
+
     public AMQPRemoteObject(URI remoteObjectURL) throws ProActiveException, IOException {
         super(remoteObjectURL, RPC_EXCHANGE_NAME, RPC_REPLY_TIMEOUT);
     }
@@ -61,6 +63,11 @@ public class AMQPRemoteObject extends AbstractAMQPRemoteObject {
         return AMQPUtils.getRpcChannel(remoteObjectURL);
     }
 
+    @Override
+    protected MultiplexedReplyQueue getMultiplexedReplyQueue() throws IOException {
+        return RPC_MULTIPLEXED ? AMQPUtils.getMultiplexedReplyQueue(remoteObjectURL) : null;
+    }
+
     @Override
     protected void checkTargetObjectExists() throws IOException {
         ReusableChannel queueCheckChannel = AMQPUtils.getChannel(remoteObjectURL);
@@ -74,6 +74,10 @@ public class AMQPUtils {
         return connectionFactory.getRpcChannel(getConnectionParameters(uri));
     }
 
+    static MultiplexedReplyQueue getMultiplexedReplyQueue(URI uri) throws IOException {
+        return connectionFactory.getMultiplexedReplyQueue(getConnectionParameters(uri));
+    }
+
     private static AMQPConnectionParameters getConnectionParameters(URI uri) {
         String host = getBrokerHost(uri);
         int port = getBrokerPort(uri);
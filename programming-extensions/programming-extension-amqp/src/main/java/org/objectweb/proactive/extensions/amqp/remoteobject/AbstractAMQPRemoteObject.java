@@ -26,6 +26,7 @@
 package org.objectweb.proactive.extensions.amqp.remoteobject;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.Serializable;
 import java.net.URI;
 
@@ -61,6 +62,10 @@ import com.rabbitmq.client.QueueingConsumer.Delivery;
  * <li>wait for the reply on the replyQueue
  * </ul>
  * <p>
+ * When the multiplexed mode is enabled the reply queue is shared by all the calls of a
+ * broker connection (see {@link MultiplexedReplyQueue}): requests carry a correlation id
+ * and no channel is held while waiting for the reply.
+ * <p>
  * To don't wait forever for the reply in case if remote object is down AMQPRemoteObject periodically checks
  * that server object's queue still exists.
  * 
@@ -97,6 +102,11 @@ public abstract class AbstractAMQPRemoteObject implements RemoteRemoteObject, Se
      */
     protected abstract RpcReusableChannel getRpcReusableChannel() throws IOException;
 
+    /*
+     * Get the multiplexed reply queue to use, or null if each call uses its own RpcReusableChannel
+     */
+    protected abstract MultiplexedReplyQueue getMultiplexedReplyQueue() throws IOException;
+
     /*
      * Check that target remote object still exists
      */
@@ -104,6 +114,11 @@ public abstract class AbstractAMQPRemoteObject implements RemoteRemoteObject, Se
 
     @Override
     public final Reply receiveMessage(Request message) throws IOException, ProActiveException {
+        MultiplexedReplyQueue multiplexedReplyQueue = getMultiplexedReplyQueue();
+        if (multiplexedReplyQueue != null) {
+            return receiveMessageMultiplexed(message, multiplexedReplyQueue);
+        }
+
         RpcReusableChannel channel = getRpcReusableChannel();
         try {
             if (logger.isDebugEnabled()) {
@@ -139,6 +154,11 @@ public abstract class AbstractAMQPRemoteObject implements RemoteRemoteObject, Se
                     checkTargetObjectExists();
                 }
             }
+        } catch (InterruptedException e) {
+            channel.close();
+
+            Thread.currentThread().interrupt();
+            throw interrupted(message);
         } catch (Throwable e) {
             channel.close();
 
@@ -151,4 +171,62 @@ public abstract class AbstractAMQPRemoteObject implements RemoteRemoteObject, Se
         }
     }
 
+    private Reply receiveMessageMultiplexed(Request message, MultiplexedReplyQueue replyQueue) throws IOException {
+        MultiplexedReplyQueue.PendingReply pending = null;
+        try {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("AMQP RO sending %s to %s, on exchange %s, queue %s, reply queue %s",
+                                           message.getMethodName(),
+                                           remoteObjectURL,
+                                           rpcExchangeName,
+                                           queueName,
+                                           replyQueue.getReplyQueue()));
+            }
+
+            byte[] messageBody = ProActiveObjectToByteConverter.ProActiveObjectStream.convert(message);
+            pending = replyQueue.send(rpcExchangeName, queueName, messageBody);
+
+            while (true) {
+                byte[] replyBody = pending.await(replyTimeout);
+                if (replyBody != null) {
+                    Reply reply = (Reply) ProActiveByteToObjectConverter.ProActiveObjectStream.convert(replyBody);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("AMQP RO received response %s of message %s to %s, on exchange %s, queue %s",
+                                                   pending.getCorrelationId(),
+                                                   message.getMethodName(),
+                                                   remoteObjectURL,
+                                                   rpcExchangeName,
+                                                   queueName));
+                    }
+                    return reply;
+                } else {
+                    // if didn't receive reply after timeout expired then check that remote object server still exists
+                    checkTargetObjectExists();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw interrupted(message);
+        } catch (Throwable e) {
+            throw new IOException(String.format("AMQP cannot send %s to %s, on exchange %s, queue %s",
+                                                message.getMethodName(),
+                                                remoteObjectURL,
+                                                rpcExchangeName,
+                                                queueName),
+                                  e);
+        } finally {
+            if (pending != null) {
+                replyQueue.release(pending);
+            }
+        }
+    }
+
+    private InterruptedIOException interrupted(Request message) {
+        return new InterruptedIOException(String.format("AMQP interrupted while waiting for the reply of %s to %s, on exchange %s, queue %s",
+                                                        message.getMethodName(),
+                                                        remoteObjectURL,
+                                                        rpcExchangeName,
+                                                        queueName));
+    }
+
 }
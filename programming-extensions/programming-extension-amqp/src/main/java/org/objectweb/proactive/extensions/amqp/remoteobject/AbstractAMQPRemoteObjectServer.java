@@ -132,8 +132,14 @@ public abstract class AbstractAMQPRemoteObjectServer {
                     }
 
                     if (replyBody != null) {
+                        // the correlation id is needed by callers sharing a multiplexed reply queue
+                        AMQP.BasicProperties replyProps = null;
+                        if (props.getCorrelationId() != null) {
+                            replyProps = new AMQP.BasicProperties.Builder().correlationId(props.getCorrelationId())
+                                                                           .build();
+                        }
                         try {
-                            getChannel().basicPublish(getReplyExchange(), props.getReplyTo(), null, replyBody);
+                            getChannel().basicPublish(getReplyExchange(), props.getReplyTo(), replyProps, replyBody);
                         } catch (IOException e) {
                             logger.error("Failed to send message", e);
                         }
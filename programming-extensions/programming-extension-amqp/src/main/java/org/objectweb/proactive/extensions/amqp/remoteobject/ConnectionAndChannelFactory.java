@@ -65,6 +65,8 @@ public class ConnectionAndChannelFactory {
 
         private final List<RpcReusableChannel> cachedRpcChannels = new ArrayList<RpcReusableChannel>();
 
+        private MultiplexedReplyQueue multiplexedReplyQueue;
+
         CachedConnection(ConnectionAndChannelFactory factory, Connection connection) {
             this.factory = factory;
             this.connection = connection;
@@ -86,6 +88,19 @@ public class ConnectionAndChannelFactory {
             return channel;
         }
 
+        synchronized MultiplexedReplyQueue getMultiplexedReplyQueue() throws IOException {
+            if (multiplexedReplyQueue == null || !multiplexedReplyQueue.isOpen()) {
+                RpcReusableChannel consumerChannel = factory.createRpcReusableChannel(this, connection.createChannel());
+                try {
+                    multiplexedReplyQueue = new MultiplexedReplyQueue(this, consumerChannel);
+                } catch (IOException e) {
+                    consumerChannel.close();
+                    throw e;
+                }
+            }
+            return multiplexedReplyQueue;
+        }
+
         private ReusableChannel getChannel(List<? extends ReusableChannel> channels) throws IOException {
             synchronized (channels) {
                 for (Iterator<? extends ReusableChannel> i = channels.iterator(); i.hasNext();) {
@@ -133,6 +148,12 @@ public class ConnectionAndChannelFactory {
         return connection.getRpcChannel();
     }
 
+    public MultiplexedReplyQueue getMultiplexedReplyQueue(AMQPConnectionParameters connectionParameters)
+            throws IOException {
+        CachedConnection connection = getConnection(connectionParameters);
+        return connection.getMultiplexedReplyQueue();
+    }
+
     private synchronized CachedConnection getConnection(AMQPConnectionParameters connectionParameters)
             throws IOException {
         String key = connectionParameters.getKey();
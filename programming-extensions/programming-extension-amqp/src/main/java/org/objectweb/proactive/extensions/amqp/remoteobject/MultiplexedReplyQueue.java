@@ -0,0 +1,251 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.amqp.remoteobject;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.extensions.amqp.AMQPConfig;
+import org.objectweb.proactive.extensions.amqp.remoteobject.ConnectionAndChannelFactory.CachedConnection;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.DefaultConsumer;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.ShutdownSignalException;
+
+
+/**
+ * Reply queue shared by all the RPC of a broker connection.
+ * <p>
+ * Each request is published with the name of this queue as replyTo attribute and a
+ * correlation id unique for the queue. A single consumer receives all the replies and
+ * dispatches them to the waiting callers using their correlation id, so any number of
+ * calls can be outstanding on the connection while channels are only held to publish.
+ * <p>
+ * If the consumer channel is closed all the pending calls fail, and a new queue is created
+ * by the connection on the next call.
+ *
+ * @author ProActive team
+ * @since ProActive 8.4.0
+ */
+public class MultiplexedReplyQueue {
+
+    final static private Logger logger = ProActiveLogger.getLogger(AMQPConfig.Loggers.AMQP_REMOTE_OBJECT);
+
+    private final CachedConnection connection;
+
+    private final RpcReusableChannel consumerChannel;
+
+    private final String replyQueue;
+
+    private final ConcurrentHashMap<String, PendingReply> pendingReplies;
+
+    private final AtomicLong nextCorrelationId;
+
+    private volatile IOException failure;
+
+    MultiplexedReplyQueue(CachedConnection connection, RpcReusableChannel consumerChannel) throws IOException {
+        this.connection = connection;
+        this.consumerChannel = consumerChannel;
+        this.pendingReplies = new ConcurrentHashMap<String, PendingReply>();
+        this.nextCorrelationId = new AtomicLong();
+        this.replyQueue = consumerChannel.createReplyQueue();
+
+        boolean autoAck = true;
+        consumerChannel.getChannel().basicConsume(replyQueue, autoAck, new ReplyConsumer());
+    }
+
+    /**
+     * Returns the name of the reply queue
+     */
+    public String getReplyQueue() {
+        return replyQueue;
+    }
+
+    /**
+     * Returns true while replies can be received through this queue
+     */
+    public boolean isOpen() {
+        return failure == null && consumerChannel.isOpened() && consumerChannel.getChannel().isOpen();
+    }
+
+    /**
+     * Returns the number of calls waiting for a reply
+     */
+    public int getPendingCalls() {
+        return pendingReplies.size();
+    }
+
+    /**
+     * Publish a request whose reply will be delivered to this queue.
+     * <p>
+     * The returned {@link PendingReply} must be released with {@link #release(PendingReply)}
+     * once the caller stops waiting, even if no reply has been received.
+     *
+     * @param exchange the exchange to publish the request on
+     * @param routingKey the routing key of the request, i.e. the queue of the remote object
+     * @param body the serialized request
+     * @return the pending reply to wait on
+     * @throws IOException if the request cannot be published
+     */
+    public PendingReply send(String exchange, String routingKey, byte[] body) throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Reply queue " + replyQueue + " is closed", cause);
+        }
+
+        String correlationId = Long.toString(nextCorrelationId.incrementAndGet());
+        PendingReply pending = new PendingReply(correlationId);
+        pendingReplies.put(correlationId, pending);
+
+        ReusableChannel channel = connection.getChannel();
+        try {
+            BasicProperties props = new BasicProperties.Builder().replyTo(replyQueue)
+                                                                 .correlationId(correlationId)
+                                                                 .build();
+            channel.getChannel().basicPublish(exchange, routingKey, props, body);
+            channel.returnChannel();
+        } catch (IOException e) {
+            channel.close();
+            release(pending);
+            throw e;
+        }
+
+        // the consumer may have failed before the request was registered
+        cause = failure;
+        if (cause != null) {
+            pending.fail(cause);
+        }
+        return pending;
+    }
+
+    /**
+     * Stop waiting for a reply, a reply received later is discarded
+     */
+    public void release(PendingReply pending) {
+        pendingReplies.remove(pending.correlationId);
+    }
+
+    private void failAll(IOException cause) {
+        failure = cause;
+        for (Iterator<PendingReply> it = pendingReplies.values().iterator(); it.hasNext();) {
+            PendingReply pending = it.next();
+            it.remove();
+            pending.fail(cause);
+        }
+    }
+
+    final class ReplyConsumer extends DefaultConsumer {
+
+        ReplyConsumer() {
+            super(consumerChannel.getChannel());
+        }
+
+        @Override
+        public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties props, byte[] body)
+                throws IOException {
+            String correlationId = props == null ? null : props.getCorrelationId();
+            PendingReply pending = correlationId == null ? null : pendingReplies.remove(correlationId);
+            if (pending != null) {
+                pending.complete(body);
+            } else if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Discarding reply %s received on %s, nobody is waiting for it",
+                                           correlationId,
+                                           replyQueue));
+            }
+        }
+
+        @Override
+        public void handleCancel(String consumerTag) throws IOException {
+            failAll(new IOException("Consumer of reply queue " + replyQueue + " has been cancelled"));
+            consumerChannel.close();
+        }
+
+        @Override
+        public void handleShutdownSignal(String consumerTag, ShutdownSignalException sig) {
+            failAll(new IOException("Channel of reply queue " + replyQueue + " has been closed", sig));
+        }
+    }
+
+    /**
+     * A call waiting for its reply
+     */
+    public static final class PendingReply {
+
+        private final String correlationId;
+
+        private byte[] reply;
+
+        private IOException failure;
+
+        PendingReply(String correlationId) {
+            this.correlationId = correlationId;
+        }
+
+        public String getCorrelationId() {
+            return correlationId;
+        }
+
+        synchronized void complete(byte[] body) {
+            this.reply = body;
+            notifyAll();
+        }
+
+        synchronized void fail(IOException cause) {
+            this.failure = cause;
+            notifyAll();
+        }
+
+        /**
+         * Wait for the reply
+         *
+         * @param timeout the maximum time to wait in milliseconds
+         * @return the body of the reply or null if the timeout expired
+         * @throws IOException if the reply queue has been closed
+         * @throws InterruptedException
+         */
+        public synchronized byte[] await(long timeout) throws IOException, InterruptedException {
+            long deadline = System.currentTimeMillis() + timeout;
+            long remaining = timeout;
+            while (reply == null && failure == null && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            if (reply != null) {
+                return reply;
+            }
+            if (failure != null) {
+                throw new IOException("Reply " + correlationId + " cannot be received", failure);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.amqp.remoteobject;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.extensions.amqp.remoteobject.ConnectionAndChannelFactory.CachedConnection;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.DefaultConsumer;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.ShutdownSignalException;
+import com.rabbitmq.client.impl.AMQImpl;
+
+
+/**
+ * Tests the dispatching of the replies of a {@link MultiplexedReplyQueue}, using an
+ * in-process broker which routes messages by queue name.
+ */
+public class MultiplexedReplyQueueTest {
+
+    static final String SERVER_QUEUE = "server";
+
+    private InMemoryBroker broker;
+
+    private CachedConnection connection;
+
+    @Before
+    public void setUp() {
+        broker = new InMemoryBroker();
+        connection = new CachedConnection(new ConnectionAndChannelFactory(null), broker.newConnection());
+    }
+
+    @After
+    public void tearDown() {
+        broker.shutdown();
+    }
+
+    /**
+     * Many concurrent calls share the reply queue, replies are sent back out of order
+     */
+    @Test
+    public void concurrentCalls() throws Exception {
+        startEchoServer(8, 0, 5);
+
+        final MultiplexedReplyQueue replyQueue = connection.getMultiplexedReplyQueue();
+        final int callers = 16;
+        final int calls = 50;
+        final CountDownLatch done = new CountDownLatch(callers);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final AtomicInteger maxPending = new AtomicInteger();
+
+        for (int i = 0; i < callers; i++) {
+            final int caller = i;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < calls; j++) {
+                            byte[] request = (caller + "-" + j).getBytes();
+                            MultiplexedReplyQueue.PendingReply pending = replyQueue.send("", SERVER_QUEUE, request);
+                            maxPending.set(Math.max(maxPending.get(), replyQueue.getPendingCalls()));
+                            try {
+                                byte[] reply = pending.await(10000);
+                                Assert.assertArrayEquals(request, reply);
+                            } finally {
+                                replyQueue.release(pending);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+
+        Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+        Assert.assertEquals(0, replyQueue.getPendingCalls());
+        Assert.assertTrue("calls should be outstanding at once", maxPending.get() > 1);
+        // a single reply queue for all the calls
+        Assert.assertSame(replyQueue, connection.getMultiplexedReplyQueue());
+    }
+
+    /**
+     * A reply received after the caller gave up is discarded
+     */
+    @Test
+    public void lateReply() throws Exception {
+        startEchoServer(1, 200, 200);
+
+        MultiplexedReplyQueue replyQueue = connection.getMultiplexedReplyQueue();
+        MultiplexedReplyQueue.PendingReply pending = replyQueue.send("", SERVER_QUEUE, "late".getBytes());
+        Assert.assertNull(pending.await(10));
+        replyQueue.release(pending);
+
+        pending = replyQueue.send("", SERVER_QUEUE, "next".getBytes());
+        try {
+            Assert.assertArrayEquals("next".getBytes(), pending.await(10000));
+        } finally {
+            replyQueue.release(pending);
+        }
+    }
+
+    /**
+     * Pending calls fail when the channel of the reply queue is closed, and a new queue is
+     * created for the next calls
+     */
+    @Test
+    public void channelClosed() throws Exception {
+        // no server, the calls never get a reply
+        MultiplexedReplyQueue replyQueue = connection.getMultiplexedReplyQueue();
+        MultiplexedReplyQueue.PendingReply pending = replyQueue.send("", SERVER_QUEUE, "lost".getBytes());
+
+        broker.closeChannelOfQueue(replyQueue.getReplyQueue());
+        try {
+            pending.await(10000);
+            Assert.fail("the call should fail");
+        } catch (IOException e) {
+            // expected
+        }
+        Assert.assertFalse(replyQueue.isOpen());
+
+        startEchoServer(1, 0, 0);
+        MultiplexedReplyQueue newReplyQueue = connection.getMultiplexedReplyQueue();
+        Assert.assertNotSame(replyQueue, newReplyQueue);
+        pending = newReplyQueue.send("", SERVER_QUEUE, "again".getBytes());
+        Assert.assertArrayEquals("again".getBytes(), pending.await(10000));
+    }
+
+    /**
+     * Start a server which sends back each request with the correlation id of the request,
+     * after a random delay, as AbstractAMQPRemoteObjectServer does
+     */
+    private void startEchoServer(int threads, final int minDelay, final int maxDelay) throws IOException {
+        final Channel channel = broker.newConnection().createChannel();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        broker.onShutdown(executor);
+        final Random random = new Random();
+        channel.basicConsume(SERVER_QUEUE, true, new DefaultConsumer(channel) {
+            @Override
+            public void handleDelivery(String consumerTag, Envelope envelope, final AMQP.BasicProperties props,
+                    final byte[] body) throws IOException {
+                final int delay = minDelay + (maxDelay > minDelay ? random.nextInt(maxDelay - minDelay) : 0);
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Thread.sleep(delay);
+                            AMQP.BasicProperties replyProps = new AMQP.BasicProperties.Builder().correlationId(props.getCorrelationId())
+                                                                                                .build();
+                            channel.basicPublish("", props.getReplyTo(), replyProps, body);
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Minimal in-process broker: the default exchange routes a message to the queue named by
+     * its routing key, deliveries are dispatched by a single thread
+     */
+    static class InMemoryBroker {
+
+        private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+
+        private final Map<String, Consumer> consumers = new ConcurrentHashMap<String, Consumer>();
+
+        private final Map<String, List<Object[]>> waiting = new ConcurrentHashMap<String, List<Object[]>>();
+
+        private final Map<String, Channel> owners = new ConcurrentHashMap<String, Channel>();
+
+        private final List<ExecutorService> executors = new ArrayList<ExecutorService>();
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        void onShutdown(ExecutorService executor) {
+            executors.add(executor);
+        }
+
+        void shutdown() {
+            dispatcher.shutdownNow();
+            for (ExecutorService executor : executors) {
+                executor.shutdownNow();
+            }
+        }
+
+        Connection newConnection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                       new Class<?>[] { Connection.class },
+                                                       new InvocationHandler() {
+                                                           @Override
+                                                           public Object invoke(Object proxy, Method method,
+                                                                   Object[] args) {
+                                                               if (method.getName().equals("createChannel")) {
+                                                                   return newChannel();
+                                                               }
+                                                               throw new UnsupportedOperationException(method.getName());
+                                                           }
+                                                       });
+        }
+
+        void closeChannelOfQueue(String queue) throws Exception {
+            owners.get(queue).close();
+        }
+
+        private Channel newChannel() {
+            return (Channel) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                    new Class<?>[] { Channel.class },
+                                                    new InMemoryChannel(counter.incrementAndGet()));
+        }
+
+        class InMemoryChannel implements InvocationHandler {
+
+            private final int number;
+
+            private final List<String> consumed = new ArrayList<String>();
+
+            private volatile boolean open = true;
+
+            InMemoryChannel(int number) {
+                this.number = number;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("isOpen")) {
+                    return open;
+                } else if (name.equals("getChannelNumber")) {
+                    return number;
+                } else if (name.equals("queueDeclare") && args == null) {
+                    return new AMQImpl.Queue.DeclareOk("amq.gen-" + counter.incrementAndGet(), 0, 0);
+                } else if (name.equals("basicConsume") && args.length == 3) {
+                    String queue = (String) args[0];
+                    consumed.add(queue);
+                    owners.put(queue, (Channel) proxy);
+                    consume(queue, (Consumer) args[2]);
+                    return "tag-" + queue;
+                } else if (name.equals("basicPublish") && args.length == 4) {
+                    if (!open) {
+                        throw new IOException("channel closed");
+                    }
+                    publish((String) args[1], (BasicProperties) args[2], (byte[]) args[3]);
+                    return null;
+                } else if (name.equals("close") && args == null) {
+                    open = false;
+                    for (String queue : consumed) {
+                        shutdown(queue, consumers.remove(queue));
+                    }
+                    return null;
+                } else if (name.equals("toString")) {
+                    return "InMemoryChannel-" + number;
+                }
+                throw new UnsupportedOperationException(name + Arrays.toString(method.getParameterTypes()));
+            }
+        }
+
+        private void shutdown(final String queue, final Consumer consumer) {
+            dispatcher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    consumer.handleShutdownSignal("tag-" + queue, new ShutdownSignalException(false, true, null, null));
+                }
+            });
+        }
+
+        private synchronized void consume(String queue, Consumer consumer) {
+            consumers.put(queue, consumer);
+            List<Object[]> messages = waiting.remove(queue);
+            if (messages != null) {
+                for (Object[] message : messages) {
+                    deliver(queue, consumer, (BasicProperties) message[0], (byte[]) message[1]);
+                }
+            }
+        }
+
+        private synchronized void publish(String queue, BasicProperties props, byte[] body) {
+            Consumer consumer = consumers.get(queue);
+            if (consumer != null) {
+                deliver(queue, consumer, props, body);
+            } else {
+                List<Object[]> messages = waiting.get(queue);
+                if (messages == null) {
+                    messages = new ArrayList<Object[]>();
+                    waiting.put(queue, messages);
+                }
+                messages.add(new Object[] { props, body });
+            }
+        }
+
+        private void deliver(final String queue, final Consumer consumer, final BasicProperties props,
+                final byte[] body) {
+            dispatcher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        consumer.handleDelivery("tag-" + queue, new Envelope(0, false, "", queue), props, body);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            });
+        }
+    }
+}
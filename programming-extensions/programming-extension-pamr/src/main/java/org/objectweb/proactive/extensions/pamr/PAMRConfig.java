@@ -29,6 +29,7 @@ import java.net.Socket;
 
 import org.objectweb.proactive.core.config.PAProperties.PAPropertiesLoaderSPI;
 import org.objectweb.proactive.core.config.PAPropertyAlias;
+import org.objectweb.proactive.core.config.PAPropertyBoolean;
 import org.objectweb.proactive.core.config.PAPropertyInteger;
 import org.objectweb.proactive.core.config.PAPropertyString;
 
@@ -73,6 +74,16 @@ public class PAMRConfig implements PAPropertiesLoaderSPI {
      */
     static public PAPropertyInteger PA_PAMR_AGENT_ID = new PAPropertyInteger("proactive.pamr.agent.id", false);
 
+    /** Enables the compact encoding of requests
+     *
+     * When enabled, the method signatures, method names, body ids and sender references sent
+     * to a remote agent are replaced by small integer ids once this agent knows them. Agents
+     * always understand this encoding, this property only affects the calls sent by this runtime.
+     */
+    static public PAPropertyBoolean PA_PAMR_COMPACT_REQUESTS = new PAPropertyBoolean("proactive.pamr.compact_requests",
+                                                                                     false,
+                                                                                     false);
+
     /** The Magic cookie to submit to the router
      *
      * If {@link #PA_PAMR_AGENT_ID} is set, then this property must also be set to be able
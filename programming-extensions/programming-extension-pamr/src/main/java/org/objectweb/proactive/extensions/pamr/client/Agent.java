@@ -28,6 +28,7 @@ package org.objectweb.proactive.extensions.pamr.client;
 import java.net.URI;
 
 import org.objectweb.proactive.core.runtime.ProActiveRuntime;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.extensions.pamr.exceptions.PAMRException;
 import org.objectweb.proactive.extensions.pamr.protocol.AgentID;
 import org.objectweb.proactive.extensions.pamr.protocol.message.DataRequestMessage;
@@ -91,6 +92,14 @@ public interface Agent {
     /** Return the local Agent ID */
     public AgentID getAgentID();
 
+    /** Return the dictionary of the values sent to a remote {@link Agent}
+     *
+     * @param targetID
+     *            the remote {@link AgentID}
+     * @return the dictionary, or null if compact requests are disabled
+     */
+    public WireDictionary getWireDictionary(AgentID targetID);
+
     /** Close the current tunnel
      *
      * The agent will eventually reconnect to the router.
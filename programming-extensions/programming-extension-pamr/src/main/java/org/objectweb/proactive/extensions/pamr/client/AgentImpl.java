@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -47,6 +48,7 @@ import javax.management.ObjectName;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.ProActiveException;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.Loggers;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.extensions.pamr.PAMRConfig;
@@ -124,6 +126,9 @@ public class AgentImpl implements Agent, AgentImplMBean {
 
     private ExecutorService heartbeatExecutor = Executors.newSingleThreadExecutor();
 
+    /** The values already sent to each remote agent, null if compact requests are disabled */
+    final private ConcurrentHashMap<AgentID, WireDictionary> wireDictionaries;
+
     /**
      * Create a routing agent
      * 
@@ -183,6 +188,11 @@ public class AgentImpl implements Agent, AgentImplMBean {
         this.agentID = agentId; // Check the agentId number
         this.magicCookie = magicCookie;
         this.routerID = RouterImpl.DEFAULT_ROUTER_ID;
+        if (PAMRConfig.PA_PAMR_COMPACT_REQUESTS.isTrue()) {
+            this.wireDictionaries = new ConcurrentHashMap<AgentID, WireDictionary>();
+        } else {
+            this.wireDictionaries = null;
+        }
 
         try {
             Constructor<? extends MessageHandler> mhConstructor;
@@ -436,6 +446,22 @@ public class AgentImpl implements Agent, AgentImplMBean {
         return agentID;
     }
 
+    public WireDictionary getWireDictionary(AgentID targetID) {
+        if (this.wireDictionaries == null) {
+            return null;
+        }
+
+        WireDictionary dictionary = this.wireDictionaries.get(targetID);
+        if (dictionary == null) {
+            dictionary = new WireDictionary();
+            WireDictionary previous = this.wireDictionaries.putIfAbsent(targetID, dictionary);
+            if (previous != null) {
+                dictionary = previous;
+            }
+        }
+        return dictionary;
+    }
+
     public byte[] sendMsg(URI targetURI, byte[] data, boolean oneWay) throws PAMRException {
         String remoteAgentId = targetURI.getHost();
         AgentID agentID = new AgentID(Long.parseLong(remoteAgentId));
@@ -26,6 +26,7 @@
 package org.objectweb.proactive.extensions.pamr.client;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -36,9 +37,11 @@ import org.objectweb.proactive.core.body.request.Request;
 import org.objectweb.proactive.core.remoteobject.SynchronousReplyImpl;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
 import org.objectweb.proactive.core.util.converter.remote.ProActiveMarshaller;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.extensions.pamr.PAMRConfig;
 import org.objectweb.proactive.extensions.pamr.exceptions.PAMRException;
+import org.objectweb.proactive.extensions.pamr.protocol.AgentID;
 import org.objectweb.proactive.extensions.pamr.protocol.message.DataRequestMessage;
 import org.objectweb.proactive.extensions.pamr.remoteobject.message.PAMRMessage;
 import org.objectweb.proactive.utils.NamedThreadFactory;
@@ -58,8 +61,12 @@ public class ProActiveMessageHandler implements MessageHandler {
     /** Local agent */
     private Agent agent;
 
+    /** The values defined by the previous messages of each remote agent */
+    final private ConcurrentHashMap<AgentID, WireDictionary> wireDictionaries;
+
     public ProActiveMessageHandler(Agent agent) {
         this.agent = agent;
+        this.wireDictionaries = new ConcurrentHashMap<AgentID, WireDictionary>();
 
         /*
          * DO NOT USE A FIXED THREAD POOL
@@ -85,6 +92,18 @@ public class ProActiveMessageHandler implements MessageHandler {
         tpe.submit(pmp);
     }
 
+    private WireDictionary getWireDictionary(AgentID sender) {
+        WireDictionary dictionary = this.wireDictionaries.get(sender);
+        if (dictionary == null) {
+            dictionary = new WireDictionary();
+            WireDictionary previous = this.wireDictionaries.putIfAbsent(sender, dictionary);
+            if (previous != null) {
+                dictionary = previous;
+            }
+        }
+        return dictionary;
+    }
+
     /** Process one ProActive {@link Request} */
     private class ProActiveMessageProcessor implements Runnable {
         /** the request*/
@@ -115,7 +134,8 @@ public class ProActiveMessageHandler implements MessageHandler {
 
                 PAMRMessage message;
                 try {
-                    message = (PAMRMessage) this.marshaller.unmarshallObject(_toProcess.getData());
+                    message = (PAMRMessage) this.marshaller.unmarshallObject(_toProcess.getData(),
+                                                                             getWireDictionary(_toProcess.getSender()));
                 } catch (Throwable t) {
                     PAMRException e = new PAMRException("Failed to unmarshall incoming message on " +
                                                         this.agent.getAgentID() + "for " + this._toProcess, t);
@@ -30,13 +30,17 @@ import java.io.Serializable;
 import java.net.URI;
 
 import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.body.future.MethodCallResult;
 import org.objectweb.proactive.core.exceptions.IOException6;
+import org.objectweb.proactive.core.remoteobject.SynchronousReplyImpl;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
 import org.objectweb.proactive.core.util.converter.remote.ProActiveMarshaller;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.extensions.pamr.PAMRConfig;
 import org.objectweb.proactive.extensions.pamr.client.Agent;
 import org.objectweb.proactive.extensions.pamr.exceptions.PAMRException;
+import org.objectweb.proactive.extensions.pamr.protocol.AgentID;
 
 
 /** Any kind of routed message.
@@ -96,10 +100,40 @@ public abstract class PAMRMessage implements Serializable {
      */
     public final void send() throws IOException {
         try {
-            byte[] bytes = this.marshaller.marshallObject(this);
-            byte[] response = agent.sendMsg(this.uri, bytes, isAsynchronous);
-            if (!isAsynchronous) {
+            // the values already known by the remote agent are only sent as ids
+            WireDictionary dictionary = agent.getWireDictionary(new AgentID(Long.parseLong(this.uri.getHost())));
+            boolean redefined = false;
+            while (true) {
+                WireDictionary.Batch batch = (dictionary != null) ? dictionary.newBatch() : null;
+                byte[] bytes = this.marshaller.marshallObject(this, batch);
+                byte[] response = agent.sendMsg(this.uri, bytes, isAsynchronous);
+                if (isAsynchronous) {
+                    return;
+                }
+
                 this.returnedObject = this.marshaller.unmarshallObject(response);
+                if (batch == null) {
+                    return;
+                }
+
+                Throwable failure = getFailure(this.returnedObject);
+                if (failure == null) {
+                    batch.acknowledge();
+                    return;
+                }
+
+                if (redefined || !WireDictionary.isUnknownReference(failure)) {
+                    return;
+                }
+
+                // The remote agent has been restarted with the same agent id and lost the ids of
+                // this runtime. The message has not been processed, it is sent again with definitions
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Resetting the wire dictionary of " + this.uri + ": " + failure.getMessage());
+                }
+                dictionary.reset();
+                this.returnedObject = null;
+                redefined = true;
             }
         } catch (PAMRException e) {
             if (logger.isDebugEnabled()) {
@@ -118,4 +152,15 @@ public abstract class PAMRMessage implements Serializable {
             throw new IOException6("Failed to deserialize PAMR reply (dest=" + this.uri + ")", e);
         }
     }
+
+    /** Returns the exception of a response, null if the message has been successfully processed */
+    private static Throwable getFailure(Object response) {
+        if (response instanceof SynchronousReplyImpl) {
+            MethodCallResult result = ((SynchronousReplyImpl) response).getResult();
+            if (result != null) {
+                return result.getException();
+            }
+        }
+        return null;
+    }
 }
@@ -30,7 +30,11 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -53,12 +57,21 @@ import org.objectweb.proactive.extensions.pamr.PAMRConfig;
  * associated to the current tunnel.</li>
  * </ul>
  * 
+ * Messages are never written with blocking semantics. If the socket cannot
+ * accept a message right now, it is put into an outbound queue drained by the
+ * select thread when the socket becomes writable. A slow client therefore does
+ * not stall the workers. If the outbound queue grows beyond the configured limit,
+ * the client is disconnected.
+ * 
  * @since ProActive 4.1.0
  */
 public class Attachment {
 
     public static final Logger logger = ProActiveLogger.getLogger(PAMRConfig.Loggers.PAMR_ROUTER);
 
+    /** Maximum number of buffers written by a single gathering write */
+    static final private int MAX_GATHERED_BUFFERS = 64;
+
     /** The id of this attachment
      * 
      * Never used by any other object but can be useful when debugging
@@ -78,6 +91,21 @@ public class Attachment {
     /** The socket channel where to write for this given client */
     final private SocketChannel socketChannel;
 
+    /** The router, notified when the outbound queue must be drained */
+    final private RouterImpl router;
+
+    /** The key of the socket channel, set by the select thread on accept */
+    volatile private SelectionKey selectionKey;
+
+    /** Messages waiting for the socket to become writable. Guarded by itself */
+    final private ArrayDeque<ByteBuffer> outboundQueue;
+
+    /** Number of bytes in the outbound queue. Guarded by outboundQueue */
+    private long outboundBytes;
+
+    /** The reason why this attachment must be disconnected by the select thread, if any */
+    volatile private String failure;
+
     final private AtomicBoolean dtored;
 
     volatile private String agentHostname;
@@ -86,6 +114,9 @@ public class Attachment {
         this.attachmentId = AttachmentIdGenerator.getId();
         this.assembler = new MessageAssembler(router, this);
         this.socketChannel = socketChannel;
+        this.router = router;
+        this.outboundQueue = new ArrayDeque<ByteBuffer>();
+        this.outboundBytes = 0;
         this.client = null;
         this.dtored = new AtomicBoolean(false);
     }
@@ -185,22 +216,136 @@ public class Attachment {
 
     }
 
+    /** Send a message to the client
+     * 
+     * The message is written right away if the outbound queue is empty and the socket
+     * accepts it. Otherwise it is queued and will be written by the select thread. The
+     * content of the buffer is not copied, it must not be modified afterward.
+     * 
+     * @param byteBuffer the message
+     * @throws IOException if the socket failed or the outbound queue is full
+     */
     public void send(ByteBuffer byteBuffer) throws IOException {
-        synchronized (this.socketChannel) {
-            byteBuffer.clear();
-            while (byteBuffer.remaining() > 0) {
-                int bytes = this.socketChannel.write(byteBuffer);
+        // Do not share the position with the other users of this buffer (pending messages, retries etc.)
+        ByteBuffer buffer = byteBuffer.duplicate();
+        buffer.clear();
+
+        synchronized (this.outboundQueue) {
+            if (this.outboundQueue.isEmpty()) {
+                int bytes = this.socketChannel.write(buffer);
 
                 if (logger.isDebugEnabled()) {
                     String dstClient = this.client == null ? "unknown" : client.getAgentId().toString();
-                    String remaining = byteBuffer.remaining() > 0 ? byteBuffer.remaining() + " remaining to send" : "";
+                    String remaining = buffer.remaining() > 0 ? buffer.remaining() + " queued" : "";
                     logger.debug("Sent a " + bytes + " bytes message to client " + dstClient + " with " +
                                  this.socketChannel.socket() + ". " + remaining);
                 }
+
+                if (!buffer.hasRemaining()) {
+                    return;
+                }
+            } else if (this.outboundBytes + buffer.remaining() > this.getOutboundQueueLimit()) {
+                String cause = "outbound queue is full (" + this.outboundBytes + " bytes), the client is too slow";
+                this.fail(cause);
+                throw new IOException("Cannot send the message to " + this + ": " + cause);
             }
+
+            boolean wasEmpty = this.outboundQueue.isEmpty();
+            this.outboundQueue.add(buffer);
+            this.outboundBytes += buffer.remaining();
+            if (!wasEmpty) {
+                return;
+            }
+        }
+
+        // The select thread must now watch OP_WRITE
+        if (this.router != null) {
+            this.router.requestSelect(this);
         }
     }
 
+    /** Write as many queued messages as possible
+     * 
+     * Must only be called by the select thread.
+     * 
+     * @return true if the outbound queue is empty
+     * @throws IOException if the socket failed
+     */
+    boolean flush() throws IOException {
+        synchronized (this.outboundQueue) {
+            if (!this.outboundQueue.isEmpty()) {
+                int n = Math.min(this.outboundQueue.size(), MAX_GATHERED_BUFFERS);
+                ByteBuffer[] buffers = new ByteBuffer[n];
+                int i = 0;
+                for (ByteBuffer buffer : this.outboundQueue) {
+                    if (i == n) {
+                        break;
+                    }
+                    buffers[i++] = buffer;
+                }
+
+                // A single gathering write for all the queued messages
+                long bytes = this.socketChannel.write(buffers);
+                this.outboundBytes -= bytes;
+
+                while (!this.outboundQueue.isEmpty() && !this.outboundQueue.peek().hasRemaining()) {
+                    this.outboundQueue.poll();
+                }
+
+                if (logger.isDebugEnabled()) {
+                    String dstClient = this.client == null ? "unknown" : client.getAgentId().toString();
+                    logger.debug("Flushed " + bytes + " bytes to client " + dstClient + " with " +
+                                 this.socketChannel.socket() + ". " + this.outboundBytes + " bytes still queued");
+                }
+            }
+
+            return this.outboundQueue.isEmpty();
+        }
+    }
+
+    /** Remove the messages not written yet
+     * 
+     * Called when the attachment is discarded so that the messages can be sent again once
+     * the client reconnects. A partially written message is sent again from its beginning.
+     * 
+     * @return the unsent messages, in order
+     */
+    List<ByteBuffer> drainOutboundQueue() {
+        synchronized (this.outboundQueue) {
+            List<ByteBuffer> unsent = new ArrayList<ByteBuffer>(this.outboundQueue);
+            this.outboundQueue.clear();
+            this.outboundBytes = 0;
+            return unsent;
+        }
+    }
+
+    private long getOutboundQueueLimit() {
+        return this.router == null ? Long.MAX_VALUE : this.router.getOutboundQueueLimit();
+    }
+
+    /** Ask the select thread to disconnect this attachment */
+    private void fail(String cause) {
+        this.failure = cause;
+        if (this.router != null) {
+            this.router.requestSelect(this);
+        }
+    }
+
+    /**
+     * @return the reason why this attachment must be disconnected, null if it is healthy
+     */
+    String getFailure() {
+        return this.failure;
+    }
+
+    SelectionKey getSelectionKey() {
+        return this.selectionKey;
+    }
+
+    void setSelectionKey(SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+    }
+
     static abstract private class AttachmentIdGenerator {
         static final private AtomicLong generator = new AtomicLong(0);
 
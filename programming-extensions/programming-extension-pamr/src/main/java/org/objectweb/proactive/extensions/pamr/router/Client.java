@@ -216,12 +216,16 @@ public class Client {
     /** Discard the current attachment 
      * 
      * Must be called when an IOException is raised by a read or write operation on the 
-     * socket. It indicates the tunnel failed and the client must reconnect.
+     * socket. It indicates the tunnel failed and the client must reconnect. The messages
+     * still in the outbound queue of the attachment are put in the pending message queue.
      */
     public void discardAttachment(String cause) {
         synchronized (this.attachment_lock) {
-            if (admin_logger.isDebugEnabled() && this.attachment != null) {
-                admin_logger.debug("AgentID " + this.getAgentId() + " disconnected: " + cause);
+            if (this.attachment != null) {
+                if (admin_logger.isDebugEnabled()) {
+                    admin_logger.debug("AgentID " + this.getAgentId() + " disconnected: " + cause);
+                }
+                this.pendingMessage.addAll(this.attachment.drainOutboundQueue());
             }
 
             logger.debug("Discarded attachment for " + this.agentId);
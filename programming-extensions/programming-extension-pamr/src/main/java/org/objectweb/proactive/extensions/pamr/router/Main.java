@@ -217,6 +217,19 @@ public class Main {
             }
         }
 
+        arg = line.getOptionValue("o");
+        if (arg != null) {
+            try {
+                long i = Long.parseLong(arg);
+                if (i <= 0) {
+                    printHelpAndExit("Invalid outbound queue limit. Must be positive", options);
+                }
+                config.setOutboundQueueLimit(i);
+            } catch (NumberFormatException e) {
+                printHelpAndExit("Invalid outbound queue limit", options);
+            }
+        }
+
         return config;
     }
 
@@ -231,8 +244,9 @@ public class Main {
         error |= line.hasOption("f");
         error |= line.hasOption("t");
         error |= line.hasOption("e");
+        error |= line.hasOption("o");
         if (error) {
-            printHelpAndExit("Options -4 -6 -w -f -t -e are not compatible with -r", options);
+            printHelpAndExit("Options -4 -6 -w -f -t -e -o are not compatible with -r", options);
         }
 
         int port = -1;
@@ -313,6 +327,10 @@ public class Main {
                           true,
                           "Timeout for the eviction of disconnected clients (default: -1, means no eviction)");
         options.addOption("w", "nbWorkers", true, "Size of the worker thread pool");
+        options.addOption("o",
+                          "outboundQueue",
+                          true,
+                          "Maximum amount of bytes queued for a slow client before disconnecting it (default: 128MB)");
         options.addOption("f", "configFile", true, "configuration file");
         options.addOption("h", "help", false, "Print help message");
         options.addOption("v", "verbose", false, "Verbose mode. Print clients (dis)connections");
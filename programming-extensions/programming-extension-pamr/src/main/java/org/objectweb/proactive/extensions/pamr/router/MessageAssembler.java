@@ -135,9 +135,11 @@ public class MessageAssembler {
 
             int toCopy = missingBytes > availableBytes ? availableBytes : missingBytes;
 
-            // Don't use put(ByteBuffer) it does NOT use the limit
-            currentMessage.put(buffer.array(), buffer.position(), toCopy);
-            buffer.position(buffer.position() + toCopy);
+            // The buffer can be a direct one: narrow its limit instead of using array()
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + toCopy);
+            currentMessage.put(buffer);
+            buffer.limit(limit);
 
             // Checks if current message is complete
             if (currentMessage.remaining() == 0) {
@@ -59,6 +59,8 @@ public class RouterConfig {
 
     private long clientEvictionTimeout;
 
+    private long outboundQueueLimit;
+
     public RouterConfig() {
         this.port = 0;
         this.isDaemon = false;
@@ -66,6 +68,7 @@ public class RouterConfig {
         this.inetAddress = null;
         this.heartbeatTimeout = 180000;
         this.clientEvictionTimeout = 86400000;
+        this.outboundQueueLimit = 128 * 1024 * 1024;
     }
 
     public void setReadOnly() {
@@ -157,4 +160,24 @@ public class RouterConfig {
         this.clientEvictionTimeout = timeout;
     }
 
+    long getOutboundQueueLimit() {
+        return outboundQueueLimit;
+    }
+
+    /** Set the maximum amount of bytes waiting to be sent to a client
+     * 
+     * Messages are queued when a client does not read them fast enough. If this
+     * limit is reached, the client is considered as stalled and is disconnected.
+     * 
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public void setOutboundQueueLimit(long bytes) {
+        checkReadOnly();
+
+        if (bytes <= 0)
+            throw new IllegalArgumentException("The outbound queue limit must be positive");
+
+        this.outboundQueueLimit = bytes;
+    }
+
 }
@@ -50,6 +50,7 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -91,7 +92,7 @@ public class RouterImpl extends RouterInternal implements Runnable {
     static final public int DEFAULT_PORT = 33647;
 
     /** Read {@link ByteBuffer} size. */
-    private final static int READ_BUFFER_SIZE = 4096;
+    private final static int READ_BUFFER_SIZE = 64 * 1024;
 
     public final static long DEFAULT_ROUTER_ID = Long.MIN_VALUE;
 
@@ -137,6 +138,18 @@ public class RouterImpl extends RouterInternal implements Runnable {
 
     private final long clientEvictionTimeout;
 
+    private final long outboundQueueLimit;
+
+    /** The buffer used to read the sockets
+     * 
+     * Only used by the select thread, so a single direct buffer is reused for
+     * all the reads. The bytes are copied once, into the message being assembled.
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    /** Attachments needing the attention of the select thread (outbound queue to drain or failure) */
+    private final ConcurrentLinkedQueue<Attachment> selectRequests = new ConcurrentLinkedQueue<Attachment>();
+
     /** Create a new router
      * 
      * When a new router is created it binds onto the given port.
@@ -157,6 +170,7 @@ public class RouterImpl extends RouterInternal implements Runnable {
         this.configFile = config.getReservedAgentConfigFile();
         this.heartbeatTimeout = config.getHeartbeatTimeout();
         this.clientEvictionTimeout = config.getClientEvictionTimeout();
+        this.outboundQueueLimit = config.getOutboundQueueLimit();
 
         init(config);
         ThreadFactory tf = new NamedThreadFactory("Proactive PAMR router worker");
@@ -399,6 +413,7 @@ public class RouterImpl extends RouterInternal implements Runnable {
         while (this.stopped.get() == false) {
             // select new keys
             try {
+                this.processSelectRequests();
                 selector.select();
                 selectedKeys = selector.selectedKeys();
                 it = selectedKeys.iterator();
@@ -408,8 +423,13 @@ public class RouterImpl extends RouterInternal implements Runnable {
                     try {
                         if ((key.readyOps() & SelectionKey.OP_ACCEPT) == SelectionKey.OP_ACCEPT) {
                             this.handleAccept(key);
-                        } else if ((key.readyOps() & SelectionKey.OP_READ) == SelectionKey.OP_READ) {
-                            this.handleRead(key);
+                        } else if ((key.readyOps() & (SelectionKey.OP_READ | SelectionKey.OP_WRITE)) != 0) {
+                            if ((key.readyOps() & SelectionKey.OP_WRITE) == SelectionKey.OP_WRITE) {
+                                this.handleWrite(key);
+                            }
+                            if (key.isValid() && (key.readyOps() & SelectionKey.OP_READ) == SelectionKey.OP_READ) {
+                                this.handleRead(key);
+                            }
                         } else {
                             logger.warn("Unhandled SelectionKey operation");
                         }
@@ -457,7 +477,9 @@ public class RouterImpl extends RouterInternal implements Runnable {
             sc.configureBlocking(false);
 
             // Add the new connection to the selector
-            sc.register(selector, SelectionKey.OP_READ);
+            Attachment attachment = new Attachment(this, sc);
+            SelectionKey newKey = sc.register(selector, SelectionKey.OP_READ, attachment);
+            attachment.setSelectionKey(newKey);
         } catch (IOException e) {
             logger.warn("Failed to accept a new connection", e);
         }
@@ -466,15 +488,11 @@ public class RouterImpl extends RouterInternal implements Runnable {
     /** Read available data for this key */
     private void handleRead(SelectionKey key) {
         SocketChannel sc;
-        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        ByteBuffer buffer = this.readBuffer;
 
         sc = (SocketChannel) key.channel();
 
         Attachment attachment = (Attachment) key.attachment();
-        if (attachment == null) {
-            attachment = new Attachment(this, sc);
-            key.attach(attachment);
-        }
 
         // Read all the data available
         try {
@@ -501,6 +519,41 @@ public class RouterImpl extends RouterInternal implements Runnable {
         }
     }
 
+    /** Drain the outbound queue of this key */
+    private void handleWrite(SelectionKey key) {
+        Attachment attachment = (Attachment) key.attachment();
+        try {
+            if (attachment.flush()) {
+                // Nothing more to write, stop watching OP_WRITE
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            clientDisconnected(key, e.getMessage());
+        }
+    }
+
+    /** Handle the requests submitted by {@link #requestSelect(Attachment)} */
+    private void processSelectRequests() {
+        Attachment attachment;
+        while ((attachment = this.selectRequests.poll()) != null) {
+            SelectionKey key = attachment.getSelectionKey();
+            if (key == null || !key.isValid()) {
+                continue;
+            }
+
+            String failure = attachment.getFailure();
+            try {
+                if (failure != null) {
+                    clientDisconnected(key, failure);
+                } else {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            } catch (CancelledKeyException e) {
+                clientDisconnected(key, e.getMessage());
+            }
+        }
+    }
+
     /** clean everything when a client disconnect */
     private void clientDisconnected(SelectionKey key, String cause) {
         Attachment attachment = (Attachment) key.attachment();
@@ -547,6 +600,20 @@ public class RouterImpl extends RouterInternal implements Runnable {
         tpe.execute(tlp);
     }
 
+    /** Ask the select thread to look at an attachment
+     * 
+     * Called when messages have been queued (OP_WRITE must be watched) or
+     * when the attachment must be disconnected.
+     */
+    void requestSelect(Attachment attachment) {
+        this.selectRequests.add(attachment);
+        this.selector.wakeup();
+    }
+
+    long getOutboundQueueLimit() {
+        return this.outboundQueueLimit;
+    }
+
     public Client getClient(AgentID agentId) {
         synchronized (clientMap) {
             return clientMap.get(agentId);
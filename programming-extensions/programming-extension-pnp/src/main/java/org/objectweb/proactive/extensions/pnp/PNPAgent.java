@@ -26,6 +26,7 @@
 package org.objectweb.proactive.extensions.pnp;
 
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
@@ -40,6 +41,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.apache.log4j.Logger;
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.bootstrap.ServerBootstrap;
@@ -58,6 +63,7 @@ import org.jboss.netty.util.Timer;
 import org.jboss.netty.util.TimerTask;
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.objectweb.proactive.core.util.ProActiveInet;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.extensions.pnp.exception.PNPException;
 import org.objectweb.proactive.extensions.pnp.exception.PNPHeartbeatTimeoutException;
@@ -95,6 +101,9 @@ public class PNPAgent {
     /** Server port */
     final private int port;
 
+    /** The executor running the incoming calls */
+    final private PNPServerExecutor serverExecutor;
+
     /** A cache of already open PNP Connection
      *
      * Since PNP use an heartbeat mechanism, we try to minimize the number of
@@ -118,7 +127,8 @@ public class PNPAgent {
         ServerSocketChannelFactory ssocketFactory;
         ssocketFactory = new NioServerSocketChannelFactory(pnpExecutor, pnpExecutor);
         ServerBootstrap sBoostrap = new ServerBootstrap(ssocketFactory);
-        sBoostrap.setPipelineFactory(new PNPServerPipelineFactory(extraHandlers, pnpExecutor));
+        this.serverExecutor = new PNPServerExecutor();
+        sBoostrap.setPipelineFactory(new PNPServerPipelineFactory(extraHandlers, this.serverExecutor));
         sBoostrap.setOption("tcpNoDelay", true);
         sBoostrap.setOption("child.tcpNoDelay", true);
         try {
@@ -134,6 +144,7 @@ public class PNPAgent {
         } catch (ChannelException e) {
             throw new PNPException("Failed to setup the server side of PNP", e);
         }
+        registerServerExecutorMBean();
 
         // Client side
         ClientSocketChannelFactory csocketFactory;
@@ -145,6 +156,20 @@ public class PNPAgent {
         this.channelCache = new PNPClientChannelCache(cBootstrap);
     }
 
+    /** Exposes the gauges of the server executor through JMX */
+    private void registerServerExecutorMBean() {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName oname = new ObjectName("org.objectweb.proactive.extensions.pnp:type=ServerExecutor,port=" +
+                                              this.port);
+            if (!mbs.isRegistered(oname)) {
+                mbs.registerMBean(this.serverExecutor, oname);
+            }
+        } catch (JMException e) {
+            logger.warn("Failed to register the MBean of the PNP server executor", e);
+        }
+    }
+
     /** Sends a call to a remote PNP server.
      *
      * @param uri The URI of the recipient
@@ -153,6 +178,17 @@ public class PNPAgent {
      * @throws PNPException If the call failed to execute successfully
      */
     public InputStream sendMsg(URI uri, PNPFrameCall msgReq) throws PNPException {
+        return getChannel(uri, msgReq.getHearthbeatPeriod()).sendMessage(msgReq);
+    }
+
+    /** Gets the channel connected to the PNP server of an URI
+     *
+     * @param uri The URI of the recipient
+     * @param heartbeat The heartbeat period of the channel
+     * @return The channel, opened if needed
+     * @throws PNPException If the channel cannot be opened
+     */
+    PNPClientChannel getChannel(URI uri, long heartbeat) throws PNPException {
         InetAddress address;
         InetAddress publicAddress = null;
         String publicAddressString;
@@ -189,7 +225,7 @@ public class PNPAgent {
         }
 
         int port = uri.getPort();
-        return sendMsg(address, publicAddress, port, publicPort, msgReq);
+        return channelCache.getChannel(address, publicAddress, port, publicPort, heartbeat);
     }
 
     /** Sends a call to a remote PNP server
@@ -413,6 +449,9 @@ public class PNPAgent {
         /** A reference on the channel cache to be able to remove ourself on channel close*/
         final private PNPClientChannelCache cache;
 
+        /** The ids of the values already sent through this channel, null if compact requests are disabled */
+        final private WireDictionary dictionary;
+
         /** Opens a client channel
          *
          * If an heartbeat period is specified then this method will block no longer than it.
@@ -423,6 +462,7 @@ public class PNPAgent {
             this.channelId = channelId;
             this.parking = new Parking(this.channelId, timer);
             this.cache = cache;
+            this.dictionary = PNPConfig.PA_PNP_COMPACT_REQUESTS.isTrue() ? new WireDictionary() : null;
             try {
                 createAndConnectSocket(bootstrap, channelId.addr, channelId.port, channelId.heartbeat);
             } catch (Exception e) {
@@ -514,10 +554,22 @@ public class PNPAgent {
             } else {
                 ParkingSlot slot = this.parking.enter(msg.getCallId());
                 channel.write(msg);
-                return slot.waitForResponse(msg.getServiceTimeout());
+                PNPServerExecutor executor = PNPServerExecutor.blockingCallStarted();
+                try {
+                    return slot.waitForResponse(msg.getServiceTimeout());
+                } finally {
+                    if (executor != null) {
+                        executor.blockingCallEnded();
+                    }
+                }
             }
         }
 
+        /** Returns the dictionary of the values sent through this channel, null if compact requests are disabled */
+        WireDictionary getWireDictionary() {
+            return this.dictionary;
+        }
+
         /** Set the response of a call & unblock the calling thread
          *
          * @param response the response of the call
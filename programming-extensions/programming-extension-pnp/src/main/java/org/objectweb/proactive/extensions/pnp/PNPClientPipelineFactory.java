@@ -41,6 +41,7 @@ import org.jboss.netty.util.Timer;
  * The client side pipeline factory
  * <ul>
  *  <li>A dedicated frame decoder (to avoid buffer copy)</li>
+ *  <li>A write coalescer if enabled</li>
  *  <li>A standard frame encoder</li>
  *  <li>A {@link PNPFrame} to bytebuffer encoder</li>
  *  <li>An idle state handler if tunnel auto-closing is enabled (by default)</li>
@@ -72,6 +73,11 @@ class PNPClientPipelineFactory implements ChannelPipelineFactory {
         //        p.addLast("pnpDecoder", new PNPClientFrameDecoder());
         p.addLast("pnpDecoder", new PNPClientFrameDecoder());
 
+        if (PNPConfig.PA_PNP_COALESCE_WRITES.getValue()) {
+            p.addLast(PNPWriteCoalescer.NAME,
+                      new PNPWriteCoalescer(PNPConfig.PA_PNP_COALESCE_WINDOW.getValue(),
+                                            PNPConfig.PA_PNP_COALESCE_BYTES.getValue()));
+        }
         p.addLast("frameEncoder", new LengthFieldPrepender(4));
         p.addLast("pnpEncoder", new PNPEncoder());
 
@@ -27,6 +27,7 @@ package org.objectweb.proactive.extensions.pnp;
 
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.objectweb.proactive.core.config.PAProperties.PAPropertiesLoaderSPI;
+import org.objectweb.proactive.core.config.PAPropertyBoolean;
 import org.objectweb.proactive.core.config.PAPropertyInteger;
 
 
@@ -116,6 +117,79 @@ final public class PNPConfig implements PAPropertiesLoaderSPI {
                                                                                       false,
                                                                                       600 * 1000);
 
+    /**
+     * Enables write coalescing
+     *
+     * When enabled, the frames written on a channel while the socket is busy are queued and
+     * written as a single buffer. It reduces the number of syscalls when many small calls
+     * are concurrently sent through the same channel. An idle channel is not delayed.
+     */
+    static final public PAPropertyBoolean PA_PNP_COALESCE_WRITES = new PAPropertyBoolean("proactive.pnp.coalesce_writes",
+                                                                                         false,
+                                                                                         false);
+
+    /**
+     * Write coalescing window (in milliseconds)
+     *
+     * Only used if write coalescing is enabled. If greater than 0, frames are held back up to this
+     * delay to be batched with the following ones, even if the socket is ready. It trades latency
+     * for throughput. If set to 0, frames are only held back while the previous batch is being written.
+     */
+    static final public PAPropertyInteger PA_PNP_COALESCE_WINDOW = new PAPropertyInteger("proactive.pnp.coalesce_window",
+                                                                                         false,
+                                                                                         0);
+
+    /**
+     * Write coalescing byte budget
+     *
+     * Only used if write coalescing is enabled. Queued frames are written as soon as their total size
+     * reaches this amount of bytes.
+     */
+    static final public PAPropertyInteger PA_PNP_COALESCE_BYTES = new PAPropertyInteger("proactive.pnp.coalesce_bytes",
+                                                                                        false,
+                                                                                        64 * 1024);
+
+    /**
+     * Maximum number of threads running the incoming calls
+     *
+     * By default (0) a new thread is created for each concurrent incoming call. A burst of calls
+     * from many clients can then create thousands of threads. If set, the extra calls are queued.
+     */
+    static final public PAPropertyInteger PA_PNP_SERVER_THREADS = new PAPropertyInteger("proactive.pnp.server_threads",
+                                                                                        false,
+                                                                                        0);
+
+    /**
+     * Maximum number of queued incoming calls
+     *
+     * Only used if proactive.pnp.server_threads is set. Calls received while the queue is full are
+     * rejected and the caller receives an exception. 0 means unbounded.
+     */
+    static final public PAPropertyInteger PA_PNP_SERVER_QUEUE_SIZE = new PAPropertyInteger("proactive.pnp.server_queue_size",
+                                                                                           false,
+                                                                                           10000);
+
+    /**
+     * Maximum number of in-flight incoming calls per channel
+     *
+     * When a channel reaches this limit, its reads are suspended until one of its calls completes.
+     * Heartbeats are still sent to the client meanwhile. 0 means unbounded.
+     */
+    static final public PAPropertyInteger PA_PNP_MAX_CALLS_PER_CHANNEL = new PAPropertyInteger("proactive.pnp.max_calls_per_channel",
+                                                                                               false,
+                                                                                               0);
+
+    /**
+     * Enables the compact encoding of requests
+     *
+     * When enabled, the method signatures, method names, body ids and sender references sent
+     * through a channel are replaced by small integer ids once the server knows them. Servers
+     * always understand this encoding, this property only affects the calls sent by this runtime.
+     */
+    static final public PAPropertyBoolean PA_PNP_COMPACT_REQUESTS = new PAPropertyBoolean("proactive.pnp.compact_requests",
+                                                                                          false,
+                                                                                          false);
+
     private int port;
 
     private int publicPort;
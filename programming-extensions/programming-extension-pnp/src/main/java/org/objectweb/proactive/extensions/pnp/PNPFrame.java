@@ -25,10 +25,15 @@
  */
 package org.objectweb.proactive.extensions.pnp;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferOutputStream;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.objectweb.proactive.core.util.converter.remote.ProActiveMarshaller;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.extensions.pnp.exception.PNPMalformedMessageException;
 
 
@@ -44,6 +49,15 @@ abstract class PNPFrame {
     /** Protocol version implemented by this class */
     static final int PROTOV1 = PNP_MAGIC_KEY << 4 | 1;
 
+    /** Smallest capacity of a payload buffer */
+    static final int PAYLOAD_INITIAL_SIZE = 1024;
+
+    /** Largest capacity a payload buffer is created with, larger payloads grow it */
+    static final int PAYLOAD_MAX_SIZE_HINT = 1024 * 1024;
+
+    /** Capacity of the next payload buffer, derived from the size of the last payload */
+    private static volatile int payloadSizeHint = PAYLOAD_INITIAL_SIZE;
+
     /** All the message types supported by the PNP protocol */
     /* ORDER MATTERS ! ordinal() is used to attribute an id to each message type */
     public enum MessageType {
@@ -218,6 +232,29 @@ abstract class PNPFrame {
         return out.toString();
     }
 
+    /** Serialize an object into a new payload buffer
+     *
+     * The object is written directly into the buffer which is then sent as is, without
+     * intermediate byte array nor final copy. The buffer is sized from the previous payload so
+     * that it seldom has to grow.
+     *
+     * @param marshaller
+     * 		the marshaller of the runtime
+     * @param o
+     * 		the object to serialize
+     * @param batch
+     * 		the wire dictionary batch of the message, can be null
+     */
+    static ChannelBuffer marshallPayload(ProActiveMarshaller marshaller, Object o, WireDictionary.Batch batch)
+            throws IOException {
+        ChannelBuffer payload = ChannelBuffers.dynamicBuffer(payloadSizeHint);
+        marshaller.marshallObject(o, batch, new ChannelBufferOutputStream(payload));
+
+        int size = payload.readableBytes();
+        payloadSizeHint = Math.max(PAYLOAD_INITIAL_SIZE, Math.min(size + (size >> 3), PAYLOAD_MAX_SIZE_HINT));
+        return payload;
+    }
+
     /** Construct a PNP message from a {@link ChannelBuffer}
      *
      * @param buf
@@ -181,6 +181,24 @@ class PNPFrameCall extends PNPFrame {
         this.payloadChannelBuffer = null;
     }
 
+    /**
+     * Create a {@link PNPFrameCall} whose payload has been serialized in a {@link ChannelBuffer},
+     * see {@link PNPFrame#marshallPayload}. The buffer is sent without copy.
+     *
+     * All the parameters must be non null
+     */
+    public PNPFrameCall(long callId, boolean oneWay, long hearthbeatPeriod, long serviceTimeout,
+            ChannelBuffer payload) {
+        super(PNPFrame.MessageType.CALL);
+
+        this.callId = callId;
+        this.oneWay = oneWay;
+        this.hearthbeatPeriod = hearthbeatPeriod;
+        this.serviceTimeout = serviceTimeout;
+        this.payload = null;
+        this.payloadChannelBuffer = payload;
+    }
+
     /**
      * Create a {@link PNPFrameCall} from a byte array
      *
@@ -297,6 +315,9 @@ class PNPFrameCall extends PNPFrame {
                                    header,
                                    PNPFrame.Field.getTotalOffset() + Field.SERVICE_TIMEOUT.getOffset());
 
+        if (this.payload == null) {
+            return ChannelBuffers.wrappedBuffer(ChannelBuffers.wrappedBuffer(header), this.payloadChannelBuffer);
+        }
         return ChannelBuffers.wrappedBuffer(header, this.payload);
     }
 
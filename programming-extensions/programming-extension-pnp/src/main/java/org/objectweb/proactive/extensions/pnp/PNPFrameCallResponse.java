@@ -155,6 +155,20 @@ class PNPFrameCallResponse extends PNPFrame {
         this.payloadChannelBuffer = null;
     }
 
+    /**
+     * Create a {@link PNPFrameCallResponse} whose payload has been serialized in a
+     * {@link ChannelBuffer}, see {@link PNPFrame#marshallPayload}. The buffer is sent without copy.
+     *
+     * All the parameters must be non null
+     */
+    protected PNPFrameCallResponse(long callId, ChannelBuffer payload) {
+        super(PNPFrame.MessageType.CALL_RESPONSE);
+
+        this.callId = callId;
+        this.payload = null;
+        this.payloadChannelBuffer = payload;
+    }
+
     /**
      * Create a {@link PNPFrameCall} from a byte array
      *
@@ -222,6 +236,9 @@ class PNPFrameCallResponse extends PNPFrame {
         super.writeHeader(header, 0);
         TypeHelper.longToByteArray(this.callId, header, PNPFrame.Field.getTotalOffset() + Field.CALL_ID.getOffset());
 
+        if (this.payload == null) {
+            return ChannelBuffers.wrappedBuffer(ChannelBuffers.wrappedBuffer(header), this.payloadChannelBuffer);
+        }
         return ChannelBuffers.wrappedBuffer(header, this.payload);
     }
 }
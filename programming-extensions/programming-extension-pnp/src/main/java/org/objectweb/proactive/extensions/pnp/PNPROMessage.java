@@ -31,10 +31,15 @@ import java.io.Serializable;
 import java.net.URI;
 
 import org.apache.log4j.Logger;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.objectweb.proactive.core.body.future.MethodCallResult;
 import org.objectweb.proactive.core.exceptions.IOException6;
+import org.objectweb.proactive.core.remoteobject.SynchronousReplyImpl;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
 import org.objectweb.proactive.core.util.converter.remote.ProActiveMarshaller;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.extensions.pnp.PNPAgent.PNPClientChannel;
 import org.objectweb.proactive.extensions.pnp.exception.PNPException;
 
 
@@ -88,20 +93,32 @@ abstract class PNPROMessage implements Serializable {
      * @throws PNPException if something bad happened when sending this message
      */
     public final void send() throws IOException {
-        final byte[] bytes;
+        // FIXME: Dynamic hearthbeat & service timeout
+        long heartbeatPeriod = PNPConfig.PA_PNP_DEFAULT_HEARTBEAT.getValue();
+
+        final PNPClientChannel channel;
+        try {
+            channel = agent.getChannel(uri, heartbeatPeriod);
+        } catch (PNPException e) {
+            throw new IOException6("Failed to send PNP message to " + this.uri, e);
+        }
+
+        // the values already known by the server are only sent as ids
+        WireDictionary dictionary = channel.getWireDictionary();
+        WireDictionary.Batch batch = (dictionary != null) ? dictionary.newBatch() : null;
+
+        final ChannelBuffer payload;
         try {
-            bytes = this.marshaller.marshallObject(this);
+            payload = PNPFrame.marshallPayload(this.marshaller, this, batch);
         } catch (IOException e) {
             throw new IOException6("Failed to marshall PNP message (dest=" + this.uri + ")", e);
         }
 
-        // FIXME: Dynamic hearthbeat & service timeout
-        long heartbeatPeriod = PNPConfig.PA_PNP_DEFAULT_HEARTBEAT.getValue();
-        PNPFrameCall msgReq = new PNPFrameCall(agent.getCallId(), isAsynchronous, heartbeatPeriod, 0L, bytes);
+        PNPFrameCall msgReq = new PNPFrameCall(agent.getCallId(), isAsynchronous, heartbeatPeriod, 0L, payload);
 
         final InputStream response;
         try {
-            response = agent.sendMsg(uri, msgReq);
+            response = channel.sendMessage(msgReq);
         } catch (PNPException e) {
             throw new IOException6("Failed to send PNP message to " + this.uri, e);
         }
@@ -114,6 +131,19 @@ abstract class PNPROMessage implements Serializable {
             } catch (ClassNotFoundException e) {
                 throw new IOException6("Failed to unmarshall PNP response from " + this.uri, e);
             }
+
+            if ((batch != null) && isProcessed(this.returnedObject)) {
+                batch.acknowledge();
+            }
+        }
+    }
+
+    /** Returns false if the server may have failed to read the message */
+    private static boolean isProcessed(Object response) {
+        if (response instanceof SynchronousReplyImpl) {
+            MethodCallResult result = ((SynchronousReplyImpl) response).getResult();
+            return (result == null) || (result.getException() == null);
         }
+        return true;
     }
 }
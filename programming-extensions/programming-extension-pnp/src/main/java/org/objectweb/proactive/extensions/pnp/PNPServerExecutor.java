@@ -0,0 +1,196 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.pnp;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.objectweb.proactive.utils.NamedThreadFactory;
+
+
+/** The executor running the incoming {@link PNPFrameCall}
+ *
+ * By default, a new thread is created for each concurrent call. If a maximum
+ * number of threads is set, extra calls wait in a bounded queue and are rejected
+ * when this queue is full.
+ *
+ * A call often performs nested PNP calls (to the local runtime or to a runtime
+ * calling back this one). To avoid deadlocks, a thread blocked on such a nested
+ * call does not count against the maximum number of threads.
+ *
+ * The per channel limit of in-flight calls is enforced by {@link PNPServerHandler}
+ * which suspends the reads of the channel. This class only keeps the statistics.
+ *
+ * @since ProActive 8.4.0
+ */
+class PNPServerExecutor implements Executor, PNPServerExecutorMBean {
+    /** The executor running the call handled by the current thread, if any */
+    static final private ThreadLocal<PNPServerExecutor> currentExecutor = new ThreadLocal<PNPServerExecutor>();
+
+    final private ThreadPoolExecutor pool;
+
+    final private int maxThreads;
+
+    /** Maximum number of in-flight calls per channel, 0 if unbounded */
+    final private int maxCallsPerChannel;
+
+    final private AtomicLong rejectedCalls = new AtomicLong();
+
+    final private AtomicInteger suspendedChannels = new AtomicInteger();
+
+    final private AtomicLong channelSuspensions = new AtomicLong();
+
+    /** The number of threads blocked on a nested call, guarded by this */
+    private int blockedThreads;
+
+    /**
+     * @param maxThreads the maximum number of threads, 0 for an unbounded pool
+     * @param queueSize the maximum number of queued calls when the pool is bounded, 0 for an unbounded queue
+     * @param maxCallsPerChannel the maximum number of in-flight calls per channel, 0 for no limit
+     */
+    public PNPServerExecutor(int maxThreads, int queueSize, int maxCallsPerChannel) {
+        this.maxThreads = Math.max(0, maxThreads);
+        this.maxCallsPerChannel = Math.max(0, maxCallsPerChannel);
+
+        NamedThreadFactory tf = new NamedThreadFactory("PNP request executor");
+        if (this.maxThreads == 0) {
+            this.pool = new ThreadPoolExecutor(0,
+                                               Integer.MAX_VALUE,
+                                               60L,
+                                               TimeUnit.SECONDS,
+                                               new SynchronousQueue<Runnable>(),
+                                               tf);
+        } else {
+            BlockingQueue<Runnable> queue = queueSize > 0 ? new LinkedBlockingQueue<Runnable>(queueSize)
+                                                          : new LinkedBlockingQueue<Runnable>();
+            this.pool = new ThreadPoolExecutor(this.maxThreads,
+                                               this.maxThreads,
+                                               60L,
+                                               TimeUnit.SECONDS,
+                                               queue,
+                                               tf);
+            this.pool.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    public PNPServerExecutor() {
+        this(PNPConfig.PA_PNP_SERVER_THREADS.getValue(),
+             PNPConfig.PA_PNP_SERVER_QUEUE_SIZE.getValue(),
+             PNPConfig.PA_PNP_MAX_CALLS_PER_CHANNEL.getValue());
+    }
+
+    public void execute(final Runnable command) {
+        try {
+            this.pool.execute(new Runnable() {
+                public void run() {
+                    currentExecutor.set(PNPServerExecutor.this);
+                    try {
+                        command.run();
+                    } finally {
+                        currentExecutor.remove();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.rejectedCalls.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /** Must be called before blocking on a nested PNP call
+     *
+     * @return the executor of the current thread which must be notified by {@link #blockingCallEnded()}
+     *         or null if the current thread does not handle a call
+     */
+    static PNPServerExecutor blockingCallStarted() {
+        PNPServerExecutor executor = currentExecutor.get();
+        if (executor != null && executor.maxThreads > 0) {
+            synchronized (executor) {
+                executor.blockedThreads++;
+                int size = executor.maxThreads + executor.blockedThreads;
+                executor.pool.setMaximumPoolSize(size);
+                executor.pool.setCorePoolSize(size);
+            }
+            return executor;
+        }
+        return null;
+    }
+
+    synchronized void blockingCallEnded() {
+        this.blockedThreads--;
+        int size = this.maxThreads + this.blockedThreads;
+        this.pool.setCorePoolSize(size);
+        this.pool.setMaximumPoolSize(size);
+    }
+
+    int getMaxCallsPerChannel() {
+        return this.maxCallsPerChannel;
+    }
+
+    void channelSuspended() {
+        this.suspendedChannels.incrementAndGet();
+        this.channelSuspensions.incrementAndGet();
+    }
+
+    void channelResumed() {
+        this.suspendedChannels.decrementAndGet();
+    }
+
+    public int getQueueDepth() {
+        return this.pool.getQueue().size();
+    }
+
+    public int getActiveThreads() {
+        return this.pool.getActiveCount();
+    }
+
+    public int getMaxThreads() {
+        return this.maxThreads;
+    }
+
+    synchronized public int getBlockedThreads() {
+        return this.blockedThreads;
+    }
+
+    public long getRejectedCalls() {
+        return this.rejectedCalls.get();
+    }
+
+    public int getSuspendedChannels() {
+        return this.suspendedChannels.get();
+    }
+
+    public long getChannelSuspensions() {
+        return this.channelSuspensions.get();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.pnp;
+
+/**
+ * MBean exposing the state of the executor running the incoming PNP calls.
+ *
+ * @since ProActive 8.4.0
+ */
+public interface PNPServerExecutorMBean {
+
+    /**
+     * Returns the number of calls waiting for a thread.
+     * @return The number of queued calls.
+     */
+    public int getQueueDepth();
+
+    /**
+     * Returns the number of threads currently running a call.
+     * @return The number of active threads.
+     */
+    public int getActiveThreads();
+
+    /**
+     * Returns the maximum number of threads, 0 if unbounded.
+     * @return The maximum number of threads.
+     */
+    public int getMaxThreads();
+
+    /**
+     * Returns the number of threads blocked on a nested call, they do not count against the maximum.
+     * @return The number of blocked threads.
+     */
+    public int getBlockedThreads();
+
+    /**
+     * Returns the number of calls rejected because the queue was full.
+     * @return The number of rejected calls.
+     */
+    public long getRejectedCalls();
+
+    /**
+     * Returns the number of channels whose reads are currently suspended.
+     * @return The number of suspended channels.
+     */
+    public int getSuspendedChannels();
+
+    /**
+     * Returns how many times a channel has been suspended.
+     * @return The number of channel suspensions.
+     */
+    public long getChannelSuspensions();
+}
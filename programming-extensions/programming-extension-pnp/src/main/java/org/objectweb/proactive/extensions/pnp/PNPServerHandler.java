@@ -25,10 +25,12 @@
  */
 package org.objectweb.proactive.extensions.pnp;
 
-import java.util.concurrent.Executor;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.*;
 import org.jboss.netty.util.Timeout;
 import org.jboss.netty.util.Timer;
@@ -38,6 +40,7 @@ import org.objectweb.proactive.core.remoteobject.SynchronousReplyImpl;
 import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
 import org.objectweb.proactive.core.util.converter.ProActiveObjectToByteConverter;
 import org.objectweb.proactive.core.util.converter.remote.ProActiveMarshaller;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.objectweb.proactive.extensions.pnp.exception.PNPException;
 
@@ -52,7 +55,14 @@ class PNPServerHandler extends SimpleChannelHandler {
 
     /** The executor to be used to run the {@link PNPROMessage} */
     // Requests must be handled in separate threads to avoid deadlock
-    final private Executor executor;
+    final private PNPServerExecutor executor;
+
+    // Cache coherence is ensured by method synchronization (see JMM)
+    /** The number of calls of this channel received but not yet answered */
+    private int inFlightCalls;
+
+    /** Are the reads of this channel suspended ? */
+    private boolean suspended;
 
     /** The object in charge of sending heartbeats to the client */
     private Heartbeater hearthbeater;
@@ -60,7 +70,10 @@ class PNPServerHandler extends SimpleChannelHandler {
     /** Serialization */
     final private ProActiveMarshaller marshaller;
 
-    public PNPServerHandler(Executor executor) {
+    /** The values defined by the previous calls of the client */
+    final private WireDictionary dictionary = new WireDictionary();
+
+    public PNPServerHandler(PNPServerExecutor executor) {
         this.executor = executor;
         String runtimeUrl = ProActiveRuntimeImpl.getProActiveRuntime().getURL();
         this.marshaller = new ProActiveMarshaller(runtimeUrl);
@@ -74,7 +87,66 @@ class PNPServerHandler extends SimpleChannelHandler {
         }
 
         PNPFrameCall msgReq = (PNPFrameCall) message;
-        executor.execute(new RequestExecutor(msgReq, e.getChannel(), hearthbeater, this.marshaller));
+        this.callEnter(e.getChannel());
+        try {
+            executor.execute(new RequestExecutor(msgReq,
+                                                 e.getChannel(),
+                                                 hearthbeater,
+                                                 this.marshaller,
+                                                 this.dictionary,
+                                                 this));
+        } catch (RejectedExecutionException ree) {
+            logger.warn("Rejected call #" + msgReq.getCallId() + " on " + e.getChannel() +
+                        ": the request executor is saturated");
+            this.callLeave(e.getChannel());
+            this.hearthbeater.clientLeave();
+            PNPException pe = new PNPException("Call rejected by the server: its request executor is saturated", ree);
+            sendErrorResponse(e.getChannel(), msgReq.getCallId(), pe);
+        }
+    }
+
+    /** Suspends the reads of the channel if it has too many in-flight calls */
+    synchronized private void callEnter(Channel channel) {
+        this.inFlightCalls++;
+
+        int max = this.executor.getMaxCallsPerChannel();
+        if (max > 0 && !this.suspended && this.inFlightCalls >= max) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Suspending the reads of " + channel + ", " + this.inFlightCalls + " calls in flight");
+            }
+            this.suspended = true;
+            this.executor.channelSuspended();
+            channel.setReadable(false);
+        }
+    }
+
+    /** Resumes the reads of the channel if it has been suspended and a call completed */
+    synchronized void callLeave(Channel channel) {
+        this.inFlightCalls--;
+
+        if (this.suspended && this.inFlightCalls < this.executor.getMaxCallsPerChannel()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Resuming the reads of " + channel);
+            }
+            this.suspended = false;
+            this.executor.channelResumed();
+            channel.setReadable(true);
+        }
+    }
+
+    private static void sendErrorResponse(final Channel channel, final long callId, PNPException e)
+            throws IOException {
+        SynchronousReplyImpl sr = new SynchronousReplyImpl(new MethodCallResult(null, e));
+        byte[] b = ProActiveObjectToByteConverter.ProActiveObjectStream.convert(sr);
+        PNPFrameCallResponse msgResp = new PNPFrameCallResponse(callId, b);
+        ChannelFuture cf = channel.write(msgResp);
+        cf.addListener(new ChannelFutureListener() {
+            public void operationComplete(ChannelFuture future) throws Exception {
+                if (!future.isSuccess()) {
+                    logger.info("Failed to send response to call  #" + callId + " on " + channel, future.getCause());
+                }
+            }
+        });
     }
 
     @Override
@@ -115,6 +187,13 @@ class PNPServerHandler extends SimpleChannelHandler {
             this.hearthbeater.cancel();
         }
 
+        synchronized (this) {
+            if (this.suspended) {
+                this.suspended = false;
+                this.executor.channelResumed();
+            }
+        }
+
         super.channelClosed(ctx, e);
         if (logger.isDebugEnabled()) {
             logger.debug("Channel closed " + e.getChannel());
@@ -250,12 +329,20 @@ class PNPServerHandler extends SimpleChannelHandler {
         /** Serialization */
         final private ProActiveMarshaller marshaller;
 
+        /** The dictionary of the channel */
+        final private WireDictionary dictionary;
+
+        /** The handler to notify when the handling is finished */
+        final private PNPServerHandler handler;
+
         public RequestExecutor(PNPFrameCall req, Channel channel, Heartbeater hearthbeater,
-                ProActiveMarshaller marshaller) {
+                ProActiveMarshaller marshaller, WireDictionary dictionary, PNPServerHandler handler) {
             this.req = req;
             this.channel = channel;
             this.hearthbeater = hearthbeater;
             this.marshaller = marshaller;
+            this.dictionary = dictionary;
+            this.handler = handler;
         }
 
         public void run() {
@@ -274,7 +361,7 @@ class PNPServerHandler extends SimpleChannelHandler {
                 // Unmarshall the data
                 PNPROMessage pnpMessage = null;
                 try {
-                    pnpMessage = (PNPROMessage) marshaller.unmarshallObject(req.getPayload());
+                    pnpMessage = (PNPROMessage) marshaller.unmarshallObject(req.getPayload(), this.dictionary);
                 } catch (Throwable t) {
                     // Sends a response call
                     PNPException e = new PNPException("Failed to unmarshall incoming message", t);
@@ -295,9 +382,9 @@ class PNPServerHandler extends SimpleChannelHandler {
 
                 Object result = pnpMessage.processMessage();
 
-                byte[] resultBytes = null;
+                ChannelBuffer resultBytes = null;
                 try {
-                    resultBytes = this.marshaller.marshallObject(result);
+                    resultBytes = PNPFrame.marshallPayload(this.marshaller, result, null);
                 } catch (Throwable t) {
                     // Sends a response call
                     PNPException e = new PNPException("Failed to marshall the result bytes", t);
@@ -330,6 +417,7 @@ class PNPServerHandler extends SimpleChannelHandler {
                 logger.info("BPN call handling failed", ex);
             } finally {
                 Thread.currentThread().setContextClassLoader(savedClassLoader);
+                handler.callLeave(channel);
                 hearthbeater.clientLeave();
             }
         }
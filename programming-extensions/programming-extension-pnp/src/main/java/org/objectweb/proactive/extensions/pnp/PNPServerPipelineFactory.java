@@ -25,7 +25,6 @@
  */
 package org.objectweb.proactive.extensions.pnp;
 
-import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.netty.channel.ChannelHandler;
@@ -40,13 +39,13 @@ import org.objectweb.proactive.utils.NamedThreadFactory;
 
 class PNPServerPipelineFactory implements ChannelPipelineFactory {
     /** The thread pool to be used to execute {@link PNPROMessage} */
-    final private Executor executor;
+    final private PNPServerExecutor executor;
 
     final private Timer timer;
 
     final private PNPExtraHandlers extraHandlers;
 
-    public PNPServerPipelineFactory(PNPExtraHandlers extraHandlers, Executor executor) {
+    public PNPServerPipelineFactory(PNPExtraHandlers extraHandlers, PNPServerExecutor executor) {
         this.extraHandlers = extraHandlers;
 
         this.executor = executor;
@@ -65,6 +64,11 @@ class PNPServerPipelineFactory implements ChannelPipelineFactory {
         }
 
         p.addLast("pnpDecoder", new PNPServerFrameDecoder(pnpServerHandler, timer));
+        if (PNPConfig.PA_PNP_COALESCE_WRITES.getValue()) {
+            p.addLast(PNPWriteCoalescer.NAME,
+                      new PNPWriteCoalescer(PNPConfig.PA_PNP_COALESCE_WINDOW.getValue(),
+                                            PNPConfig.PA_PNP_COALESCE_BYTES.getValue()));
+        }
         p.addLast("frameEncoder", new LengthFieldPrepender(4));
         p.addLast("pnpEncoder", new PNPEncoder());
         p.addLast(PNPServerHandler.NAME, pnpServerHandler);
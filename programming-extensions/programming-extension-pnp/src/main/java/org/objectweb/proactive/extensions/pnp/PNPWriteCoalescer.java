@@ -0,0 +1,232 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.pnp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelDownstreamHandler;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.Timer;
+import org.jboss.netty.util.TimerTask;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+
+
+/** Coalesces the frames written on a channel into larger writes
+ *
+ * Encoded frames are queued instead of being written one by one. The queue is
+ * flushed as a single write when:
+ * <ul>
+ *  <li>the I/O thread of the channel picks it up (if no window is configured)</li>
+ *  <li>the coalescing window expired</li>
+ *  <li>the byte budget is reached</li>
+ * </ul>
+ *
+ * Without window, a frame is not delayed more than a regular write (which is
+ * also handed over to the I/O thread) but all the frames submitted meanwhile
+ * end up in the same syscall. The decoders already handle several frames per read.
+ *
+ * This handler must be placed between the frame encoder and the socket and
+ * holds a per channel state: it cannot be shared.
+ *
+ * @since ProActive 8.4.0
+ */
+class PNPWriteCoalescer extends SimpleChannelDownstreamHandler {
+    static final private Logger logger = ProActiveLogger.getLogger(PNPConfig.Loggers.PNP_CODEC);
+
+    /** The name of this handler */
+    final static String NAME = "writeCoalescer";
+
+    /** How long a frame can be held back (in milliseconds), 0 means until the I/O thread is available */
+    final private long window;
+
+    /** A batch is written as soon as this amount of bytes is queued */
+    final private int maxBytes;
+
+    /** Queued write requests, guarded by this */
+    private List<MessageEvent> pending = new ArrayList<MessageEvent>();
+
+    private int pendingBytes = 0;
+
+    /** True if a flush has been submitted to the I/O thread */
+    private boolean flushScheduled = false;
+
+    private Timeout flushTimeout;
+
+    private ChannelHandlerContext ctx;
+
+    public PNPWriteCoalescer(long window, int maxBytes) {
+        this.window = window;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+        synchronized (this) {
+            this.ctx = ctx;
+            if (!(e.getMessage() instanceof ChannelBuffer)) {
+                // Keep the ordering of the writes
+                flush();
+                ctx.sendDownstream(e);
+                return;
+            }
+
+            this.pending.add(e);
+            this.pendingBytes += ((ChannelBuffer) e.getMessage()).readableBytes();
+            this.tryFlush();
+        }
+    }
+
+    @Override
+    public void closeRequested(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        this.flushAndCancel();
+        super.closeRequested(ctx, e);
+    }
+
+    @Override
+    public void disconnectRequested(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        this.flushAndCancel();
+        super.disconnectRequested(ctx, e);
+    }
+
+    synchronized private void flushAndCancel() {
+        if (this.flushTimeout != null) {
+            this.flushTimeout.cancel();
+            this.flushTimeout = null;
+        }
+        this.flush();
+    }
+
+    /** Writes the queue if one of the conditions is met, or schedule a timed flush */
+    synchronized private void tryFlush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        if (this.pendingBytes >= this.maxBytes) {
+            this.flush();
+        } else if (this.window <= 0) {
+            if (!this.flushScheduled) {
+                this.flushScheduled = true;
+                this.ctx.getPipeline().execute(new Runnable() {
+                    public void run() {
+                        synchronized (PNPWriteCoalescer.this) {
+                            flushScheduled = false;
+                            flush();
+                        }
+                    }
+                });
+            }
+        } else if (this.flushTimeout == null) {
+            this.flushTimeout = TimerHolder.TIMER.newTimeout(new TimerTask() {
+                public void run(Timeout timeout) throws Exception {
+                    synchronized (PNPWriteCoalescer.this) {
+                        flushTimeout = null;
+                        flush();
+                    }
+                }
+            }, this.window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Writes all the queued frames as a single buffer
+     *
+     * Writes are issued with the lock held to preserve the ordering of the frames.
+     */
+    synchronized private void flush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        final List<MessageEvent> batch = this.pending;
+        this.pending = new ArrayList<MessageEvent>();
+        this.pendingBytes = 0;
+
+        if (batch.size() == 1) {
+            // Nothing to coalesce, avoid the extra future
+            this.ctx.sendDownstream(batch.get(0));
+            return;
+        }
+
+        ChannelBuffer[] buffers = new ChannelBuffer[batch.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = (ChannelBuffer) batch.get(i).getMessage();
+        }
+
+        if (logger.isTraceEnabled()) {
+            logger.trace("Coalesced " + buffers.length + " frames into a single write on " + ctx.getChannel());
+        }
+
+        ChannelFuture future = Channels.future(ctx.getChannel());
+        future.addListener(new BatchListener(batch));
+        Channels.write(ctx, future, ChannelBuffers.wrappedBuffer(buffers), batch.get(0).getRemoteAddress());
+    }
+
+    /** Used to flush the queues when the window expires
+     *
+     * The timers of the pipelines are too coarse for a window of a few milliseconds.
+     * Lazily created since it is only needed if a window is configured.
+     */
+    private static class TimerHolder {
+        static final Timer TIMER = new HashedWheelTimer(new NamedThreadFactory("PNP write coalescing timer (shared)",
+                                                                               true),
+                                                        1,
+                                                        TimeUnit.MILLISECONDS);
+    }
+
+    /** Notifies the write requests of a batch */
+    private static class BatchListener implements ChannelFutureListener {
+        final private List<MessageEvent> batch;
+
+        BatchListener(List<MessageEvent> batch) {
+            this.batch = batch;
+        }
+
+        public void operationComplete(ChannelFuture future) throws Exception {
+            for (MessageEvent e : this.batch) {
+                if (future.isSuccess()) {
+                    e.getFuture().setSuccess();
+                } else if (future.isCancelled()) {
+                    e.getFuture().cancel();
+                } else {
+                    e.getFuture().setFailure(future.getCause());
+                }
+            }
+        }
+    }
+}
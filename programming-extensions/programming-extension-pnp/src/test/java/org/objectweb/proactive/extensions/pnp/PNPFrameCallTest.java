@@ -0,0 +1,68 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.pnp;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class PNPFrameCallTest {
+
+    @Test
+    public void testChannelBufferPayloadIsSentAsIs() throws IOException {
+        byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        // a dynamic buffer larger than its content, as filled by the marshaller
+        ChannelBuffer payload = ChannelBuffers.dynamicBuffer(PNPFrame.PAYLOAD_INITIAL_SIZE);
+        payload.writeBytes(data);
+
+        EncoderEmbedder<ChannelBuffer> encoder = new EncoderEmbedder<ChannelBuffer>(new LengthFieldPrepender(4),
+                                                                                    new PNPEncoder());
+        encoder.offer(new PNPFrameCall(42, false, 0, 0, payload));
+
+        DecoderEmbedder<PNPFrame> decoder = new DecoderEmbedder<PNPFrame>(new PNPClientFrameDecoder());
+        decoder.offer(encoder.poll());
+        PNPFrameCall call = (PNPFrameCall) decoder.poll();
+        Assert.assertNotNull(call);
+        Assert.assertEquals(42, call.getCallId());
+
+        byte[] received = new byte[data.length];
+        DataInputStream in = new DataInputStream(call.getPayload());
+        in.readFully(received);
+        Assert.assertArrayEquals(data, received);
+        Assert.assertEquals(-1, in.read());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.pnp;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class PNPServerExecutorTest {
+
+    private Runnable await(final CountDownLatch started, final CountDownLatch latch) {
+        return new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testRejectedWhenQueueIsFull() throws InterruptedException {
+        PNPServerExecutor executor = new PNPServerExecutor(1, 1, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        executor.execute(await(started, latch));
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        executor.execute(await(new CountDownLatch(1), latch));
+        Assert.assertEquals(1, executor.getQueueDepth());
+
+        try {
+            executor.execute(await(new CountDownLatch(1), latch));
+            Assert.fail("The call should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        Assert.assertEquals(1, executor.getRejectedCalls());
+        latch.countDown();
+    }
+
+    @Test
+    public void testBlockedThreadDoesNotCount() throws InterruptedException {
+        final PNPServerExecutor executor = new PNPServerExecutor(1, 10, 0);
+        final CountDownLatch nestedCallDone = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        // Simulates a call performing a nested call which is handled by the same executor
+        executor.execute(new Runnable() {
+            public void run() {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        nestedCallDone.countDown();
+                    }
+                });
+
+                PNPServerExecutor blocked = PNPServerExecutor.blockingCallStarted();
+                try {
+                    Assert.assertSame(executor, blocked);
+                    nestedCallDone.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    blocked.blockingCallEnded();
+                }
+                done.countDown();
+            }
+        });
+
+        Assert.assertTrue("The nested call should not wait for the blocked thread",
+                          done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, nestedCallDone.getCount());
+        Assert.assertEquals(0, executor.getBlockedThreads());
+        Assert.assertNull(PNPServerExecutor.blockingCallStarted());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.pnp;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class PNPWriteCoalescerTest {
+
+    private EncoderEmbedder<ChannelBuffer> encoder(long window, int maxBytes) {
+        return new EncoderEmbedder<ChannelBuffer>(new PNPWriteCoalescer(window, maxBytes),
+                                                  new LengthFieldPrepender(4),
+                                                  new PNPEncoder());
+    }
+
+    private PNPFrameCall frame(long callId) {
+        return new PNPFrameCall(callId, true, 0, 0, new byte[] { 1, 2, 3 });
+    }
+
+    @Test
+    public void testIdleChannelIsNotDelayed() {
+        EncoderEmbedder<ChannelBuffer> embedder = encoder(0, 64 * 1024);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue("frame should be written immediately", embedder.offer(frame(i)));
+        }
+        Assert.assertEquals(3, embedder.size());
+    }
+
+    @Test
+    public void testWindowCoalescesFrames() throws InterruptedException {
+        EncoderEmbedder<ChannelBuffer> embedder = encoder(100, 64 * 1024);
+        for (int i = 0; i < 3; i++) {
+            embedder.offer(frame(i));
+        }
+        Assert.assertNull("frames should be held back", embedder.peek());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (embedder.peek() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("frames should be written as a single buffer", 1, embedder.size());
+
+        DecoderEmbedder<PNPFrame> decoder = new DecoderEmbedder<PNPFrame>(new PNPClientFrameDecoder());
+        decoder.offer(embedder.poll());
+        for (int i = 0; i < 3; i++) {
+            PNPFrameCall call = (PNPFrameCall) decoder.poll();
+            Assert.assertNotNull("frame " + i + " should be decoded", call);
+            Assert.assertEquals(i, call.getCallId());
+        }
+        Assert.assertNull(decoder.poll());
+    }
+
+    @Test
+    public void testByteBudgetFlushes() {
+        EncoderEmbedder<ChannelBuffer> embedder = encoder(60 * 1000, 1);
+        Assert.assertTrue("budget reached, frame should be written immediately", embedder.offer(frame(0)));
+    }
+}
@@ -27,6 +27,8 @@ package org.objectweb.proactive.extensions.vfsprovider.client;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.LinkedList;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,12 +40,63 @@ import org.objectweb.proactive.extensions.vfsprovider.protocol.FileSystemServer;
 
 /**
  * Generic adapter of remotely accessed {@link FileSystemServer} to {@link InputStream} class.
+ * <p>
+ * By default each read is sent synchronously to the server. When created with a read-ahead
+ * window, the adapter requests fixed size blocks from the server in the background, keeping up to
+ * the given number of blocks ready ahead of the reader, and serves reads from these blocks. In
+ * that mode {@link #notifyBytesRead(long)} reports the bytes transferred from the server rather
+ * than the bytes returned to the reader, so that it keeps matching the server side stream position.
  */
 abstract class AbstractProActiveInputStreamAdapter extends InputStream {
     private static final Log log = LogFactory.getLog(AbstractProActiveInputStreamAdapter.class);
 
     private final byte[] SINGLE_BYTE_BUF = new byte[1];
 
+    private final int readAheadBlocks;
+
+    private final int blockSize;
+
+    // block being consumed by the reader, guarded by this
+    private byte[] current;
+
+    private int currentPosition;
+
+    // blocks fetched ahead, shared with the fetcher and guarded by itself
+    private final LinkedList<byte[]> blocks = new LinkedList<byte[]>();
+
+    private boolean fetching;
+
+    private boolean fetchingSuspended;
+
+    private boolean endOfStream;
+
+    private IOException fetchError;
+
+    private final Runnable fetcher = new Runnable() {
+        public void run() {
+            fetchBlocks();
+        }
+    };
+
+    protected AbstractProActiveInputStreamAdapter() {
+        this(0, 0);
+    }
+
+    /**
+     * @param readAheadBlocks
+     *            number of blocks to request ahead of the reader, 0 to send each read
+     *            synchronously
+     * @param blockSize
+     *            size of blocks requested ahead, in bytes
+     */
+    protected AbstractProActiveInputStreamAdapter(int readAheadBlocks, int blockSize) {
+        if (readAheadBlocks > 0 && blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.readAheadBlocks = readAheadBlocks;
+        this.blockSize = blockSize;
+    }
+
     @Override
     public synchronized int read(byte[] b, int off, int len) throws IOException {
         if (b == null) {
@@ -54,20 +107,11 @@ abstract class AbstractProActiveInputStreamAdapter extends InputStream {
             return 0;
         }
 
-        byte result[];
-        try {
-            try {
-                result = getServer().streamRead(getStreamId(), len);
-            } catch (StreamNotFoundException e) {
-                reopenStream();
-                result = getServer().streamRead(getStreamId(), len);
-            }
-        } catch (WrongStreamTypeException e) {
-            throw Utils.generateAndLogIOExceptionWrongStreamType(log, e);
-        } catch (StreamNotFoundException e) {
-            throw Utils.generateAndLogIOExceptionStreamNotFound(log, e);
+        if (readAheadBlocks > 0) {
+            return readFromBlocks(b, off, len);
         }
 
+        final byte result[] = readFromServer(len);
         if (result == null) {
             return -1;
         }
@@ -90,6 +134,230 @@ abstract class AbstractProActiveInputStreamAdapter extends InputStream {
             return 0;
         }
 
+        if (readAheadBlocks == 0) {
+            return skipOnServer(n);
+        }
+
+        // the server side position must not move while skipping
+        suspendReadAhead();
+        try {
+            final long skippedBytes = skipBufferedBytes(n);
+            if (skippedBytes == n || isEndOfStream()) {
+                return skippedBytes;
+            }
+            return skippedBytes + skipOnServer(n - skippedBytes);
+        } finally {
+            resumeReadAhead();
+        }
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        if (readAheadBlocks == 0) {
+            return 0;
+        }
+        long available = current == null ? 0 : current.length - currentPosition;
+        synchronized (blocks) {
+            for (byte[] block : blocks) {
+                available += block.length;
+            }
+        }
+        return (int) Math.min(available, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stops the read-ahead of this stream and discards the blocks read ahead, waiting for a block
+     * request in progress to complete. To be called by implementations before closing the stream
+     * on the server.
+     */
+    protected void cancelReadAhead() {
+        if (readAheadBlocks == 0) {
+            return;
+        }
+        synchronized (blocks) {
+            fetchingSuspended = true;
+            // nothing more can be read, and the fetcher will not be restarted
+            endOfStream = true;
+            waitForFetcher();
+            blocks.clear();
+        }
+    }
+
+    private int readFromBlocks(byte[] b, int off, int len) throws IOException {
+        int copied = 0;
+        while (copied < len) {
+            if (current == null || currentPosition == current.length) {
+                // block for the first bytes only, then return what is already available
+                current = copied == 0 ? takeBlock() : pollBlock();
+                currentPosition = 0;
+                if (current == null) {
+                    break;
+                }
+            }
+            final int count = Math.min(len - copied, current.length - currentPosition);
+            System.arraycopy(current, currentPosition, b, off + copied, count);
+            currentPosition += count;
+            copied += count;
+        }
+        return copied == 0 ? -1 : copied;
+    }
+
+    private byte[] takeBlock() throws IOException {
+        synchronized (blocks) {
+            while (blocks.isEmpty() && !endOfStream && fetchError == null) {
+                startFetcher();
+                try {
+                    blocks.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a block read ahead");
+                }
+            }
+            if (!blocks.isEmpty()) {
+                final byte[] block = blocks.removeFirst();
+                startFetcher();
+                return block;
+            }
+            if (fetchError != null) {
+                throw fetchError;
+            }
+            return null;
+        }
+    }
+
+    private byte[] pollBlock() {
+        synchronized (blocks) {
+            if (blocks.isEmpty()) {
+                return null;
+            }
+            final byte[] block = blocks.removeFirst();
+            startFetcher();
+            return block;
+        }
+    }
+
+    private long skipBufferedBytes(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (current == null || currentPosition == current.length) {
+                current = pollBlock();
+                currentPosition = 0;
+                if (current == null) {
+                    synchronized (blocks) {
+                        if (fetchError != null) {
+                            throw fetchError;
+                        }
+                    }
+                    break;
+                }
+            }
+            final int count = (int) Math.min(n - skipped, current.length - currentPosition);
+            currentPosition += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    private boolean isEndOfStream() {
+        synchronized (blocks) {
+            return endOfStream;
+        }
+    }
+
+    private void suspendReadAhead() {
+        synchronized (blocks) {
+            fetchingSuspended = true;
+            waitForFetcher();
+        }
+    }
+
+    private void resumeReadAhead() {
+        synchronized (blocks) {
+            fetchingSuspended = false;
+        }
+    }
+
+    // must be called with the blocks lock held
+    private void startFetcher() {
+        if (!fetching && !fetchingSuspended && !endOfStream && fetchError == null &&
+            blocks.size() < readAheadBlocks) {
+            fetching = true;
+            StreamPipelining.getExecutor().execute(fetcher);
+        }
+    }
+
+    // must be called with the blocks lock held
+    private void waitForFetcher() {
+        boolean interrupted = false;
+        while (fetching) {
+            try {
+                blocks.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fetchBlocks() {
+        while (true) {
+            synchronized (blocks) {
+                if (fetchingSuspended || endOfStream || blocks.size() >= readAheadBlocks) {
+                    fetching = false;
+                    blocks.notifyAll();
+                    return;
+                }
+            }
+
+            byte[] block = null;
+            IOException error = null;
+            try {
+                block = readFromServer(blockSize);
+                if (block != null) {
+                    notifyBytesRead(block.length);
+                }
+            } catch (IOException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                log.error("Could not read ahead from file server", e);
+                error = new IOException("Could not read ahead from file server", e);
+            }
+
+            synchronized (blocks) {
+                if (error != null) {
+                    fetchError = error;
+                } else if (block == null) {
+                    endOfStream = true;
+                } else {
+                    blocks.addLast(block);
+                }
+                blocks.notifyAll();
+                if (error != null) {
+                    fetching = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    private byte[] readFromServer(int len) throws IOException {
+        try {
+            try {
+                return getServer().streamRead(getStreamId(), len);
+            } catch (StreamNotFoundException e) {
+                reopenStream();
+                return getServer().streamRead(getStreamId(), len);
+            }
+        } catch (WrongStreamTypeException e) {
+            throw Utils.generateAndLogIOExceptionWrongStreamType(log, e);
+        } catch (StreamNotFoundException e) {
+            throw Utils.generateAndLogIOExceptionStreamNotFound(log, e);
+        }
+    }
+
+    private long skipOnServer(long n) throws IOException {
         try {
             long skippedBytes;
             try {
@@ -26,7 +26,9 @@
 package org.objectweb.proactive.extensions.vfsprovider.client;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.LinkedList;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,12 +40,60 @@ import org.objectweb.proactive.extensions.vfsprovider.protocol.FileSystemServer;
 
 /**
  * Generic adapter of remotely accessed {@link FileSystemServer} to {@link OutputStream} class.
+ * <p>
+ * By default each write is sent synchronously to the server. When created with a write-behind
+ * window, written bytes are gathered into fixed size blocks that are sent to the server in the
+ * background, the writer blocking only when the given number of blocks is already in flight. A
+ * failure to send a block is reported by the next call to write, {@link #flush()} or
+ * {@link #completeWriteBehind()}. In that mode {@link #notifyBytesWritten(long)} is called once a
+ * block has been written on the server.
  */
 abstract class AbstractProActiveOutputStreamAdapter extends OutputStream {
     private static final Log log = LogFactory.getLog(AbstractProActiveOutputStreamAdapter.class);
 
     private final byte[] SINGLE_BYTE_BUF = new byte[1];
 
+    private final int writeBehindBlocks;
+
+    private final int blockSize;
+
+    // block being filled by the writer, guarded by this
+    private byte[] current;
+
+    private int currentCount;
+
+    // blocks waiting to be sent or being sent, shared with the sender and guarded by itself
+    private final LinkedList<byte[]> pending = new LinkedList<byte[]>();
+
+    private boolean sending;
+
+    private IOException sendError;
+
+    private final Runnable sender = new Runnable() {
+        public void run() {
+            sendBlocks();
+        }
+    };
+
+    protected AbstractProActiveOutputStreamAdapter() {
+        this(0, 0);
+    }
+
+    /**
+     * @param writeBehindBlocks
+     *            maximum number of blocks in flight to the server, 0 to send each write
+     *            synchronously
+     * @param blockSize
+     *            size of blocks sent to the server, in bytes
+     */
+    protected AbstractProActiveOutputStreamAdapter(int writeBehindBlocks, int blockSize) {
+        if (writeBehindBlocks > 0 && blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.writeBehindBlocks = writeBehindBlocks;
+        this.blockSize = blockSize;
+    }
+
     @Override
     public synchronized void write(byte[] b, int off, int len) throws IOException {
         if (b == null) {
@@ -54,6 +104,11 @@ abstract class AbstractProActiveOutputStreamAdapter extends OutputStream {
             return;
         }
 
+        if (writeBehindBlocks > 0) {
+            writeToBlocks(b, off, len);
+            return;
+        }
+
         final byte bytesToSent[];
         if (off != 0 || len != b.length) {
             bytesToSent = new byte[len];
@@ -61,20 +116,8 @@ abstract class AbstractProActiveOutputStreamAdapter extends OutputStream {
         } else {
             bytesToSent = b;
         }
-
-        try {
-            try {
-                getServer().streamWrite(getStreamId(), bytesToSent);
-            } catch (StreamNotFoundException e) {
-                reopenStream();
-                getServer().streamWrite(getStreamId(), bytesToSent);
-            }
-            notifyBytesWritten(bytesToSent.length);
-        } catch (WrongStreamTypeException e) {
-            throw Utils.generateAndLogIOExceptionWrongStreamType(log, e);
-        } catch (StreamNotFoundException e) {
-            throw Utils.generateAndLogIOExceptionStreamNotFound(log, e);
-        }
+        writeToServer(bytesToSent);
+        notifyBytesWritten(bytesToSent.length);
     }
 
     @Override
@@ -85,6 +128,7 @@ abstract class AbstractProActiveOutputStreamAdapter extends OutputStream {
 
     @Override
     public synchronized void flush() throws IOException {
+        completeWriteBehind();
         try {
             getServer().streamFlush(getStreamId());
         } catch (WrongStreamTypeException e) {
@@ -96,6 +140,144 @@ abstract class AbstractProActiveOutputStreamAdapter extends OutputStream {
         }
     }
 
+    /**
+     * Sends the bytes buffered for write-behind and waits until all of them are written on the
+     * server. To be called by implementations before closing the stream on the server.
+     *
+     * @throws IOException
+     *             if some block could not be written
+     */
+    protected synchronized void completeWriteBehind() throws IOException {
+        if (writeBehindBlocks == 0) {
+            return;
+        }
+        if (currentCount > 0) {
+            final byte[] block;
+            if (currentCount == current.length) {
+                block = current;
+            } else {
+                block = new byte[currentCount];
+                System.arraycopy(current, 0, block, 0, currentCount);
+            }
+            current = null;
+            currentCount = 0;
+            enqueueBlock(block);
+        }
+        synchronized (pending) {
+            while (sending && sendError == null) {
+                waitForSender();
+            }
+            if (sendError != null) {
+                throw sendError;
+            }
+        }
+    }
+
+    private void writeToBlocks(byte[] b, int off, int len) throws IOException {
+        synchronized (pending) {
+            if (sendError != null) {
+                throw sendError;
+            }
+        }
+        while (len > 0) {
+            if (current == null) {
+                current = new byte[blockSize];
+                currentCount = 0;
+            }
+            final int count = Math.min(len, blockSize - currentCount);
+            System.arraycopy(b, off, current, currentCount, count);
+            currentCount += count;
+            off += count;
+            len -= count;
+            if (currentCount == blockSize) {
+                final byte[] block = current;
+                current = null;
+                currentCount = 0;
+                enqueueBlock(block);
+            }
+        }
+    }
+
+    private void enqueueBlock(byte[] block) throws IOException {
+        synchronized (pending) {
+            while (pending.size() >= writeBehindBlocks && sendError == null) {
+                waitForSender();
+            }
+            if (sendError != null) {
+                throw sendError;
+            }
+            pending.addLast(block);
+            if (!sending) {
+                sending = true;
+                StreamPipelining.getExecutor().execute(sender);
+            }
+        }
+    }
+
+    // must be called with the pending lock held
+    private void waitForSender() throws IOException {
+        try {
+            pending.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for blocks to be written");
+        }
+    }
+
+    private void sendBlocks() {
+        while (true) {
+            final byte[] block;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    sending = false;
+                    pending.notifyAll();
+                    return;
+                }
+                // stays in the window until written
+                block = pending.getFirst();
+            }
+
+            IOException error = null;
+            try {
+                writeToServer(block);
+                notifyBytesWritten(block.length);
+            } catch (IOException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                log.error("Could not write behind to file server", e);
+                error = new IOException("Could not write behind to file server", e);
+            }
+
+            synchronized (pending) {
+                if (error != null) {
+                    // the stream is broken, the following blocks are dropped
+                    sendError = error;
+                    pending.clear();
+                    sending = false;
+                    pending.notifyAll();
+                    return;
+                }
+                pending.removeFirst();
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private void writeToServer(byte[] bytesToSent) throws IOException {
+        try {
+            try {
+                getServer().streamWrite(getStreamId(), bytesToSent);
+            } catch (StreamNotFoundException e) {
+                reopenStream();
+                getServer().streamWrite(getStreamId(), bytesToSent);
+            }
+        } catch (WrongStreamTypeException e) {
+            throw Utils.generateAndLogIOExceptionWrongStreamType(log, e);
+        } catch (StreamNotFoundException e) {
+            throw Utils.generateAndLogIOExceptionStreamNotFound(log, e);
+        }
+    }
+
     protected abstract long getStreamId();
 
     protected abstract FileSystemServer getServer() throws FileSystemException;
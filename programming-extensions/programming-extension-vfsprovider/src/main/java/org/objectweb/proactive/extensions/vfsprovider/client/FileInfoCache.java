@@ -0,0 +1,223 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.vfsprovider.client;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.proactive.extensions.vfsprovider.protocol.FileInfo;
+
+
+/**
+ * Bounded cache of file metadata of one {@link ProActiveFileSystem}, keyed by decoded paths.
+ * <p>
+ * Entries expire after a fixed time to live; the least recently used ones are evicted when the
+ * cache is full. A missing file is cached as a <code>null</code> {@link FileInfo}, unless the
+ * cache is strict. Directory listings are cached as the set of their children names, the
+ * metadata of the children being cached separately.
+ * <p>
+ * This class is thread-safe.
+ */
+class FileInfoCache {
+    private final long timeToLiveMillis;
+
+    private final boolean strict;
+
+    private final Map<String, Entry<FileInfo>> infos;
+
+    private final Map<String, Entry<Set<String>>> listings;
+
+    private long hits;
+
+    private long misses;
+
+    private long invalidations;
+
+    /**
+     * @param maxEntries
+     *            maximum number of cached file metadata, and of cached directory listings
+     * @param timeToLiveMillis
+     *            time an entry stays valid, 0 disables the cache
+     * @param strict
+     *            whether missing files are not to be cached
+     */
+    FileInfoCache(final int maxEntries, long timeToLiveMillis, boolean strict) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.strict = strict;
+        this.infos = new LinkedHashMap<String, Entry<FileInfo>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<FileInfo>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.listings = new LinkedHashMap<String, Entry<Set<String>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<Set<String>>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return timeToLiveMillis > 0;
+    }
+
+    boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * @return cached entry for the file, holding <code>null</code> for a missing file, or
+     *         <code>null</code> if there is no valid entry
+     */
+    synchronized Entry<FileInfo> getInfo(String path) {
+        return lookup(infos, path);
+    }
+
+    synchronized void putInfo(String path, FileInfo info) {
+        if (!isEnabled() || (info == null && strict)) {
+            return;
+        }
+        infos.put(path, new Entry<FileInfo>(info, expiry()));
+    }
+
+    /**
+     * @return cached names of the children of the directory, or <code>null</code> if there is no
+     *         valid entry
+     */
+    synchronized Set<String> getListing(String path) {
+        final Entry<Set<String>> entry = lookup(listings, path);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Cache a directory listing, along with the metadata of the children.
+     */
+    synchronized void putListing(String path, Map<String, FileInfo> children) {
+        if (!isEnabled()) {
+            return;
+        }
+        final long expiry = expiry();
+        for (Map.Entry<String, FileInfo> child : children.entrySet()) {
+            infos.put(childPath(path, child.getKey()), new Entry<FileInfo>(child.getValue(), expiry));
+        }
+        listings.put(path,
+                     new Entry<Set<String>>(Collections.unmodifiableSet(new HashSet<String>(children.keySet())),
+                                            expiry));
+    }
+
+    /**
+     * Drop the entries of a file that has been changed locally, and the listing of its parent.
+     */
+    synchronized void invalidate(String path) {
+        if (!isEnabled()) {
+            return;
+        }
+        invalidations++;
+        infos.remove(path);
+        listings.remove(path);
+        listings.remove(parentPath(path));
+    }
+
+    /**
+     * Drop the entries of a file, without counting it as an invalidation.
+     */
+    synchronized void evict(String path) {
+        infos.remove(path);
+        listings.remove(path);
+    }
+
+    synchronized void invalidateListing(String path) {
+        if (!isEnabled()) {
+            return;
+        }
+        invalidations++;
+        listings.remove(path);
+    }
+
+    synchronized void clear() {
+        infos.clear();
+        listings.clear();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    static String childPath(String parent, String name) {
+        return parent.endsWith("/") ? parent + name : parent + '/' + name;
+    }
+
+    static String parentPath(String path) {
+        final int index = path.lastIndexOf('/');
+        return index <= 0 ? "/" : path.substring(0, index);
+    }
+
+    // must be called with this lock held
+    private <T> Entry<T> lookup(Map<String, Entry<T>> map, String path) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final Entry<T> entry = map.get(path);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiry < System.currentTimeMillis()) {
+            map.remove(path);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + timeToLiveMillis;
+    }
+
+    static final class Entry<T> {
+        final T value;
+
+        final long expiry;
+
+        private Entry(T value, long expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
 
+import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSelectInfo;
 import org.apache.commons.vfs2.FileSelector;
@@ -145,7 +146,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
     protected void doAttach() throws Exception {
         synchronized (proactiveFS) {
             if (fileInfo == null) {
-                fileInfo = getServer().fileGetInfo(getPath());
+                fileInfo = proactiveFS.getFileInfo(getPath());
                 if (fileInfo == null) {
                     fileInfo = IMAGINARY_FILE_INFO;
                 }
@@ -157,12 +158,14 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
     protected void doDetach() throws Exception {
         synchronized (proactiveFS) {
             fileInfo = null;
+            proactiveFS.refreshMetadata(getPath());
         }
     }
 
     @Override
     protected void onChange() throws Exception {
         synchronized (proactiveFS) {
+            proactiveFS.invalidateMetadata(getPath());
             if (isAttached()) {
                 doDetach();
                 doAttach();
@@ -170,6 +173,11 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
         }
     }
 
+    @Override
+    protected void onChildrenChanged(FileName child, FileType newType) throws Exception {
+        proactiveFS.invalidateListing(getPath());
+    }
+
     @Override
     protected long doGetContentSize() throws Exception {
         synchronized (proactiveFS) {
@@ -225,7 +233,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
 
     @Override
     protected String[] doListChildren() throws Exception {
-        final Set<String> files = getServer().fileListChildren(getPath());
+        final Set<String> files = proactiveFS.listChildren(getPath());
         if (files == null) {
             return null;
         }
@@ -241,7 +249,10 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
     @Override
     protected FileObject[] doListChildrenResolved() throws Exception {
 
-        Map<String, FileInfo> fileInfoMap = getServer().fileListChildrenInfo(getPath());
+        Map<String, FileInfo> fileInfoMap = proactiveFS.listChildrenInfo(getPath());
+        if (fileInfoMap == null) {
+            return null;
+        }
 
         ProActiveFileNameParser parser = ProActiveFileNameParser.getInstance();
 
@@ -306,6 +317,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
         synchronized (proactiveFS) {
             getServer().fileCreate(getPath(),
                                    org.objectweb.proactive.extensions.vfsprovider.protocol.FileType.DIRECTORY);
+            proactiveFS.invalidateMetadata(getPath());
         }
     }
 
@@ -313,6 +325,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
     protected void doDelete() throws Exception {
         synchronized (proactiveFS) {
             getServer().fileDelete(getPath(), false);
+            proactiveFS.invalidateMetadata(getPath());
         }
     }
 
@@ -326,7 +339,10 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
     @Override
     protected OutputStream doGetOutputStream(boolean append) throws Exception {
         synchronized (proactiveFS) {
-            return new MonitorOutputStream(new ProActiveOutputStream(append));
+            final OutputStream os = new MonitorOutputStream(new ProActiveOutputStream(append));
+            // the file may have been created or truncated
+            proactiveFS.invalidateMetadata(getPath());
+            return os;
         }
     }
 
@@ -343,6 +359,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
         private long streamId;
 
         public ProActiveInputStream() throws IOException {
+            super(StreamPipelining.getReadAheadBlocks(), StreamPipelining.getBlockSize());
             streamId = getServer().streamOpen(getPath(), StreamMode.SEQUENTIAL_READ);
         }
 
@@ -358,6 +375,12 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
 
         @Override
         public synchronized void close() throws IOException {
+            cancelReadAhead();
+            closeOnServer();
+        }
+
+        // may be called by the read-ahead thread, which close() waits for
+        private void closeOnServer() throws IOException {
             try {
                 getServer().streamClose(streamId);
             } catch (StreamNotFoundException e) {
@@ -378,7 +401,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
                 if (position > 0) {
                     final long skipped = getServer().streamSkip(streamId, position);
                     if (skipped != position) {
-                        close();
+                        closeOnServer();
                         throw new IOException("Could not skip proper number of bytes");
                     }
                 }
@@ -392,6 +415,7 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
         private long streamId;
 
         private ProActiveOutputStream(final boolean append) throws IOException {
+            super(StreamPipelining.getWriteBehindBlocks(), StreamPipelining.getBlockSize());
             final StreamMode mode = append ? StreamMode.SEQUENTIAL_APPEND : StreamMode.SEQUENTIAL_WRITE;
             streamId = getServer().streamOpen(getPath(), mode);
         }
@@ -409,9 +433,15 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
         @Override
         public synchronized void close() throws IOException {
             try {
-                getServer().streamClose(streamId);
-            } catch (StreamNotFoundException e) {
-                // ignore
+                completeWriteBehind();
+            } finally {
+                try {
+                    getServer().streamClose(streamId);
+                } catch (StreamNotFoundException e) {
+                    // ignore
+                } finally {
+                    proactiveFS.invalidateMetadata(getPath());
+                }
             }
         }
 
@@ -670,6 +700,10 @@ public class ProActiveFileObject extends AbstractFileObject<ProActiveFileSystem>
                     getServer().streamClose(streamId);
                 } catch (StreamNotFoundException e) {
                     // ignore
+                } finally {
+                    if (streamMode == StreamMode.RANDOM_ACCESS_READ_WRITE) {
+                        proactiveFS.invalidateMetadata(getPath());
+                    }
                 }
             }
         }
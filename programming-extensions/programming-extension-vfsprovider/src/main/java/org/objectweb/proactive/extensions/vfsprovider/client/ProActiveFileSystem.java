@@ -25,9 +25,12 @@
  */
 package org.objectweb.proactive.extensions.vfsprovider.client;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
@@ -37,21 +40,38 @@ import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileSystem;
 import org.objectweb.proactive.api.PARemoteObject;
 import org.objectweb.proactive.core.ProActiveException;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.extensions.vfsprovider.protocol.FileInfo;
 import org.objectweb.proactive.extensions.vfsprovider.protocol.FileSystemServer;
 
 
 /**
  * VFS FileSystem implementation - representation of connection with one remote
  * {@link FileSystemServer}.
+ * <p>
+ * When enabled, file metadata and directory listings obtained from the server are kept in a bounded
+ * cache for a configurable time, so that walking a tree does not cost a remote call per attribute
+ * access.
+ * Listing a directory fetches the metadata of all its children in one call. Entries are
+ * invalidated by the changes made through this file system; changes made by other clients are
+ * seen once entries expire.
  *
+ * @see CentralPAPropertyRepository#PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS
+ * @see CentralPAPropertyRepository#PA_VFSPROVIDER_CLIENT_METADATA_CACHE_SIZE
+ * @see CentralPAPropertyRepository#PA_VFSPROVIDER_CLIENT_METADATA_CACHE_STRICT
  * @see ProActiveFileProvider
  */
 public class ProActiveFileSystem extends AbstractFileSystem {
     private FileSystemServer server;
 
+    private final FileInfoCache metadataCache;
+
     protected ProActiveFileSystem(FileName rootName, FileSystemOptions fileSystemOptions) throws FileSystemException {
         super(rootName, null, fileSystemOptions);
         this.server = createServerStub();
+        this.metadataCache = new FileInfoCache(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_SIZE.getValue(),
+                                               CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS.getValue(),
+                                               CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_STRICT.getValue());
     }
 
     @SuppressWarnings("unchecked")
@@ -78,6 +98,87 @@ public class ProActiveFileSystem extends AbstractFileSystem {
     @Override
     protected void doCloseCommunicationLink() {
         server = null;
+        metadataCache.clear();
+    }
+
+    /**
+     * @return number of file metadata and directory listing lookups answered by the metadata cache
+     */
+    public long getMetadataCacheHits() {
+        return metadataCache.getHits();
+    }
+
+    /**
+     * @return number of file metadata and directory listing lookups that required a server call
+     *         while the metadata cache is enabled
+     */
+    public long getMetadataCacheMisses() {
+        return metadataCache.getMisses();
+    }
+
+    /**
+     * @return number of metadata cache invalidations caused by changes made through this file
+     *         system while the metadata cache is enabled
+     */
+    public long getMetadataCacheInvalidations() {
+        return metadataCache.getInvalidations();
+    }
+
+    /**
+     * @return ratio of metadata lookups answered by the cache, or 0 if there has been none
+     */
+    public double getMetadataCacheHitRate() {
+        final long hits = metadataCache.getHits();
+        final long total = hits + metadataCache.getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // returns null for a missing file
+    FileInfo getFileInfo(String path) throws IOException {
+        final FileInfoCache.Entry<FileInfo> cached = metadataCache.getInfo(path);
+        if (cached != null) {
+            return cached.value;
+        }
+        final FileInfo info = getServer().fileGetInfo(path);
+        metadataCache.putInfo(path, info);
+        return info;
+    }
+
+    // returns null if the path is not a directory
+    Map<String, FileInfo> listChildrenInfo(String path) throws IOException {
+        final Map<String, FileInfo> children = getServer().fileListChildrenInfo(path);
+        if (children != null) {
+            metadataCache.putListing(path, children);
+        }
+        return children;
+    }
+
+    // returns null if the path is not a directory
+    Set<String> listChildren(String path) throws IOException {
+        final Set<String> cached = metadataCache.getListing(path);
+        if (cached != null) {
+            return cached;
+        }
+        if (!metadataCache.isEnabled()) {
+            return getServer().fileListChildren(path);
+        }
+        final Map<String, FileInfo> children = listChildrenInfo(path);
+        return children == null ? null : children.keySet();
+    }
+
+    void invalidateMetadata(String path) {
+        metadataCache.invalidate(path);
+    }
+
+    void invalidateListing(String path) {
+        metadataCache.invalidateListing(path);
+    }
+
+    // a refresh of a file object reuses cached metadata, unless the cache is strict
+    void refreshMetadata(String path) {
+        if (metadataCache.isStrict()) {
+            metadataCache.evict(path);
+        }
     }
 
     private FileSystemServer createServerStub() throws FileSystemException {
@@ -0,0 +1,85 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.vfsprovider.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.config.PAPropertyInteger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+
+
+/**
+ * Configuration and threads shared by the read-ahead and write-behind buffering of sequential
+ * streams.
+ * <p>
+ * Each buffered stream has at most one transfer running at a time, so that blocks reach the file
+ * server in stream order. The threads are daemon threads, created on demand and reclaimed when
+ * idle.
+ *
+ * @see AbstractProActiveInputStreamAdapter
+ * @see AbstractProActiveOutputStreamAdapter
+ */
+class StreamPipelining {
+    private static final Logger logger = Logger.getLogger(StreamPipelining.class);
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new NamedThreadFactory("ProActive VFS stream pipelining",
+                                                                                                         true));
+
+    private StreamPipelining() {
+    }
+
+    static ExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    static int getBlockSize() {
+        final int blockSize = getConfiguredValue(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_STREAM_BLOCK_SIZE);
+        if (blockSize <= 0) {
+            return CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_STREAM_BLOCK_SIZE.getDefaultValue();
+        }
+        return blockSize;
+    }
+
+    static int getReadAheadBlocks() {
+        return Math.max(0, getConfiguredValue(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_READ_AHEAD_BLOCKS));
+    }
+
+    static int getWriteBehindBlocks() {
+        return Math.max(0, getConfiguredValue(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_WRITE_BEHIND_BLOCKS));
+    }
+
+    private static int getConfiguredValue(PAPropertyInteger property) {
+        try {
+            return property.getValue();
+        } catch (Exception e) {
+            logger.error("Invalid value for " + property.getName(), e);
+            return property.getDefaultValue();
+        }
+    }
+}
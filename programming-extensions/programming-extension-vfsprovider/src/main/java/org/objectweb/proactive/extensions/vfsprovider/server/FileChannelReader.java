@@ -0,0 +1,372 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.extensions.vfsprovider.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.util.log.Loggers;
+import org.objectweb.proactive.core.util.log.ProActiveLogger;
+
+
+/**
+ * Reads files for {@link Stream} implementations through {@link FileChannel} positional reads,
+ * that do not depend on a channel position and therefore may be performed concurrently.
+ * <p>
+ * Data is read into direct buffers of a bounded pool, and copied once into the returned array.
+ * Files open for reading only and at least as large as the mapping threshold are memory-mapped
+ * instead; such a mapping is shared by all streams reading the same file, and unmapped when the
+ * last of them is closed. A file found modified since its mapping is never mapped again, it is
+ * read through its channel from then on. A mapped file must not be truncated while it is read.
+ * <p>
+ * Streams using a mapping must not release it while they read it.
+ */
+public class FileChannelReader {
+    private static final Logger logger = ProActiveLogger.getLogger(Loggers.VFS_PROVIDER_SERVER);
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    public static final int DEFAULT_BUFFERS = 16;
+
+    public static final long DEFAULT_MMAP_THRESHOLD = 64L * 1024 * 1024;
+
+    /**
+     * Reader with default settings, used by streams created without a reader.
+     */
+    public static final FileChannelReader DEFAULT = new FileChannelReader(DEFAULT_BUFFER_SIZE,
+                                                                          DEFAULT_BUFFERS,
+                                                                          DEFAULT_MMAP_THRESHOLD);
+
+    // size of a single mapped region, a MappedByteBuffer is limited to Integer.MAX_VALUE bytes
+    private static final long REGION_SIZE = 1L << 30;
+
+    // maximum number of modified files remembered as not to be mapped
+    private static final int MAX_UNSTABLE_FILES = 1024;
+
+    private final int bufferSize;
+
+    private final int maxBuffers;
+
+    private final long mmapThreshold;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+
+    private final Map<File, MappedFile> mappedFiles = new HashMap<File, MappedFile>();
+
+    // guarded by mappedFiles
+    private final Map<File, Boolean> unstableFiles = new LinkedHashMap<File, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, Boolean> eldest) {
+            return size() > MAX_UNSTABLE_FILES;
+        }
+    };
+
+    /**
+     * @param bufferSize
+     *            size of pooled direct buffers
+     * @param maxBuffers
+     *            maximum number of pooled direct buffers, 0 to read directly into result arrays
+     * @param mmapThreshold
+     *            minimum size of mapped files, negative to never map files
+     */
+    public FileChannelReader(int bufferSize, int maxBuffers, long mmapThreshold) {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("Buffer size must be positive");
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.mmapThreshold = mmapThreshold;
+    }
+
+    /**
+     * Map a file open for reading only, if it is large enough, or get the existing mapping of this
+     * file. Each mapping obtained must be released by {@link #release(MappedFile)}.
+     *
+     * @param file
+     *            file to map
+     * @param channel
+     *            read only channel of this file
+     * @return mapping of the file, or <code>null</code> if the file is not to be mapped, has been
+     *         modified since it was mapped or could not be mapped
+     */
+    public MappedFile map(File file, FileChannel channel) {
+        if (mmapThreshold < 0)
+            return null;
+
+        try {
+            final long size = channel.size();
+            if (size < mmapThreshold || size == 0)
+                return null;
+
+            final File key = file.getCanonicalFile();
+            final long lastModified = file.lastModified();
+            synchronized (mappedFiles) {
+                if (unstableFiles.get(key) != null)
+                    return null;
+
+                MappedFile mapped = mappedFiles.get(key);
+                if (mapped != null && (mapped.size != size || mapped.lastModified != lastModified)) {
+                    // a file being written would be mapped again on each change; previous mapping
+                    // stays valid for streams using it
+                    mappedFiles.remove(key);
+                    unstableFiles.put(key, Boolean.TRUE);
+                    return null;
+                }
+                if (mapped == null) {
+                    mapped = new MappedFile(key, channel, size, lastModified);
+                    mappedFiles.put(key, mapped);
+                }
+                mapped.references++;
+                return mapped;
+            }
+        } catch (IOException e) {
+            ProActiveLogger.logEatedException(logger, "Could not map file " + file + ", reading it instead", e);
+            return null;
+        }
+    }
+
+    /**
+     * Release a mapping obtained from {@link #map(File, FileChannel)}.
+     *
+     * @param mapped
+     *            mapping to release, may be <code>null</code>
+     */
+    public void release(MappedFile mapped) {
+        if (mapped == null)
+            return;
+
+        synchronized (mappedFiles) {
+            if (--mapped.references > 0)
+                return;
+            if (mappedFiles.get(mapped.file) == mapped)
+                mappedFiles.remove(mapped.file);
+        }
+        mapped.unmap();
+    }
+
+    /**
+     * Read bytes from a file at a specified position.
+     *
+     * @param channel
+     *            channel of the file
+     * @param mapped
+     *            mapping of the file, or <code>null</code>
+     * @param position
+     *            position of the first byte to read
+     * @param bytes
+     *            number of bytes to read
+     * @return bytes read, or <code>null</code> when position is at or beyond the EOF
+     * @throws IOException
+     *             when an I/O error occurred
+     */
+    public byte[] read(FileChannel channel, MappedFile mapped, long position, int bytes) throws IOException {
+        if (position < 0)
+            throw new IOException("Negative position: " + position);
+        if (bytes < 0)
+            throw new IOException("Negative number of bytes: " + bytes);
+
+        final long size = channel.size();
+        if (position >= size)
+            return bytes == 0 ? new byte[0] : null;
+
+        final byte[] data = new byte[(int) Math.min(bytes, size - position)];
+        final int count;
+        if (mapped != null && position + data.length <= mapped.size)
+            count = mapped.read(position, data);
+        else
+            count = readChannel(channel, position, data);
+
+        if (count < data.length) {
+            // file has been truncated since its size was checked
+            if (count <= 0)
+                return null;
+            final byte[] ret = new byte[count];
+            System.arraycopy(data, 0, ret, 0, ret.length);
+            return ret;
+        }
+        return data;
+    }
+
+    private int readChannel(FileChannel channel, long position, byte[] data) throws IOException {
+        final ByteBuffer buffer = acquireBuffer();
+        if (buffer == null) {
+            final ByteBuffer dst = ByteBuffer.wrap(data);
+            while (dst.hasRemaining()) {
+                if (channel.read(dst, position + dst.position()) < 0)
+                    break;
+            }
+            return dst.position();
+        }
+
+        try {
+            int count = 0;
+            while (count < data.length) {
+                buffer.clear();
+                buffer.limit(Math.min(buffer.capacity(), data.length - count));
+                final int read = channel.read(buffer, position + count);
+                if (read < 0)
+                    break;
+                buffer.flip();
+                buffer.get(data, count, read);
+                count += read;
+            }
+            return count;
+        } finally {
+            buffers.offer(buffer);
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer != null)
+            return buffer;
+
+        int allocated;
+        do {
+            allocated = allocatedBuffers.get();
+            if (allocated >= maxBuffers)
+                return null;
+        } while (!allocatedBuffers.compareAndSet(allocated, allocated + 1));
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Memory mapping of a whole file, split in regions.
+     */
+    public static final class MappedFile {
+        private final File file;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final MappedByteBuffer[] regions;
+
+        // guarded by the mappedFiles map of the reader
+        private int references;
+
+        private MappedFile(File file, FileChannel channel, long size, long lastModified) throws IOException {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+            for (int i = 0; i < regions.length; i++) {
+                final long start = i * REGION_SIZE;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+            }
+        }
+
+        private void unmap() {
+            for (MappedByteBuffer region : regions) {
+                Unmapper.unmap(region);
+            }
+        }
+
+        private int read(long position, byte[] data) {
+            int count = 0;
+            while (count < data.length) {
+                final long current = position + count;
+                // a duplicate has its own position, so that regions may be read concurrently
+                final ByteBuffer region = regions[(int) (current / REGION_SIZE)].duplicate();
+                region.position((int) (current % REGION_SIZE));
+                final int length = Math.min(data.length - count, region.remaining());
+                region.get(data, count, length);
+                count += length;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Releases mapped memory without waiting for the buffers to be garbage collected. There is no
+     * public API for it, if the internal one is not accessible the memory is released by the GC.
+     */
+    private static final class Unmapper {
+        // Unsafe.invokeCleaner(ByteBuffer), since Java 9
+        private static final Object UNSAFE;
+
+        private static final Method INVOKE_CLEANER;
+
+        // DirectBuffer.cleaner() and Cleaner.clean(), before Java 9
+        private static final Method CLEANER;
+
+        private static final Method CLEAN;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            Method cleaner = null;
+            Method clean = null;
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+            } catch (Exception e) {
+                invokeCleaner = null;
+                try {
+                    cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                    clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                } catch (Exception e2) {
+                    cleaner = null;
+                    logger.debug("Mapped files cannot be unmapped, their memory is released by the GC", e2);
+                }
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+            CLEANER = cleaner;
+            CLEAN = clean;
+        }
+
+        static void unmap(MappedByteBuffer buffer) {
+            try {
+                if (INVOKE_CLEANER != null) {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } else if (CLEANER != null) {
+                    final Object cleaner = CLEANER.invoke(buffer);
+                    if (cleaner != null)
+                        CLEAN.invoke(cleaner);
+                }
+            } catch (Exception e) {
+                // released by the GC
+                ProActiveLogger.logEatedException(logger, "Could not unmap a mapped file", e);
+            }
+        }
+    }
+}
@@ -80,6 +80,10 @@ import com.google.common.collect.Sets;
  * required with double checking if map contains an open stream. Generating unique identifiers is
  * atomic.
  * <p>
+ * Files are read through a {@link FileChannelReader} shared by all streams of the server, so that
+ * read buffers and memory mappings of large files are reused. Its parameters can be redefined
+ * through {@link PAProperties}.
+ * <p>
  * To guarantee that {@link #streamFlush(long)} method throws {@link StreamNotFoundException} only
  * if stream has been closed correctly, an "in progress state" map is hold. Flush requests are
  * queued on stream instances from this map until stream is finally closed. Stream instance is put
@@ -126,6 +130,8 @@ public class FileSystemServerImpl implements FileSystemServer {
 
     private StreamAutocloseThread streamAutocloseThread;
 
+    private FileChannelReader channelReader = FileChannelReader.DEFAULT;
+
     /**
      * ProActive empty non-arg constructor. <strong>Internal use only.</strong>
      */
@@ -136,8 +142,9 @@ public class FileSystemServerImpl implements FileSystemServer {
      * Create an instance of {@link FileSystemServer} that has its root in <code>rootPath</code>
      * directory. To enable auto closing of unused streams call {@link #startAutoClosing()} method.
      * <p>
-     * This implementation reads {@link PAProperties} to reset auto closing parameters, if those
-     * have been defined. In the other case, parameters are set to their default values.
+     * This implementation reads {@link PAProperties} to reset auto closing and file reading
+     * parameters, if those have been defined. In the other case, parameters are set to their
+     * default values.
      *
      * @param rootPath
      *            path of an existing directory that will be root for the file system
@@ -147,6 +154,9 @@ public class FileSystemServerImpl implements FileSystemServer {
      *             when IO error occurred
      * @see PAProperties#PA_VFSPROVIDER_SERVER_STREAM_AUTOCLOSE_CHECKING_INTERVAL_MILLIS
      * @see PAProperties#PA_VFSPROVIDER_SERVER_STREAM_OPEN_MAXIMUM_PERIOD_MILLIS
+     * @see PAProperties#PA_VFSPROVIDER_SERVER_READ_BUFFER_SIZE
+     * @see PAProperties#PA_VFSPROVIDER_SERVER_READ_BUFFERS
+     * @see PAProperties#PA_VFSPROVIDER_SERVER_MMAP_THRESHOLD
      * @see #DEFAULT_STREAM_AUTOCLOSE_CHECKING_INTERVAL_MILLIS
      * @see #DEFAULT_STREAM_OPEN_MAXIMUM_PERIOD_MILLIS
      */
@@ -167,6 +177,10 @@ public class FileSystemServerImpl implements FileSystemServer {
 
         if (CentralPAPropertyRepository.PA_VFSPROVIDER_SERVER_STREAM_OPEN_MAXIMUM_PERIOD_MILLIS.isSet())
             streamOpenMaximumPeriodMillis = CentralPAPropertyRepository.PA_VFSPROVIDER_SERVER_STREAM_OPEN_MAXIMUM_PERIOD_MILLIS.getValue();
+
+        channelReader = new FileChannelReader(CentralPAPropertyRepository.PA_VFSPROVIDER_SERVER_READ_BUFFER_SIZE.getValue(),
+                                              CentralPAPropertyRepository.PA_VFSPROVIDER_SERVER_READ_BUFFERS.getValue(),
+                                              CentralPAPropertyRepository.PA_VFSPROVIDER_SERVER_MMAP_THRESHOLD.getValue());
     }
 
     /**
@@ -226,7 +240,7 @@ public class FileSystemServerImpl implements FileSystemServer {
             final File file = resolvePath(path);
 
             try {
-                instance = StreamFactory.createStreamInstance(file, mode);
+                instance = StreamFactory.createStreamInstance(file, mode, channelReader);
             } catch (SecurityException sec) {
                 throw new IOException6("", sec);
             }
@@ -556,17 +570,17 @@ public class FileSystemServerImpl implements FileSystemServer {
      * @see Stream
      */
     private static class StreamFactory {
-        public static Stream createStreamInstance(File file, StreamMode mode)
+        public static Stream createStreamInstance(File file, StreamMode mode, FileChannelReader reader)
                 throws FileNotFoundException, SecurityException {
             switch (mode) {
                 case RANDOM_ACCESS_READ:
-                    return RandomAccessStreamAdapter.createRandomAccessRead(file);
+                    return RandomAccessStreamAdapter.createRandomAccessRead(file, reader);
                 case RANDOM_ACCESS_READ_WRITE:
-                    return RandomAccessStreamAdapter.createRandomAccessReadWrite(file);
+                    return RandomAccessStreamAdapter.createRandomAccessReadWrite(file, reader);
                 case SEQUENTIAL_APPEND:
                     return new OutputStreamAdapter(file, true);
                 case SEQUENTIAL_READ:
-                    return new InputStreamAdapter(file);
+                    return new InputStreamAdapter(file, reader);
                 case SEQUENTIAL_WRITE:
                     return new OutputStreamAdapter(file, false);
             }
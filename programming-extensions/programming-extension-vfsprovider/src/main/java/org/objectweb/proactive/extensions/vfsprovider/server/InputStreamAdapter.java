@@ -29,20 +29,32 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
 
 import org.objectweb.proactive.extensions.vfsprovider.exceptions.WrongStreamTypeException;
 
 
 /**
- * Stream adapter for {@link InputStream} of a {@link File}, allowing the sequential readings.
+ * Stream adapter for {@link FileChannel} of a {@link File}, allowing the sequential readings.
+ * Reads are performed by a {@link FileChannelReader} at a position tracked by this adapter. A read
+ * interrupted by its thread closes the channel, which is then open again for the next operations.
  */
 public class InputStreamAdapter implements Stream {
 
-    private final InputStream adaptee;
+    private final File file;
+
+    private FileChannel channel;
+
+    private final FileChannelReader reader;
+
+    private final FileChannelReader.MappedFile mappedFile;
+
+    private long position;
 
     /**
-     * Adapt input stream of a specified file.
+     * Adapt input stream of a specified file, read by {@link FileChannelReader#DEFAULT}.
      *
      * @param file
      *            of which stream is to be open
@@ -50,11 +62,32 @@ public class InputStreamAdapter implements Stream {
      *             when specified file does not exist
      */
     public InputStreamAdapter(File file) throws FileNotFoundException {
-        adaptee = new FileInputStream(file);
+        this(file, FileChannelReader.DEFAULT);
+    }
+
+    /**
+     * Adapt input stream of a specified file.
+     *
+     * @param file
+     *            of which stream is to be open
+     * @param reader
+     *            reader of the file
+     * @throws FileNotFoundException
+     *             when specified file does not exist
+     */
+    public InputStreamAdapter(File file, FileChannelReader reader) throws FileNotFoundException {
+        this.file = file;
+        this.channel = new FileInputStream(file).getChannel();
+        this.reader = reader;
+        this.mappedFile = reader.map(file, channel);
     }
 
     public void close() throws IOException {
-        adaptee.close();
+        try {
+            channel.close();
+        } finally {
+            reader.release(mappedFile);
+        }
     }
 
     public long getLength() throws WrongStreamTypeException {
@@ -66,17 +99,14 @@ public class InputStreamAdapter implements Stream {
     }
 
     public byte[] read(int bytes) throws IOException {
-        final byte[] data = new byte[bytes];
-        final int count = adaptee.read(data);
-
-        if (count == -1)
-            return null;
-        if (count < bytes) {
-            byte[] ret = new byte[count];
-            System.arraycopy(data, 0, ret, 0, ret.length);
-            return ret;
+        final byte[] data;
+        try {
+            data = reader.read(channel, mappedFile, position, bytes);
+        } catch (ClosedByInterruptException e) {
+            throw reopen(e);
         }
-
+        if (data != null)
+            position += data.length;
         return data;
     }
 
@@ -85,18 +115,22 @@ public class InputStreamAdapter implements Stream {
     }
 
     /**
-     * This skip implementation must deal with the SUN's JVM closed Bug ID: 6294974 and 4454092
-     * (duplicate) that redefined the {@link FileInputStream#skip(long)} behavior: "This method may
-     * skip more bytes than are remaining in the backing file. This produces no exception and the
-     * number of bytes skipped may include some number of bytes that were beyond the EOF of the
-     * backing file". Hence skips only available bytes. (Or the Stream interface should be less
-     * strict on the return value)
+     * Skips only available bytes, the position never goes beyond the EOF of the backing file.
      **/
     public long skip(long bytes) throws IOException {
-        final long avail = adaptee.available();
+        final long size;
+        try {
+            size = channel.size();
+        } catch (ClosedByInterruptException e) {
+            throw reopen(e);
+        }
+        final long avail = Math.max(0, size - position);
         if (avail < bytes)
             bytes = avail;
-        return adaptee.skip(bytes);
+        if (bytes <= 0)
+            return 0;
+        position += bytes;
+        return bytes;
     }
 
     public void write(byte[] data) throws WrongStreamTypeException {
@@ -106,4 +140,11 @@ public class InputStreamAdapter implements Stream {
     public void flush() throws WrongStreamTypeException {
         throw new WrongStreamTypeException();
     }
+
+    private InterruptedIOException reopen(ClosedByInterruptException e) throws IOException {
+        channel = new FileInputStream(file).getChannel();
+        final InterruptedIOException interrupted = new InterruptedIOException("Read interrupted");
+        interrupted.initCause(e);
+        return interrupted;
+    }
 }
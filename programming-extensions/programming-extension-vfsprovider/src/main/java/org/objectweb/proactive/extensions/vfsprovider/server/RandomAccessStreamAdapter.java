@@ -28,7 +28,10 @@ package org.objectweb.proactive.extensions.vfsprovider.server;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
 
 import org.objectweb.proactive.extensions.vfsprovider.exceptions.WrongStreamTypeException;
 
@@ -37,13 +40,25 @@ import org.objectweb.proactive.extensions.vfsprovider.exceptions.WrongStreamType
  * Stream adapter for {@link RandomAccessFile} created from specified {@link File}, allowing the
  * random readings and/or writings. Two different static factory methods provided for different
  * access mode.
+ * <p>
+ * Reads are performed by a {@link FileChannelReader} on the channel of the file, from the current
+ * file pointer. A read interrupted by its thread closes the file, which is then open again at the
+ * same file pointer for the next operations.
  */
 public class RandomAccessStreamAdapter implements Stream {
 
-    private final RandomAccessFile randomFile;
+    private final File file;
+
+    private RandomAccessFile randomFile;
+
+    private FileChannel channel;
 
     private final boolean writable;
 
+    private final FileChannelReader reader;
+
+    private final FileChannelReader.MappedFile mappedFile;
+
     /**
      * Create a stream adapter with specified {@link File} as {@link RandomAccessFile} in read only
      * mode.
@@ -55,7 +70,23 @@ public class RandomAccessStreamAdapter implements Stream {
      *             when specified file does not exist
      */
     public static Stream createRandomAccessRead(File file) throws FileNotFoundException {
-        return new RandomAccessStreamAdapter(file, false);
+        return createRandomAccessRead(file, FileChannelReader.DEFAULT);
+    }
+
+    /**
+     * Create a stream adapter with specified {@link File} as {@link RandomAccessFile} in read only
+     * mode.
+     *
+     * @param file
+     *            to adapt
+     * @param reader
+     *            reader of the file
+     * @return stream
+     * @throws FileNotFoundException
+     *             when specified file does not exist
+     */
+    public static Stream createRandomAccessRead(File file, FileChannelReader reader) throws FileNotFoundException {
+        return new RandomAccessStreamAdapter(file, false, reader);
     }
 
     /**
@@ -69,18 +100,45 @@ public class RandomAccessStreamAdapter implements Stream {
      *             when specified file does not exist
      */
     public static Stream createRandomAccessReadWrite(File file) throws FileNotFoundException {
-        return new RandomAccessStreamAdapter(file, true);
+        return createRandomAccessReadWrite(file, FileChannelReader.DEFAULT);
+    }
+
+    /**
+     * Create a stream adapter with specified {@link File} as {@link RandomAccessFile} in read and
+     * write mode.
+     *
+     * @param file
+     *            to adapt
+     * @param reader
+     *            reader of the file
+     * @return stream
+     * @throws FileNotFoundException
+     *             when specified file does not exist
+     */
+    public static Stream createRandomAccessReadWrite(File file, FileChannelReader reader)
+            throws FileNotFoundException {
+        return new RandomAccessStreamAdapter(file, true, reader);
     }
 
-    private RandomAccessStreamAdapter(File file, boolean writable) throws FileNotFoundException {
+    private RandomAccessStreamAdapter(File file, boolean writable, FileChannelReader reader)
+            throws FileNotFoundException {
         final String mode = writable ? "rw" : "r";
 
+        this.file = file;
         this.randomFile = new RandomAccessFile(file, mode);
+        this.channel = randomFile.getChannel();
         this.writable = writable;
+        this.reader = reader;
+        // a file being written cannot be mapped
+        this.mappedFile = writable ? null : reader.map(file, channel);
     }
 
     public void close() throws IOException {
-        randomFile.close();
+        try {
+            randomFile.close();
+        } finally {
+            reader.release(mappedFile);
+        }
     }
 
     public long getLength() throws IOException {
@@ -92,17 +150,15 @@ public class RandomAccessStreamAdapter implements Stream {
     }
 
     public byte[] read(int bytes) throws IOException, WrongStreamTypeException {
-        final byte[] data = new byte[bytes];
-        final int count = randomFile.read(data);
-
-        if (count == -1)
-            return null;
-        if (count < bytes) {
-            byte[] ret = new byte[count];
-            System.arraycopy(data, 0, ret, 0, ret.length);
-            return ret;
+        final long position = randomFile.getFilePointer();
+        final byte[] data;
+        try {
+            data = reader.read(channel, mappedFile, position, bytes);
+        } catch (ClosedByInterruptException e) {
+            throw reopen(e, position);
         }
-
+        if (data != null)
+            randomFile.seek(position + data.length);
         return data;
     }
 
@@ -130,11 +186,25 @@ public class RandomAccessStreamAdapter implements Stream {
 
     public void flush() throws IOException, WrongStreamTypeException {
         assureIsWritable();
-        randomFile.getChannel().force(true);
+        final long position = randomFile.getFilePointer();
+        try {
+            channel.force(true);
+        } catch (ClosedByInterruptException e) {
+            throw reopen(e, position);
+        }
     }
 
     private void assureIsWritable() throws WrongStreamTypeException {
         if (!writable)
             throw new WrongStreamTypeException();
     }
+
+    private InterruptedIOException reopen(ClosedByInterruptException e, long position) throws IOException {
+        randomFile = new RandomAccessFile(file, writable ? "rw" : "r");
+        channel = randomFile.getChannel();
+        randomFile.seek(position);
+        final InterruptedIOException interrupted = new InterruptedIOException("Operation interrupted");
+        interrupted.initCause(e);
+        return interrupted;
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package vfsprovider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.extensions.vfsprovider.server.FileChannelReader;
+import org.objectweb.proactive.extensions.vfsprovider.server.InputStreamAdapter;
+import org.objectweb.proactive.extensions.vfsprovider.server.RandomAccessStreamAdapter;
+import org.objectweb.proactive.extensions.vfsprovider.server.Stream;
+
+
+/**
+ * Test suite for {@link FileChannelReader}, through the stream adapters using it, with buffers
+ * smaller than the reads and with memory mapping.
+ */
+public class FileChannelReaderTest extends AbstractIOOperationsBase {
+    private static final int CONTENT_SIZE = 64 * 1024 + 13;
+
+    private static final int BUFFER_SIZE = 1000;
+
+    private final byte[] content = new byte[CONTENT_SIZE];
+
+    private File dataFile;
+
+    @Before
+    public void createDataFile() throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 7 + i / 256);
+        }
+        dataFile = new File(testDir, "data.bin");
+        final OutputStream os = new FileOutputStream(dataFile);
+        os.write(content);
+        os.close();
+    }
+
+    @Test
+    public void readPooledBuffersTest() throws Exception {
+        assertSequentialRead(new FileChannelReader(BUFFER_SIZE, 2, -1));
+    }
+
+    @Test
+    public void readWithoutBuffersTest() throws Exception {
+        assertSequentialRead(new FileChannelReader(BUFFER_SIZE, 0, -1));
+    }
+
+    @Test
+    public void readMappedTest() throws Exception {
+        assertSequentialRead(new FileChannelReader(BUFFER_SIZE, 2, 0));
+    }
+
+    @Test
+    public void readMappedSharedTest() throws Exception {
+        final FileChannelReader reader = new FileChannelReader(BUFFER_SIZE, 2, 0);
+        final Stream first = new InputStreamAdapter(dataFile, reader);
+        final Stream second = RandomAccessStreamAdapter.createRandomAccessRead(dataFile, reader);
+        try {
+            assertEquals(10, first.skip(10));
+            assertArrayEquals(Arrays.copyOfRange(content, 10, 5010), first.read(5000));
+            first.close();
+            // mapping still used by the second stream
+            second.seek(20);
+            assertArrayEquals(Arrays.copyOfRange(content, 20, 5020), second.read(5000));
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    public void readWritableTest() throws Exception {
+        final Stream stream = RandomAccessStreamAdapter.createRandomAccessReadWrite(dataFile,
+                                                                                   new FileChannelReader(BUFFER_SIZE,
+                                                                                                         2,
+                                                                                                         0));
+        try {
+            stream.seek(CONTENT_SIZE);
+            stream.write(new byte[] { 1, 2, 3 });
+            stream.seek(CONTENT_SIZE);
+            assertArrayEquals(new byte[] { 1, 2, 3 }, stream.read(10));
+            stream.seek(CONTENT_SIZE - 1);
+            assertArrayEquals(new byte[] { content[CONTENT_SIZE - 1], 1, 2, 3 }, stream.read(10));
+            assertEquals(CONTENT_SIZE + 3, stream.getPosition());
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void concurrentReadsTest() throws Exception {
+        for (final FileChannelReader reader : new FileChannelReader[] { new FileChannelReader(BUFFER_SIZE, 2, -1),
+                                                                        new FileChannelReader(BUFFER_SIZE,
+                                                                                              2,
+                                                                                              0) }) {
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<byte[]>> results = new ArrayList<Future<byte[]>>();
+                for (int i = 0; i < 64; i++) {
+                    final int position = i * 1024;
+                    results.add(executor.submit(new Callable<byte[]>() {
+                        public byte[] call() throws Exception {
+                            final Stream stream = new InputStreamAdapter(dataFile, reader);
+                            try {
+                                stream.skip(position);
+                                return stream.read(3000);
+                            } finally {
+                                stream.close();
+                            }
+                        }
+                    }));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    final int position = i * 1024;
+                    assertArrayEquals(Arrays.copyOfRange(content,
+                                                         position,
+                                                         Math.min(CONTENT_SIZE, position + 3000)),
+                                      results.get(i).get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void modifiedFileNotRemappedTest() throws Exception {
+        final FileChannelReader reader = new FileChannelReader(BUFFER_SIZE, 2, 0);
+        final Stream first = new InputStreamAdapter(dataFile, reader);
+        try {
+            final OutputStream os = new FileOutputStream(dataFile, true);
+            os.write(new byte[] { 1, 2, 3 });
+            os.close();
+
+            final FileChannel channel = new FileInputStream(dataFile).getChannel();
+            try {
+                assertNull(reader.map(dataFile, channel));
+            } finally {
+                channel.close();
+            }
+
+            // still served by the previous mapping, then by the channel
+            assertEquals(CONTENT_SIZE - 1, first.skip(CONTENT_SIZE - 1));
+            assertArrayEquals(new byte[] { content[CONTENT_SIZE - 1], 1, 2, 3 }, first.read(10));
+        } finally {
+            first.close();
+        }
+
+        final Stream second = new InputStreamAdapter(dataFile, reader);
+        try {
+            assertEquals(CONTENT_SIZE, second.skip(CONTENT_SIZE));
+            assertArrayEquals(new byte[] { 1, 2, 3 }, second.read(10));
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    public void interruptedReadTest() throws Exception {
+        final Stream stream = new InputStreamAdapter(dataFile, new FileChannelReader(BUFFER_SIZE, 2, -1));
+        try {
+            assertArrayEquals(Arrays.copyOfRange(content, 0, 100), stream.read(100));
+            Thread.currentThread().interrupt();
+            try {
+                stream.read(100);
+                fail("Read should be interrupted");
+            } catch (InterruptedIOException e) {
+                // expected
+            }
+            assertTrue(Thread.interrupted());
+
+            // the stream stays usable at the same position
+            assertArrayEquals(Arrays.copyOfRange(content, 100, 200), stream.read(100));
+        } finally {
+            Thread.interrupted();
+            stream.close();
+        }
+    }
+
+    private void assertSequentialRead(FileChannelReader reader) throws Exception {
+        final Stream stream = new InputStreamAdapter(dataFile, reader);
+        try {
+            final byte[] first = stream.read(2500);
+            assertArrayEquals(Arrays.copyOfRange(content, 0, 2500), first);
+            assertEquals(100, stream.skip(100));
+
+            final byte[] rest = stream.read(CONTENT_SIZE);
+            assertNotNull(rest);
+            assertArrayEquals(Arrays.copyOfRange(content, 2600, CONTENT_SIZE), rest);
+            assertNull(stream.read(1));
+            assertEquals(0, stream.skip(1));
+        } finally {
+            stream.close();
+        }
+    }
+}
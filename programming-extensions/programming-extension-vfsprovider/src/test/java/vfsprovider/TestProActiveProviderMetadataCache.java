@@ -0,0 +1,197 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package vfsprovider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.config.PAPropertyBoolean;
+import org.objectweb.proactive.core.config.PAPropertyInteger;
+import org.objectweb.proactive.extensions.dataspaces.vfs.VFSFactory;
+import org.objectweb.proactive.extensions.vfsprovider.FileSystemServerDeployer;
+import org.objectweb.proactive.extensions.vfsprovider.client.ProActiveFileSystem;
+
+
+/**
+ * ProActiveProvider tests for the client metadata cache.
+ */
+public class TestProActiveProviderMetadataCache extends AbstractIOOperationsBase {
+    private static final int CHILDREN_NUMBER = 20;
+
+    private FileSystemServerDeployer serverDeployer;
+
+    private DefaultFileSystemManager vfsManager;
+
+    @Before
+    public void setUp() throws Exception {
+        final File dir = new File(testDir, "dir");
+        assertTrue(dir.mkdir());
+        for (int i = 0; i < CHILDREN_NUMBER; i++) {
+            final OutputStream os = new FileOutputStream(new File(dir, "file" + i));
+            os.write(new byte[i]);
+            os.close();
+        }
+        serverDeployer = new FileSystemServerDeployer(testDir.getAbsolutePath(), true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (vfsManager != null) {
+            vfsManager.close();
+            vfsManager = null;
+        }
+
+        if (serverDeployer != null) {
+            serverDeployer.terminate();
+            serverDeployer = null;
+        }
+
+        restoreDefault(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS);
+        restoreDefault(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_STRICT);
+    }
+
+    @Test
+    public void testRefreshServedFromListing() throws Exception {
+        startManager(60000, false);
+        final FileObject dir = openFileObject("dir");
+        final ProActiveFileSystem fs = (ProActiveFileSystem) dir.getFileSystem();
+
+        final FileObject[] children = dir.getChildren();
+        assertEquals(CHILDREN_NUMBER, children.length);
+        for (FileObject child : children) {
+            assertEquals(FileType.FILE, child.getType());
+        }
+        final long hitsBefore = fs.getMetadataCacheHits();
+        for (FileObject child : children) {
+            child.refresh();
+            assertEquals(FileType.FILE, child.getType());
+            final int index = Integer.parseInt(child.getName().getBaseName().substring("file".length()));
+            assertEquals(index, child.getContent().getSize());
+        }
+        assertEquals(hitsBefore + CHILDREN_NUMBER, fs.getMetadataCacheHits());
+    }
+
+    @Test
+    public void testLocalChangesInvalidate() throws Exception {
+        startManager(60000, false);
+        final FileObject fo = openFileObject("dir/new.txt");
+        final ProActiveFileSystem fs = (ProActiveFileSystem) fo.getFileSystem();
+        assertFalse(fo.exists());
+
+        fo.createFile();
+        assertTrue(fo.exists());
+        assertEquals(0, fo.getContent().getSize());
+        assertEquals(CHILDREN_NUMBER + 1, openFileObject("dir").getChildren().length);
+
+        final OutputStream os = fo.getContent().getOutputStream();
+        os.write(new byte[10]);
+        os.close();
+        fo.refresh();
+        assertEquals(10, fo.getContent().getSize());
+
+        fo.delete();
+        assertFalse(fo.exists());
+        fo.refresh();
+        assertFalse(fo.exists());
+        assertTrue(fs.getMetadataCacheInvalidations() > 0);
+    }
+
+    @Test
+    public void testRemoteChangeSeenAfterExpiry() throws Exception {
+        startManager(200, false);
+        final FileObject fo = openFileObject("remote.txt");
+        assertFalse(fo.exists());
+
+        assertTrue(new File(testDir, "remote.txt").createNewFile());
+        // missing file still cached
+        fo.refresh();
+        assertFalse(fo.exists());
+
+        Thread.sleep(400);
+        fo.refresh();
+        assertTrue(fo.exists());
+    }
+
+    @Test
+    public void testStrictRemoteChangeSeenOnRefresh() throws Exception {
+        startManager(60000, true);
+        final FileObject fo = openFileObject("remote.txt");
+        assertFalse(fo.exists());
+
+        assertTrue(new File(testDir, "remote.txt").createNewFile());
+        fo.refresh();
+        assertTrue(fo.exists());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        startManager(0, false);
+        final FileObject dir = openFileObject("dir");
+        final ProActiveFileSystem fs = (ProActiveFileSystem) dir.getFileSystem();
+        for (FileObject child : dir.getChildren()) {
+            child.getType();
+            child.refresh();
+            child.getContent().getSize();
+        }
+        final FileObject fo = openFileObject("dir/new.txt");
+        fo.createFile();
+        fo.delete();
+        assertEquals(0, fs.getMetadataCacheHits());
+        assertEquals(0, fs.getMetadataCacheMisses());
+        assertEquals(0, fs.getMetadataCacheInvalidations());
+    }
+
+    private void startManager(int ttlMillis, boolean strict) throws FileSystemException {
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS.setValue(ttlMillis);
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_STRICT.setValue(strict);
+        vfsManager = VFSFactory.createDefaultFileSystemManager();
+    }
+
+    private FileObject openFileObject(final String fileName) throws FileSystemException {
+        return vfsManager.resolveFile(serverDeployer.getVFSRootURL()).resolveFile(fileName);
+    }
+
+    private static void restoreDefault(PAPropertyInteger property) {
+        property.setValue(property.getDefaultValue());
+    }
+
+    private static void restoreDefault(PAPropertyBoolean property) {
+        property.setValue(property.getDefaultValue());
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package vfsprovider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.config.PAPropertyInteger;
+import org.objectweb.proactive.extensions.dataspaces.vfs.VFSFactory;
+import org.objectweb.proactive.extensions.vfsprovider.FileSystemServerDeployer;
+
+
+/**
+ * ProActiveProvider tests for read-ahead and write-behind of sequential streams, with blocks
+ * small enough for a file to span many of them.
+ */
+public class TestProActiveProviderPipelining extends AbstractIOOperationsBase {
+    private static final int BLOCK_SIZE = 1000;
+
+    private static final int CONTENT_SIZE = 100 * BLOCK_SIZE + 7;
+
+    private static final String DATA_FILENAME = "data.bin";
+
+    private static byte[] createContent() {
+        final byte[] content = new byte[CONTENT_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31 + i / 251);
+        }
+        return content;
+    }
+
+    private static byte[] readFully(final InputStream is, final int chunkSize) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final byte[] buf = new byte[chunkSize];
+        int read;
+        while ((read = is.read(buf)) != -1) {
+            result.write(buf, 0, read);
+        }
+        return result.toByteArray();
+    }
+
+    private static long skipFully(final InputStream is, final long n) throws IOException {
+        long skipped = 0;
+        long result;
+        // buffering streams may skip less than requested
+        while (skipped < n && (result = is.skip(n - skipped)) > 0) {
+            skipped += result;
+        }
+        return skipped;
+    }
+
+    private final byte[] content = createContent();
+
+    private FileSystemServerDeployer serverDeployer;
+
+    private DefaultFileSystemManager vfsManager;
+
+    @Before
+    public void setUp() throws Exception {
+        final OutputStream os = new FileOutputStream(new File(testDir, DATA_FILENAME));
+        os.write(content);
+        os.close();
+
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_STREAM_BLOCK_SIZE.setValue(BLOCK_SIZE);
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_READ_AHEAD_BLOCKS.setValue(3);
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_WRITE_BEHIND_BLOCKS.setValue(2);
+        serverDeployer = new FileSystemServerDeployer(testDir.getAbsolutePath(), true);
+        vfsManager = VFSFactory.createDefaultFileSystemManager();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try {
+            if (vfsManager != null) {
+                vfsManager.close();
+                vfsManager = null;
+            }
+
+            if (serverDeployer != null) {
+                serverDeployer.terminate();
+                serverDeployer = null;
+            }
+        } finally {
+            // the following tests of the JVM use the default streams
+            restoreDefault(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_STREAM_BLOCK_SIZE);
+            restoreDefault(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_READ_AHEAD_BLOCKS);
+            restoreDefault(CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_WRITE_BEHIND_BLOCKS);
+        }
+    }
+
+    @Test
+    public void testInputStreamReadSmallChunks() throws Exception {
+        final FileObject fo = openFileObject(DATA_FILENAME);
+        final InputStream is = fo.getContent().getInputStream();
+        try {
+            assertArrayEquals(content, readFully(is, 333));
+        } finally {
+            is.close();
+        }
+        fo.close();
+    }
+
+    @Test
+    public void testInputStreamReadLargeChunks() throws Exception {
+        final FileObject fo = openFileObject(DATA_FILENAME);
+        final InputStream is = fo.getContent().getInputStream();
+        try {
+            assertArrayEquals(content, readFully(is, 7 * BLOCK_SIZE + 1));
+        } finally {
+            is.close();
+        }
+        fo.close();
+    }
+
+    @Test
+    public void testInputStreamSkip() throws Exception {
+        final FileObject fo = openFileObject(DATA_FILENAME);
+        final InputStream is = fo.getContent().getInputStream();
+        try {
+            assertEquals(content[0], (byte) is.read());
+            // within the blocks read ahead, then beyond them
+            assertEquals(BLOCK_SIZE, skipFully(is, BLOCK_SIZE));
+            assertEquals(content[BLOCK_SIZE + 1], (byte) is.read());
+            assertEquals(50 * BLOCK_SIZE, skipFully(is, 50 * BLOCK_SIZE));
+            assertEquals(content[51 * BLOCK_SIZE + 2], (byte) is.read());
+
+            final byte[] rest = readFully(is, 4096);
+            assertEquals(CONTENT_SIZE - (51 * BLOCK_SIZE + 3), rest.length);
+            assertEquals(content[CONTENT_SIZE - 1], rest[rest.length - 1]);
+            assertEquals(-1, is.read());
+        } finally {
+            is.close();
+        }
+        fo.close();
+    }
+
+    @Test
+    public void testInputStreamCloseBeforeEnd() throws Exception {
+        final FileObject fo = openFileObject(DATA_FILENAME);
+        final InputStream is = fo.getContent().getInputStream();
+        assertEquals(content[0], (byte) is.read());
+        is.close();
+        fo.close();
+    }
+
+    @Test
+    public void testOutputStreamWrite() throws Exception {
+        final FileObject fo = openFileObject("out.bin");
+        final OutputStream os = fo.getContent().getOutputStream();
+        try {
+            int off = 0;
+            int len = 1;
+            while (off < content.length) {
+                len = Math.min((len * 7) % 5003 + 1, content.length - off);
+                os.write(content, off, len);
+                off += len;
+            }
+        } finally {
+            os.close();
+        }
+        fo.close();
+
+        final InputStream is = new FileInputStream(new File(testDir, "out.bin"));
+        try {
+            assertArrayEquals(content, readFully(is, 4096));
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testOutputStreamFlush() throws Exception {
+        final FileObject fo = openFileObject("out.bin");
+        final OutputStream os = fo.getContent().getOutputStream();
+        try {
+            os.write(content, 0, BLOCK_SIZE / 2);
+            os.flush();
+            assertEquals(BLOCK_SIZE / 2, new File(testDir, "out.bin").length());
+            os.write(content, BLOCK_SIZE / 2, 5 * BLOCK_SIZE);
+            os.flush();
+            assertEquals(BLOCK_SIZE / 2 + 5 * BLOCK_SIZE, new File(testDir, "out.bin").length());
+        } finally {
+            os.close();
+        }
+        fo.close();
+    }
+
+    private FileObject openFileObject(final String fileName) throws FileSystemException {
+        return vfsManager.resolveFile(serverDeployer.getVFSRootURL()).resolveFile(fileName);
+    }
+
+    private static void restoreDefault(PAPropertyInteger property) {
+        property.setValue(property.getDefaultValue());
+    }
+}
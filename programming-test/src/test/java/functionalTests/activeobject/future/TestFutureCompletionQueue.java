@@ -0,0 +1,87 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.activeobject.future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.core.ProActiveTimeoutException;
+import org.objectweb.proactive.core.body.future.FutureCompletionQueue;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+import functionalTests.FunctionalTest;
+
+
+public class TestFutureCompletionQueue extends FunctionalTest {
+
+    @Test
+    public void arrivalOrder() throws Exception {
+        int[] times = { 1500, 500, 1000 };
+        FutureCompletionQueue<IntWrapper> queue = new FutureCompletionQueue<IntWrapper>();
+        for (int time : times) {
+            Sleeper sleeper = PAActiveObject.newActive(Sleeper.class, new Object[0]);
+            queue.add(sleeper.sleep(time));
+        }
+        assertEquals(3, queue.size());
+        assertNull(queue.poll());
+
+        assertEquals(500, queue.take().getIntValue());
+        assertEquals(1000, queue.take().getIntValue());
+        assertEquals(1500, queue.take().getIntValue());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void deliveredOnce() throws Exception {
+        Sleeper sleeper = PAActiveObject.newActive(Sleeper.class, new Object[0]);
+        IntWrapper future = sleeper.sleep(100);
+        FutureCompletionQueue<IntWrapper> queue = new FutureCompletionQueue<IntWrapper>();
+        queue.add(future);
+        queue.add(future);
+        queue.add(new IntWrapper(0));
+
+        assertEquals(0, queue.take().getIntValue());
+        assertEquals(100, queue.take().getIntValue());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test(expected = ProActiveTimeoutException.class)
+    public void takeTimeout() throws Exception {
+        Sleeper sleeper = PAActiveObject.newActive(Sleeper.class, new Object[0]);
+        FutureCompletionQueue<IntWrapper> queue = new FutureCompletionQueue<IntWrapper>();
+        queue.add(sleeper.sleep(5000));
+        queue.take(100);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void takeEmpty() {
+        new FutureCompletionQueue<Object>().take();
+    }
+}
@@ -25,12 +25,19 @@
  */
 package functionalTests.activeobject.futuremonitoring;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFuture;
 import org.objectweb.proactive.core.ProActiveException;
 import org.objectweb.proactive.core.body.exceptions.FutureMonitoringPingFailureException;
+import org.objectweb.proactive.core.body.future.FutureMonitoring;
 import org.objectweb.proactive.core.node.Node;
 
 import functionalTests.GCMFunctionalTest;
@@ -98,4 +105,43 @@ public class TestFutureMonitoring extends GCMFunctionalTest {
         }
         assertTrue(exception);
     }
+
+    /**
+     * All the futures awaited from a dead runtime are updated by the same ping, instead of one
+     * body per ping
+     */
+    @Test
+    public void runtimeFailure() throws Exception {
+        Node node = super.getANode();
+        int bodies = FutureMonitoring.getMonitoredBodyCount();
+        int monitored = FutureMonitoring.getMonitoredFutureCount();
+        List<A> futures = new ArrayList<A>();
+        for (int i = 0; i < 3; i++) {
+            A a = PAActiveObject.newActive(A.class, null, node);
+            futures.add(a.sleepForever());
+            futures.add(a.sleepForever());
+        }
+        for (A future : futures) {
+            PAFuture.monitorFuture(future);
+        }
+        assertEquals(bodies + 3, FutureMonitoring.getMonitoredBodyCount());
+        assertEquals(monitored + futures.size(), FutureMonitoring.getMonitoredFutureCount());
+
+        long failures = FutureMonitoring.getPingFailureCount();
+        PAActiveObject.newActive(A.class, null, node).crash();
+
+        PAFuture.waitForAny(futures);
+        for (A future : futures) {
+            // far below the delay between two pings
+            PAFuture.waitFor(future, 5000);
+            try {
+                future.toString();
+                fail("The future should have been updated with an exception");
+            } catch (FutureMonitoringPingFailureException fmpfe) {
+                // expected
+            }
+        }
+        assertEquals(3, FutureMonitoring.getPingFailureCount() - failures);
+        assertEquals(bodies, FutureMonitoring.getMonitoredBodyCount());
+    }
 }
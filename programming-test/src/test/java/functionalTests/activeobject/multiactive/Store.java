@@ -0,0 +1,97 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.activeobject.multiactive;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.proactive.annotation.DefineGroups;
+import org.objectweb.proactive.annotation.Group;
+import org.objectweb.proactive.annotation.MemberOf;
+import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+
+@DefineGroups(value = { @Group(name = "read", selfCompatible = true), @Group(name = "write") }, maxThreads = Store.MAX_THREADS)
+public class Store implements Serializable {
+    public static final int MAX_THREADS = 3;
+
+    private final AtomicInteger serving = new AtomicInteger();
+
+    private final AtomicInteger maxServing = new AtomicInteger();
+
+    private final List<String> events = new ArrayList<String>();
+
+    public Store() {
+    }
+
+    @MemberOf("read")
+    public BooleanWrapper read(String name, long duration) {
+        return work(name, duration);
+    }
+
+    @MemberOf("write")
+    public BooleanWrapper write(String name, long duration) {
+        return work(name, duration);
+    }
+
+    /**
+     * Without group: served once all the previous requests are served
+     */
+    public List<String> getEvents() {
+        synchronized (this.events) {
+            return new ArrayList<String>(this.events);
+        }
+    }
+
+    public IntWrapper getMaxServing() {
+        return new IntWrapper(this.maxServing.get());
+    }
+
+    private BooleanWrapper work(String name, long duration) {
+        int n = this.serving.incrementAndGet();
+        int max;
+        while ((max = this.maxServing.get()) < n && !this.maxServing.compareAndSet(max, n)) {
+        }
+        event("+" + name);
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        event("-" + name);
+        this.serving.decrementAndGet();
+        return new BooleanWrapper(true);
+    }
+
+    private void event(String event) {
+        synchronized (this.events) {
+            this.events.add(event);
+        }
+    }
+}
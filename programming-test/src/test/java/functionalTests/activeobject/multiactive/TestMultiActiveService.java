@@ -0,0 +1,87 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.activeobject.multiactive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
+
+import functionalTests.FunctionalTest;
+
+
+/**
+ * Checks that an active object declaring groups of methods serves compatible requests in
+ * parallel, and incompatible ones in FIFO order.
+ *
+ * @author The ProActive Team
+ */
+public class TestMultiActiveService extends FunctionalTest {
+    private static final long DURATION = 300;
+
+    @Test
+    public void compatibleRequests() throws Exception {
+        Store store = PAActiveObject.newActive(Store.class, new Object[0]);
+
+        long start = System.currentTimeMillis();
+        List<BooleanWrapper> results = new ArrayList<BooleanWrapper>();
+        for (int i = 0; i < (2 * Store.MAX_THREADS); i++) {
+            results.add(store.read("r" + i, DURATION));
+        }
+        PAFuture.waitForAll(results);
+        long duration = System.currentTimeMillis() - start;
+
+        assertEquals(Store.MAX_THREADS, store.getMaxServing().getIntValue());
+        assertTrue("Reads not served in parallel: " + duration, duration < (4 * DURATION));
+        PAActiveObject.terminateActiveObject(store, true);
+    }
+
+    @Test
+    public void incompatibleRequests() throws Exception {
+        Store store = PAActiveObject.newActive(Store.class, new Object[0]);
+
+        store.read("r1", DURATION);
+        store.read("r2", DURATION);
+        store.write("w", DURATION / 3);
+        store.read("r3", DURATION / 3);
+        List<String> events = store.getEvents();
+
+        assertEquals(events.toString(), 8, events.size());
+        // both reads run together, then the write alone, then the last read
+        assertTrue(events.toString(), events.subList(0, 2).contains("+r1") && events.subList(0, 2).contains("+r2"));
+        assertEquals(events.toString(), "+w", events.get(4));
+        assertEquals(events.toString(), "-w", events.get(5));
+        assertEquals(events.toString(), "+r3", events.get(6));
+        assertEquals(2, store.getMaxServing().getIntValue());
+        PAActiveObject.terminateActiveObject(store, true);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.activeobject.scheduler;
+
+import java.io.Serializable;
+
+import org.objectweb.proactive.Body;
+import org.objectweb.proactive.InitActive;
+import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+import org.objectweb.proactive.core.util.wrapper.StringWrapper;
+
+
+public class Member implements Serializable, InitActive {
+    private boolean initialized;
+
+    private int served;
+
+    public Member() {
+    }
+
+    public void initActivity(Body body) {
+        this.initialized = true;
+    }
+
+    public BooleanWrapper isInitialized() {
+        return new BooleanWrapper(this.initialized);
+    }
+
+    public IntWrapper ping() {
+        return new IntWrapper(++this.served);
+    }
+
+    /**
+     * Pings the other members and waits for their answers
+     */
+    public IntWrapper sum(Member[] others) {
+        int sum = 0;
+        for (Member other : others) {
+            sum += other.ping().getIntValue();
+        }
+        return new IntWrapper(sum);
+    }
+
+    public StringWrapper getThreadName() {
+        return new StringWrapper(Thread.currentThread().getName());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.activeobject.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+import functionalTests.FunctionalTest;
+
+
+/**
+ * Checks that active objects run by the body scheduler serve their requests without a thread
+ * of their own.
+ *
+ * @author The ProActive Team
+ */
+public class TestBodyScheduler extends FunctionalTest {
+    private static final int NB_MEMBERS = 200;
+
+    private static final int NB_CARRIERS = 2;
+
+    @BeforeClass
+    public static void enableScheduler() {
+        CentralPAPropertyRepository.PA_BODY_SCHEDULER_THREADS.setValue(NB_CARRIERS);
+    }
+
+    @AfterClass
+    public static void disableScheduler() {
+        CentralPAPropertyRepository.PA_BODY_SCHEDULER_THREADS.setValue(0);
+    }
+
+    @Test
+    public void scheduledMembers() throws Exception {
+        int threadsBefore = Thread.activeCount();
+        Member[] members = new Member[NB_MEMBERS];
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            members[i] = PAActiveObject.newActive(Member.class, new Object[0]);
+        }
+        int newThreads = Thread.activeCount() - threadsBefore;
+        assertTrue("Too many threads created for " + NB_MEMBERS + " active objects: " + newThreads,
+                   newThreads < (NB_MEMBERS / 4));
+
+        assertTrue(members[0].getThreadName().getStringValue().startsWith("ProActive body scheduler carrier"));
+
+        List<IntWrapper> pings = new ArrayList<IntWrapper>();
+        for (int round = 0; round < 3; round++) {
+            for (Member member : members) {
+                pings.add(member.ping());
+            }
+        }
+        PAFuture.waitForAll(pings);
+        for (Member member : members) {
+            assertTrue(member.isInitialized().getBooleanValue());
+            assertEquals(4, member.ping().getIntValue());
+        }
+
+        for (Member member : members) {
+            PAActiveObject.terminateActiveObject(member, true);
+        }
+    }
+
+    @Test
+    public void waitingMembers() throws Exception {
+        // more members waiting for futures at the same time than carriers
+        Member[] others = new Member[NB_CARRIERS];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = PAActiveObject.newActive(Member.class, new Object[0]);
+        }
+        List<IntWrapper> sums = new ArrayList<IntWrapper>();
+        for (int i = 0; i < (NB_CARRIERS * 4); i++) {
+            Member member = PAActiveObject.newActive(Member.class, new Object[0]);
+            sums.add(member.sum(others));
+        }
+        PAFuture.waitForAll(sums, 30000);
+        for (IntWrapper sum : sums) {
+            assertTrue(sum.getIntValue() >= NB_CARRIERS);
+        }
+    }
+}
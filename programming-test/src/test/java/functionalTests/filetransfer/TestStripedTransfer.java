@@ -0,0 +1,208 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.filetransfer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFileTransfer;
+import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.filetransfer.BlockManifest;
+import org.objectweb.proactive.core.filetransfer.FileBlock;
+import org.objectweb.proactive.core.filetransfer.FileTransferService;
+import org.objectweb.proactive.core.filetransfer.OperationStatus;
+import org.objectweb.proactive.core.filetransfer.RemoteFile;
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeFactory;
+
+import functionalTests.FunctionalTest;
+
+
+/**
+ * Tests the striped transfer of large files, and the resume of an interrupted striped transfer
+ */
+public class TestStripedTransfer extends FunctionalTest {
+
+    File dirTest = new File(System.getProperty("java.io.tmpdir"), "ProActive-TestStripedTransfer");
+
+    File srcFile = new File(dirTest, "src.dat");
+
+    Node node;
+
+    int fileSize;
+
+    @Before
+    public void initTest() throws Exception {
+        FileUtils.deleteDirectory(dirTest);
+        Assert.assertTrue(dirTest.mkdirs());
+
+        // one block and a half above the striping threshold
+        fileSize = (int) FileTransferService.DEFAULT_STRIPE_THRESHOLD + FileBlock.DEFAULT_BLOCK_SIZE * 3 / 2;
+        TestAPI.createRandomContentFile(srcFile, (fileSize >> 20) + 1);
+        RandomAccessFile raf = new RandomAccessFile(srcFile, "rw");
+        raf.setLength(fileSize);
+        raf.close();
+
+        node = NodeFactory.getDefaultNode();
+        CentralPAPropertyRepository.PA_FILETRANSFER_STRIPES.setValue(4);
+    }
+
+    @After
+    public void cleanTest() throws IOException {
+        CentralPAPropertyRepository.PA_FILETRANSFER_STRIPES.setValue(CentralPAPropertyRepository.PA_FILETRANSFER_STRIPES.getDefaultValue());
+        FileUtils.deleteDirectory(dirTest);
+    }
+
+    @Test
+    public void pushAndPull() throws Exception {
+        File filePushed = new File(new File(dirTest, "pushed"), "file.dat");
+        File filePulled = new File(new File(dirTest, "pulled"), "file.dat");
+
+        RemoteFile rfilePushed = PAFileTransfer.push(srcFile, node, filePushed);
+        rfilePushed.waitFor();
+        RemoteFile rfilePulled = PAFileTransfer.pull(node, filePushed, filePulled);
+        rfilePulled.waitFor();
+
+        Assert.assertTrue(FileUtils.contentEquals(srcFile, filePushed));
+        Assert.assertTrue(FileUtils.contentEquals(srcFile, filePulled));
+        Assert.assertFalse(BlockManifest.getManifestFile(filePushed).exists());
+        Assert.assertFalse(BlockManifest.getManifestFile(filePulled).exists());
+    }
+
+    @Test
+    public void resume() throws Exception {
+        File filePushed = new File(dirTest, "resumed.dat");
+        int blockSize = FileBlock.DEFAULT_BLOCK_SIZE;
+
+        // an interrupted transfer which wrote its first two blocks
+        BlockManifest manifest = new BlockManifest(srcFile.length(), srcFile.lastModified(), blockSize);
+        manifest.setCompleted(0);
+        manifest.setCompleted(1);
+        manifest.store(filePushed);
+
+        byte[] marker = new byte[2 * blockSize];
+        Arrays.fill(marker, (byte) 42);
+        RandomAccessFile raf = new RandomAccessFile(filePushed, "rw");
+        raf.setLength(fileSize);
+        raf.write(marker);
+        raf.close();
+
+        RemoteFile rfilePushed = PAFileTransfer.push(srcFile, node, filePushed);
+        rfilePushed.waitFor();
+        Assert.assertFalse(BlockManifest.getManifestFile(filePushed).exists());
+
+        // the blocks already written have not been sent again
+        byte[] head = new byte[marker.length];
+        FileInputStream fis = new FileInputStream(filePushed);
+        try {
+            Assert.assertEquals(head.length, fis.read(head));
+        } finally {
+            fis.close();
+        }
+        Assert.assertArrayEquals(marker, head);
+
+        // the others have
+        byte[] srcTail = new byte[fileSize - marker.length];
+        byte[] dstTail = new byte[fileSize - marker.length];
+        readAt(srcFile, marker.length, srcTail);
+        readAt(filePushed, marker.length, dstTail);
+        Assert.assertArrayEquals(srcTail, dstTail);
+    }
+
+    @Test
+    public void deadSenderIsExpired() throws Exception {
+        File filePushed = new File(dirTest, "expired.dat");
+        int blockSize = FileBlock.DEFAULT_BLOCK_SIZE;
+        FileTransferService fts = PAActiveObject.newActive(FileTransferService.class, null, node);
+
+        // a sender which wrote the first block then died without closing its transfer
+        UniqueID deadTransfer = new UniqueID();
+        BlockManifest manifest = fts.openStripedWrite(deadTransfer,
+                                                      filePushed,
+                                                      srcFile.length(),
+                                                      srcFile.lastModified(),
+                                                      blockSize);
+        Assert.assertEquals(0, manifest.getNumberOfCompletedBlocks());
+        OperationStatus status = fts.saveStripedBlock(deadTransfer, loadBlock(manifest, 0));
+        PAFuture.waitFor(status);
+        Assert.assertFalse(status.hasException());
+
+        // the next transfer to the same file resumes after the block of the dead sender
+        UniqueID transfer = new UniqueID();
+        manifest = fts.openStripedWrite(transfer, filePushed, srcFile.length(), srcFile.lastModified(), blockSize);
+        Assert.assertTrue(manifest.isCompleted(0));
+        Assert.assertEquals(1, manifest.getNumberOfCompletedBlocks());
+
+        status = fts.saveStripedBlock(deadTransfer, loadBlock(manifest, 1));
+        PAFuture.waitFor(status);
+        Assert.assertTrue("the transfer of the dead sender should be closed", status.hasException());
+
+        // a failed transfer keeps its manifest
+        status = fts.saveStripedBlock(transfer, loadBlock(manifest, 1));
+        PAFuture.waitFor(status);
+        Assert.assertFalse(status.hasException());
+        PAFuture.waitFor(fts.abortStripedWrite(transfer));
+        manifest = BlockManifest.load(filePushed);
+        Assert.assertNotNull(manifest);
+        Assert.assertEquals(2, manifest.getNumberOfCompletedBlocks());
+
+        PAActiveObject.terminateActiveObject(fts, true);
+    }
+
+    private FileBlock loadBlock(BlockManifest manifest, int index) throws IOException {
+        FileBlock block = new FileBlock(0, manifest.getBlockSize());
+        FileInputStream fis = new FileInputStream(srcFile);
+        try {
+            FileChannel channel = fis.getChannel();
+            block.loadBlock(channel, manifest.getBlockOffset(index), manifest.getBlockLength(index));
+        } finally {
+            fis.close();
+        }
+        return block;
+    }
+
+    private static void readAt(File file, long position, byte[] bytes) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            raf.seek(position);
+            raf.readFully(bytes);
+        } finally {
+            raf.close();
+        }
+    }
+}
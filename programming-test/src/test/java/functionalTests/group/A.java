@@ -71,6 +71,15 @@ public class A implements InitActive, RunActive, EndActive, java.io.Serializable
         return new A(a.getName() + "_Clone");
     }
 
+    public A slowCall(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        return new A(this.name + "_Clone");
+    }
+
     public String getHostName() {
         try { //return the name of the Host
             return URIBuilder.getHostNameorIP(ProActiveInet.getInstance().getInetAddress()).toUpperCase();
@@ -0,0 +1,62 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.group.concurrentcall;
+
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+
+/**
+ * A standard Java object used as a member of a group.
+ */
+public class Member implements Serializable {
+    private int id;
+
+    private transient CountDownLatch release;
+
+    public Member() {
+    }
+
+    public Member(int id, CountDownLatch release) {
+        this.id = id;
+        this.release = release;
+    }
+
+    public IntWrapper getId() {
+        return new IntWrapper(id);
+    }
+
+    /**
+     * Blocks until the release latch is opened, or for 30 seconds.
+     */
+    public IntWrapper waitForRelease() throws InterruptedException {
+        release.await(30, TimeUnit.SECONDS);
+        return new IntWrapper(id);
+    }
+}
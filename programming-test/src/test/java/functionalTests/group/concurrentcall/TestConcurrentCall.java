@@ -0,0 +1,117 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.group.concurrentcall;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.api.PAGroup;
+import org.objectweb.proactive.core.group.Group;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+import functionalTests.FunctionalTest;
+
+
+/**
+ * Checks that concurrent calls on the same group proceed in parallel, and that membership
+ * changes neither wait for nor affect the calls in progress.
+ *
+ * @author The ProActive Team
+ */
+public class TestConcurrentCall extends FunctionalTest {
+    private CountDownLatch release;
+
+    private ExecutorService executor;
+
+    private Member typedGroup;
+
+    private Group<Member> group;
+
+    @Before
+    public void createGroup() throws Exception {
+        release = new CountDownLatch(1);
+        executor = Executors.newCachedThreadPool();
+        typedGroup = (Member) PAGroup.newGroup(Member.class.getName());
+        group = PAGroup.getGroup(typedGroup);
+        group.add(new Member(0, release));
+        group.add(new Member(1, release));
+    }
+
+    @After
+    public void releaseCalls() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCalls() throws Exception {
+        Future<IntWrapper> blocked = executor.submit(new Callable<IntWrapper>() {
+            public IntWrapper call() throws Exception {
+                return typedGroup.waitForRelease();
+            }
+        });
+
+        // wait for the first call to be blocked in the members
+        Thread.sleep(500);
+        assertTrue(!blocked.isDone());
+
+        // a second call on the same group is not serialized behind the first one
+        Future<IntWrapper> ids = executor.submit(new Callable<IntWrapper>() {
+            public IntWrapper call() throws Exception {
+                return typedGroup.getId();
+            }
+        });
+        assertEquals(2, PAGroup.size(ids.get(10, TimeUnit.SECONDS)));
+
+        // neither are membership changes
+        group.addNamedElement("two", new Member(2, release));
+        group.remove(0);
+        assertEquals(2, group.size());
+        assertEquals(2, PAGroup.size(typedGroup.getId()));
+
+        // the blocked call was applied to the members of the group when it started
+        release.countDown();
+        IntWrapper blockedResult = blocked.get(10, TimeUnit.SECONDS);
+        Group<IntWrapper> blockedResults = PAGroup.getGroup(blockedResult);
+        assertEquals(2, blockedResults.size());
+        assertEquals(0, blockedResults.get(0).getIntValue());
+        assertEquals(1, blockedResults.get(1).getIntValue());
+
+        Group<IntWrapper> results = PAGroup.getGroup(typedGroup.getId());
+        assertEquals(1, results.get(0).getIntValue());
+        assertEquals(2, results.get(1).getIntValue());
+    }
+}
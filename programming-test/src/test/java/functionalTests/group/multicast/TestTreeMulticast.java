@@ -0,0 +1,167 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.group.multicast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.api.PAGroup;
+import org.objectweb.proactive.core.group.Group;
+import org.objectweb.proactive.core.group.MulticastOverlay;
+import org.objectweb.proactive.core.group.topology.BinomialTreeOverlay;
+import org.objectweb.proactive.core.group.topology.KaryTreeOverlay;
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeFactory;
+
+import functionalTests.FunctionalTest;
+import functionalTests.group.A;
+
+
+/**
+ * Broadcasts along a tree of relays to active objects spread over several nodes
+ *
+ * @author The ProActive Team
+ */
+public class TestTreeMulticast extends FunctionalTest {
+    static final int NB_MEMBERS = 23;
+
+    static final long SLOW_CALL_MILLIS = 5000;
+
+    private static Node[] nodes;
+
+    private A typedGroup;
+
+    @Before
+    public void createGroup() throws Exception {
+        if (nodes == null) {
+            nodes = new Node[3];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = NodeFactory.createLocalNode("multicast" + i, true, null);
+            }
+        }
+        this.typedGroup = (A) PAGroup.newGroup(A.class.getName());
+        Group<A> group = PAGroup.getGroup(this.typedGroup);
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            group.add(PAActiveObject.newActive(A.class, new Object[] { "A" + i }, nodes[i % nodes.length]));
+        }
+    }
+
+    @Test
+    public void karyTree() throws Exception {
+        checkAsynchronousCall(new KaryTreeOverlay(3));
+        checkOnewayCall(new KaryTreeOverlay(2));
+    }
+
+    @Test
+    public void binomialTree() throws Exception {
+        checkAsynchronousCall(new BinomialTreeOverlay());
+        checkOnewayCall(new BinomialTreeOverlay());
+    }
+
+    @Test
+    public void resultOrderAcrossTwoLevels() throws Exception {
+        // the first member relays to all the other ones, listed in reverse order: the relays
+        // of its node and of the other nodes reply in a different order than the members
+        PAGroup.setMulticastOverlay(this.typedGroup, new MulticastOverlay() {
+            public int[] getChildren(int index, int size) {
+                if (index == -1) {
+                    return new int[] { 0 };
+                }
+                if (index != 0) {
+                    return new int[0];
+                }
+                int[] children = new int[size - 1];
+                for (int i = 0; i < children.length; i++) {
+                    children[i] = size - 1 - i;
+                }
+                return children;
+            }
+        });
+        Group<A> results = PAGroup.getGroup(this.typedGroup.asynchronousCall());
+        assertEquals(NB_MEMBERS, results.size());
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            assertEquals("A" + i + "_Clone", results.get(i).getName());
+        }
+    }
+
+    @Test
+    public void asynchronousCallReturnsBeforeTheMembers() throws Exception {
+        PAGroup.setMulticastOverlay(this.typedGroup, new KaryTreeOverlay(2));
+        long start = System.currentTimeMillis();
+        Group<A> results = PAGroup.getGroup(this.typedGroup.slowCall(SLOW_CALL_MILLIS));
+        assertTrue(System.currentTimeMillis() - start < SLOW_CALL_MILLIS);
+        assertEquals(NB_MEMBERS, results.size());
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            assertTrue(PAFuture.isAwaited(results.get(i)));
+        }
+
+        // the results are waited by necessity
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            assertEquals("A" + i + "_Clone", results.get(i).getName());
+        }
+        assertTrue(System.currentTimeMillis() - start >= SLOW_CALL_MILLIS);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void overlayNotSpanningTheGroup() throws Exception {
+        PAGroup.setMulticastOverlay(this.typedGroup, new MulticastOverlay() {
+            public int[] getChildren(int index, int size) {
+                return (index == -1) ? new int[] { 0 } : new int[0];
+            }
+        });
+        this.typedGroup.asynchronousCall();
+    }
+
+    private void checkAsynchronousCall(MulticastOverlay overlay) {
+        PAGroup.setMulticastOverlay(this.typedGroup, overlay);
+        Group<A> results = PAGroup.getGroup(this.typedGroup.asynchronousCall());
+        assertEquals(NB_MEMBERS, results.size());
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            assertEquals("A" + i + "_Clone", results.get(i).getName());
+        }
+
+        // the arguments are serialized once by the caller and forwarded by the relays
+        PAGroup.setUniqueSerialization(this.typedGroup);
+        results = PAGroup.getGroup(this.typedGroup.asynchronousCall(new A("B")));
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            assertEquals("B_Clone", results.get(i).getName());
+        }
+        PAGroup.unsetUniqueSerialization(this.typedGroup);
+    }
+
+    private void checkOnewayCall(MulticastOverlay overlay) {
+        PAGroup.setMulticastOverlay(this.typedGroup, overlay);
+        this.typedGroup.onewayCall();
+        Group<A> group = PAGroup.getGroup(this.typedGroup);
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            assertTrue(group.get(i).isOnewayCallReceived());
+        }
+    }
+}
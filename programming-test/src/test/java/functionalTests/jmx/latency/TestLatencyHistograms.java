@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.jmx.latency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.body.latency.MethodLatencies;
+import org.objectweb.proactive.core.jmx.naming.FactoryName;
+import org.objectweb.proactive.core.runtime.ProActiveRuntimeImpl;
+import org.objectweb.proactive.core.util.wrapper.BooleanWrapper;
+
+import functionalTests.FunctionalTest;
+
+
+/**
+ * Checks the latencies recorded by an active object and by its runtime.
+ *
+ * @author The ProActive Team
+ */
+public class TestLatencyHistograms extends FunctionalTest {
+    private static final int NB_CALLS = 5;
+
+    private static final long WORK = 50;
+
+    @Test
+    public void latencies() throws Exception {
+        Worker worker = PAActiveObject.newActive(Worker.class, new Object[0]);
+
+        // the calls wait for each other in the request queue
+        List<BooleanWrapper> results = new ArrayList<BooleanWrapper>();
+        for (int i = 0; i < NB_CALLS; i++) {
+            results.add(worker.work(WORK));
+        }
+        PAFuture.waitForAll(results);
+
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        @SuppressWarnings("unchecked")
+        Map<String, MethodLatencies> latencies = (Map<String, MethodLatencies>) mbs.getAttribute(worker.getObjectName(),
+                                                                                                 "Latencies");
+        MethodLatencies work = latencies.get("work");
+        assertEquals(NB_CALLS, work.getService().getCount());
+        assertEquals(NB_CALLS, work.getQueueWait().getCount());
+        assertEquals(NB_CALLS, work.getReplySend().getCount());
+        assertTrue(work.toString(), work.getService().getPercentile(50) >= WORK * 1000);
+        assertTrue(work.toString(), work.getQueueWait().getPercentile(100) >= (NB_CALLS - 1) * WORK * 1000);
+
+        ObjectName runtime = FactoryName.createRuntimeObjectName(ProActiveRuntimeImpl.getProActiveRuntime()
+                                                                                     .getURL());
+        @SuppressWarnings("unchecked")
+        Map<String, MethodLatencies> runtimeLatencies = (Map<String, MethodLatencies>) mbs.getAttribute(runtime,
+                                                                                                        "Latencies");
+        assertTrue(runtimeLatencies.get("work").getService().getCount() >= NB_CALLS);
+    }
+}
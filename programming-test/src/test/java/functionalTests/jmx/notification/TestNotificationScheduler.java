@@ -0,0 +1,126 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.jmx.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.core.jmx.notification.NotificationType;
+
+import functionalTests.FunctionalTest;
+
+
+/**
+ * Checks that the JMX notifications of all the active objects of a runtime are sent by a
+ * single thread, and only while a listener is registered.
+ *
+ * @author The ProActive Team
+ */
+public class TestNotificationScheduler extends FunctionalTest {
+    private static final int NB_ACTIVE_OBJECTS = 200;
+
+    @Test
+    public void activeObjectsShareTheNotificationThread() throws Exception {
+        List<Monitored> aos = new ArrayList<Monitored>();
+        for (int i = 0; i < NB_ACTIVE_OBJECTS; i++) {
+            aos.add(PAActiveObject.newActive(Monitored.class, new Object[0]));
+        }
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        BlockingQueue<Notification> received = new LinkedBlockingQueue<Notification>();
+        NotificationListener listener = collectInto(received);
+        for (Monitored ao : aos) {
+            mbs.addNotificationListener(ao.getObjectName(), listener, null, null);
+            ao.getObjectName();
+        }
+
+        for (int i = 0; i < NB_ACTIVE_OBJECTS; i++) {
+            assertTrue("Missing notifications", received.poll(10, TimeUnit.SECONDS) != null);
+        }
+
+        int notificationThreads = 0;
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            assertFalse("A body started its own notification thread",
+                        t.getName().startsWith("JMXNotificationThread"));
+            if (t.getName().startsWith("JMX notifications")) {
+                notificationThreads++;
+            }
+        }
+        assertEquals(1, notificationThreads);
+    }
+
+    @Test
+    public void notificationsAreSentToListenersOnly() throws Exception {
+        Monitored ao = PAActiveObject.newActive(Monitored.class, new Object[0]);
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = ao.getObjectName();
+        assertFalse(ao.hasNotificationListeners());
+
+        BlockingQueue<Notification> received = new LinkedBlockingQueue<Notification>();
+        NotificationListener listener = collectInto(received);
+        mbs.addNotificationListener(name, listener, null, null);
+        assertTrue(ao.hasNotificationListeners());
+
+        Notification set = received.poll(10, TimeUnit.SECONDS);
+        assertEquals(NotificationType.setOfNotifications, set.getType());
+        boolean servingStarted = false;
+        for (Object notification : (Collection<?>) set.getUserData()) {
+            servingStarted |= NotificationType.servingStarted.equals(((Notification) notification).getType());
+        }
+        assertTrue("The notification of the call is missing", servingStarted);
+
+        mbs.removeNotificationListener(name, listener);
+        assertFalse(ao.hasNotificationListeners());
+        received.clear();
+        ao.getObjectName();
+        assertEquals(null, received.poll(1, TimeUnit.SECONDS));
+    }
+
+    private static NotificationListener collectInto(final BlockingQueue<Notification> received) {
+        return new NotificationListener() {
+            public void handleNotification(Notification notification, Object handback) {
+                if (NotificationType.setOfNotifications.equals(notification.getType())) {
+                    received.add(notification);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionalTests.pamr.router;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.proactive.extensions.pamr.protocol.AgentID;
+import org.objectweb.proactive.extensions.pamr.protocol.MagicCookie;
+import org.objectweb.proactive.extensions.pamr.router.Attachment;
+import org.objectweb.proactive.extensions.pamr.router.Client;
+
+import functionalTests.FunctionalTest;
+
+
+public class TestOutboundQueueDisconnection extends FunctionalTest {
+    static final private int NB_MESSAGE = 32;
+
+    static final private int MESSAGE_SIZE = 1024 * 1024;
+
+    /*
+     * This test sends messages to a client which does not read them, so that they pile up in
+     * the outbound queue of its attachment. The attachment is then discarded.
+     *
+     * Once the client reconnects, the messages which were still queued must be received, each
+     * one whole and in order.
+     */
+    @Test
+    public void testUnsentMessagesArePending() throws Exception {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try {
+            Client client = new Client(new AgentID(1), new MagicCookie());
+
+            // The peer never reads, the socket buffers fill up
+            SocketChannel stalledPeer = SocketChannel.open(server.socket().getLocalSocketAddress());
+            SocketChannel stalled = server.accept();
+            stalled.configureBlocking(false);
+            Attachment stalledAttachment = new Attachment(null, stalled);
+            client.setAttachment(stalledAttachment);
+
+            for (int i = 0; i < NB_MESSAGE; i++) {
+                client.sendMessageOrCache(newMessage(i));
+            }
+            client.discardAttachment("test");
+            stalledAttachment.dtor();
+            stalledPeer.close();
+
+            // The client reconnects
+            final SocketChannel peer = SocketChannel.open(server.socket().getLocalSocketAddress());
+            SocketChannel reconnected = server.accept();
+            Attachment attachment = new Attachment(null, reconnected);
+            client.setAttachment(attachment);
+
+            final byte[][] received = new byte[NB_MESSAGE][];
+            final int[] nbReceived = new int[1];
+            Thread reader = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        DataInputStream in = new DataInputStream(peer.socket().getInputStream());
+                        byte[] message = new byte[MESSAGE_SIZE];
+                        while (nbReceived[0] < NB_MESSAGE) {
+                            in.readFully(message);
+                            received[nbReceived[0]++] = message.clone();
+                        }
+                    } catch (IOException e) {
+                        // end of stream
+                    }
+                }
+            };
+            reader.start();
+
+            client.sendPendingMessage();
+            attachment.dtor();
+            reader.join(30000);
+            peer.close();
+
+            Assert.assertTrue("queued messages should have been sent again", nbReceived[0] > 0);
+            int first = NB_MESSAGE - nbReceived[0];
+            for (int i = 0; i < nbReceived[0]; i++) {
+                Assert.assertArrayEquals("message " + (first + i) + " should be received whole and in order",
+                                         newMessage(first + i).array(),
+                                         received[i]);
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    private ByteBuffer newMessage(int index) {
+        byte[] data = new byte[MESSAGE_SIZE];
+        Arrays.fill(data, (byte) index);
+        return ByteBuffer.wrap(data);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.dataspace.local;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.config.PAPropertyInteger;
+import org.objectweb.proactive.extensions.dataspaces.vfs.VFSFactory;
+import org.objectweb.proactive.extensions.vfsprovider.FileSystemServerDeployer;
+import org.objectweb.proactive.extensions.vfsprovider.client.ProActiveFileSystem;
+
+import functionalTests.FunctionalTest;
+import performanceTests.HudsonReport;
+
+
+/**
+ * Walks a deep tree of a ProActive file system server, reading the type and size of each file,
+ * with and without the client metadata cache. Reports the number of files walked per second with
+ * the cache.
+ */
+public class TestTreeWalk extends FunctionalTest {
+    private static final int DEPTH = 3;
+
+    private static final int FOLDERS = 6;
+
+    private static final int FILES = 6;
+
+    private static final int WALKS = 5;
+
+    private File treeDir;
+
+    private FileSystemServerDeployer fsDeployer;
+
+    @Before
+    public void before() throws IOException {
+        treeDir = new File(System.getProperty("java.io.tmpdir"), "TestTreeWalk");
+        deleteRecursively(treeDir);
+        createTree(treeDir, DEPTH);
+        fsDeployer = new FileSystemServerDeployer(treeDir.getAbsolutePath(), true);
+    }
+
+    @After
+    public void after() throws Exception {
+        fsDeployer.terminate();
+        deleteRecursively(treeDir);
+        final PAPropertyInteger ttl = CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS;
+        ttl.setValue(ttl.getDefaultValue());
+    }
+
+    @Test
+    public void test() throws Exception {
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS.setValue(0);
+        final double uncached = walk("without cache");
+
+        CentralPAPropertyRepository.PA_VFSPROVIDER_CLIENT_METADATA_CACHE_TTL_MILLIS.setValue(60000);
+        final double cached = walk("with cache");
+
+        System.out.printf("Speedup: %.2f\n", cached / uncached);
+        HudsonReport.reportToHudson(TestTreeWalk.class, cached);
+    }
+
+    private double walk(String description) throws Exception {
+        final DefaultFileSystemManager manager = VFSFactory.createDefaultFileSystemManager();
+        try {
+            final FileObject root = manager.resolveFile(fsDeployer.getVFSRootURL());
+            // warm up
+            walk(root);
+
+            long files = 0;
+            final long before = System.nanoTime();
+            for (int i = 0; i < WALKS; i++) {
+                files += walk(manager.resolveFile(fsDeployer.getVFSRootURL()));
+            }
+            final double seconds = (System.nanoTime() - before) / 1e9;
+            final double filesPerSecond = files / seconds;
+
+            final ProActiveFileSystem fs = (ProActiveFileSystem) root.getFileSystem();
+            System.out.printf("Walk %s: %d files, %.0f files/s, cache hit rate %.2f\n",
+                              description,
+                              files / WALKS,
+                              filesPerSecond,
+                              fs.getMetadataCacheHitRate());
+            return filesPerSecond;
+        } finally {
+            manager.close();
+        }
+    }
+
+    private static long walk(FileObject folder) throws FileSystemException {
+        long count = 0;
+        for (FileObject child : folder.getChildren()) {
+            count++;
+            if (child.getType() == FileType.FOLDER) {
+                count += walk(child);
+            } else {
+                child.getContent().getSize();
+            }
+        }
+        return count;
+    }
+
+    private static void createTree(File dir, int depth) throws IOException {
+        if (!dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        for (int i = 0; i < FILES; i++) {
+            if (!new File(dir, "file" + i).createNewFile()) {
+                throw new IOException("Cannot create file in " + dir);
+            }
+        }
+        if (depth > 0) {
+            for (int i = 0; i < FOLDERS; i++) {
+                createTree(new File(dir, "folder" + i), depth - 1);
+            }
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.group;
+
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAGroup;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.group.Group;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures how many calls per second several threads can make concurrently on the same group,
+ * while another thread keeps adding and removing members.
+ */
+public abstract class GroupCallThroughput {
+
+    static final int NB_CALLERS = 8;
+
+    private Class<?> cl;
+
+    private int nbMembers;
+
+    public GroupCallThroughput(Class<?> cl, int nbMembers) {
+        this.cl = cl;
+        this.nbMembers = nbMembers;
+    }
+
+    @Test
+    public void test() throws Exception {
+        final Member typedGroup = (Member) PAGroup.newGroup(Member.class.getName());
+        final Group<Member> group = PAGroup.getGroup(typedGroup);
+        for (int i = 0; i < nbMembers; i++) {
+            group.add(new Member(i));
+        }
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong count = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] callers = new Thread[NB_CALLERS + 1];
+        for (int i = 0; i < NB_CALLERS; i++) {
+            callers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (running.get()) {
+                        PAGroup.waitAll(typedGroup.getId());
+                        count.incrementAndGet();
+                    }
+                }
+            };
+        }
+        callers[NB_CALLERS] = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int i = nbMembers;
+                while (running.get()) {
+                    group.add(new Member(i++));
+                    group.remove(0);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        };
+        for (Thread caller : callers) {
+            caller.start();
+        }
+
+        start.countDown();
+        long startTime = System.currentTimeMillis();
+        Thread.sleep(CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue());
+        long calls = count.get();
+        long endTime = System.currentTimeMillis();
+        running.set(false);
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        double throughput = (1000.0 * calls) / (endTime - startTime);
+        System.out.println("Members: " + nbMembers);
+        System.out.println("Count: " + calls);
+        System.out.println("Duration: " + (endTime - startTime));
+        System.out.println("Throughput " + throughput);
+        HudsonReport.reportToHudson(this.cl, throughput);
+    }
+
+    static public class Member implements Serializable {
+        private int id;
+
+        public Member() {
+        }
+
+        public Member(int id) {
+            this.id = id;
+        }
+
+        public IntWrapper getId() {
+            return new IntWrapper(id);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.mop;
+
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.api.PAFuture;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.util.wrapper.IntWrapper;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures how many calls per second several threads can make concurrently through the stub of
+ * the same local active object. Each caller waits for its calls to be served every
+ * {@link #NB_CALLS_PER_LOOP} calls.
+ */
+public abstract class StubInvocationThroughput {
+
+    static final int NB_CALLS_PER_LOOP = 100;
+
+    private Class<?> cl;
+
+    private int nbCallers;
+
+    public StubInvocationThroughput(Class<?> cl, int nbCallers) {
+        this.cl = cl;
+        this.nbCallers = nbCallers;
+    }
+
+    @Test
+    public void test() throws Exception {
+        final Server server = PAActiveObject.newActive(Server.class, new Object[0]);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong count = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] callers = new Thread[nbCallers];
+        for (int i = 0; i < nbCallers; i++) {
+            callers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (running.get()) {
+                        for (int i = 1; i < NB_CALLS_PER_LOOP; i++) {
+                            server.serve();
+                        }
+                        // bounds the number of pending calls of each caller
+                        PAFuture.waitFor(server.sync());
+                        count.addAndGet(NB_CALLS_PER_LOOP);
+                    }
+                }
+            };
+            callers[i].start();
+        }
+
+        start.countDown();
+        long startTime = System.currentTimeMillis();
+        Thread.sleep(CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue());
+        long calls = count.get();
+        long endTime = System.currentTimeMillis();
+        running.set(false);
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        PAActiveObject.terminateActiveObject(server, true);
+
+        double throughput = (1000.0 * calls) / (endTime - startTime);
+        System.out.println("Callers: " + nbCallers);
+        System.out.println("Count: " + calls);
+        System.out.println("Duration: " + (endTime - startTime));
+        System.out.println("Throughput " + throughput);
+        HudsonReport.reportToHudson(this.cl, throughput);
+    }
+
+    static public class Server implements Serializable {
+        public Server() {
+        }
+
+        public void serve() {
+        }
+
+        public IntWrapper sync() {
+            return new IntWrapper(0);
+        }
+    }
+}
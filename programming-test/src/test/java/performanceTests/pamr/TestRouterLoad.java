@@ -0,0 +1,212 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.pamr;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.util.ProActiveRandom;
+import org.objectweb.proactive.extensions.pamr.client.Tunnel;
+import org.objectweb.proactive.extensions.pamr.protocol.AgentID;
+import org.objectweb.proactive.extensions.pamr.protocol.MagicCookie;
+import org.objectweb.proactive.extensions.pamr.protocol.message.DataRequestMessage;
+import org.objectweb.proactive.extensions.pamr.protocol.message.Message;
+import org.objectweb.proactive.extensions.pamr.protocol.message.Message.MessageType;
+import org.objectweb.proactive.extensions.pamr.protocol.message.RegistrationReplyMessage;
+import org.objectweb.proactive.extensions.pamr.protocol.message.RegistrationRequestMessage;
+import org.objectweb.proactive.extensions.pamr.router.Router;
+import org.objectweb.proactive.extensions.pamr.router.RouterConfig;
+import org.objectweb.proactive.extensions.pamr.router.RouterImpl;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures the message rate routed between agents while some agents never read their messages.
+ * <p>
+ * Each sender sends small data messages to its receiver and, every {@link #SLOW_RATIO} messages,
+ * to one of the slow consumers. The slow consumers must not stall the router workers: the rate
+ * observed by the receivers is expected to stay steady for the whole test.
+ */
+public class TestRouterLoad {
+
+    static final int NB_PAIRS = 50;
+
+    static final int NB_SLOW_CONSUMERS = 5;
+
+    static final int SLOW_RATIO = 4;
+
+    static final int PAYLOAD_SIZE = 1024;
+
+    @Test
+    public void test() throws Exception {
+        RouterConfig config = new RouterConfig();
+        config.setNbWorkerThreads(4);
+        Router router = Router.createAndStart(config);
+
+        List<Tunnel> tunnels = new ArrayList<Tunnel>();
+        try {
+            AgentID[] slowConsumers = new AgentID[NB_SLOW_CONSUMERS];
+            for (int i = 0; i < slowConsumers.length; i++) {
+                Tunnel tunnel = connect(router);
+                tunnels.add(tunnel);
+                slowConsumers[i] = register(tunnel);
+            }
+
+            final long testDuration = CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue();
+            final long deadline = System.currentTimeMillis() + testDuration;
+            final AtomicLong received = new AtomicLong();
+            List<Thread> senders = new ArrayList<Thread>();
+            List<Thread> receivers = new ArrayList<Thread>();
+            for (int i = 0; i < NB_PAIRS; i++) {
+                Tunnel receiverTunnel = connect(router);
+                tunnels.add(receiverTunnel);
+                AgentID receiver = register(receiverTunnel);
+
+                Tunnel senderTunnel = connect(router);
+                tunnels.add(senderTunnel);
+                AgentID sender = register(senderTunnel);
+
+                receivers.add(new Receiver(receiverTunnel, deadline, received));
+                senders.add(new Sender(senderTunnel, sender, receiver, slowConsumers, deadline));
+            }
+
+            long startTime = System.currentTimeMillis();
+            for (Thread thread : receivers) {
+                thread.start();
+            }
+            for (Thread thread : senders) {
+                thread.start();
+            }
+            // Receivers blocked on a read are released when the tunnels are closed
+            for (Thread thread : senders) {
+                thread.join(testDuration + 10000);
+            }
+            long duration = System.currentTimeMillis() - startTime;
+
+            double throughput = (1000.0 * received.get()) / duration;
+            System.out.println("Received " + received.get() + " messages in " + duration + " ms: " + throughput +
+                               " msg/s");
+            HudsonReport.reportToHudson(TestRouterLoad.class, throughput);
+        } finally {
+            for (Tunnel tunnel : tunnels) {
+                tunnel.shutdown();
+            }
+            router.stop();
+        }
+    }
+
+    private Tunnel connect(Router router) throws IOException {
+        Socket s = new Socket(InetAddress.getLocalHost(), router.getPort());
+        return new Tunnel(s);
+    }
+
+    private AgentID register(Tunnel tunnel) throws IOException {
+        Message message = new RegistrationRequestMessage(null,
+                                                         ProActiveRandom.nextPosLong(),
+                                                         RouterImpl.DEFAULT_ROUTER_ID,
+                                                         new MagicCookie());
+        tunnel.write(message.toByteArray());
+
+        byte[] resp = tunnel.readMessage();
+        RegistrationReplyMessage reply = new RegistrationReplyMessage(resp, 0);
+        return reply.getAgentID();
+    }
+
+    private static class Sender extends Thread {
+        final private Tunnel tunnel;
+
+        final private AgentID sender;
+
+        final private AgentID receiver;
+
+        final private AgentID[] slowConsumers;
+
+        final private long deadline;
+
+        Sender(Tunnel tunnel, AgentID sender, AgentID receiver, AgentID[] slowConsumers, long deadline) {
+            this.tunnel = tunnel;
+            this.sender = sender;
+            this.receiver = receiver;
+            this.slowConsumers = slowConsumers;
+            this.deadline = deadline;
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            byte[] payload = new byte[PAYLOAD_SIZE];
+            long messageId = 0;
+            try {
+                while (System.currentTimeMillis() < deadline) {
+                    AgentID recipient = this.receiver;
+                    if (messageId % SLOW_RATIO == 0) {
+                        recipient = this.slowConsumers[(int) (messageId / SLOW_RATIO) % this.slowConsumers.length];
+                    }
+                    Message message = new DataRequestMessage(this.sender, recipient, messageId++, payload);
+                    this.tunnel.write(message.toByteArray());
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static class Receiver extends Thread {
+        final private Tunnel tunnel;
+
+        final private long deadline;
+
+        final private AtomicLong received;
+
+        Receiver(Tunnel tunnel, long deadline, AtomicLong received) {
+            this.tunnel = tunnel;
+            this.deadline = deadline;
+            this.received = received;
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.currentTimeMillis() < deadline) {
+                    byte[] message = this.tunnel.readMessage();
+                    if (Message.readType(message, 0) == MessageType.DATA_REQUEST) {
+                        this.received.incrementAndGet();
+                    }
+                }
+            } catch (Exception e) {
+                // The tunnel is closed at the end of the test
+            }
+        }
+    }
+}
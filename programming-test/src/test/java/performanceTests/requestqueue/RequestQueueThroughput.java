@@ -0,0 +1,120 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.requestqueue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.body.request.BlockingRequestQueue;
+import org.objectweb.proactive.core.body.request.Request;
+import org.objectweb.proactive.core.body.request.RequestImpl;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.mop.MethodCall;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures how many requests per second a single serving thread can remove from a request queue
+ * while many threads are adding requests to it, as PNP executor threads do for a busy active object.
+ */
+public abstract class RequestQueueThroughput {
+
+    static final int NB_PRODUCERS = 32;
+
+    private Class<?> cl;
+
+    public RequestQueueThroughput(Class<?> cl) {
+        this.cl = cl;
+    }
+
+    protected abstract BlockingRequestQueue newRequestQueue(UniqueID ownerID);
+
+    @Test
+    public void test() throws Exception {
+        final BlockingRequestQueue queue = newRequestQueue(new UniqueID());
+        final Request request = new RequestImpl(new MethodCall(Server.class.getMethod("serve"),
+                                                               null,
+                                                               new Object[0]),
+                                                true);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] producers = new Thread[NB_PRODUCERS];
+        for (int i = 0; i < NB_PRODUCERS; i++) {
+            producers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (running.get()) {
+                        // Keep the queue bounded so that the test does not measure the GC
+                        if (queue.size() < 100000) {
+                            queue.add(request);
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                }
+            };
+            producers[i].start();
+        }
+
+        start.countDown();
+        long count = 0;
+        long startTime = System.currentTimeMillis();
+        final long testDuration = CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue();
+        while (System.currentTimeMillis() - startTime < testDuration) {
+            for (int i = 0; i < 1000; i++) {
+                if (queue.blockingRemoveOldest(100) != null) {
+                    count++;
+                }
+            }
+        }
+        long endTime = System.currentTimeMillis();
+        running.set(false);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        queue.destroy();
+
+        double throughput = (1000.0 * count) / (endTime - startTime);
+        System.out.println("Count: " + count);
+        System.out.println("Duration: " + (endTime - startTime));
+        System.out.println("Throughput " + throughput);
+        HudsonReport.reportToHudson(this.cl, throughput);
+    }
+
+    static public class Server {
+        public void serve() {
+        }
+    }
+}
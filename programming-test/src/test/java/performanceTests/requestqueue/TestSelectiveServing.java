@@ -0,0 +1,96 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.requestqueue;
+
+import org.junit.Test;
+import org.objectweb.proactive.core.UniqueID;
+import org.objectweb.proactive.core.body.request.BlockingRequestQueue;
+import org.objectweb.proactive.core.body.request.BlockingRequestQueueImpl;
+import org.objectweb.proactive.core.body.request.Request;
+import org.objectweb.proactive.core.body.request.RequestImpl;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.mop.MethodCall;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures the latency of serving a request by method name while the queue is filled with requests
+ * for other methods, as done by {@link org.objectweb.proactive.Service#blockingServeOldest(String)}.
+ * <p>
+ * The requested method is always behind all the other pending requests, which is the worst case
+ * of a linear scan. The latency is expected to stay flat when the queue depth grows.
+ */
+public class TestSelectiveServing {
+
+    static final int[] DEPTHS = { 1000, 10000, 100000 };
+
+    @Test
+    public void test() throws Exception {
+        double latency = 0;
+        for (int depth : DEPTHS) {
+            latency = measure(depth);
+            System.out.println("Depth " + depth + ": " + latency + " us per removeOldest(String)");
+        }
+        HudsonReport.reportToHudson(TestSelectiveServing.class, latency);
+    }
+
+    private double measure(int depth) throws Exception {
+        BlockingRequestQueue queue = new BlockingRequestQueueImpl(new UniqueID());
+        for (int i = 0; i < depth; i++) {
+            queue.add(newRequest("other"));
+        }
+        Request selected = newRequest("selected");
+        queue.add(selected);
+
+        long count = 0;
+        long startTime = System.nanoTime();
+        final long testDuration = CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue() /
+                                  DEPTHS.length;
+        while ((System.nanoTime() - startTime) / 1000000 < testDuration) {
+            for (int i = 0; i < 100; i++) {
+                queue.removeOldest("selected");
+                queue.add(selected);
+                count++;
+            }
+        }
+        long duration = System.nanoTime() - startTime;
+        queue.destroy();
+        return (duration / 1000.0) / count;
+    }
+
+    private static Request newRequest(String methodName) throws NoSuchMethodException {
+        return new RequestImpl(new MethodCall(Server.class.getMethod(methodName), null, new Object[0]), true);
+    }
+
+    static public class Server {
+        public void other() {
+        }
+
+        public void selected() {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.serialization;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.core.body.UniversalBody;
+import org.objectweb.proactive.core.body.proxy.UniversalBodyProxy;
+import org.objectweb.proactive.core.body.request.RequestImpl;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.mop.MethodCall;
+import org.objectweb.proactive.core.mop.StubObject;
+import org.objectweb.proactive.core.util.converter.remote.ProActiveMarshaller;
+import org.objectweb.proactive.core.util.converter.remote.WireDictionary;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures the size and the serialization throughput of a small request sent by an active
+ * object, written as sent by a connection without dictionary and by a connection whose
+ * {@link WireDictionary} already knows the method, the method name and the sender.
+ * <p>
+ * The reported value is the size of the compact request, in bytes.
+ */
+public class TestCompactRequestSize {
+
+    @Test
+    public void test() throws Exception {
+        ProActiveMarshaller marshaller = new ProActiveMarshaller("pnp://localhost:0/");
+        Method method = Server.class.getMethod("add", int.class, String.class);
+        Server server = PAActiveObject.newActive(Server.class, new Object[0]);
+        UniversalBody sender = ((UniversalBodyProxy) ((StubObject) server).getProxy()).getBody();
+        RequestImpl request = new RequestImpl(MethodCall.getMethodCall(method, null, new Object[] { 1, "a" }, null),
+                                              sender,
+                                              false,
+                                              1);
+
+        int plainSize = measure("Plain", marshaller, request, null);
+
+        WireDictionary dictionary = new WireDictionary();
+        WireDictionary.Batch batch = dictionary.newBatch();
+        marshaller.marshallObject(request, batch);
+        batch.acknowledge();
+        int compactSize = measure("Compact", marshaller, request, dictionary);
+
+        System.out.println("Saved " + (plainSize - compactSize) + " bytes per request");
+        HudsonReport.reportToHudson(TestCompactRequestSize.class, compactSize);
+        PAActiveObject.terminateActiveObject(server, true);
+    }
+
+    private static int measure(String name, ProActiveMarshaller marshaller, RequestImpl request,
+            WireDictionary dictionary) throws Exception {
+        int size = 0;
+        long count = 0;
+        long startTime = System.currentTimeMillis();
+        final long testDuration = CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue() / 2;
+        while (System.currentTimeMillis() - startTime < testDuration) {
+            for (int i = 0; i < 10; i++) {
+                WireDictionary.Batch batch = (dictionary != null) ? dictionary.newBatch() : null;
+                size = marshaller.marshallObject(request, batch).length;
+                count++;
+            }
+        }
+        long duration = System.currentTimeMillis() - startTime;
+
+        System.out.println(name + " request: " + size + " bytes, " + ((1000.0 * count) / duration) + " requests/s");
+        return size;
+    }
+
+    static public class Server {
+        public Server() {
+        }
+
+        public int add(int i, String s) {
+            return i;
+        }
+    }
+}
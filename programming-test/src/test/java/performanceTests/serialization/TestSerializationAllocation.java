@@ -0,0 +1,93 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performanceTests.serialization;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.core.util.converter.ProActiveObjectToByteConverter;
+
+import performanceTests.HudsonReport;
+
+
+/**
+ * Measures the number of bytes allocated to serialize one message with
+ * {@link ProActiveObjectToByteConverter}, and the serialization throughput, for several
+ * message sizes.
+ * <p>
+ * The reported value is the allocation per message of the largest size. It should stay close
+ * to the size of the message itself, the serialized bytes being returned in a new array.
+ */
+public class TestSerializationAllocation {
+
+    static final int[] SIZES = { 1024, 64 * 1024, 512 * 1024 };
+
+    @Test
+    public void test() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        double allocated = 0;
+        for (int size : SIZES) {
+            Message message = new Message(size);
+            // warm up
+            for (int i = 0; i < 100; i++) {
+                ProActiveObjectToByteConverter.ProActiveObjectStream.convert(message);
+            }
+
+            long count = 0;
+            long startAllocated = bean.getThreadAllocatedBytes(threadId);
+            long startTime = System.currentTimeMillis();
+            final long testDuration = CentralPAPropertyRepository.PA_TEST_PERF_DURATION.getValue() / SIZES.length;
+            while (System.currentTimeMillis() - startTime < testDuration) {
+                for (int i = 0; i < 10; i++) {
+                    ProActiveObjectToByteConverter.ProActiveObjectStream.convert(message);
+                    count++;
+                }
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            allocated = (double) (bean.getThreadAllocatedBytes(threadId) - startAllocated) / count;
+
+            System.out.println("Message of " + size + " bytes: " + allocated + " bytes allocated per message, " +
+                               ((1000.0 * count) / duration) + " messages/s");
+        }
+        HudsonReport.reportToHudson(TestSerializationAllocation.class, allocated);
+    }
+
+    static public class Message implements Serializable {
+        private final byte[] payload;
+
+        private final String name = "message";
+
+        public Message(int size) {
+            this.payload = new byte[size];
+        }
+    }
+}
@@ -127,6 +127,14 @@ public class CircularArrayList<E> extends java.util.AbstractList<E> implements j
         return size;
     }
 
+    /**
+     * Returns the number of structural modifications of this list, and of replaced elements. It
+     * lets an index built over the list detect that the list has been modified behind its back.
+     */
+    public int getModificationCount() {
+        return modCount;
+    }
+
     @Override
     public boolean contains(Object elem) {
         return indexOf(elem) >= 0;
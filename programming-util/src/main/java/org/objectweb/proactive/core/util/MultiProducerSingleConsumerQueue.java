@@ -0,0 +1,124 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * <p>
+ * An unbounded, lock-free FIFO queue that can be fed by any number of threads but
+ * drained by only one thread at a time.
+ * </p><p>
+ * Producers only perform a single atomic exchange on the head of the list, they never
+ * wait for each other nor for the consumer. The consumer side is not thread safe: callers
+ * must ensure that {@link #poll()}, {@link #peek()} and {@link #clear()} are never invoked
+ * concurrently (for instance by always calling them while holding the same monitor).
+ * </p><p>
+ * Based on the intrusive MPSC node queue described by Dmitry Vyukov.
+ * </p>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class MultiProducerSingleConsumerQueue<E> {
+
+    /** Last inserted node, swapped by producers */
+    private final AtomicReference<Node<E>> head;
+
+    /** Stub node preceding the oldest element, only accessed by the consumer */
+    private Node<E> tail;
+
+    public MultiProducerSingleConsumerQueue() {
+        Node<E> stub = new Node<E>(null);
+        this.head = new AtomicReference<Node<E>>(stub);
+        this.tail = stub;
+    }
+
+    /**
+     * Inserts the given element at the end of the queue. Can be called by any thread.
+     * @param element the element to add, must not be null
+     */
+    public void offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        Node<E> node = new Node<E>(element);
+        Node<E> previous = this.head.getAndSet(node);
+        // Between the exchange and this write, the consumer can not see the node yet
+        previous.next = node;
+    }
+
+    /**
+     * Removes and returns the oldest element, or null if the queue is empty.
+     * Consumer side only.
+     */
+    public E poll() {
+        Node<E> next = this.tail.next;
+        if (next == null) {
+            return null;
+        }
+        E element = next.element;
+        next.element = null;
+        this.tail = next;
+        return element;
+    }
+
+    /**
+     * Returns the oldest element without removing it, or null if the queue is empty.
+     * Consumer side only.
+     */
+    public E peek() {
+        Node<E> next = this.tail.next;
+        return (next == null) ? null : next.element;
+    }
+
+    /**
+     * Returns true if no element has been linked yet. An element being inserted concurrently
+     * may not be visible until its producer returns from {@link #offer(Object)}.
+     */
+    public boolean isEmpty() {
+        return this.tail.next == null;
+    }
+
+    /**
+     * Removes all the visible elements. Consumer side only.
+     */
+    public void clear() {
+        while (poll() != null) {
+        }
+    }
+
+    private static final class Node<E> {
+        private E element;
+
+        private volatile Node<E> next;
+
+        private Node(E element) {
+            this.element = element;
+        }
+    }
+}
@@ -25,9 +25,9 @@
  */
 package org.objectweb.proactive.core.util.converter;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 
 import org.objectweb.proactive.core.util.converter.MakeDeepCopy.ConversionMode;
 
@@ -82,20 +82,25 @@ public class ObjectToByteConverter {
         objectOutputStream.flush();
     }
 
+    private static ObjectOutputStream newObjectOutputStream(OutputStream out, ConversionMode conversionMode)
+            throws IOException {
+        // we use enum and static calls to avoid object instanciation
+        if (conversionMode == ConversionMode.MARSHALL) {
+            return new SunMarshalOutputStream(out);
+        } else if (conversionMode == ConversionMode.OBJECT) {
+            return new ObjectOutputStream(out);
+        } else {
+            throw new UnsupportedOperationException(ConversionMode.PAOBJECT + " is not supported");
+        }
+    }
+
     private static byte[] standardConvert(Object o, ConversionMode conversionMode) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
+        final ReusableByteArrayOutputStream byteArrayOutputStream = ReusableByteArrayOutputStream.acquire();
         ObjectOutputStream objectOutputStream = null;
 
         try {
-            // we use enum and static calls to avoid object instanciation
-            if (conversionMode == ConversionMode.MARSHALL) {
-                objectOutputStream = new SunMarshalOutputStream(byteArrayOutputStream);
-            } else if (conversionMode == ConversionMode.OBJECT) {
-                objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-            } else if (conversionMode == ConversionMode.PAOBJECT) {
-                throw new UnsupportedOperationException(ConversionMode.PAOBJECT + " is not supported");
-            }
-
+            objectOutputStream = ObjectToByteConverter.newObjectOutputStream(byteArrayOutputStream,
+                                                                             conversionMode);
             ObjectToByteConverter.writeToStream(objectOutputStream, o);
             return byteArrayOutputStream.toByteArray();
         } finally {
@@ -103,7 +108,7 @@ public class ObjectToByteConverter {
             if (objectOutputStream != null) {
                 objectOutputStream.close();
             }
-            byteArrayOutputStream.close();
+            byteArrayOutputStream.release();
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.objectweb.proactive.core.util.converter;
+
+import java.io.ByteArrayOutputStream;
+
+
+/**
+ * A byte array output stream whose buffer is kept by the calling thread from one message to
+ * the next.
+ * <p>
+ * Serializing each message in a new ByteArrayOutputStream allocates a small buffer which is
+ * then grown by copies until the message fits. With a stream acquired by {@link #acquire()}, the
+ * buffer left by the previous messages of the thread is reused, so the only allocation left is
+ * the final byte array. A buffer which has grown beyond {@link #MAX_RETAINED_SIZE} is dropped on
+ * release so that one large message does not pin memory for the lifetime of the thread.
+ * </p><p>
+ * A thread serializing a message while already serializing another one, from a writeObject
+ * method for instance, gets a fresh stream.
+ * </p>
+ *
+ * @author The ProActive Team
+ * @since ProActive 8.4.0
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    static final int INITIAL_SIZE = 1024;
+
+    /**
+     * Largest buffer kept between two messages. A buffer grown from {@link #INITIAL_SIZE} to hold
+     * a 512KB message is 1MB large, so messages up to that size never grow it twice.
+     */
+    static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<ReusableByteArrayOutputStream> streams = new ThreadLocal<ReusableByteArrayOutputStream>() {
+        @Override
+        protected ReusableByteArrayOutputStream initialValue() {
+            return new ReusableByteArrayOutputStream();
+        }
+    };
+
+    private boolean inUse;
+
+    private ReusableByteArrayOutputStream() {
+        super(INITIAL_SIZE);
+    }
+
+    /**
+     * @return an empty stream, to be given back with {@link #release()} once its content has
+     * been read
+     */
+    public static ReusableByteArrayOutputStream acquire() {
+        ReusableByteArrayOutputStream stream = streams.get();
+        if (stream.inUse) {
+            return new ReusableByteArrayOutputStream();
+        }
+        stream.inUse = true;
+        stream.reset();
+        return stream;
+    }
+
+    /**
+     * Gives the stream back to the calling thread. The stream must not be used anymore.
+     */
+    public void release() {
+        this.inUse = false;
+        if (this.buf.length > MAX_RETAINED_SIZE) {
+            this.buf = new byte[INITIAL_SIZE];
+        }
+        this.count = 0;
+    }
+}